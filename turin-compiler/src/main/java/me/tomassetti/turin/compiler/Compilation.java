@@ -10,6 +10,7 @@ import me.tomassetti.jvm.*;
 import me.tomassetti.bytecode_generation.returnop.ReturnVoidBS;
 import me.tomassetti.turin.classloading.ClassFileDefinition;
 import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.parser.analysis.Property;
 import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
 import me.tomassetti.turin.resolvers.ResolverRegistry;
@@ -56,6 +57,8 @@ public class Compilation {
     private static final int JAVA_8_CLASS_VERSION = 52;
     private final CompilationOfPush pushUtils = new CompilationOfPush(this);
     private final CompilationOfStatements compilationOfStatements = new CompilationOfStatements(this);
+    private final FunctionInliner functionInliner = new FunctionInliner(this);
+    // expressions are compared by identity: different nodes with the same content can have different types
     private final static String METHOD_NAME_OF_FUNCTION = "invoke";
 
     private ClassWriter cw;
@@ -63,14 +66,20 @@ public class Compilation {
     private LocalVarsSymbolTable localVarsSymbolTable;
     private String internalClassName;
     private ErrorCollector errorCollector;
+    private Compiler.Options options;
 
     public Compilation(SymbolResolver resolver, ErrorCollector errorCollector) {
+        this(resolver, errorCollector, new Compiler.Options());
+    }
+
+    public Compilation(SymbolResolver resolver, ErrorCollector errorCollector, Compiler.Options options) {
         this.resolver = resolver;
         this.errorCollector = errorCollector;
+        this.options = options;
     }
 
     public List<ClassFileDefinition> compile(TurinFile turinFile) {
-        boolean valid = turinFile.validate(resolver, errorCollector);
+        boolean valid = turinFile.validateMembers(resolver, errorCollector);
 
         if (!valid) {
             return Collections.emptyList();
@@ -78,23 +87,48 @@ public class Compilation {
 
         List<ClassFileDefinition> classFileDefinitions = new ArrayList<>();
 
-        for (Node node : turinFile.getChildren()) {
-            if (node instanceof TurinTypeDefinition) {
-                classFileDefinitions.addAll(compile((TurinTypeDefinition)node));
-            } else if (node instanceof Program) {
-                classFileDefinitions.addAll(compile((Program) node));
-            } else if (node instanceof FunctionDefinitionNode) {
-                classFileDefinitions.addAll(compile((FunctionDefinitionNode) node, turinFile.getNamespaceDefinition()));
-            } else if (node instanceof RelationDefinition) {
-                classFileDefinitions.addAll(compile((RelationDefinition) node, turinFile.getNamespaceDefinition()));
-            } else if (node instanceof ContextDefinitionNode) {
-                classFileDefinitions.addAll(compile((ContextDefinitionNode) node, turinFile.getNamespaceDefinition()));
-            }
+        for (int i = 0; i < turinFile.getChildCount(); i++) {
+            classFileDefinitions.addAll(compileMember(turinFile.getChild(i), turinFile));
         }
 
         return classFileDefinitions;
     }
 
+    /**
+     * Compile only the member of the file with the given name. Only that member and the namespace and the imports of
+     * the file are validated, so the cost does not depend on the rest of the file.
+     */
+    public List<ClassFileDefinition> compile(TurinFile turinFile, String memberName) {
+        Optional<Node> member = turinFile.getMember(memberName);
+        if (!member.isPresent()) {
+            throw new IllegalArgumentException("No member named " + memberName);
+        }
+
+        boolean valid = turinFile.validateMember(member.get(), resolver, errorCollector);
+
+        if (!valid) {
+            return Collections.emptyList();
+        }
+
+        return compileMember(member.get(), turinFile);
+    }
+
+    private List<ClassFileDefinition> compileMember(Node node, TurinFile turinFile) {
+        List<ClassFileDefinition> classFileDefinitions = new ArrayList<>();
+        if (node instanceof TurinTypeDefinition) {
+            classFileDefinitions.addAll(compile((TurinTypeDefinition)node));
+        } else if (node instanceof Program) {
+            classFileDefinitions.addAll(compile((Program) node));
+        } else if (node instanceof FunctionDefinitionNode) {
+            classFileDefinitions.addAll(compile((FunctionDefinitionNode) node, turinFile.getNamespaceDefinition()));
+        } else if (node instanceof RelationDefinition) {
+            classFileDefinitions.addAll(compile((RelationDefinition) node, turinFile.getNamespaceDefinition()));
+        } else if (node instanceof ContextDefinitionNode) {
+            classFileDefinitions.addAll(compile((ContextDefinitionNode) node, turinFile.getNamespaceDefinition()));
+        }
+        return classFileDefinitions;
+    }
+
     private Collection<? extends ClassFileDefinition> compile(ContextDefinitionNode contextDefinition, NamespaceDefinition namespaceDefinition) {
         String canonicalClassName = namespaceDefinition.getName() + "." + ContextDefinitionNode.CLASS_PREFIX + contextDefinition.getName();
         String internalClassName = JvmNameUtils.canonicalToInternal(canonicalClassName);
@@ -314,14 +348,15 @@ public class Compilation {
             cw.visitAnnotation(annotation.getDescriptor(resolver), true);
         }
 
-        generateInvokable(functionDefinition, METHOD_NAME_OF_FUNCTION, true);
+        generateInvokable(functionDefinition, METHOD_NAME_OF_FUNCTION, true, false);
 
         return ImmutableList.of(endClass(canonicalClassName));
     }
 
-    private void generateField(Property property) {
+    private void generateField(Property property, boolean immutable) {
         JvmType jvmType = property.getTypeUsage().jvmType();
-        FieldVisitor fv = cw.visitField(ACC_PRIVATE, property.getName(), jvmType.getDescriptor(), jvmType.getSignature(), null);
+        int access = immutable ? (ACC_PRIVATE + ACC_FINAL) : ACC_PRIVATE;
+        FieldVisitor fv = cw.visitField(access, property.getName(), jvmType.getDescriptor(), jvmType.getSignature(), null);
         fv.visitEnd();
     }
 
@@ -399,7 +434,12 @@ public class Compilation {
         String[] interfaces = typeDefinition.getInterfaces().stream()
                 .map((i)->JvmNameUtils.canonicalToInternal(i.asReferenceTypeUsage().getQualifiedName()))
                 .collect(Collectors.toList()).toArray(new String[]{});
-        cw.visit(JAVA_8_CLASS_VERSION, ACC_PUBLIC + ACC_SUPER, internalClassName, null, superClassInternalName, interfaces);
+        // types not extended in the sources are final, so that the JVM can bind their methods statically
+        int typeModifiers = ACC_PUBLIC + ACC_SUPER;
+        if (!canBeExtended(typeDefinition)) {
+            typeModifiers += ACC_FINAL;
+        }
+        cw.visit(JAVA_8_CLASS_VERSION, typeModifiers, internalClassName, null, superClassInternalName, interfaces);
 
         for (AnnotationUsage annotation : typeDefinition.getAnnotations()) {
             cw.visitAnnotation(annotation.getDescriptor(resolver), true);
@@ -407,9 +447,12 @@ public class Compilation {
 
         // TODO consider if the property is readable and writable
         for (Property property : typeDefinition.getDirectProperties(resolver)){
-            generateField(property);
+            generateField(property, typeDefinition.isImmutable());
             generateGetter(property, internalClassName, resolver);
-            new CompilationOfGeneratedMethods(this, cw).generateSetter(property, internalClassName);
+            // immutable types can be modified only through the constructor
+            if (!typeDefinition.isImmutable()) {
+                new CompilationOfGeneratedMethods(this, cw).generateSetter(property, internalClassName);
+            }
         }
 
         if (!typeDefinition.defineExplicitConstructor(resolver)) {
@@ -433,11 +476,52 @@ public class Compilation {
     }
 
     private void generateTurinTypeMethod(TurinTypeMethodDefinitionNode methodDefinition) {
-        generateInvokable(methodDefinition, methodDefinition.getName(), false);
+        TurinTypeDefinition typeDefinition = methodDefinition.getParentOfType(TurinTypeDefinition.class);
+        boolean isFinal = !isOverridden(typeDefinition, methodDefinition.getName(), methodDescriptor(methodDefinition));
+        generateInvokable(methodDefinition, methodDefinition.getName(), false, isFinal);
+    }
+
+    private boolean canBeExtended(TurinTypeDefinition typeDefinition) {
+        if (!options.isInferFinal()) {
+            return true;
+        }
+        Optional<List<TypeDefinition>> subclasses = resolver.findDirectSubclassesInSources(typeDefinition.getQualifiedName());
+        return !subclasses.isPresent() || !subclasses.get().isEmpty();
+    }
+
+    /**
+     * Consider all the types extending the given one, directly or indirectly, in the sources being compiled.
+     * When the subclasses are not known the method could be overridden.
+     */
+    private boolean isOverridden(TurinTypeDefinition typeDefinition, String methodName, String methodDescriptor) {
+        if (!options.isInferFinal()) {
+            return true;
+        }
+        Optional<List<TypeDefinition>> subclasses = resolver.findDirectSubclassesInSources(typeDefinition.getQualifiedName());
+        if (!subclasses.isPresent()) {
+            return true;
+        }
+        for (TypeDefinition subclass : subclasses.get()) {
+            TurinTypeDefinition turinSubclass = (TurinTypeDefinition) subclass;
+            for (TurinTypeMethodDefinitionNode method : turinSubclass.getDirectMethods()) {
+                if (method.getName().equals(methodName) && methodDescriptor(method).equals(methodDescriptor)) {
+                    return true;
+                }
+            }
+            if (isOverridden(turinSubclass, methodName, methodDescriptor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String methodDescriptor(InvokableDefinitionNode invokableDefinition) {
+        String paramsDescriptor = String.join("", invokableDefinition.getParameters().stream().map((dp) -> dp.getType().jvmType().getDescriptor()).collect(Collectors.toList()));
+        return "(" + paramsDescriptor + ")" + invokableDefinition.getReturnType().jvmType().getDescriptor();
     }
 
     private void generateTurinTypeConstructor(TurinTypeContructorDefinitionNode methodDefinition) {
-        generateInvokable(methodDefinition, "<init>", false);
+        generateInvokable(methodDefinition, "<init>", false, false);
     }
 
     void addDefaultParamAnnotations(MethodVisitor mv, List<? extends FormalParameter> formalParameters) {
@@ -454,22 +538,24 @@ public class Compilation {
         }
     }
 
-    private void generateInvokable(InvokableDefinitionNode invokableDefinition, String invokableName, boolean isStatic) {
+    private void generateInvokable(InvokableDefinitionNode invokableDefinition, String invokableName, boolean isStatic, boolean isFinal) {
         if (isStatic) {
             localVarsSymbolTable = LocalVarsSymbolTable.forStaticMethod();
         } else {
             localVarsSymbolTable = LocalVarsSymbolTable.forInstanceMethod();
         }
 
-        String paramsDescriptor = String.join("", invokableDefinition.getParameters().stream().map((dp) -> dp.getType().jvmType().getDescriptor()).collect(Collectors.toList()));
         String paramsSignature = String.join("", invokableDefinition.getParameters().stream().map((dp) -> dp.getType().jvmType().getSignature()).collect(Collectors.toList()));
-        String methodDescriptor = "(" + paramsDescriptor + ")" + invokableDefinition.getReturnType().jvmType().getDescriptor();
+        String methodDescriptor = methodDescriptor(invokableDefinition);
         String methodSignature = "(" + paramsSignature + ")" + invokableDefinition.getReturnType().jvmType().getSignature();
         // TODO consider exceptions
         int modifiers = ACC_PUBLIC;
         if (isStatic) {
             modifiers = modifiers | ACC_STATIC;
         }
+        if (isFinal) {
+            modifiers = modifiers | ACC_FINAL;
+        }
         MethodVisitor mv = cw.visitMethod(modifiers, invokableName, methodDescriptor, methodSignature, null);
 
         addDefaultParamAnnotations(mv, invokableDefinition.getParameters());
@@ -481,7 +567,7 @@ public class Compilation {
         Label end = new Label();
         mv.visitLabel(start);
         for (FormalParameter formalParameter : invokableDefinition.getParameters()) {
-            int index = localVarsSymbolTable.add(formalParameter.getName(), formalParameter);
+            int index = localVarsSymbolTable.add(formalParameter.getName(), formalParameter, formalParameter.getType().jvmType());
             mv.visitLocalVariable(formalParameter.getName(),
                     formalParameter.getType().jvmType().getDescriptor(),
                     formalParameter.getType().jvmType().getSignature(),
@@ -589,4 +675,19 @@ public class Compilation {
     public CompilationOfPush getPushUtils() {
         return pushUtils;
     }
+
+    FunctionInliner getFunctionInliner() {
+        return functionInliner;
+    }
+
+    Compiler.Options getOptions() {
+        return options;
+    }
+
+    /**
+     * Describe which function calls were inlined and which were not.
+     */
+    public List<String> getInliningReport() {
+        return functionInliner.report();
+    }
 }
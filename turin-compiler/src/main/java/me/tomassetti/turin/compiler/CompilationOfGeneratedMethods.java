@@ -12,20 +12,31 @@ import me.tomassetti.turin.definitions.InternalConstructorDefinition;
 import me.tomassetti.turin.parser.analysis.Property;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.FormalParameterNode;
+import me.tomassetti.turin.parser.ast.expressions.Creation;
+import me.tomassetti.turin.parser.ast.expressions.Expression;
+import me.tomassetti.turin.parser.ast.expressions.StringInterpolation;
+import me.tomassetti.turin.parser.ast.expressions.literals.*;
 import me.tomassetti.turin.parser.ast.properties.PropertyConstraint;
 import me.tomassetti.turin.parser.ast.TurinTypeDefinition;
 import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
 import me.tomassetti.turin.symbols.FormalParameter;
 import me.tomassetti.turin.typesystem.UnsignedPrimitiveTypeUsage;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class CompilationOfGeneratedMethods {
+    // this name cannot clash with the name of a property
+    static final String HASH_CODE_CACHE_FIELD = "$hashCode";
+
     private final Compilation compilation;
 
     private ClassWriter cw;
@@ -36,7 +47,19 @@ public class CompilationOfGeneratedMethods {
     }
 
     private void enforceConstraint(Property property, MethodVisitor mv, BytecodeSequence getValue) {
-        if (property.getTypeUsage().sameType(UnsignedPrimitiveTypeUsage.UINT)
+        enforceConstraint(property, mv, getValue, Optional.empty());
+    }
+
+    /**
+     * @param assignedValue the expression which produced the value, when it is known at compile time. It is used to
+     *                      skip the checks which are satisfied for sure
+     */
+    private void enforceConstraint(Property property, MethodVisitor mv, BytecodeSequence getValue, Optional<Expression> assignedValue) {
+        if (assignedValue.isPresent()
+                && (isProvablyNotNegative(assignedValue.get()) || isProvablyNotNull(assignedValue.get()))) {
+            // non-negative literals satisfy the constraint of unsigned types, while literals and instantiations
+            // satisfy the one of references: no need to check them at runtime
+        } else if (property.getTypeUsage().sameType(UnsignedPrimitiveTypeUsage.UINT)
                 || property.getTypeUsage().sameType(UnsignedPrimitiveTypeUsage.UBYTE)
                 || property.getTypeUsage().sameType(UnsignedPrimitiveTypeUsage.USHORT)) {
             getValue.operate(mv);
@@ -109,34 +132,62 @@ public class CompilationOfGeneratedMethods {
             mv.visitLabel(label);
         }
         for (PropertyConstraint constraint : property.getConstraints()) {
+            if (isAlwaysTrue(constraint.getCondition())) {
+                continue;
+            }
             compilation.getLocalVarsSymbolTable().recordAlias("placeholder", getValue);
 
-            compilation.getPushUtils().pushExpression(constraint.getCondition()).operate(mv);
+            // the condition is evaluated only once, by the if
             JvmConstructorDefinition constructor = new JvmConstructorDefinition("java/lang/IllegalArgumentException", "(Ljava/lang/String;)V");
             BytecodeSequence instantiateException = new NewInvocationBS(constructor, compilation.getPushUtils().pushExpression(constraint.getMessage()));
             new IfBS(new LogicalNotBS(compilation.getPushUtils().pushExpression(constraint.getCondition())), new ThrowBS(instantiateException)).operate(mv);
         }
     }
 
-    private void enforceConstraint(Property property, MethodVisitor mv, JvmType jvmType, int varIndex) {
-        enforceConstraint(property, mv, new BytecodeSequence() {
-            @Override
-            public void operate(MethodVisitor mv) {
-                mv.visitVarInsn(OpcodesUtils.loadTypeFor(jvmType), varIndex + 1);
-            }
-        });
+    private boolean isProvablyNotNull(Expression value) {
+        return value instanceof StringLiteral || value instanceof StringInterpolation || value instanceof Creation;
+    }
+
+    private boolean isProvablyNotNegative(Expression value) {
+        if (value instanceof IntLiteral) {
+            return ((IntLiteral) value).getValue() >= 0;
+        } else if (value instanceof ShortLiteral) {
+            return ((ShortLiteral) value).getValue() >= 0;
+        } else if (value instanceof ByteLiteral) {
+            return ((ByteLiteral) value).getValue() >= 0;
+        } else if (value instanceof LongLiteral) {
+            return ((LongLiteral) value).getValue() >= 0;
+        } else if (value instanceof FloatLiteral) {
+            return ((FloatLiteral) value).getValue() >= 0;
+        } else if (value instanceof DoubleLiteral) {
+            return ((DoubleLiteral) value).getValue() >= 0;
+        } else {
+            return false;
+        }
+    }
+
+    private boolean isAlwaysTrue(Expression condition) {
+        return condition instanceof BooleanLiteral && ((BooleanLiteral) condition).getValue();
     }
 
-    private void addLocalVarForFormalParameter(FormalParameterNode formalParameter, Label start, Label end, MethodVisitor mv) {
-       if (!formalParameter.hasDefaultValue()) {
-            int index = compilation.getLocalVarsSymbolTable().add(formalParameter.getName(), formalParameter);
-            mv.visitLocalVariable(formalParameter.getName(),
-                    formalParameter.getType().jvmType().getDescriptor(),
-                    formalParameter.getType().jvmType().getSignature(),
-                    start,
-                    end,
-                    index);
-       }
+    private void enforceConstraint(Property property, MethodVisitor mv, JvmType jvmType, int localVarIndex) {
+        enforceConstraint(property, mv, new PushLocalVar(OpcodesUtils.loadTypeFor(jvmType), localVarIndex));
+    }
+
+    /**
+     * Add the parameter to the local variables, taking as many slots as its type needs, and return the index of
+     * its first slot.
+     */
+    private int addLocalVarForFormalParameter(FormalParameter formalParameter, Label start, Label end, MethodVisitor mv) {
+        JvmType jvmType = formalParameter.getType().jvmType();
+        int index = compilation.getLocalVarsSymbolTable().add(formalParameter.getName(), formalParameter, jvmType);
+        mv.visitLocalVariable(formalParameter.getName(),
+                jvmType.getDescriptor(),
+                jvmType.getSignature(),
+                start,
+                end,
+                index);
+        return index;
     }
 
     void generateSetter(Property property, String internalClassName) {
@@ -152,19 +203,15 @@ public class CompilationOfGeneratedMethods {
         TypeUsageNode typeUsageCopy = property.getTypeUsage().copy();
         FormalParameterNode formalParameter = new FormalParameterNode(typeUsageCopy, property.getName());
         formalParameter.setParent(property.getParent());
-        addLocalVarForFormalParameter(formalParameter, start, end, mv);
+        int index = addLocalVarForFormalParameter(formalParameter, start, end, mv);
 
         mv.visitCode();
 
-        compilation.getLocalVarsSymbolTable().add(property.getName(), new FormalParameterNode(property.getTypeUsage().copy(), property.getName()));
-
-        compilation.getLocalVarsSymbolTable().recordAlias("placeholder",
-                new PushLocalVar(OpcodesUtils.loadTypeFor(jvmType), 1));
-        enforceConstraint(property, mv, jvmType, 0);
+        enforceConstraint(property, mv, jvmType, index);
 
         // Assignment
         PushThis.getInstance().operate(mv);
-        mv.visitVarInsn(OpcodesUtils.loadTypeFor(jvmType), 1);
+        mv.visitVarInsn(OpcodesUtils.loadTypeFor(jvmType), index);
         mv.visitFieldInsn(Opcodes.PUTFIELD, internalClassName, property.getName(), jvmType.getDescriptor());
         mv.visitInsn(Opcodes.RETURN);
         mv.visitLabel(end);
@@ -198,8 +245,9 @@ public class CompilationOfGeneratedMethods {
 
         String paramsDescriptor = String.join("", formalParametersWithoutDefaults.stream().map((p) -> p.getType().jvmType().getDescriptor()).collect(Collectors.toList()));
         String paramsSignature = String.join("", formalParametersWithoutDefaults.stream().map((p) -> p.getType().jvmType().getSignature()).collect(Collectors.toList()));
-        if (typeDefinition.hasDefaultProperties(resolver) ||
-                (superConstructor!=null && superConstructor.hasDefaultParams())) {
+        boolean hasMapOfDefaults = typeDefinition.hasDefaultProperties(resolver) ||
+                (superConstructor!=null && superConstructor.hasDefaultParams());
+        if (hasMapOfDefaults) {
             paramsDescriptor += "Ljava/util/Map;";
             paramsSignature  += "Ljava/util/Map<Ljava/lang/String;Ljava/lang/Object;>;";
         }
@@ -214,16 +262,15 @@ public class CompilationOfGeneratedMethods {
         Label start = new Label();
         Label end = new Label();
         mv.visitLabel(start);
-        for (FormalParameter formalParameter : typeDefinition.getOnlyConstructor(resolver).getFormalParameters()) {
-            if (!formalParameter.hasDefaultValue()) {
-                int index = compilation.getLocalVarsSymbolTable().add(formalParameter.getName(), formalParameter);
-                mv.visitLocalVariable(formalParameter.getName(),
-                        formalParameter.getType().jvmType().getDescriptor(),
-                        formalParameter.getType().jvmType().getSignature(),
-                        start,
-                        end,
-                        index);
-            }
+        // the slots of the parameters: long and double values take two of them
+        List<Integer> parameterIndexes = new ArrayList<>();
+        for (FormalParameter formalParameter : formalParametersWithoutDefaults) {
+            parameterIndexes.add(addLocalVarForFormalParameter(formalParameter, start, end, mv));
+        }
+        // the map is reserved too, so that the code inlined in the constructor does not use its slot
+        int indexOfMapOfDefaults = -1;
+        if (hasMapOfDefaults) {
+            indexOfMapOfDefaults = compilation.getLocalVarsSymbolTable().reserve(new JvmType("Ljava/util/Map;"));
         }
 
         //
@@ -234,20 +281,19 @@ public class CompilationOfGeneratedMethods {
         if (superConstructor == null) {
             mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Compilation.OBJECT_INTERNAL_NAME, "<init>", "()V", false);
         } else {
-            // push all explicitly passed parameters
-            int index = 1;
+            // push all explicitly passed parameters: they are the first parameters of this constructor
+            int i = 0;
             for (FormalParameter formalParameter : superConstructor.getFormalParameters()){
                 if (!formalParameter.hasDefaultValue()) {
                     JvmType jvmType = formalParameter.getType().jvmType();
-                    new PushLocalVar(OpcodesUtils.loadTypeFor(jvmType), index).operate(mv);
-                    index++;
+                    new PushLocalVar(OpcodesUtils.loadTypeFor(jvmType), parameterIndexes.get(i)).operate(mv);
+                    i++;
                 }
             }
             // push the map if it has default values
             if (superConstructor.hasDefaultParams()) {
                 // push the map which is in the parameters after all the formal parameters
-                index = formalParametersWithoutDefaults.size() + 1;
-                new PushLocalVar(Opcodes.ALOAD, index).operate(mv);
+                new PushLocalVar(Opcodes.ALOAD, indexOfMapOfDefaults).operate(mv);
             }
 
 
@@ -267,7 +313,8 @@ public class CompilationOfGeneratedMethods {
         if (superConstructor != null) {
             startIndex = (int)superConstructor.getFormalParameters().stream().filter((p)->!p.hasDefaultValue()).count();
         }
-        assignPropertiesPassedExplicitely(typeDefinition, className, resolver, directPropertiesAsParameters, mv, startIndex);
+        assignPropertiesPassedExplicitely(typeDefinition, className, resolver, directPropertiesAsParameters, mv,
+                parameterIndexes.subList(startIndex, parameterIndexes.size()));
 
         //
         // Assign the properties with initial value
@@ -278,7 +325,6 @@ public class CompilationOfGeneratedMethods {
         // now we should get values from the defaultParamsMap and assign them
         // to fields
         if (typeDefinition.hasDefaultProperties(resolver)) {
-            int indexOfMapOfDefaults = formalParametersWithoutDefaults.size() + 1;
             assignDefaultPropertiesFromMapParam(typeDefinition, className, resolver, mv, indexOfMapOfDefaults);
         }
 
@@ -331,9 +377,23 @@ public class CompilationOfGeneratedMethods {
                             mv.visitFieldInsn(Opcodes.PUTFIELD, className, property.getName(), jvmType.getDescriptor());
                         }
                     });
-            new IfBS(isPropertyInMap, assignPropertyFromMap, assignPropertyFromDefaultValue).operate(mv);
+            // the value coming from the map is always checked, while the default value only when it is not provably valid
             JvmFieldDefinition jvmFieldDefinition = new JvmFieldDefinition(className, property.getName(), property.getTypeUsage().jvmType().getDescriptor(),false);
-            enforceConstraint(property, mv, new PushInstanceField(jvmFieldDefinition));
+            BytecodeSequence checkValueFromMap = new BytecodeSequence() {
+                @Override
+                public void operate(MethodVisitor mv) {
+                    enforceConstraint(property, mv, new PushInstanceField(jvmFieldDefinition));
+                }
+            };
+            BytecodeSequence checkDefaultValue = new BytecodeSequence() {
+                @Override
+                public void operate(MethodVisitor mv) {
+                    enforceConstraint(property, mv, new PushInstanceField(jvmFieldDefinition), property.getDefaultValue());
+                }
+            };
+            new IfBS(isPropertyInMap,
+                    new ComposedBytecodeSequence(assignPropertyFromMap, checkValueFromMap),
+                    new ComposedBytecodeSequence(assignPropertyFromDefaultValue, checkDefaultValue)).operate(mv);
         }
     }
 
@@ -347,23 +407,24 @@ public class CompilationOfGeneratedMethods {
             compilation.getPushUtils().pushExpression(property.getInitialValue().get()).operate(mv);
             mv.visitFieldInsn(Opcodes.PUTFIELD, className, property.getName(), jvmType.getDescriptor());
             JvmFieldDefinition jvmFieldDefinition = new JvmFieldDefinition(className, property.getName(), property.getTypeUsage().jvmType().getDescriptor(),false);
-            enforceConstraint(property, mv, new PushInstanceField(jvmFieldDefinition));
+            enforceConstraint(property, mv, new PushInstanceField(jvmFieldDefinition), property.getInitialValue());
         }
     }
 
     private void assignPropertiesPassedExplicitely(TurinTypeDefinition typeDefinition, String className, SymbolResolver resolver,
-                                                   List<Property> directPropertiesAsParameters, MethodVisitor mv, int startIndex) {
-        int propIndex = startIndex;
+                                                   List<Property> directPropertiesAsParameters, MethodVisitor mv,
+                                                   List<Integer> parameterIndexes) {
+        int propIndex = 0;
         for (Property property : directPropertiesAsParameters) {
-            enforceConstraint(property, mv, property.getTypeUsage().jvmType(), propIndex);
+            enforceConstraint(property, mv, property.getTypeUsage().jvmType(), parameterIndexes.get(propIndex));
             propIndex++;
         }
 
-        propIndex = startIndex;
+        propIndex = 0;
         for (Property property : typeDefinition.propertiesAppearingInDefaultConstructor(resolver)) {
             JvmType jvmType = property.getTypeUsage().jvmType();
             mv.visitVarInsn(Opcodes.ALOAD, Compilation.LOCALVAR_INDEX_FOR_THIS_IN_METHOD);
-            mv.visitVarInsn(OpcodesUtils.loadTypeFor(jvmType), propIndex + 1);
+            mv.visitVarInsn(OpcodesUtils.loadTypeFor(jvmType), parameterIndexes.get(propIndex));
             mv.visitFieldInsn(Opcodes.PUTFIELD, className, property.getName(), jvmType.getDescriptor());
             propIndex++;
         }
@@ -401,37 +462,40 @@ public class CompilationOfGeneratedMethods {
         final int localvar_index_for_other = 2;
         mv.visitVarInsn(Opcodes.ASTORE, localvar_index_for_other);
 
-        // if (!this.aField.equals(other.aField)) return false;
-        for (Property property : typeDefinition.getAllProperties(compilation.getResolver())) {
+        // if (!Objects.equals(this.aField, other.aField)) return false;
+        // the cheapest comparisons come first, so that we can bail out as soon as possible
+        for (Property property : propertiesByComparisonCost(typeDefinition.getAllProperties(compilation.getResolver()))) {
             TypeUsageNode propertyTypeUsage = property.getTypeUsage();
             String fieldTypeDescriptor = propertyTypeUsage.jvmType().getDescriptor();
 
             mv.visitVarInsn(Opcodes.ALOAD, Compilation.LOCALVAR_INDEX_FOR_THIS_IN_METHOD);
             mv.visitFieldInsn(Opcodes.GETFIELD, internalClassName, property.getName(), fieldTypeDescriptor);
+            if (propertyTypeUsage.isPrimitive()) {
+                pushFloatingPointBits(propertyTypeUsage, mv);
+            }
             mv.visitVarInsn(Opcodes.ALOAD, localvar_index_for_other);
             mv.visitFieldInsn(Opcodes.GETFIELD, internalClassName, property.getName(), fieldTypeDescriptor);
+            if (propertyTypeUsage.isPrimitive()) {
+                pushFloatingPointBits(propertyTypeUsage, mv);
+            }
             Label propertyIsEqual = new Label();
 
             if (propertyTypeUsage.isPrimitive()) {
-                if (propertyTypeUsage.asPrimitiveTypeUsage().isLong()) {
+                // float and double have been converted to their bits, as Float.equals and Double.equals do
+                if (propertyTypeUsage.asPrimitiveTypeUsage().isLong() || propertyTypeUsage.asPrimitiveTypeUsage().isDouble()) {
                     mv.visitInsn(Opcodes.LCMP);
                     mv.visitJumpInsn(Opcodes.IFEQ, propertyIsEqual);
-                } else if (propertyTypeUsage.asPrimitiveTypeUsage().isFloat()) {
-                    mv.visitInsn(Opcodes.FCMPL);
-                    mv.visitJumpInsn(Opcodes.IFEQ, propertyIsEqual);
-                } else if (propertyTypeUsage.asPrimitiveTypeUsage().isDouble()) {
-                    mv.visitInsn(Opcodes.DCMPL);
-                    mv.visitJumpInsn(Opcodes.IFEQ, propertyIsEqual);
                 } else {
                     mv.visitJumpInsn(Opcodes.IF_ICMPEQ, propertyIsEqual);
                 }
+            } else if (propertyTypeUsage.isArray()) {
+                // arrays are compared by content, not by identity
+                String arrayDescriptor = arrayDescriptorForArraysUtils(propertyTypeUsage);
+                String methodName = propertyTypeUsage.asArrayTypeUsage().getComponentType().isPrimitive() ? "equals" : "deepEquals";
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Arrays", methodName, "(" + arrayDescriptor + arrayDescriptor + ")Z", false);
+                mv.visitJumpInsn(Opcodes.IFNE, propertyIsEqual);
             } else {
-                boolean isInterface = propertyTypeUsage.asReferenceTypeUsage().isInterface(compilation.getResolver());
-                if (isInterface) {
-                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, propertyTypeUsage.jvmType().getInternalName(), "equals", "(Ljava/lang/Object;)Z", true);
-                } else {
-                    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, propertyTypeUsage.jvmType().getInternalName(), "equals", "(Ljava/lang/Object;)Z", false);
-                }
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Objects", "equals", "(" + Compilation.OBJECT_DESCRIPTOR + Compilation.OBJECT_DESCRIPTOR + ")Z", false);
                 mv.visitJumpInsn(Opcodes.IFNE, propertyIsEqual);
             }
 
@@ -452,12 +516,31 @@ public class CompilationOfGeneratedMethods {
 
         final int localvar_index_of_result = 1;
 
+        // immutable types calculate the hash code at most once: as for String the cache is racy but benign,
+        // because every thread would calculate the same value
+        if (typeDefinition.isImmutable()) {
+            FieldVisitor fv = cw.visitField(Opcodes.ACC_PRIVATE + Opcodes.ACC_TRANSIENT + Opcodes.ACC_SYNTHETIC,
+                    HASH_CODE_CACHE_FIELD, "I", null, null);
+            fv.visitEnd();
+
+            // if (this.$hashCode != 0) return this.$hashCode;
+            mv.visitVarInsn(Opcodes.ALOAD, Compilation.LOCALVAR_INDEX_FOR_THIS_IN_METHOD);
+            mv.visitFieldInsn(Opcodes.GETFIELD, internalClassName, HASH_CODE_CACHE_FIELD, "I");
+            mv.visitVarInsn(Opcodes.ISTORE, localvar_index_of_result);
+            mv.visitVarInsn(Opcodes.ILOAD, localvar_index_of_result);
+            Label hashCodeNotCalculated = new Label();
+            mv.visitJumpInsn(Opcodes.IFEQ, hashCodeNotCalculated);
+            mv.visitVarInsn(Opcodes.ILOAD, localvar_index_of_result);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(hashCodeNotCalculated);
+        }
+
         // int result = 1;
         mv.visitInsn(Opcodes.ICONST_1);
         mv.visitVarInsn(Opcodes.ISTORE, localvar_index_of_result);
 
         for (Property property : typeDefinition.getAllProperties(compilation.getResolver())) {
-            // result = 31 * result + this.aField.hashCode();
+            // result = 31 * result + hash(this.aField);
             TypeUsageNode propertyTypeUsage = property.getTypeUsage();
             String fieldTypeDescriptor = propertyTypeUsage.jvmType().getDescriptor();
 
@@ -470,28 +553,45 @@ public class CompilationOfGeneratedMethods {
             mv.visitFieldInsn(Opcodes.GETFIELD, internalClassName, property.getName(), fieldTypeDescriptor);
 
             if (propertyTypeUsage.isPrimitive()) {
-                if (propertyTypeUsage.asPrimitiveTypeUsage().isLong()) {
-                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Long", "hashCode", "(J)I", false);
-                } else if (propertyTypeUsage.asPrimitiveTypeUsage().isFloat()) {
-                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Float", "hashCode", "(F)I", false);
-                } else if (propertyTypeUsage.asPrimitiveTypeUsage().isDouble()) {
-                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Double", "hashCode", "(D)I", false);
+                pushFloatingPointBits(propertyTypeUsage, mv);
+                if (propertyTypeUsage.asPrimitiveTypeUsage().isLong() || propertyTypeUsage.asPrimitiveTypeUsage().isDouble()) {
+                    // (int)(value ^ (value >>> 32)), the same value calculated by Long.hashCode
+                    mv.visitInsn(Opcodes.DUP2);
+                    mv.visitIntInsn(Opcodes.BIPUSH, 32);
+                    mv.visitInsn(Opcodes.LUSHR);
+                    mv.visitInsn(Opcodes.LXOR);
+                    mv.visitInsn(Opcodes.L2I);
+                } else if (propertyTypeUsage.asPrimitiveTypeUsage().isBoolean()) {
+                    // value ? 1231 : 1237, the same value calculated by Boolean.hashCode
+                    Label isFalse = new Label();
+                    Label hashed = new Label();
+                    mv.visitJumpInsn(Opcodes.IFEQ, isFalse);
+                    mv.visitIntInsn(Opcodes.SIPUSH, 1231);
+                    mv.visitJumpInsn(Opcodes.GOTO, hashed);
+                    mv.visitLabel(isFalse);
+                    mv.visitIntInsn(Opcodes.SIPUSH, 1237);
+                    mv.visitLabel(hashed);
                 } else {
                     // nothing to do, the value is already on the stack and we can sum it directly
                 }
+            } else if (propertyTypeUsage.isArray()) {
+                String methodName = propertyTypeUsage.asArrayTypeUsage().getComponentType().isPrimitive() ? "hashCode" : "deepHashCode";
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Arrays", methodName, "(" + arrayDescriptorForArraysUtils(propertyTypeUsage) + ")I", false);
             } else {
-                boolean isInterface = propertyTypeUsage.asReferenceTypeUsage().isInterface(compilation.getResolver());
-                if (isInterface) {
-                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, propertyTypeUsage.jvmType().getInternalName(), "hashCode", "()I", true);
-                } else {
-                    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, propertyTypeUsage.jvmType().getInternalName(), "hashCode", "()I", false);
-                }
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Objects", "hashCode", "(" + Compilation.OBJECT_DESCRIPTOR + ")I", false);
             }
 
             mv.visitInsn(Opcodes.IADD);
             mv.visitVarInsn(Opcodes.ISTORE, localvar_index_of_result);
         }
 
+        if (typeDefinition.isImmutable()) {
+            // this.$hashCode = result;
+            mv.visitVarInsn(Opcodes.ALOAD, Compilation.LOCALVAR_INDEX_FOR_THIS_IN_METHOD);
+            mv.visitVarInsn(Opcodes.ILOAD, localvar_index_of_result);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, internalClassName, HASH_CODE_CACHE_FIELD, "I");
+        }
+
         // return result;
         mv.visitVarInsn(Opcodes.ILOAD, localvar_index_of_result);
         mv.visitInsn(Opcodes.IRETURN);
@@ -500,4 +600,48 @@ public class CompilationOfGeneratedMethods {
         mv.visitMaxs(0, 0);
         mv.visitEnd();
     }
-}
\ No newline at end of file
+
+    /**
+     * Floats and doubles are compared and hashed considering their bits, as Float and Double do.
+     * This way NaN is equal to itself and equals is consistent with hashCode.
+     */
+    private void pushFloatingPointBits(TypeUsageNode propertyTypeUsage, MethodVisitor mv) {
+        if (propertyTypeUsage.asPrimitiveTypeUsage().isFloat()) {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Float", "floatToIntBits", "(F)I", false);
+        } else if (propertyTypeUsage.asPrimitiveTypeUsage().isDouble()) {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Double", "doubleToLongBits", "(D)J", false);
+        }
+    }
+
+    /**
+     * java.util.Arrays has overloads for arrays of primitives, all the other arrays are treated as Object[].
+     */
+    private String arrayDescriptorForArraysUtils(TypeUsageNode arrayTypeUsage) {
+        if (arrayTypeUsage.asArrayTypeUsage().getComponentType().isPrimitive()) {
+            return arrayTypeUsage.jvmType().getDescriptor();
+        } else {
+            return "[" + Compilation.OBJECT_DESCRIPTOR;
+        }
+    }
+
+    /**
+     * Order the properties so that the ones cheaper to compare come first: values stored in int, then the other
+     * primitives, then references and finally arrays. The order is stable within each group.
+     */
+    private List<Property> propertiesByComparisonCost(List<Property> properties) {
+        return properties.stream()
+                .sorted(Comparator.comparingInt(this::comparisonCost))
+                .collect(Collectors.toList());
+    }
+
+    private int comparisonCost(Property property) {
+        TypeUsageNode typeUsage = property.getTypeUsage();
+        if (typeUsage.isPrimitive()) {
+            return typeUsage.asPrimitiveTypeUsage().isStoredInInt() ? 0 : 1;
+        } else if (typeUsage.isArray()) {
+            return 3;
+        } else {
+            return 2;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import me.tomassetti.turin.resolvers.jdk.ReflectionBasedSetOfOverloadedMethods;
 import me.tomassetti.turin.parser.ast.expressions.relations.AccessEndpoint;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.NodeDispatcher;
 import me.tomassetti.turin.parser.ast.Placeholder;
 import me.tomassetti.turin.parser.ast.expressions.*;
 import me.tomassetti.turin.parser.ast.expressions.literals.*;
@@ -112,163 +113,158 @@ public class CompilationOfPush {
         }
     }
 
+    private static final NodeDispatcher<CompilationOfPush, Expression, BytecodeSequence> PUSH_EXPRESSION = NodeDispatcher.<CompilationOfPush, Expression, BytecodeSequence>builder()
+            .on(ByteLiteral.class, (c, e) -> new PushIntConst(e.getValue()))
+            .on(ShortLiteral.class, (c, e) -> new PushIntConst(e.getValue()))
+            .on(IntLiteral.class, (c, e) -> new PushIntConst(e.getValue()))
+            .on(LongLiteral.class, (c, e) -> new PushLongConst(e.getValue()))
+            .on(FloatLiteral.class, (c, e) -> new PushFloatConst(e.getValue()))
+            .on(DoubleLiteral.class, (c, e) -> new PushDoubleConst(e.getValue()))
+            .on(StringLiteral.class, (c, e) -> new PushStringConst(e.getValue()))
+            .on(BooleanLiteral.class, (c, e) -> new PushBoolean(e.getValue()))
+            .on(StaticFieldAccess.class, (c, e) -> new PushStaticField(e.toJvmField(c.compilation.getResolver())))
+            .on(StringInterpolation.class, CompilationOfPush::pushStringInterpolation)
+            .on(ValueReference.class, CompilationOfPush::pushValueReference)
+            .on(MathOperation.class, CompilationOfPush::pushMathOperation)
+            .on(LogicOperation.class, CompilationOfPush::pushLogicOperation)
+            .on(NotOperation.class, (c, e) -> new ComposedBytecodeSequence(ImmutableList.of(c.pushExpression(e.getValue()), new LogicalNotBS())))
+            .on(RelationalOperation.class, (c, e) -> new ComposedBytecodeSequence(ImmutableList.of(
+                    c.pushExpression(e.getLeft()),
+                    c.pushExpression(e.getRight()),
+                    BytecodeUtils.createRelationOperation(e.getOperator()))))
+            .on(FunctionCall.class, CompilationOfPush::pushFunctionCall)
+            .on(Creation.class, CompilationOfPush::pushCreation)
+            .on(ArrayAccess.class, (c, e) -> new ComposedBytecodeSequence(ImmutableList.of(
+                    c.pushExpression(e.getArray()),
+                    c.pushExpression(e.getIndex()),
+                    new ArrayAccessBS(e.calcType().jvmType().typeCategory()))))
+            .on(InstanceFieldAccess.class, CompilationOfPush::pushInstanceFieldAccess)
+            .on(InstanceMethodInvokation.class, CompilationOfPush::pushInstanceMethodInvokation)
+            .on(Placeholder.class, (c, e) -> c.compilation.getLocalVarsSymbolTable().getAlias("placeholder"))
+            .on(ThisExpression.class, (c, e) -> PushThis.getInstance())
+            .on(AssignmentExpression.class, CompilationOfPush::pushAssignment)
+            .on(SuperInvokation.class, CompilationOfPush::compile)
+            .on(ContextAccess.class, CompilationOfPush::compile)
+            .build();
+
     BytecodeSequence pushExpression(Expression expr) {
-        if (expr instanceof ByteLiteral) {
-            return new PushIntConst(((ByteLiteral) expr).getValue());
-        } else if (expr instanceof ShortLiteral) {
-            return new PushIntConst(((ShortLiteral) expr).getValue());
-        } else if (expr instanceof IntLiteral) {
-            return new PushIntConst(((IntLiteral) expr).getValue());
-        } else if (expr instanceof LongLiteral) {
-            return new PushLongConst(((LongLiteral) expr).getValue());
-        } else if (expr instanceof FloatLiteral) {
-            return new PushFloatConst(((FloatLiteral) expr).getValue());
-        } else if (expr instanceof DoubleLiteral) {
-            return new PushDoubleConst(((DoubleLiteral) expr).getValue());
-        } else if (expr instanceof StringLiteral) {
-            return new PushStringConst(((StringLiteral) expr).getValue());
-        } else if (expr instanceof StaticFieldAccess) {
-            StaticFieldAccess staticFieldAccess = (StaticFieldAccess) expr;
-            return new PushStaticField(staticFieldAccess.toJvmField(compilation.getResolver()));
-        } else if (expr instanceof StringInterpolation) {
-            StringInterpolation stringInterpolation = (StringInterpolation) expr;
+        return PUSH_EXPRESSION.dispatch(this, expr);
+    }
 
-            List<BytecodeSequence> elements = new ArrayList<BytecodeSequence>();
-            elements.add(new NewInvocationBS(new JvmConstructorDefinition("java/lang/StringBuilder", "()V"), NoOp.getInstance()));
+    private BytecodeSequence pushStringInterpolation(StringInterpolation stringInterpolation) {
+        List<BytecodeSequence> elements = new ArrayList<BytecodeSequence>();
+        elements.add(new NewInvocationBS(new JvmConstructorDefinition("java/lang/StringBuilder", "()V"), NoOp.getInstance()));
 
-            for (Expression piece : stringInterpolation.getElements()) {
-                compilation.appendToStringBuilder(piece, elements);
-            }
+        for (Expression piece : stringInterpolation.getElements()) {
+            compilation.appendToStringBuilder(piece, elements);
+        }
 
-            elements.add(new MethodInvocationBS(new JvmMethodDefinition("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false, false)));
-            return new ComposedBytecodeSequence(elements);
-        } else if (expr instanceof ValueReference) {
-            ValueReference valueReference = (ValueReference) expr;
-            Optional<Integer> index = compilation.getLocalVarsSymbolTable().findIndex(valueReference.getName());
-            if (index.isPresent()) {
-                TypeUsage type = compilation.getLocalVarsSymbolTable().findDeclaration(valueReference.getName()).get().calcType();
-                return new PushLocalVar(loadTypeForTypeUsage(type), index.get());
-            } else if (compilation.getLocalVarsSymbolTable().hasAlias(valueReference.getName())) {
-                return compilation.getLocalVarsSymbolTable().getAlias(valueReference.getName());
-            } else {
-                return push(valueReference.resolve(compilation.getResolver()));
-            }
-        } else if (expr instanceof MathOperation) {
-            MathOperation mathOperation = (MathOperation) expr;
-            // TODO do proper conversions
-            if (!mathOperation.getLeft().calcType().sameType(PrimitiveTypeUsage.INT)) {
-                throw new UnsupportedOperationException();
-            }
-            if (!mathOperation.getRight().calcType().sameType(PrimitiveTypeUsage.INT)) {
-                throw new UnsupportedOperationException();
-            }
-            JvmTypeCategory leftTypeCategory = mathOperation.getLeft().calcType().jvmType().typeCategory();
-            return new ComposedBytecodeSequence(ImmutableList.of(
-                    pushExpression(mathOperation.getLeft()),
-                    pushExpression(mathOperation.getRight()),
-                    BytecodeUtils.createMathOperation(leftTypeCategory, mathOperation.getOperator())));
-        } else if (expr instanceof BooleanLiteral) {
-            return new PushBoolean(((BooleanLiteral) expr).getValue());
-        } else if (expr instanceof LogicOperation) {
-            LogicOperation logicOperation = (LogicOperation) expr;
-            switch (logicOperation.getOperator()) {
-                case AND:
-                    return new ComposedBytecodeSequence(ImmutableList.of(
-                            pushExpression(logicOperation.getLeft()),
-                            pushExpression(logicOperation.getRight()),
-                            new LogicalAndBS()
-                    ));
-                case OR:
-                    return new ComposedBytecodeSequence(ImmutableList.of(
-                            pushExpression(logicOperation.getLeft()),
-                            pushExpression(logicOperation.getRight()),
-                            new LogicalOrBS()
-                    ));
-                default:
-                    throw new UnsupportedOperationException(logicOperation.getOperator().name());
-            }
-        } else if (expr instanceof NotOperation) {
-            NotOperation notOperation = (NotOperation) expr;
-            return new ComposedBytecodeSequence(ImmutableList.of(pushExpression(notOperation.getValue()), new LogicalNotBS()));
-        } else if (expr instanceof RelationalOperation) {
-            RelationalOperation relationalOperation = (RelationalOperation) expr;
-            return new ComposedBytecodeSequence(ImmutableList.of(
-                    pushExpression(relationalOperation.getLeft()),
-                    pushExpression(relationalOperation.getRight()),
-                    BytecodeUtils.createRelationOperation(relationalOperation.getOperator())
-            ));
-        } else if (expr instanceof FunctionCall) {
-            FunctionCall functionCall = (FunctionCall) expr;
-            functionCall.desugarize(compilation.getResolver());
-            BytecodeSequence instancePush = pushInstance(functionCall);
-            Optional<JvmMethodDefinition> methodDefinition = compilation.getResolver().findJvmDefinition(functionCall);
-            if (!methodDefinition.isPresent()) {
-                throw new UnsolvedMethodException(functionCall);
-            }
-            BytecodeSequence argumentsPush = adaptAndPushAllParameters(
-                    functionCall.getActualParamValuesInOrder(), methodDefinition.get()
-            );
-            return new ComposedBytecodeSequence(ImmutableList.<BytecodeSequence>builder()
-                    .add(instancePush)
-                    .add(argumentsPush)
-                    .add(new MethodInvocationBS(methodDefinition.get())).build());
-        } else if (expr instanceof Creation) {
-            Creation creation = (Creation) expr;
-            creation.desugarize(compilation.getResolver());
-            JvmConstructorDefinition constructorDefinition = creation.jvmDefinition(compilation.getResolver());
-            BytecodeSequence argumentsPush = adaptAndPushAllParameters(creation.getActualParamValuesInOrder(), constructorDefinition);
-            return new NewInvocationBS(constructorDefinition, argumentsPush);
-        } else if (expr instanceof ArrayAccess) {
-            ArrayAccess arrayAccess = (ArrayAccess) expr;
-            return new ComposedBytecodeSequence(ImmutableList.of(
-                    pushExpression(arrayAccess.getArray()),
-                    pushExpression(arrayAccess.getIndex()),
-                    new ArrayAccessBS(arrayAccess.calcType().jvmType().typeCategory())));
-        } else if (expr instanceof InstanceFieldAccess) {
-            InstanceFieldAccess instanceFieldAccess = (InstanceFieldAccess) expr;
-            // Ideally it should be desugarized before
-            if (instanceFieldAccess.isArrayLength(compilation.getResolver())) {
-                return new ComposedBytecodeSequence(pushExpression(instanceFieldAccess.getSubject()), new ArrayLengthBS());
-            } else {
-                TypeUsage instanceType = instanceFieldAccess.getSubject().calcType();
-                Symbol value = instanceType.getInstanceField(instanceFieldAccess.getField(), instanceFieldAccess.getSubject());
-                return push(value);
-            }
-        } else if (expr instanceof InstanceMethodInvokation) {
-            InstanceMethodInvokation instanceMethodInvokation = (InstanceMethodInvokation) expr;
+        elements.add(new MethodInvocationBS(new JvmMethodDefinition("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false, false)));
+        return new ComposedBytecodeSequence(elements);
+    }
 
-            // TODO cast result when it involves generics
+    private BytecodeSequence pushValueReference(ValueReference valueReference) {
+        Optional<Integer> index = compilation.getLocalVarsSymbolTable().findIndex(valueReference.getName());
+        if (index.isPresent()) {
+            TypeUsage type = compilation.getLocalVarsSymbolTable().findDeclaration(valueReference.getName()).get().calcType();
+            return new PushLocalVar(loadTypeForTypeUsage(type), index.get());
+        } else if (compilation.getLocalVarsSymbolTable().hasAlias(valueReference.getName())) {
+            return compilation.getLocalVarsSymbolTable().getAlias(valueReference.getName());
+        } else {
+            return push(valueReference.resolve(compilation.getResolver()));
+        }
+    }
 
-            instanceMethodInvokation.desugarize(compilation.getResolver());
-            BytecodeSequence instancePush = pushExpression(instanceMethodInvokation.getSubject());
-            JvmMethodDefinition methodDefinition = instanceMethodInvokation.findJvmDefinition(compilation.getResolver());
-            TypeUsage returnType = instanceMethodInvokation.calcType();
-            String typeReturnedFromMethod = methodDefinition.getReturnTypeDescriptor();
-            // This could happen because of generics: in this case a cast is needed
-            BytecodeSequence invokationBS = new ComposedBytecodeSequence(ImmutableList.<BytecodeSequence>builder()
-                    .add(instancePush)
-                    .add(adaptAndPushAllParameters(instanceMethodInvokation.getActualParamValuesInOrder(), methodDefinition))
-                    .add(new MethodInvocationBS(methodDefinition)).build());
-            if (!returnType.jvmType().getDescriptor().equals(typeReturnedFromMethod)){
-                return new ComposedBytecodeSequence(invokationBS, new CastBS(returnType.jvmType().getInternalName()));
-            } else {
-                return invokationBS;
-            }
-        } else if (expr instanceof Placeholder) {
-            return compilation.getLocalVarsSymbolTable().getAlias("placeholder");
-        } else if (expr instanceof ThisExpression) {
-            return PushThis.getInstance();
-        } else if (expr instanceof AssignmentExpression) {
-            return pushAssignment((AssignmentExpression)expr);
-        } else if (expr instanceof SuperInvokation) {
-            SuperInvokation superInvokation = (SuperInvokation) expr;
-            return compile(superInvokation);
-        } else if (expr instanceof RelationSubset) {
+    private BytecodeSequence pushMathOperation(MathOperation mathOperation) {
+        TypeUsage leftType = mathOperation.getLeft().calcType();
+        // TODO do proper conversions
+        if (!leftType.sameType(PrimitiveTypeUsage.INT)) {
+            throw new UnsupportedOperationException();
+        }
+        if (!mathOperation.getRight().calcType().sameType(PrimitiveTypeUsage.INT)) {
             throw new UnsupportedOperationException();
-        } else if (expr instanceof ContextAccess) {
-            return compile((ContextAccess)expr);
+        }
+        JvmTypeCategory leftTypeCategory = leftType.jvmType().typeCategory();
+        return new ComposedBytecodeSequence(ImmutableList.of(
+                pushExpression(mathOperation.getLeft()),
+                pushExpression(mathOperation.getRight()),
+                BytecodeUtils.createMathOperation(leftTypeCategory, mathOperation.getOperator())));
+    }
+
+    private BytecodeSequence pushLogicOperation(LogicOperation logicOperation) {
+        switch (logicOperation.getOperator()) {
+            case AND:
+                return new ComposedBytecodeSequence(ImmutableList.of(
+                        pushExpression(logicOperation.getLeft()),
+                        pushExpression(logicOperation.getRight()),
+                        new LogicalAndBS()
+                ));
+            case OR:
+                return new ComposedBytecodeSequence(ImmutableList.of(
+                        pushExpression(logicOperation.getLeft()),
+                        pushExpression(logicOperation.getRight()),
+                        new LogicalOrBS()
+                ));
+            default:
+                throw new UnsupportedOperationException(logicOperation.getOperator().name());
+        }
+    }
+
+    private BytecodeSequence pushFunctionCall(FunctionCall functionCall) {
+        functionCall.desugarize(compilation.getResolver());
+        Optional<BytecodeSequence> inlined = compilation.getFunctionInliner().inline(functionCall);
+        if (inlined.isPresent()) {
+            return inlined.get();
+        }
+        BytecodeSequence instancePush = pushInstance(functionCall);
+        Optional<JvmMethodDefinition> methodDefinition = compilation.getResolver().findJvmDefinition(functionCall);
+        if (!methodDefinition.isPresent()) {
+            throw new UnsolvedMethodException(functionCall);
+        }
+        BytecodeSequence argumentsPush = adaptAndPushAllParameters(
+                functionCall.getActualParamValuesInOrder(), methodDefinition.get()
+        );
+        return new ComposedBytecodeSequence(ImmutableList.<BytecodeSequence>builder()
+                .add(instancePush)
+                .add(argumentsPush)
+                .add(new MethodInvocationBS(methodDefinition.get())).build());
+    }
+
+    private BytecodeSequence pushCreation(Creation creation) {
+        creation.desugarize(compilation.getResolver());
+        JvmConstructorDefinition constructorDefinition = creation.jvmDefinition(compilation.getResolver());
+        BytecodeSequence argumentsPush = adaptAndPushAllParameters(creation.getActualParamValuesInOrder(), constructorDefinition);
+        return new NewInvocationBS(constructorDefinition, argumentsPush);
+    }
+
+    private BytecodeSequence pushInstanceFieldAccess(InstanceFieldAccess instanceFieldAccess) {
+        // Ideally it should be desugarized before
+        if (instanceFieldAccess.isArrayLength(compilation.getResolver())) {
+            return new ComposedBytecodeSequence(pushExpression(instanceFieldAccess.getSubject()), new ArrayLengthBS());
+        } else {
+            TypeUsage instanceType = instanceFieldAccess.getSubject().calcType();
+            Symbol value = instanceType.getInstanceField(instanceFieldAccess.getField(), instanceFieldAccess.getSubject());
+            return push(value);
+        }
+    }
+
+    private BytecodeSequence pushInstanceMethodInvokation(InstanceMethodInvokation instanceMethodInvokation) {
+        // TODO cast result when it involves generics
+
+        instanceMethodInvokation.desugarize(compilation.getResolver());
+        BytecodeSequence instancePush = pushExpression(instanceMethodInvokation.getSubject());
+        JvmMethodDefinition methodDefinition = instanceMethodInvokation.findJvmDefinition(compilation.getResolver());
+        TypeUsage returnType = instanceMethodInvokation.calcType();
+        String typeReturnedFromMethod = methodDefinition.getReturnTypeDescriptor();
+        // This could happen because of generics: in this case a cast is needed
+        BytecodeSequence invokationBS = new ComposedBytecodeSequence(ImmutableList.<BytecodeSequence>builder()
+                .add(instancePush)
+                .add(adaptAndPushAllParameters(instanceMethodInvokation.getActualParamValuesInOrder(), methodDefinition))
+                .add(new MethodInvocationBS(methodDefinition)).build());
+        if (!returnType.jvmType().getDescriptor().equals(typeReturnedFromMethod)){
+            return new ComposedBytecodeSequence(invokationBS, new CastBS(returnType.jvmType().getInternalName()));
         } else {
-            throw new UnsupportedOperationException(expr.getClass().getCanonicalName());
+            return invokationBS;
         }
     }
 
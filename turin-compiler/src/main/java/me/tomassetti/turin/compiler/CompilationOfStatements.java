@@ -7,6 +7,7 @@ import me.tomassetti.bytecode_generation.returnop.ReturnValueBS;
 import me.tomassetti.bytecode_generation.returnop.ReturnVoidBS;
 import me.tomassetti.jvm.*;
 import me.tomassetti.turin.definitions.ContextDefinition;
+import me.tomassetti.turin.parser.ast.NodeDispatcher;
 import me.tomassetti.turin.parser.ast.expressions.Expression;
 import me.tomassetti.turin.parser.ast.statements.*;
 import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
@@ -31,63 +32,62 @@ public class CompilationOfStatements {
 
     private BytecodeSequence codeToExecuteBeforeReturning;
 
+    private static final NodeDispatcher<CompilationOfStatements, Statement, BytecodeSequence> COMPILE_STATEMENT = NodeDispatcher.<CompilationOfStatements, Statement, BytecodeSequence>builder()
+            .on(VariableDeclaration.class, CompilationOfStatements::compile)
+            .on(ExpressionStatement.class, (c, s) -> c.compilation.getPushUtils().pushExpression(s.getExpression()))
+            .on(BlockStatement.class, (c, s) -> new ComposedBytecodeSequence(
+                    s.getStatements().stream().map((child) -> c.compile(child)).collect(Collectors.toList())))
+            .on(ReturnStatement.class, CompilationOfStatements::compile)
+            .on(IfStatement.class, CompilationOfStatements::compile)
+            .on(ThrowStatement.class, (c, s) -> new ThrowBS(c.compilation.getPushUtils().pushExpression(s.getException())))
+            .on(TryCatchStatement.class, CompilationOfStatements::compile)
+            .on(ContextScope.class, CompilationOfStatements::compile)
+            .build();
+
     BytecodeSequence compile(Statement statement) {
-        if (statement instanceof VariableDeclaration) {
-            VariableDeclaration variableDeclaration = (VariableDeclaration) statement;
-            int pos = compilation.getLocalVarsSymbolTable().add(variableDeclaration.getName(), variableDeclaration);
-            JvmTypeCategory typeCategory = variableDeclaration.varType(compilation.getResolver()).jvmType().typeCategory();
-            return new ComposedBytecodeSequence(ImmutableList.of(
-                    compilation.getPushUtils().pushExpression(variableDeclaration.getValue()),
-                    new LocalVarAssignmentBS(pos, typeCategory)));
-        } else if (statement instanceof ExpressionStatement) {
-            Expression expression = ((ExpressionStatement) statement).getExpression();
-            return new CompilationOfPush(compilation).pushExpression(expression);
-        } else if (statement instanceof BlockStatement) {
-            BlockStatement blockStatement = (BlockStatement) statement;
-            List<BytecodeSequence> elements = blockStatement.getStatements().stream().map((s) -> compile(s)).collect(Collectors.toList());
-            return new ComposedBytecodeSequence(elements);
-        } else if (statement instanceof ReturnStatement) {
-            ReturnStatement returnStatement = (ReturnStatement) statement;
-            if (returnStatement.hasValue()) {
-                Expression returnedValue = returnStatement.getValue();
-                TypeUsage returnedValueType = returnedValue.calcType();
-                int returnType = returnedValueType.jvmType().returnOpcode();
-                if (codeToExecuteBeforeReturning == null) {
-                    return new ReturnValueBS(returnType, compilation.getPushUtils().pushExpression(returnStatement.getValue()));
-                } else {
-                    // So we first calculate the value and then we clean the context
-                    return new ReturnValueBS(returnType, new ComposedBytecodeSequence(
-                            compilation.getPushUtils().pushExpression(returnStatement.getValue()),
-                            codeToExecuteBeforeReturning));
-                }
+        return COMPILE_STATEMENT.dispatch(this, statement);
+    }
+
+    private BytecodeSequence compile(VariableDeclaration variableDeclaration) {
+        JvmType jvmType = variableDeclaration.varType(compilation.getResolver()).jvmType();
+        int pos = compilation.getLocalVarsSymbolTable().add(variableDeclaration.getName(), variableDeclaration, jvmType);
+        JvmTypeCategory typeCategory = jvmType.typeCategory();
+        return new ComposedBytecodeSequence(ImmutableList.of(
+                compilation.getPushUtils().pushExpression(variableDeclaration.getValue()),
+                new LocalVarAssignmentBS(pos, typeCategory)));
+    }
+
+    private BytecodeSequence compile(ReturnStatement returnStatement) {
+        if (returnStatement.hasValue()) {
+            Expression returnedValue = returnStatement.getValue();
+            TypeUsage returnedValueType = returnedValue.calcType();
+            int returnType = returnedValueType.jvmType().returnOpcode();
+            if (codeToExecuteBeforeReturning == null) {
+                return new ReturnValueBS(returnType, compilation.getPushUtils().pushExpression(returnStatement.getValue()));
             } else {
-                if (codeToExecuteBeforeReturning == null) {
-                    return new ReturnVoidBS();
-                } else {
-                    return new ComposedBytecodeSequence(codeToExecuteBeforeReturning, new ReturnVoidBS());
-                }
+                // So we first calculate the value and then we clean the context
+                return new ReturnValueBS(returnType, new ComposedBytecodeSequence(
+                        compilation.getPushUtils().pushExpression(returnStatement.getValue()),
+                        codeToExecuteBeforeReturning));
             }
-        } else if (statement instanceof IfStatement) {
-            IfStatement ifStatement = (IfStatement) statement;
-            BytecodeSequence ifCondition = compilation.getPushUtils().pushExpression(ifStatement.getCondition());
-            BytecodeSequence ifBody = compile(ifStatement.getIfBody());
-            List<BytecodeSequence> elifConditions = ifStatement.getElifStatements().stream().map((ec) -> compilation.getPushUtils().pushExpression(ec.getCondition())).collect(Collectors.toList());
-            List<BytecodeSequence> elifBodys = ifStatement.getElifStatements().stream().map((ec) -> compile(ec.getBody())).collect(Collectors.toList());
-            if (ifStatement.hasElse()) {
-                return new IfBS(ifCondition, ifBody, elifConditions, elifBodys, compile(ifStatement.getElseBody()));
+        } else {
+            if (codeToExecuteBeforeReturning == null) {
+                return new ReturnVoidBS();
             } else {
-                return new IfBS(ifCondition, ifBody, elifConditions, elifBodys);
+                return new ComposedBytecodeSequence(codeToExecuteBeforeReturning, new ReturnVoidBS());
             }
-        } else if (statement instanceof ThrowStatement) {
-            ThrowStatement throwStatement = (ThrowStatement) statement;
-            return new ThrowBS(compilation.getPushUtils().pushExpression(throwStatement.getException()));
-        } else if (statement instanceof TryCatchStatement) {
-            TryCatchStatement tryCatchStatement = (TryCatchStatement) statement;
-            return compile(tryCatchStatement);
-        } else if (statement instanceof ContextScope) {
-            return compile((ContextScope)statement);
+        }
+    }
+
+    private BytecodeSequence compile(IfStatement ifStatement) {
+        BytecodeSequence ifCondition = compilation.getPushUtils().pushExpression(ifStatement.getCondition());
+        BytecodeSequence ifBody = compile(ifStatement.getIfBody());
+        List<BytecodeSequence> elifConditions = ifStatement.getElifStatements().stream().map((ec) -> compilation.getPushUtils().pushExpression(ec.getCondition())).collect(Collectors.toList());
+        List<BytecodeSequence> elifBodys = ifStatement.getElifStatements().stream().map((ec) -> compile(ec.getBody())).collect(Collectors.toList());
+        if (ifStatement.hasElse()) {
+            return new IfBS(ifCondition, ifBody, elifConditions, elifBodys, compile(ifStatement.getElseBody()));
         } else {
-            throw new UnsupportedOperationException(statement.toString());
+            return new IfBS(ifCondition, ifBody, elifConditions, elifBodys);
         }
     }
 
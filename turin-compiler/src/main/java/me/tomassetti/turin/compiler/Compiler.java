@@ -12,10 +12,13 @@ import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.parser.ast.*;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import me.tomassetti.turin.parser.AstCache;
+import me.tomassetti.turin.parser.LazyTurinFile;
 import me.tomassetti.turin.parser.Parser;
 
 public class Compiler {
@@ -32,7 +35,23 @@ public class Compiler {
 
     public List<ClassFileDefinition> compile(TurinFile turinFile, ErrorCollector errorCollector) {
         ResolverRegistry.INSTANCE.record(turinFile, resolver);
-        return new Compilation(resolver, errorCollector).compile(turinFile);
+        Compilation compilation = new Compilation(resolver, errorCollector, options);
+        List<ClassFileDefinition> classFileDefinitions = compilation.compile(turinFile);
+        if (options.verbose) {
+            for (String line : compilation.getInliningReport()) {
+                System.out.println(" [" + line + "]");
+            }
+        }
+        return classFileDefinitions;
+    }
+
+    /**
+     * Compile only the member of the file with the given name, without validating the other members.
+     */
+    public List<ClassFileDefinition> compile(TurinFile turinFile, String memberName, ErrorCollector errorCollector) {
+        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        Compilation compilation = new Compilation(resolver, errorCollector, options);
+        return compilation.compile(turinFile, memberName);
     }
 
     public static class Options {
@@ -76,6 +95,42 @@ public class Compiler {
             this.help = help;
         }
 
+        /**
+         * When set types and methods not extended by the compiled sources are marked final. It should be used only
+         * when the sources are the whole program, because other code could not extend them anymore.
+         */
+        public boolean isInferFinal() {
+            return inferFinal;
+        }
+
+        public void setInferFinal(boolean inferFinal) {
+            this.inferFinal = inferFinal;
+        }
+
+        /**
+         * When set calls to small top-level functions of the same file are replaced with their body. It is set by
+         * default.
+         */
+        public boolean isInlineFunctions() {
+            return !noInlining;
+        }
+
+        public void setInlineFunctions(boolean inlineFunctions) {
+            this.noInlining = !inlineFunctions;
+        }
+
+        /**
+         * Directory where the ASTs of the sources are kept between builds, so that unchanged sources are not parsed
+         * again. When null no cache is used.
+         */
+        public String getCacheDir() {
+            return cacheDir;
+        }
+
+        public void setCacheDir(String cacheDir) {
+            this.cacheDir = cacheDir;
+        }
+
         public List<String> getSources() {
             return sources;
         }
@@ -99,16 +154,33 @@ public class Compiler {
         @Parameter(names = {"-h", "--help"})
         private boolean help = false;
 
+        @Parameter(names = {"-f", "--infer-final"})
+        private boolean inferFinal = false;
+
+        @Parameter(names = {"-ni", "--no-inlining"})
+        private boolean noInlining = false;
+
+        @Parameter(names = {"-c", "--cache"})
+        private String cacheDir = null;
+
         @Parameter(description = "Files or directories to compile")
         private List<String> sources = new ArrayList<>();
     }
 
-    private static SymbolResolver getResolver(List<String> sources, List<String> classPathElements, List<TurinFile> turinFiles) {
+    private static SymbolResolver getResolver(List<String> sources, List<String> classPathElements, List<LazyTurinFile> turinFiles) {
         TypeResolver typeResolver = new ComposedTypeResolver(ImmutableList.<TypeResolver>builder()
                 .add(JdkTypeResolver.getInstance())
                 .addAll(classPathElements.stream().map((cp) -> toTypeResolver(cp)).collect(Collectors.toList()))
                 .build());
-        return new ComposedSymbolResolver(ImmutableList.of(new InFileSymbolResolver(typeResolver), new SrcSymbolResolver(turinFiles)));
+        return new ComposedSymbolResolver(ImmutableList.of(new InFileSymbolResolver(typeResolver), SrcSymbolResolver.ofLazyFiles(turinFiles)));
+    }
+
+    private static Parser createParser(Options options) throws IOException {
+        if (options.cacheDir == null) {
+            return new Parser();
+        } else {
+            return new Parser(new AstCache(Paths.get(options.cacheDir)));
+        }
     }
 
     private static TypeResolver toTypeResolver(String classPathElement) {
@@ -144,10 +216,19 @@ public class Compiler {
         public void recordSemanticError(Position position, String description) {
             System.err.println(fileDescription + " at " + position + ": (semantic error) " + description);
         }
+
+        @Override
+        public void recordSyntaxError(Position position, String description) {
+            System.err.println(fileDescription + " at " + position + ": (syntax error) " + description);
+        }
     }
 
     private void compileFile(File file) throws IOException {
-        TurinFile turinFile = new Parser().parse(new FileInputStream(file));
+        List<TurinFileWithSource> parsed = createParser(options).parseAllIn(file, (f) -> new ErrorPrinter(f.getPath()));
+        if (parsed.get(0).hasSyntaxErrors()) {
+            return;
+        }
+        TurinFile turinFile = parsed.get(0).getTurinFile();
 
         for (ClassFileDefinition classFileDefinition : compile(turinFile, new ErrorPrinter(file.getPath()))) {
             if (options.verbose) {
@@ -155,9 +236,9 @@ public class Compiler {
             }
             File classFile = new File(options.destinationDir +"/" + classFileDefinition.getName().replaceAll("\\.", "/") + ".class");
             classFile.getParentFile().mkdirs();
-            FileOutputStream fos = new FileOutputStream(classFile);
-            fos.write(classFileDefinition.getBytecode());
-            fos.close();
+            try (FileOutputStream fos = new FileOutputStream(classFile)) {
+                fos.write(classFileDefinition.getBytecode());
+            }
         }
     }
 
@@ -194,28 +275,40 @@ public class Compiler {
             return;
         }
 
-        Parser parser = new Parser();
+        Parser parser = createParser(options);
 
         // First we collect all TurinFiles and we pass it to the resolver
         List<TurinFileWithSource> turinFiles = new ArrayList<>();
         for (String source : options.sources) {
             try {
-                turinFiles.addAll(parser.parseAllIn(new File(source)));
+                turinFiles.addAll(parser.parseAllIn(new File(source), (file) -> new ErrorPrinter(file.getPath())));
             } catch (FileNotFoundException e){
                 System.err.println("Error: " + e.getMessage());
                 System.exit(1);
                 return;
             }
         }
-        SymbolResolver resolver = getResolver(options.sources, options.classPathElements, turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()));
+        // Files with syntax errors are not compiled, but the members parsed correctly can still be referred by the others.
+        // Files found in the cache have no syntax errors: they are indexed without loading their ASTs
+        SymbolResolver resolver = getResolver(options.sources, options.classPathElements, turinFiles.stream()
+                .filter((f) -> !f.hasSyntaxErrors() || f.getTurinFile().getNamespaceDefinition() != null)
+                .map(TurinFileWithSource::getLazyTurinFile).collect(Collectors.toList()));
 
         // Then we compile all files
         Compiler instance = new Compiler(resolver, options);
+        boolean syntaxErrors = false;
         for (TurinFileWithSource turinFile : turinFiles) {
+            if (turinFile.hasSyntaxErrors()) {
+                syntaxErrors = true;
+                continue;
+            }
             for (ClassFileDefinition classFileDefinition : instance.compile(turinFile.getTurinFile(), new ErrorPrinter(turinFile.getSource().getPath()))) {
                 saveClassFile(classFileDefinition, options);
             }
         }
+        if (syntaxErrors) {
+            System.exit(2);
+        }
     }
 
     private static void saveClassFile(ClassFileDefinition classFileDefinition, Options options) {
@@ -226,8 +319,9 @@ public class Compiler {
                 System.out.println(" [saving "+output.getPath()+"]");
             }
             output.getParentFile().mkdirs();
-            FileOutputStream fos = new FileOutputStream(output);
-            fos.write(classFileDefinition.getBytecode());
+            try (FileOutputStream fos = new FileOutputStream(output)) {
+                fos.write(classFileDefinition.getBytecode());
+            }
         } catch (IOException e) {
             System.err.println("Problem writing file "+output+": "+ e.getMessage());
             System.exit(3);
@@ -0,0 +1,161 @@
+package me.tomassetti.turin.compiler;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.bytecode_generation.BytecodeSequence;
+import me.tomassetti.bytecode_generation.ComposedBytecodeSequence;
+import me.tomassetti.bytecode_generation.LocalVarAssignmentBS;
+import me.tomassetti.jvm.JvmType;
+import me.tomassetti.jvm.JvmTypeCategory;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.expressions.Expression;
+import me.tomassetti.turin.parser.ast.expressions.FunctionCall;
+import me.tomassetti.turin.parser.ast.expressions.ValueReference;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.statements.BlockStatement;
+import me.tomassetti.turin.parser.ast.statements.ReturnStatement;
+import me.tomassetti.turin.parser.ast.statements.Statement;
+import me.tomassetti.turin.symbols.FormalParameter;
+import me.tomassetti.turin.symbols.Symbol;
+
+import java.util.*;
+
+/**
+ * Replaces calls to small top-level functions with their body.
+ *
+ * Only functions whose body is a single returned expression (e.g., <code>int sum(int a, int b) = a + b</code>)
+ * are considered. The arguments are evaluated once, in order, and stored in fresh local variables: the body
+ * is then compiled reading them in place of its parameters.
+ *
+ * The class of the function is generated anyway, because it can be used by other files or from Java.
+ * Inlining can be disabled through {@link Compiler.Options#setInlineFunctions(boolean)}.
+ */
+class FunctionInliner {
+
+    /**
+     * Functions whose returned expression is made by more nodes than this are not inlined.
+     */
+    static final int MAX_INLINED_NODES = 16;
+
+    private final Compilation compilation;
+    private final Set<FunctionDefinitionNode> beingInlined = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<String, Integer> inlinedCalls = new LinkedHashMap<>();
+    private final Map<String, String> notInlined = new LinkedHashMap<>();
+
+    FunctionInliner(Compilation compilation) {
+        this.compilation = compilation;
+    }
+
+    /**
+     * Return the code evaluating the call with the body of the function, if the function can be inlined.
+     */
+    Optional<BytecodeSequence> inline(FunctionCall functionCall) {
+        if (!compilation.getOptions().isInlineFunctions()) {
+            return Optional.empty();
+        }
+        if (!(functionCall.getFunction() instanceof ValueReference)) {
+            return Optional.empty();
+        }
+        Symbol declaration = ((ValueReference) functionCall.getFunction()).resolve(compilation.getResolver());
+        if (!(declaration instanceof FunctionDefinitionNode)) {
+            return Optional.empty();
+        }
+        FunctionDefinitionNode function = (FunctionDefinitionNode) declaration;
+        Optional<String> obstacle = obstacleToInlining(functionCall, function);
+        if (obstacle.isPresent()) {
+            notInlined.putIfAbsent(function.getQualifiedName(), obstacle.get());
+            return Optional.empty();
+        }
+        inlinedCalls.merge(function.getQualifiedName(), 1, Integer::sum);
+
+        LocalVarsSymbolTable callerSymbolTable = compilation.getLocalVarsSymbolTable();
+        LocalVarsSymbolTable inlinedSymbolTable = callerSymbolTable.childForInlining();
+        List<BytecodeSequence> elements = new ArrayList<>();
+
+        // the arguments are pushed in order, so they are stored starting from the last one
+        elements.add(compilation.getPushUtils().adaptAndPushAllParameters(
+                functionCall.getActualParamValuesInOrder(),
+                function.jvmMethodDefinition(compilation.getResolver())));
+        List<BytecodeSequence> stores = new LinkedList<>();
+        for (FormalParameter formalParameter : function.getParameters()) {
+            int index = inlinedSymbolTable.add(formalParameter.getName(), formalParameter, formalParameter.getType().jvmType());
+            stores.add(0, new LocalVarAssignmentBS(index, storeCategory(formalParameter.getType().jvmType())));
+        }
+        elements.addAll(stores);
+
+        compilation.setLocalVarsSymbolTable(inlinedSymbolTable);
+        beingInlined.add(function);
+        try {
+            elements.add(compilation.getPushUtils().pushExpression(returnedExpression(function).get()));
+        } finally {
+            beingInlined.remove(function);
+            compilation.setLocalVarsSymbolTable(callerSymbolTable);
+        }
+        return Optional.of(new ComposedBytecodeSequence(elements));
+    }
+
+    /**
+     * One line for each function called in the file: how many calls were inlined or why they were not.
+     */
+    List<String> report() {
+        ImmutableList.Builder<String> lines = ImmutableList.builder();
+        inlinedCalls.forEach((name, count) -> lines.add("inlined " + name + " (" + count + " call" + (count == 1 ? "" : "s") + ")"));
+        notInlined.forEach((name, reason) -> {
+            if (!inlinedCalls.containsKey(name)) {
+                lines.add("not inlined " + name + ": " + reason);
+            }
+        });
+        return lines.build();
+    }
+
+    private Optional<String> obstacleToInlining(FunctionCall functionCall, FunctionDefinitionNode function) {
+        if (function.getRoot() != functionCall.getRoot()) {
+            return Optional.of("defined in another file");
+        }
+        // when a single member is compiled the other functions are not validated. Some nodes report errors without
+        // failing the validation, so any error is an obstacle. The errors are reported when the function is compiled
+        List<String> errors = new ArrayList<>();
+        if (!function.validateIfNeeded(compilation.getResolver(), (position, description) -> errors.add(description))
+                || !errors.isEmpty()) {
+            return Optional.of("it is not valid");
+        }
+        if (function.getParameters().stream().anyMatch((p) -> p.hasDefaultValue())) {
+            return Optional.of("it has parameters with default values");
+        }
+        Optional<Expression> returnedExpression = returnedExpression(function);
+        if (!returnedExpression.isPresent()) {
+            return Optional.of("its body is not a single expression");
+        }
+        if (returnedExpression.get().findAll(Node.class).size() > MAX_INLINED_NODES) {
+            return Optional.of("its body is too large");
+        }
+        if (beingInlined.contains(function)) {
+            return Optional.of("it is recursive");
+        }
+        // the body of a function is compiled without conversions of the returned value
+        String returnedDescriptor = returnedExpression.get().calcType().jvmType().getDescriptor();
+        if (!returnedDescriptor.equals(function.getReturnType().jvmType().getDescriptor())) {
+            return Optional.of("the returned value needs a conversion");
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Expression> returnedExpression(FunctionDefinitionNode function) {
+        Statement body = function.getBody();
+        if (body instanceof BlockStatement && ((BlockStatement) body).getStatements().size() == 1) {
+            body = ((BlockStatement) body).getStatements().get(0);
+        }
+        if (body instanceof ReturnStatement && ((ReturnStatement) body).hasValue()) {
+            return Optional.of(((ReturnStatement) body).getValue());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private JvmTypeCategory storeCategory(JvmType jvmType) {
+        if (jvmType.isPrimitive()) {
+            return jvmType.typeCategory();
+        } else {
+            return JvmTypeCategory.REFERENCE;
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package me.tomassetti.turin.compiler;
 
 import me.tomassetti.bytecode_generation.BytecodeSequence;
-import me.tomassetti.turin.parser.ast.FormalParameterNode;
-import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.jvm.JvmType;
 import me.tomassetti.turin.symbols.FormalParameter;
 import me.tomassetti.turin.symbols.Symbol;
 
@@ -12,14 +11,16 @@ import java.util.*;
  * An instance is created for each method.
  * The list (and the assignations of indexes) are global for the whole methods
  * but the names can be visible only inside inner blocks.
+ *
+ * Indexes are JVM local variable slots: long and double values take two of them.
  */
 public class LocalVarsSymbolTable {
 
     private List<Symbol> values = new LinkedList<>();
     private List<Block> blockOfDeckaration = new LinkedList<>();
     private List<String> orderedNames = new LinkedList<>();
-    private int startIndex;
-    private LocalVarsSymbolTable parent;
+    private List<Integer> indexes = new LinkedList<>();
+    private int nextIndex;
     private Block currentBlock = new Block(null);
     private Map<String, BytecodeSequence> aliases = new HashMap<>();
 
@@ -39,7 +40,7 @@ public class LocalVarsSymbolTable {
     }
 
     public void add(FormalParameter formalParameter) {
-        add(formalParameter.getName(), formalParameter);
+        add(formalParameter.getName(), formalParameter, formalParameter.getType().jvmType());
     }
 
     // Each instance is equals just to itself, by design.
@@ -51,56 +52,88 @@ public class LocalVarsSymbolTable {
         }
     }
 
-    private LocalVarsSymbolTable(int startIndex, LocalVarsSymbolTable parent) {
-        this.startIndex = startIndex;
-        this.parent = parent;
+    private LocalVarsSymbolTable(int startIndex) {
+        this.nextIndex = startIndex;
     }
 
     public static LocalVarsSymbolTable forStaticMethod() {
         // no space needed for "this"
-        return new LocalVarsSymbolTable(0, null);
+        return new LocalVarsSymbolTable(0);
     }
 
     public static LocalVarsSymbolTable forInstanceMethod() {
         // space needed for "this"
-        return new LocalVarsSymbolTable(1, null);
+        return new LocalVarsSymbolTable(1);
     }
 
     /**
-     * Return the index in the symbol table.
+     * An empty table, whose slots start after the ones used so far by this one: the variables and the aliases of
+     * this table are not visible in it. It is used to compile code coming from another invokable (e.g., an inlined
+     * function) in the middle of the current method. The slots it takes are not reserved in this table, so they are
+     * reused by the variables added to this table afterwards.
+     */
+    public LocalVarsSymbolTable childForInlining() {
+        return new LocalVarsSymbolTable(nextIndex);
+    }
+
+    /**
+     * Add a variable taking a single slot and return the index of that slot.
      */
     public int add(String name, Symbol value) {
+        return add(name, value, 1);
+    }
+
+    /**
+     * Add a variable of the given type and return the index of its first slot.
+     */
+    public int add(String name, Symbol value, JvmType jvmType) {
+        return add(name, value, isWide(jvmType) ? 2 : 1);
+    }
+
+    /**
+     * Reserve the slots of a value which cannot be referred by name (e.g., the map of default params) and return
+     * the index of the first one.
+     */
+    public int reserve(JvmType jvmType) {
+        int index = nextIndex;
+        nextIndex += isWide(jvmType) ? 2 : 1;
+        return index;
+    }
+
+    private int add(String name, Symbol value, int slots) {
+        int index = nextIndex;
         values.add(value);
         orderedNames.add(name);
         blockOfDeckaration.add(currentBlock);
-        return orderedNames.size() - 1;
+        indexes.add(index);
+        nextIndex += slots;
+        return index;
+    }
+
+    private static boolean isWide(JvmType jvmType) {
+        return jvmType.getDescriptor().equals("J") || jvmType.getDescriptor().equals("D");
     }
 
     public Optional<Integer> findIndex(String name) {
-        return findIndexInBlock(name, currentBlock);
+        return findPositionInBlock(name, currentBlock).map((i) -> indexes.get(i));
     }
 
     public Optional<Symbol> findDeclaration(String name) {
-        Optional<Integer> index = findIndex(name);
-        if (index.isPresent()) {
-            return Optional.of(values.get(index.get() - startIndex));
-        } else {
-            return Optional.empty();
-        }
+        return findPositionInBlock(name, currentBlock).map((i) -> values.get(i));
     }
 
-    private Optional<Integer> findIndexInBlock(String name, Block block) {
+    private Optional<Integer> findPositionInBlock(String name, Block block) {
         for (int i=0;i<orderedNames.size();i++) {
             if (orderedNames.get(i).equals(name)) {
                 if (blockOfDeckaration.get(i).equals(block)) {
-                    return Optional.of(i + startIndex);
+                    return Optional.of(i);
                 }
             }
         }
         if (block.parent == null) {
             return Optional.empty();
         } else {
-            return findIndexInBlock(name, block.parent);
+            return findPositionInBlock(name, block.parent);
         }
     }
 
@@ -6,4 +6,11 @@ public interface ErrorCollector {
 
     void recordSemanticError(Position position, String description);
 
+    /**
+     * Syntax errors are reported while parsing: the parser recovers from them, so it can report all of them at once.
+     */
+    default void recordSyntaxError(Position position, String description) {
+        recordSemanticError(position, description);
+    }
+
 }
@@ -13,11 +13,13 @@ import me.tomassetti.turin.symbols.FormalParameter;
 import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.Invokable;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
+import me.tomassetti.turin.typesystem.TypeIdSet;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * A TypeDefinition should not need to receive a SymbolResolver externally.
@@ -37,6 +39,21 @@ public interface TypeDefinition extends Symbol, Named {
 
     List<ReferenceTypeUsage> getAllAncestors();
 
+    /**
+     * The qualified names of all the ancestors. Implementations whose hierarchy cannot change during a compilation
+     * should calculate it once, because it is used to answer every subtyping question.
+     */
+    default TypeIdSet getAncestorIds() {
+        return TypeIdSet.of(getAllAncestors().stream().map((a) -> a.getQualifiedName()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Is this type the same as the given one or one of its subtypes? Type parameters are not considered.
+     */
+    default boolean isSubtypeOf(String qualifiedName) {
+        return getQualifiedName().equals(qualifiedName) || getAncestorIds().contains(qualifiedName);
+    }
+
     TypeDefinition getSuperclass();
 
     ///
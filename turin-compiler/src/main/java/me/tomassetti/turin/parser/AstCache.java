@@ -0,0 +1,116 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.parser.ast.TurinFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keep the ASTs of the files parsed in previous builds, so that unchanged files are not parsed again.
+ *
+ * Entries are stored in a directory and named after the SHA-1 of the source code: an entry remains valid as long as
+ * it exists, because changing the file changes its name. Entries are read by mapping them in memory. They start with
+ * the summaries of the top level symbols, which can be read alone, e.g., to find out which file defines a type.
+ *
+ * Entries which cannot be read (e.g., written by another version of the compiler) are treated as missing.
+ */
+public class AstCache {
+
+    private static final String EXTENSION = ".ast";
+
+    private final Path directory;
+
+    public AstCache(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The AST stored for the given UTF-8 source code, if any.
+     */
+    public Optional<TurinFile> load(ByteBuffer code) throws IOException {
+        Optional<ByteBuffer> entry = mapEntry(code);
+        if (!entry.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(BinaryAstReader.read(entry.get()));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The top level symbols of the AST stored for the given UTF-8 source code, if any.
+     */
+    public Optional<List<TopLevelSymbol>> loadSymbols(ByteBuffer code) throws IOException {
+        Optional<ByteBuffer> entry = mapEntry(code);
+        if (!entry.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(BinaryAstReader.readSymbols(entry.get()));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store the AST obtained by parsing the given UTF-8 source code. It should not have been resolved or compiled yet.
+     */
+    public void store(ByteBuffer code, TurinFile turinFile) throws IOException {
+        byte[] bytes = BinaryAstWriter.write(turinFile);
+        Path entry = entryPath(code);
+        // builds running at the same time could write the same entry: readers should never see it partially written
+        Path temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, bytes);
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Optional<ByteBuffer> mapEntry(ByteBuffer code) throws IOException {
+        Path entry = entryPath(code);
+        if (!Files.isRegularFile(entry)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            // the mapping remains valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(buffer);
+        }
+    }
+
+    Path entryPath(ByteBuffer code) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            // every implementation of the Java platform supports SHA-1
+            throw new RuntimeException(e);
+        }
+        digest.update(code.duplicate());
+        StringBuilder name = new StringBuilder();
+        for (byte b : digest.digest()) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16));
+            name.append(Character.forDigit(b & 0xF, 16));
+        }
+        return directory.resolve(name.append(EXTENSION).toString());
+    }
+}
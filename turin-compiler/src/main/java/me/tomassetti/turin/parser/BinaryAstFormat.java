@@ -0,0 +1,97 @@
+package me.tomassetti.turin.parser;
+
+/**
+ * Layout of the binary representation of a TurinFile, used by {@link BinaryAstWriter} and {@link BinaryAstReader}.
+ *
+ * A file starts with MAGIC and VERSION, followed by the summaries of the top level symbols, so that they can be
+ * read without decoding the rest. Then come the table of the strings used by the nodes and the nodes themselves.
+ *
+ * Each node is written as its tag, followed by its position (when the tag has the POSITION flag) and by its content,
+ * with the children written in the order they are passed to the constructor. Missing optional children are written
+ * as NULL. Counts, lines, columns and indexes in the string table are written as variable length integers.
+ */
+final class BinaryAstFormat {
+
+    private BinaryAstFormat() {
+        // prevent instantiation
+    }
+
+    static final int MAGIC = 0x54415354;
+    // to be incremented on every change to the format: files written with other versions are ignored
+    static final short VERSION = 3;
+
+    static final int POSITION = 0x80;
+
+    static final byte NULL = 0;
+
+    static final byte TURIN_FILE = 1;
+    static final byte NAMESPACE = 2;
+    static final byte QUALIFIED_NAME = 3;
+    static final byte ALL_PACKAGE_IMPORT = 4;
+    static final byte ALL_FIELDS_IMPORT = 5;
+    static final byte TYPE_IMPORT = 6;
+    static final byte SINGLE_FIELD_IMPORT = 7;
+
+    static final byte TYPE_DEFINITION = 10;
+    static final byte PROPERTY_DEFINITION = 11;
+    static final byte PROPERTY_REFERENCE = 12;
+    static final byte PROPERTY_CONSTRAINT = 13;
+    static final byte PROGRAM = 14;
+    static final byte FUNCTION_DEFINITION = 15;
+    static final byte METHOD_DEFINITION = 16;
+    static final byte CONSTRUCTOR_DEFINITION = 17;
+    static final byte FORMAL_PARAMETER = 18;
+    static final byte ANNOTATION_USAGE = 19;
+    static final byte RELATION_DEFINITION = 20;
+    static final byte RELATION_FIELD = 21;
+    static final byte CONTEXT_DEFINITION = 22;
+
+    static final byte REFERENCE_TYPE = 30;
+    static final byte PRIMITIVE_TYPE = 31;
+    static final byte BASIC_TYPE = 32;
+    static final byte ARRAY_TYPE = 33;
+    static final byte VOID_TYPE = 34;
+
+    static final byte BLOCK = 40;
+    static final byte EXPRESSION_STATEMENT = 41;
+    static final byte VARIABLE_DECLARATION = 42;
+    static final byte RETURN = 43;
+    static final byte IF = 44;
+    static final byte ELIF = 45;
+    static final byte THROW = 46;
+    static final byte TRY_CATCH = 47;
+    static final byte CATCH_CLAUSE = 48;
+    static final byte CONTEXT_SCOPE = 49;
+    static final byte CONTEXT_ASSIGNMENT = 50;
+
+    static final byte ACTUAL_PARAM = 60;
+    static final byte ARRAY_ACCESS = 61;
+    static final byte ASSIGNMENT = 62;
+    static final byte CONTEXT_ACCESS = 63;
+    static final byte CREATION = 64;
+    static final byte FUNCTION_CALL = 65;
+    static final byte INSTANCE_FIELD_ACCESS = 66;
+    static final byte INSTANCE_METHOD_INVOKATION = 67;
+    static final byte LOGIC_OPERATION = 68;
+    static final byte MATH_OPERATION = 69;
+    static final byte NOT_OPERATION = 70;
+    static final byte RELATION_SUBSET = 71;
+    static final byte RELATIONAL_OPERATION = 72;
+    static final byte SEMANTIC_ERROR = 73;
+    static final byte STATIC_FIELD_ACCESS = 74;
+    static final byte STRING_INTERPOLATION = 75;
+    static final byte THIS = 76;
+    static final byte TYPE_IDENTIFIER = 77;
+    static final byte VALUE_REFERENCE = 78;
+    static final byte PLACEHOLDER = 79;
+    static final byte SUPER_INVOKATION = 80;
+
+    static final byte BOOLEAN_LITERAL = 90;
+    static final byte BYTE_LITERAL = 91;
+    static final byte SHORT_LITERAL = 92;
+    static final byte INT_LITERAL = 93;
+    static final byte LONG_LITERAL = 94;
+    static final byte FLOAT_LITERAL = 95;
+    static final byte DOUBLE_LITERAL = 96;
+    static final byte STRING_LITERAL = 97;
+}
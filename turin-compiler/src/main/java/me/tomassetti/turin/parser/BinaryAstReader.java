@@ -0,0 +1,410 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.parser.ast.*;
+import me.tomassetti.turin.parser.ast.annotations.AnnotationUsage;
+import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.parser.ast.expressions.*;
+import me.tomassetti.turin.parser.ast.expressions.literals.*;
+import me.tomassetti.turin.parser.ast.imports.AllFieldsImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.AllPackageImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.ImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.SingleFieldImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.TypeImportDeclaration;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeContructorDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeMethodDefinitionNode;
+import me.tomassetti.turin.parser.ast.properties.PropertyConstraint;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.parser.ast.relations.RelationDefinition;
+import me.tomassetti.turin.parser.ast.relations.RelationFieldDefinition;
+import me.tomassetti.turin.parser.ast.statements.*;
+import me.tomassetti.turin.parser.ast.typeusage.*;
+import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static me.tomassetti.turin.parser.BinaryAstFormat.*;
+
+/**
+ * Rebuild a TurinFile from the format described by {@link BinaryAstFormat}, calling the same constructors the
+ * parser calls, so that the result cannot be distinguished from an AST obtained by parsing.
+ *
+ * The buffer is usually a file mapped in memory. Invalid content results in an IllegalArgumentException.
+ */
+class BinaryAstReader {
+
+    private final ByteBuffer buffer;
+    private String[] strings;
+
+    private BinaryAstReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Read only the summaries of the top level symbols, without decoding the nodes.
+     */
+    static List<TopLevelSymbol> readSymbols(ByteBuffer buffer) {
+        BinaryAstReader reader = new BinaryAstReader(buffer.duplicate());
+        return reader.readHeader();
+    }
+
+    static TurinFile read(ByteBuffer buffer) {
+        BinaryAstReader reader = new BinaryAstReader(buffer.duplicate());
+        reader.readHeader();
+        reader.strings = new String[reader.readCount()];
+        for (int i = 0; i < reader.strings.length; i++) {
+            reader.strings[i] = reader.readInlineString();
+        }
+        Node node = reader.readNode();
+        if (!(node instanceof TurinFile) || reader.buffer.hasRemaining()) {
+            throw new IllegalArgumentException("The content does not represent a TurinFile");
+        }
+        return (TurinFile) node;
+    }
+
+    private List<TopLevelSymbol> readHeader() {
+        if (buffer.remaining() < 6 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("The content does not represent a TurinFile");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version);
+        }
+        TopLevelSymbol.Kind[] kinds = TopLevelSymbol.Kind.values();
+        int count = readCount();
+        List<TopLevelSymbol> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TopLevelSymbol.Kind kind = kinds[buffer.get()];
+            String qualifiedName = readInlineString();
+            symbols.add(new TopLevelSymbol(kind, qualifiedName, readPosition()));
+        }
+        return symbols;
+    }
+
+    ///
+    /// Nodes
+    ///
+
+    private Node readNode() {
+        int header = buffer.get() & 0xFF;
+        if (header == NULL) {
+            return null;
+        }
+        Position position = (header & POSITION) != 0 ? readPosition() : null;
+        Node node = readContent((byte) (header & ~POSITION));
+        if (position != null) {
+            node.setPosition(position);
+        }
+        return node;
+    }
+
+    private Node readContent(byte tag) {
+        switch (tag) {
+            case TURIN_FILE: {
+                TurinFile turinFile = new TurinFile();
+                NamespaceDefinition namespaceDefinition = (NamespaceDefinition) readNode();
+                if (namespaceDefinition != null) {
+                    turinFile.setNameSpace(namespaceDefinition);
+                }
+                for (Node member : readNodes(Node.class)) {
+                    addMember(turinFile, member);
+                }
+                for (ImportDeclaration importDeclaration : readNodes(ImportDeclaration.class)) {
+                    turinFile.add(importDeclaration);
+                }
+                return turinFile;
+            }
+            case NAMESPACE:
+                return new NamespaceDefinition(readString());
+            case QUALIFIED_NAME: {
+                QualifiedName base = (QualifiedName) readNode();
+                String name = readString();
+                return base == null ? new QualifiedName(name) : new QualifiedName(base, name);
+            }
+            case ALL_PACKAGE_IMPORT:
+                return new AllPackageImportDeclaration((QualifiedName) readNode());
+            case ALL_FIELDS_IMPORT:
+                return new AllFieldsImportDeclaration((QualifiedName) readNode(), readString());
+            case TYPE_IMPORT: {
+                QualifiedName packageName = (QualifiedName) readNode();
+                String typeName = readString();
+                String alternativeName = readNullableString();
+                if (alternativeName == null) {
+                    return new TypeImportDeclaration(packageName, typeName);
+                } else {
+                    return new TypeImportDeclaration(packageName, typeName, alternativeName);
+                }
+            }
+            case SINGLE_FIELD_IMPORT: {
+                QualifiedName packagePart = (QualifiedName) readNode();
+                String typeName = readString();
+                QualifiedName fieldsPath = (QualifiedName) readNode();
+                String alias = readNullableString();
+                if (alias == null) {
+                    return new SingleFieldImportDeclaration(packagePart, typeName, fieldsPath);
+                } else {
+                    return new SingleFieldImportDeclaration(packagePart, typeName, fieldsPath, alias);
+                }
+            }
+            case TYPE_DEFINITION:
+                return readTypeDefinition();
+            case PROPERTY_DEFINITION: {
+                String name = readString();
+                TypeUsageNode type = (TypeUsageNode) readNode();
+                Optional<Expression> initialValue = Optional.ofNullable((Expression) readNode());
+                Optional<Expression> defaultValue = Optional.ofNullable((Expression) readNode());
+                return new PropertyDefinition(name, type, initialValue, defaultValue, readNodes(PropertyConstraint.class));
+            }
+            case PROPERTY_REFERENCE:
+                return new PropertyReference(readString());
+            case PROPERTY_CONSTRAINT:
+                return new PropertyConstraint((Expression) readNode(), (Expression) readNode());
+            case PROGRAM:
+                return new Program(readString(), (Statement) readNode(), readString());
+            case FUNCTION_DEFINITION: {
+                FunctionDefinitionNode functionDefinition = new FunctionDefinitionNode(readString(),
+                        (TypeUsageNode) readNode(), readNodes(FormalParameterNode.class), (Statement) readNode());
+                readNodes(AnnotationUsage.class).forEach(functionDefinition::addAnnotation);
+                return functionDefinition;
+            }
+            case METHOD_DEFINITION:
+                return new TurinTypeMethodDefinitionNode(readString(), (TypeUsageNode) readNode(),
+                        readNodes(FormalParameterNode.class), (Statement) readNode());
+            case CONSTRUCTOR_DEFINITION:
+                return new TurinTypeContructorDefinitionNode(readNodes(FormalParameterNode.class), (BlockStatement) readNode());
+            case FORMAL_PARAMETER:
+                return new FormalParameterNode((TypeUsageNode) readNode(), readString(),
+                        Optional.ofNullable((Expression) readNode()));
+            case ANNOTATION_USAGE:
+                return new AnnotationUsage(readString());
+            case RELATION_DEFINITION:
+                return new RelationDefinition(readString(), readNodes(RelationFieldDefinition.class));
+            case RELATION_FIELD:
+                return new RelationFieldDefinition(RelationFieldDefinition.Cardinality.valueOf(readString()),
+                        readString(), (TypeUsageNode) readNode());
+            case CONTEXT_DEFINITION:
+                return new ContextDefinitionNode(readString(), (TypeUsageNode) readNode());
+
+            case REFERENCE_TYPE:
+                return new ReferenceTypeUsageNode(readString());
+            case PRIMITIVE_TYPE:
+                return TypeUsageNode.wrap(PrimitiveTypeUsage.getByName(readString()));
+            case BASIC_TYPE:
+                return new BasicTypeUsageNode(readString());
+            case ARRAY_TYPE:
+                return new ArrayTypeUsageNode((TypeUsageNode) readNode());
+            case VOID_TYPE:
+                return new VoidTypeUsageNode();
+
+            case BLOCK:
+                return new BlockStatement(readNodes(Statement.class));
+            case EXPRESSION_STATEMENT:
+                return new ExpressionStatement((Expression) readNode());
+            case VARIABLE_DECLARATION: {
+                String name = readString();
+                Expression value = (Expression) readNode();
+                TypeUsageNode type = (TypeUsageNode) readNode();
+                return type == null ? new VariableDeclaration(name, value) : new VariableDeclaration(name, value, type);
+            }
+            case RETURN: {
+                Expression value = (Expression) readNode();
+                return value == null ? new ReturnStatement() : new ReturnStatement(value);
+            }
+            case IF: {
+                Expression condition = (Expression) readNode();
+                BlockStatement ifBody = (BlockStatement) readNode();
+                List<ElifClause> elifClauses = readNodes(ElifClause.class);
+                BlockStatement elseBody = (BlockStatement) readNode();
+                if (elseBody == null) {
+                    return new IfStatement(condition, ifBody, elifClauses);
+                } else {
+                    return new IfStatement(condition, ifBody, elifClauses, elseBody);
+                }
+            }
+            case ELIF:
+                return new ElifClause((Expression) readNode(), (BlockStatement) readNode());
+            case THROW:
+                return new ThrowStatement((Expression) readNode());
+            case TRY_CATCH:
+                return new TryCatchStatement((BlockStatement) readNode(), readNodes(CatchClause.class));
+            case CATCH_CLAUSE:
+                return new CatchClause((TypeIdentifier) readNode(), readString(), (BlockStatement) readNode());
+            case CONTEXT_SCOPE:
+                return new ContextScope(readNodes(ContextAssignment.class), readNodes(Statement.class));
+            case CONTEXT_ASSIGNMENT:
+                return new ContextAssignment(readString(), (Expression) readNode());
+
+            case ACTUAL_PARAM: {
+                String name = readNullableString();
+                Expression value = (Expression) readNode();
+                boolean asterisk = readBoolean();
+                return name == null ? new ActualParam(value, asterisk) : new ActualParam(name, value);
+            }
+            case ARRAY_ACCESS:
+                return new ArrayAccess((Expression) readNode(), (Expression) readNode());
+            case ASSIGNMENT:
+                return new AssignmentExpression((Expression) readNode(), (Expression) readNode());
+            case CONTEXT_ACCESS:
+                return new ContextAccess(readString());
+            case CREATION:
+                return new Creation((TypeUsageNode) readNode(), readNodes(ActualParam.class));
+            case FUNCTION_CALL:
+                return new FunctionCall((Expression) readNode(), readNodes(ActualParam.class));
+            case INSTANCE_FIELD_ACCESS:
+                return new InstanceFieldAccess((Expression) readNode(), readString());
+            case INSTANCE_METHOD_INVOKATION:
+                return new InstanceMethodInvokation((Expression) readNode(), readString(), readNodes(ActualParam.class));
+            case LOGIC_OPERATION:
+                return new LogicOperation(LogicOperation.Operator.valueOf(readString()),
+                        (Expression) readNode(), (Expression) readNode());
+            case MATH_OPERATION:
+                return new MathOperation(MathOperation.Operator.valueOf(readString()),
+                        (Expression) readNode(), (Expression) readNode());
+            case NOT_OPERATION:
+                return new NotOperation((Expression) readNode());
+            case RELATION_SUBSET:
+                return new RelationSubset(readString(), readString(), readNodes(ActualParam.class));
+            case RELATIONAL_OPERATION:
+                return new RelationalOperation(RelationalOperation.Operator.valueOf(readString()),
+                        (Expression) readNode(), (Expression) readNode());
+            case SEMANTIC_ERROR:
+                return new SemanticError(readString(), readBoolean() ? readPosition() : null);
+            case STATIC_FIELD_ACCESS:
+                return new StaticFieldAccess((TypeIdentifier) readNode(), readString());
+            case STRING_INTERPOLATION: {
+                StringInterpolation stringInterpolation = new StringInterpolation();
+                readNodes(Expression.class).forEach(stringInterpolation::add);
+                return stringInterpolation;
+            }
+            case THIS:
+                return new ThisExpression();
+            case TYPE_IDENTIFIER: {
+                QualifiedName packageName = (QualifiedName) readNode();
+                String typeName = readString();
+                return packageName == null ? new TypeIdentifier(typeName) : new TypeIdentifier(packageName, typeName);
+            }
+            case VALUE_REFERENCE:
+                return new ValueReference(readString());
+            case PLACEHOLDER:
+                return new Placeholder();
+            case SUPER_INVOKATION:
+                return new SuperInvokation(readNodes(ActualParam.class));
+
+            case BOOLEAN_LITERAL:
+                return new BooleanLiteral(readBoolean());
+            case BYTE_LITERAL:
+                return new ByteLiteral(buffer.get());
+            case SHORT_LITERAL:
+                return new ShortLiteral(buffer.getShort());
+            case INT_LITERAL:
+                return new IntLiteral(buffer.getInt());
+            case LONG_LITERAL:
+                return new LongLiteral(buffer.getLong());
+            case FLOAT_LITERAL:
+                return new FloatLiteral(buffer.getFloat());
+            case DOUBLE_LITERAL:
+                return new DoubleLiteral(buffer.getDouble());
+            case STRING_LITERAL:
+                return new StringLiteral(readString());
+            default:
+                throw new IllegalArgumentException("Unknown tag " + tag);
+        }
+    }
+
+    private TurinTypeDefinition readTypeDefinition() {
+        TurinTypeDefinition typeDefinition = new TurinTypeDefinition(readString());
+        typeDefinition.setImmutable(readBoolean());
+        for (Node member : readNodes(Node.class)) {
+            if (member instanceof PropertyReference) {
+                typeDefinition.add((PropertyReference) member);
+            } else if (member instanceof PropertyDefinition) {
+                typeDefinition.add((PropertyDefinition) member);
+            } else if (member instanceof TurinTypeMethodDefinitionNode) {
+                typeDefinition.add((TurinTypeMethodDefinitionNode) member);
+            } else if (member instanceof TurinTypeContructorDefinitionNode) {
+                typeDefinition.add((TurinTypeContructorDefinitionNode) member);
+            } else {
+                throw new IllegalArgumentException("Unexpected member of a type: " + member.getClass().getCanonicalName());
+            }
+        }
+        readNodes(AnnotationUsage.class).forEach(typeDefinition::addAnnotation);
+        TypeUsageNode baseType = (TypeUsageNode) readNode();
+        if (baseType != null) {
+            typeDefinition.setBaseType(baseType);
+        }
+        readNodes(TypeUsageNode.class).forEach(typeDefinition::addInterface);
+        return typeDefinition;
+    }
+
+    private void addMember(TurinFile turinFile, Node member) {
+        if (member instanceof TurinTypeDefinition) {
+            turinFile.add((TurinTypeDefinition) member);
+        } else if (member instanceof PropertyDefinition) {
+            turinFile.add((PropertyDefinition) member);
+        } else if (member instanceof Program) {
+            turinFile.add((Program) member);
+        } else if (member instanceof FunctionDefinitionNode) {
+            turinFile.add((FunctionDefinitionNode) member);
+        } else if (member instanceof RelationDefinition) {
+            turinFile.add((RelationDefinition) member);
+        } else if (member instanceof ContextDefinitionNode) {
+            turinFile.add((ContextDefinitionNode) member);
+        } else {
+            throw new IllegalArgumentException("Unexpected member of a file: " + member.getClass().getCanonicalName());
+        }
+    }
+
+    ///
+    /// Decoding
+    ///
+
+    private <N extends Node> List<N> readNodes(Class<N> nodeClass) {
+        int count = readCount();
+        List<N> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            nodes.add(nodeClass.cast(readNode()));
+        }
+        return nodes;
+    }
+
+    private Position readPosition() {
+        return Position.create(readCount(), readCount(), readCount(), readCount());
+    }
+
+    private String readString() {
+        return strings[readCount()];
+    }
+
+    private String readNullableString() {
+        int index = readCount();
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private String readInlineString() {
+        int length = readCount();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    private int readCount() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid variable length integer");
+    }
+}
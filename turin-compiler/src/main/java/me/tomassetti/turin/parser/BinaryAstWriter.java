@@ -0,0 +1,561 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.parser.ast.*;
+import me.tomassetti.turin.parser.ast.annotations.AnnotationUsage;
+import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.parser.ast.expressions.*;
+import me.tomassetti.turin.parser.ast.expressions.literals.*;
+import me.tomassetti.turin.parser.ast.imports.AllFieldsImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.AllPackageImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.ImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.SingleFieldImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.TypeImportDeclaration;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.InvokableDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeContructorDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeMethodDefinitionNode;
+import me.tomassetti.turin.parser.ast.properties.PropertyConstraint;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.parser.ast.relations.RelationDefinition;
+import me.tomassetti.turin.parser.ast.relations.RelationFieldDefinition;
+import me.tomassetti.turin.parser.ast.statements.*;
+import me.tomassetti.turin.parser.ast.typeusage.*;
+import me.tomassetti.turin.symbols.FormalParameter;
+import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
+import me.tomassetti.turin.typesystem.UnsignedPrimitiveTypeUsage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static me.tomassetti.turin.parser.BinaryAstFormat.*;
+
+/**
+ * Write a TurinFile in the format described by {@link BinaryAstFormat}.
+ *
+ * Only the nodes produced by the parser are supported: the AST should be written before it is resolved or compiled,
+ * because these steps can add nodes (e.g., desugarizing invocations).
+ */
+class BinaryAstWriter {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    static byte[] write(TurinFile turinFile) {
+        BinaryAstWriter body = new BinaryAstWriter();
+        body.writeNode(turinFile);
+
+        BinaryAstWriter file = new BinaryAstWriter();
+        file.buffer.putInt(MAGIC);
+        file.buffer.putShort(VERSION);
+        List<TopLevelSymbol> symbols = topLevelSymbols(turinFile);
+        file.writeCount(symbols.size());
+        for (TopLevelSymbol symbol : symbols) {
+            file.writeByte(symbol.getKind().ordinal());
+            file.writeInlineString(symbol.getQualifiedName());
+            file.writePosition(symbol.getPosition());
+        }
+        file.writeCount(body.strings.size());
+        for (String string : body.strings) {
+            file.writeInlineString(string);
+        }
+        body.buffer.flip();
+        file.ensureCapacity(body.buffer.remaining());
+        file.buffer.put(body.buffer);
+
+        byte[] bytes = new byte[file.buffer.position()];
+        file.buffer.flip();
+        file.buffer.get(bytes);
+        return bytes;
+    }
+
+    static List<TopLevelSymbol> topLevelSymbols(TurinFile turinFile) {
+        String namespace = turinFile.getNamespaceDefinition().getName();
+        List<TopLevelSymbol> symbols = new ArrayList<>();
+        for (Node member : turinFile.getNodes()) {
+            TopLevelSymbol.Kind kind;
+            String name;
+            if (member instanceof TurinTypeDefinition) {
+                kind = TopLevelSymbol.Kind.TYPE;
+                name = ((TurinTypeDefinition) member).getName();
+            } else if (member instanceof FunctionDefinitionNode) {
+                kind = TopLevelSymbol.Kind.FUNCTION;
+                name = ((FunctionDefinitionNode) member).getName();
+            } else if (member instanceof PropertyDefinition) {
+                kind = TopLevelSymbol.Kind.PROPERTY;
+                name = ((PropertyDefinition) member).getName();
+            } else if (member instanceof Program) {
+                kind = TopLevelSymbol.Kind.PROGRAM;
+                name = ((Program) member).getName();
+            } else if (member instanceof RelationDefinition) {
+                kind = TopLevelSymbol.Kind.RELATION;
+                name = ((RelationDefinition) member).getName();
+            } else if (member instanceof ContextDefinitionNode) {
+                kind = TopLevelSymbol.Kind.CONTEXT;
+                name = ((ContextDefinitionNode) member).getName();
+            } else {
+                throw new UnsupportedOperationException(member.getClass().getCanonicalName());
+            }
+            symbols.add(new TopLevelSymbol(kind, namespace + "." + name, member.getPosition()));
+        }
+        return symbols;
+    }
+
+    ///
+    /// Nodes
+    ///
+
+    private void writeNode(Node node) {
+        if (node == null) {
+            writeByte(NULL);
+        } else if (node instanceof Expression) {
+            writeExpression((Expression) node);
+        } else if (node instanceof Statement) {
+            writeStatement((Statement) node);
+        } else if (node instanceof TypeUsageNode) {
+            writeTypeUsage((TypeUsageNode) node);
+        } else if (node instanceof ImportDeclaration) {
+            writeImport((ImportDeclaration) node);
+        } else {
+            writeDeclaration(node);
+        }
+    }
+
+    private void writeDeclaration(Node node) {
+        if (node instanceof TurinFile) {
+            TurinFile turinFile = (TurinFile) node;
+            writeHeader(TURIN_FILE, node);
+            writeNode(turinFile.getNamespaceDefinition());
+            writeNodes(turinFile.getNodes());
+            writeNodes(turinFile.getImports());
+        } else if (node instanceof NamespaceDefinition) {
+            writeHeader(NAMESPACE, node);
+            writeString(((NamespaceDefinition) node).getName());
+        } else if (node instanceof QualifiedName) {
+            QualifiedName qualifiedName = (QualifiedName) node;
+            writeHeader(QUALIFIED_NAME, node);
+            writeNode(qualifiedName.getBase());
+            writeString(qualifiedName.getName());
+        } else if (node instanceof TurinTypeDefinition) {
+            TurinTypeDefinition typeDefinition = (TurinTypeDefinition) node;
+            writeHeader(TYPE_DEFINITION, node);
+            writeString(typeDefinition.getName());
+            writeBoolean(typeDefinition.isImmutable());
+            writeNodes(typeDefinition.getMembers());
+            writeNodes(typeDefinition.getAnnotations());
+            writeNode(typeDefinition.getBaseType().orElse(null));
+            writeNodes(typeDefinition.getInterfaces());
+        } else if (node instanceof PropertyDefinition) {
+            PropertyDefinition propertyDefinition = (PropertyDefinition) node;
+            writeHeader(PROPERTY_DEFINITION, node);
+            writeString(propertyDefinition.getName());
+            writeNode(propertyDefinition.getType());
+            writeNode(propertyDefinition.getInitialValue().orElse(null));
+            writeNode(propertyDefinition.getDefaultValue().orElse(null));
+            writeNodes(propertyDefinition.getConstraints());
+        } else if (node instanceof PropertyReference) {
+            writeHeader(PROPERTY_REFERENCE, node);
+            writeString(((PropertyReference) node).getName());
+        } else if (node instanceof PropertyConstraint) {
+            PropertyConstraint propertyConstraint = (PropertyConstraint) node;
+            writeHeader(PROPERTY_CONSTRAINT, node);
+            writeNode(propertyConstraint.getCondition());
+            writeNode(propertyConstraint.getMessage());
+        } else if (node instanceof Program) {
+            Program program = (Program) node;
+            writeHeader(PROGRAM, node);
+            writeString(program.getName());
+            writeNode(program.getStatement());
+            writeString(program.getParamName());
+        } else if (node instanceof FunctionDefinitionNode) {
+            FunctionDefinitionNode functionDefinition = (FunctionDefinitionNode) node;
+            writeHeader(FUNCTION_DEFINITION, node);
+            writeInvokableDefinition(functionDefinition);
+            writeNodes(functionDefinition.getAnnotations());
+        } else if (node instanceof TurinTypeMethodDefinitionNode) {
+            writeHeader(METHOD_DEFINITION, node);
+            writeInvokableDefinition((TurinTypeMethodDefinitionNode) node);
+        } else if (node instanceof TurinTypeContructorDefinitionNode) {
+            TurinTypeContructorDefinitionNode constructorDefinition = (TurinTypeContructorDefinitionNode) node;
+            writeHeader(CONSTRUCTOR_DEFINITION, node);
+            writeFormalParameters(constructorDefinition.getParameters());
+            writeNode(constructorDefinition.getBody());
+        } else if (node instanceof FormalParameterNode) {
+            FormalParameterNode formalParameter = (FormalParameterNode) node;
+            writeHeader(FORMAL_PARAMETER, node);
+            writeNode(formalParameter.getType());
+            writeString(formalParameter.getName());
+            writeNode(formalParameter.getDefaultValue().orElse(null));
+        } else if (node instanceof AnnotationUsage) {
+            writeHeader(ANNOTATION_USAGE, node);
+            writeString(((AnnotationUsage) node).getName());
+        } else if (node instanceof RelationDefinition) {
+            RelationDefinition relationDefinition = (RelationDefinition) node;
+            writeHeader(RELATION_DEFINITION, node);
+            writeString(relationDefinition.getName());
+            writeNodes(relationDefinition.getFields());
+        } else if (node instanceof RelationFieldDefinition) {
+            RelationFieldDefinition relationField = (RelationFieldDefinition) node;
+            writeHeader(RELATION_FIELD, node);
+            writeString(relationField.getCardinality().name());
+            writeString(relationField.getName());
+            writeNode(relationField.getType());
+        } else if (node instanceof ContextDefinitionNode) {
+            ContextDefinitionNode contextDefinition = (ContextDefinitionNode) node;
+            writeHeader(CONTEXT_DEFINITION, node);
+            writeString(contextDefinition.getName());
+            writeNode(contextDefinition.getType());
+        } else if (node instanceof ActualParam) {
+            ActualParam actualParam = (ActualParam) node;
+            writeHeader(ACTUAL_PARAM, node);
+            writeNullableString(actualParam.getName());
+            writeNode(actualParam.getValue());
+            writeBoolean(actualParam.isAsterisk());
+        } else if (node instanceof TypeIdentifier) {
+            TypeIdentifier typeIdentifier = (TypeIdentifier) node;
+            writeHeader(TYPE_IDENTIFIER, node);
+            writeNode(typeIdentifier.getPackageName());
+            writeString(typeIdentifier.getTypeName());
+        } else if (node instanceof ElifClause) {
+            ElifClause elifClause = (ElifClause) node;
+            writeHeader(ELIF, node);
+            writeNode(elifClause.getCondition());
+            writeNode(elifClause.getBody());
+        } else if (node instanceof CatchClause) {
+            CatchClause catchClause = (CatchClause) node;
+            writeHeader(CATCH_CLAUSE, node);
+            writeNode(catchClause.getExceptionType());
+            writeString(catchClause.getVariableName());
+            writeNode(catchClause.getBody());
+        } else if (node instanceof ContextAssignment) {
+            ContextAssignment contextAssignment = (ContextAssignment) node;
+            writeHeader(CONTEXT_ASSIGNMENT, node);
+            writeString(contextAssignment.getContextName());
+            writeNode(contextAssignment.getContextValue());
+        } else {
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeInvokableDefinition(InvokableDefinitionNode invokableDefinition) {
+        writeString(invokableDefinition.getName());
+        writeNode(invokableDefinition.getReturnType());
+        writeFormalParameters(invokableDefinition.getParameters());
+        writeNode(invokableDefinition.getBody());
+    }
+
+    private void writeFormalParameters(List<? extends FormalParameter> formalParameters) {
+        writeCount(formalParameters.size());
+        for (FormalParameter formalParameter : formalParameters) {
+            writeNode(formalParameter.asNode());
+        }
+    }
+
+    private void writeImport(ImportDeclaration node) {
+        if (node instanceof AllPackageImportDeclaration) {
+            writeHeader(ALL_PACKAGE_IMPORT, node);
+            writeNode(((AllPackageImportDeclaration) node).getPackageName());
+        } else if (node instanceof AllFieldsImportDeclaration) {
+            AllFieldsImportDeclaration importDeclaration = (AllFieldsImportDeclaration) node;
+            writeHeader(ALL_FIELDS_IMPORT, node);
+            writeNode(importDeclaration.getPackagePart());
+            writeString(importDeclaration.getTypeName());
+        } else if (node instanceof TypeImportDeclaration) {
+            TypeImportDeclaration importDeclaration = (TypeImportDeclaration) node;
+            writeHeader(TYPE_IMPORT, node);
+            writeNode(importDeclaration.getPackageName());
+            writeString(importDeclaration.getTypeName());
+            writeNullableString(importDeclaration.getAlternativeName());
+        } else if (node instanceof SingleFieldImportDeclaration) {
+            SingleFieldImportDeclaration importDeclaration = (SingleFieldImportDeclaration) node;
+            writeHeader(SINGLE_FIELD_IMPORT, node);
+            writeNode(importDeclaration.getPackagePart());
+            writeString(importDeclaration.getTypeName());
+            writeNode(importDeclaration.getFieldsPath());
+            writeNullableString(importDeclaration.getAlias());
+        } else {
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeTypeUsage(TypeUsageNode node) {
+        if (node instanceof ReferenceTypeUsageNode) {
+            writeHeader(REFERENCE_TYPE, node);
+            writeString(((ReferenceTypeUsageNode) node).getName());
+        } else if (node instanceof BasicTypeUsageNode) {
+            writeHeader(BASIC_TYPE, node);
+            writeString(((UnsignedPrimitiveTypeUsage) node.typeUsage()).getName());
+        } else if (node instanceof ArrayTypeUsageNode) {
+            writeHeader(ARRAY_TYPE, node);
+            writeNode(((ArrayTypeUsageNode) node).getComponentTypeNode());
+        } else if (node instanceof VoidTypeUsageNode) {
+            writeHeader(VOID_TYPE, node);
+        } else if (node.typeUsage() instanceof PrimitiveTypeUsage) {
+            // the parser wraps the primitive types
+            writeHeader(PRIMITIVE_TYPE, node);
+            writeString(((PrimitiveTypeUsage) node.typeUsage()).getName());
+        } else {
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeStatement(Statement node) {
+        if (node instanceof BlockStatement) {
+            writeHeader(BLOCK, node);
+            writeNodes(((BlockStatement) node).getStatements());
+        } else if (node instanceof ExpressionStatement) {
+            writeHeader(EXPRESSION_STATEMENT, node);
+            writeNode(((ExpressionStatement) node).getExpression());
+        } else if (node instanceof VariableDeclaration) {
+            VariableDeclaration variableDeclaration = (VariableDeclaration) node;
+            writeHeader(VARIABLE_DECLARATION, node);
+            writeString(variableDeclaration.getName());
+            writeNode(variableDeclaration.getValue());
+            writeNode(variableDeclaration.getType());
+        } else if (node instanceof ReturnStatement) {
+            writeHeader(RETURN, node);
+            writeNode(((ReturnStatement) node).getValue());
+        } else if (node instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) node;
+            writeHeader(IF, node);
+            writeNode(ifStatement.getCondition());
+            writeNode(ifStatement.getIfBody());
+            writeNodes(ifStatement.getElifStatements());
+            writeNode(ifStatement.hasElse() ? ifStatement.getElseBody() : null);
+        } else if (node instanceof ThrowStatement) {
+            writeHeader(THROW, node);
+            writeNode(((ThrowStatement) node).getException());
+        } else if (node instanceof TryCatchStatement) {
+            TryCatchStatement tryCatchStatement = (TryCatchStatement) node;
+            writeHeader(TRY_CATCH, node);
+            writeNode(tryCatchStatement.getBody());
+            writeNodes(tryCatchStatement.getCatchClauses());
+        } else if (node instanceof ContextScope) {
+            ContextScope contextScope = (ContextScope) node;
+            writeHeader(CONTEXT_SCOPE, node);
+            writeNodes(contextScope.getAssignments());
+            writeNodes(contextScope.getStatements());
+        } else {
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeExpression(Expression node) {
+        if (node instanceof ValueReference) {
+            writeHeader(VALUE_REFERENCE, node);
+            writeString(((ValueReference) node).getName());
+        } else if (node instanceof FunctionCall) {
+            FunctionCall functionCall = (FunctionCall) node;
+            writeHeader(FUNCTION_CALL, node);
+            writeNode(functionCall.getFunction());
+            writeNodes(functionCall.getActualParams());
+        } else if (node instanceof InstanceMethodInvokation) {
+            InstanceMethodInvokation invokation = (InstanceMethodInvokation) node;
+            writeHeader(INSTANCE_METHOD_INVOKATION, node);
+            writeNode(invokation.getSubject());
+            writeString(invokation.getMethodName());
+            writeNodes(invokation.getActualParams());
+        } else if (node instanceof Creation) {
+            Creation creation = (Creation) node;
+            writeHeader(CREATION, node);
+            writeNode(creation.getType());
+            writeNodes(creation.getActualParams());
+        } else if (node instanceof SuperInvokation) {
+            writeHeader(SUPER_INVOKATION, node);
+            writeNodes(((SuperInvokation) node).getActualParams());
+        } else if (node instanceof InstanceFieldAccess) {
+            InstanceFieldAccess fieldAccess = (InstanceFieldAccess) node;
+            writeHeader(INSTANCE_FIELD_ACCESS, node);
+            writeNode(fieldAccess.getSubject());
+            writeString(fieldAccess.getField());
+        } else if (node instanceof StaticFieldAccess) {
+            StaticFieldAccess fieldAccess = (StaticFieldAccess) node;
+            writeHeader(STATIC_FIELD_ACCESS, node);
+            writeNode(fieldAccess.getSubject());
+            writeString(fieldAccess.getField());
+        } else if (node instanceof MathOperation) {
+            MathOperation operation = (MathOperation) node;
+            writeHeader(MATH_OPERATION, node);
+            writeString(operation.getOperator().name());
+            writeNode(operation.getLeft());
+            writeNode(operation.getRight());
+        } else if (node instanceof LogicOperation) {
+            LogicOperation operation = (LogicOperation) node;
+            writeHeader(LOGIC_OPERATION, node);
+            writeString(operation.getOperator().name());
+            writeNode(operation.getLeft());
+            writeNode(operation.getRight());
+        } else if (node instanceof RelationalOperation) {
+            RelationalOperation operation = (RelationalOperation) node;
+            writeHeader(RELATIONAL_OPERATION, node);
+            writeString(operation.getOperator().name());
+            writeNode(operation.getLeft());
+            writeNode(operation.getRight());
+        } else if (node instanceof NotOperation) {
+            writeHeader(NOT_OPERATION, node);
+            writeNode(((NotOperation) node).getValue());
+        } else if (node instanceof ArrayAccess) {
+            ArrayAccess arrayAccess = (ArrayAccess) node;
+            writeHeader(ARRAY_ACCESS, node);
+            writeNode(arrayAccess.getArray());
+            writeNode(arrayAccess.getIndex());
+        } else if (node instanceof AssignmentExpression) {
+            AssignmentExpression assignment = (AssignmentExpression) node;
+            writeHeader(ASSIGNMENT, node);
+            writeNode(assignment.getTarget());
+            writeNode(assignment.getValue());
+        } else if (node instanceof StringInterpolation) {
+            writeHeader(STRING_INTERPOLATION, node);
+            writeNodes(((StringInterpolation) node).getElements());
+        } else if (node instanceof ContextAccess) {
+            writeHeader(CONTEXT_ACCESS, node);
+            writeString(((ContextAccess) node).getContextName());
+        } else if (node instanceof RelationSubset) {
+            RelationSubset relationSubset = (RelationSubset) node;
+            writeHeader(RELATION_SUBSET, node);
+            writeString(relationSubset.getRelationName());
+            writeString(relationSubset.getFieldName());
+            writeNodes(relationSubset.getMatchingConditions());
+        } else if (node instanceof SemanticError) {
+            SemanticError semanticError = (SemanticError) node;
+            writeHeader(SEMANTIC_ERROR, node);
+            writeString(semanticError.getMessage());
+            writeBoolean(semanticError.getErrorPosition() != null);
+            if (semanticError.getErrorPosition() != null) {
+                writePosition(semanticError.getErrorPosition());
+            }
+        } else if (node instanceof ThisExpression) {
+            writeHeader(THIS, node);
+        } else if (node instanceof Placeholder) {
+            writeHeader(PLACEHOLDER, node);
+        } else {
+            writeLiteral(node);
+        }
+    }
+
+    private void writeLiteral(Expression node) {
+        if (node instanceof StringLiteral) {
+            writeHeader(STRING_LITERAL, node);
+            writeString(((StringLiteral) node).getValue());
+        } else if (node instanceof IntLiteral) {
+            writeHeader(INT_LITERAL, node);
+            ensureCapacity(4);
+            buffer.putInt(((IntLiteral) node).getValue());
+        } else if (node instanceof BooleanLiteral) {
+            writeHeader(BOOLEAN_LITERAL, node);
+            writeBoolean(((BooleanLiteral) node).getValue());
+        } else if (node instanceof ByteLiteral) {
+            writeHeader(BYTE_LITERAL, node);
+            writeByte(((ByteLiteral) node).getValue());
+        } else if (node instanceof ShortLiteral) {
+            writeHeader(SHORT_LITERAL, node);
+            ensureCapacity(2);
+            buffer.putShort(((ShortLiteral) node).getValue());
+        } else if (node instanceof LongLiteral) {
+            writeHeader(LONG_LITERAL, node);
+            ensureCapacity(8);
+            buffer.putLong(((LongLiteral) node).getValue());
+        } else if (node instanceof FloatLiteral) {
+            writeHeader(FLOAT_LITERAL, node);
+            ensureCapacity(4);
+            buffer.putFloat(((FloatLiteral) node).getValue());
+        } else if (node instanceof DoubleLiteral) {
+            writeHeader(DOUBLE_LITERAL, node);
+            ensureCapacity(8);
+            buffer.putDouble(((DoubleLiteral) node).getValue());
+        } else {
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        }
+    }
+
+    ///
+    /// Encoding
+    ///
+
+    private void writeHeader(byte tag, Node node) {
+        if (node.hasPosition()) {
+            writeByte(tag | POSITION);
+            writePosition(node.getPosition());
+        } else {
+            writeByte(tag);
+        }
+    }
+
+    private void writeNodes(List<? extends Node> nodes) {
+        writeCount(nodes.size());
+        for (Node node : nodes) {
+            writeNode(node);
+        }
+    }
+
+    private void writePosition(Position position) {
+        writeCount(position.getStart().getLine());
+        writeCount(position.getStart().getColumn());
+        writeCount(position.getEnd().getLine());
+        writeCount(position.getEnd().getColumn());
+    }
+
+    private void writeString(String string) {
+        writeCount(stringIndex(string));
+    }
+
+    private void writeNullableString(String string) {
+        // zero is reserved for the missing string
+        writeCount(string == null ? 0 : stringIndex(string) + 1);
+    }
+
+    private int stringIndex(String string) {
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndexes.put(string, index);
+        }
+        return index;
+    }
+
+    private void writeInlineString(String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeCount(bytes.length);
+        ensureCapacity(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Write a non negative integer using one byte for each group of 7 bits.
+     */
+    private void writeCount(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
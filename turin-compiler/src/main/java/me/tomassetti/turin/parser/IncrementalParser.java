@@ -0,0 +1,260 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Point;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.TurinTypeDefinition;
+import org.antlr.v4.runtime.ANTLRInputStream;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keep the AST of a file up to date while its source code is edited, e.g., in an editor.
+ *
+ * Members of a file are independent from each other: when an edit falls inside a single member only its text is
+ * parsed again and the new node takes the place of the old one. Likewise, when the edit falls inside a single member
+ * of a type (e.g., a method) only that member is parsed again. The members following it are moved by the lines
+ * added or removed, while all the other nodes remain the same instances. When the edit touches the namespace,
+ * the imports, more than one member or the text between them, or when the new text of the member is not exactly
+ * one member, the whole file is parsed again.
+ *
+ * Symbols resolved by the nodes of the file and pointing into the replaced member are forgotten, as well as the
+ * outcome of validating the members. Other files could refer to the member too:
+ * {@link Node#invalidateResolutionsInto(Node)} and {@link Node#forgetValidation()} should be used on them, and the
+ * resolver updated through {@link me.tomassetti.turin.resolvers.SrcSymbolResolver#memberReplaced(Node, Node)},
+ * which also forgets the method resolutions cached for that resolver.
+ */
+public class IncrementalParser {
+
+    private final Parser parser = new Parser();
+    private final InternalParser internalParser = new InternalParser();
+    private final ParseTreeToAst parseTreeToAst = new ParseTreeToAst();
+
+    private String code;
+    private int[] lineStarts;
+    private TurinFile turinFile;
+
+    /**
+     * The outcome of an edit.
+     */
+    public static class Reparse {
+        private final Optional<Node> replacedMember;
+        private final Optional<Node> newMember;
+
+        private Reparse(Optional<Node> replacedMember, Optional<Node> newMember) {
+            this.replacedMember = replacedMember;
+            this.newMember = newMember;
+        }
+
+        /**
+         * True when the whole file had to be parsed again and a new AST was produced.
+         */
+        public boolean isFullReparse() {
+            return !newMember.isPresent();
+        }
+
+        public Optional<Node> getReplacedMember() {
+            return replacedMember;
+        }
+
+        public Optional<Node> getNewMember() {
+            return newMember;
+        }
+    }
+
+    /**
+     * The parsing fails at the first syntax error.
+     */
+    public IncrementalParser(String code) {
+        this.turinFile = parser.parse(new ANTLRInputStream(code));
+        setCode(code);
+    }
+
+    /**
+     * Report all syntax errors to the given collector instead of failing at the first one.
+     * Members containing errors are not part of the AST.
+     */
+    public IncrementalParser(String code, ErrorCollector errorCollector) {
+        this.turinFile = parser.parse(new ANTLRInputStream(code), errorCollector);
+        setCode(code);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public TurinFile getTurinFile() {
+        return turinFile;
+    }
+
+    /**
+     * Replace the given number of chars, starting at the given offset, with the given text and update the AST.
+     * When the new code contains syntax errors an exception is thrown and neither the code nor the AST change.
+     */
+    public Reparse edit(int offset, int length, String text) {
+        return edit(offset, length, text, null);
+    }
+
+    /**
+     * Like {@link #edit(int, int, String)} but, when the whole file is parsed again, the syntax errors are reported
+     * to the given collector instead of failing at the first one. Members containing errors are not part of the AST.
+     */
+    public Reparse edit(int offset, int length, String text, ErrorCollector errorCollector) {
+        if (offset < 0 || length < 0 || offset + length > code.length()) {
+            throw new IllegalArgumentException("Invalid edit: offset " + offset + ", length " + length);
+        }
+        String newCode = code.substring(0, offset) + text + code.substring(offset + length);
+
+        List<Node> members = turinFile.getNodes();
+        for (int i = 0; i < members.size(); i++) {
+            Node member = members.get(i);
+            if (!contains(member, offset, length)) {
+                continue;
+            }
+            List<Node> followingMembers = members.subList(i + 1, members.size());
+            if (member instanceof TurinTypeDefinition) {
+                Optional<Reparse> reparse = editTypeMember((TurinTypeDefinition) member, followingMembers, newCode,
+                        offset, length, text);
+                if (reparse.isPresent()) {
+                    setCode(newCode);
+                    return reparse.get();
+                }
+            }
+            Optional<Node> newMember = reparseMember(newCode, member, offset, length, text);
+            if (newMember.isPresent()) {
+                int linesDelta = linesDelta(offset, length, text);
+                turinFile.replace(member, newMember.get());
+                shiftLines(followingMembers, linesDelta);
+                shiftEnd(turinFile, linesDelta);
+                invalidateResolutionsInto(member);
+                setCode(newCode);
+                return new Reparse(Optional.of(member), newMember);
+            }
+            break;
+        }
+        // the code is changed only once the new AST is available
+        if (errorCollector == null) {
+            turinFile = parser.parse(new ANTLRInputStream(newCode));
+        } else {
+            turinFile = parser.parse(new ANTLRInputStream(newCode), errorCollector);
+        }
+        setCode(newCode);
+        return new Reparse(Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Parse again only the member of the type containing the edit, if there is one.
+     */
+    private Optional<Reparse> editTypeMember(TurinTypeDefinition typeDefinition, List<Node> followingFileMembers,
+                                             String newCode, int offset, int length, String text) {
+        List<Node> members = typeDefinition.getMembers();
+        for (int i = 0; i < members.size(); i++) {
+            Node member = members.get(i);
+            if (!contains(member, offset, length)) {
+                continue;
+            }
+            Optional<Node> newMember = reparseMember(newCode, member, offset, length, text);
+            if (!newMember.isPresent()) {
+                return Optional.empty();
+            }
+            int linesDelta = linesDelta(offset, length, text);
+            typeDefinition.replace(member, newMember.get());
+            shiftLines(members.subList(i + 1, members.size()), linesDelta);
+            shiftEnd(typeDefinition, linesDelta);
+            shiftLines(followingFileMembers, linesDelta);
+            shiftEnd(turinFile, linesDelta);
+            // the other members could refer to the replaced one
+            turinFile.forgetValidation();
+            invalidateResolutionsInto(member);
+            return Optional.of(new Reparse(Optional.of(member), newMember));
+        }
+        return Optional.empty();
+    }
+
+    private boolean contains(Node node, int offset, int length) {
+        int start = toOffset(code, lineStarts, node.getPosition().getStart());
+        int end = toOffset(code, lineStarts, node.getPosition().getEnd());
+        return offset >= start && offset < end && offset + length <= end;
+    }
+
+    private int linesDelta(int offset, int length, String text) {
+        return countLines(text) - countLines(code.substring(offset, offset + length));
+    }
+
+    /**
+     * Parse the new text of the given member, which is a member of a file or of a type.
+     */
+    private Optional<Node> reparseMember(String newCode, Node member, int offset, int length, String text) {
+        Point startPoint = member.getPosition().getStart();
+        int start = toOffset(code, lineStarts, startPoint);
+        int end = toOffset(code, lineStarts, member.getPosition().getEnd()) - length + text.length();
+        ANTLRInputStream memberCode = new ANTLRInputStream(newCode.substring(start, end));
+        try {
+            if (member.getParent() instanceof TurinTypeDefinition) {
+                return Optional.of(parseTreeToAst.toAst(internalParser.produceTypeMemberParseTree(
+                        memberCode, startPoint.getLine(), startPoint.getColumn())));
+            } else {
+                return Optional.of(parseTreeToAst.toAst(internalParser.produceFileMemberParseTree(
+                        memberCode, startPoint.getLine(), startPoint.getColumn())));
+            }
+        } catch (RuntimeException e) {
+            // the text is not a member anymore: the enclosing node decides what it is
+            return Optional.empty();
+        }
+    }
+
+    private static void shiftLines(List<Node> nodes, int linesDelta) {
+        if (linesDelta != 0) {
+            for (Node node : nodes) {
+                node.shiftLines(linesDelta);
+            }
+        }
+    }
+
+    private static void shiftEnd(Node node, int linesDelta) {
+        if (linesDelta != 0) {
+            Position position = node.getPosition();
+            node.setPosition(new Position(position.getStart(),
+                    new Point(position.getEnd().getLine() + linesDelta, position.getEnd().getColumn())));
+        }
+    }
+
+    private void invalidateResolutionsInto(Node oldMember) {
+        for (Node node : turinFile.findAll(Node.class)) {
+            node.invalidateResolutionsInto(oldMember);
+        }
+    }
+
+    private void setCode(String code) {
+        this.code = code;
+        this.lineStarts = lineStarts(code);
+    }
+
+    private static int toOffset(String code, int[] lineStarts, Point point) {
+        return Math.min(lineStarts[point.getLine() - 1] + point.getColumn(), code.length());
+    }
+
+    private static int[] lineStarts(String code) {
+        int[] starts = new int[countLines(code) + 1];
+        int line = 1;
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) == '\n') {
+                starts[line++] = i + 1;
+            }
+        }
+        return starts;
+    }
+
+    private static int countLines(String text) {
+        int lines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
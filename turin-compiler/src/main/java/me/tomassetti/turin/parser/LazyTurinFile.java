@@ -0,0 +1,52 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.parser.ast.TurinFile;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A file whose top level symbols are known, while its AST is loaded only when first needed. Files found in the
+ * {@link AstCache} are read in this way, so that they can be indexed without decoding their ASTs.
+ */
+public class LazyTurinFile {
+
+    private final List<TopLevelSymbol> symbols;
+    private Supplier<TurinFile> loader;
+    private TurinFile turinFile;
+
+    public LazyTurinFile(List<TopLevelSymbol> symbols, Supplier<TurinFile> loader) {
+        this.symbols = symbols;
+        this.loader = loader;
+    }
+
+    /**
+     * A file already loaded. Its symbols are not available: the AST should be used instead.
+     */
+    public LazyTurinFile(TurinFile turinFile) {
+        this.symbols = null;
+        this.turinFile = turinFile;
+    }
+
+    public synchronized boolean isLoaded() {
+        return turinFile != null;
+    }
+
+    /**
+     * The symbols in the order of the members of the file. Available only for files not loaded when created.
+     */
+    public List<TopLevelSymbol> getSymbols() {
+        if (symbols == null) {
+            throw new IllegalStateException("The symbols of a file created loaded are not available");
+        }
+        return symbols;
+    }
+
+    public synchronized TurinFile getTurinFile() {
+        if (turinFile == null) {
+            turinFile = loader.get();
+            loader = null;
+        }
+        return turinFile;
+    }
+}
@@ -36,7 +36,7 @@ class ParseTreeToAst {
         return new Position(getStartPoint(ctx.start), getEndPoint(ctx.stop));
     }
 
-    private void getPositionFrom(Node node, ParserRuleContext ctx) {
+    void getPositionFrom(Node node, ParserRuleContext ctx) {
         node.setPosition(getPosition(ctx));
     }
 
@@ -53,22 +53,7 @@ class ParseTreeToAst {
         getPositionFrom(turinFile, ctx);
         turinFile.setNameSpace(toAst(ctx.namespace));
         for (TurinParser.FileMemberContext memberCtx : ctx.fileMember()) {
-            Node memberNode = toAst(memberCtx);
-            if (memberNode instanceof TurinTypeDefinition) {
-                turinFile.add((TurinTypeDefinition)memberNode);
-            } else if (memberNode instanceof PropertyDefinition) {
-                turinFile.add((PropertyDefinition) memberNode);
-            } else if (memberNode instanceof Program) {
-                turinFile.add((Program) memberNode);
-            } else if (memberNode instanceof FunctionDefinitionNode) {
-                turinFile.add((FunctionDefinitionNode)memberNode);
-            } else if (memberNode instanceof RelationDefinition) {
-                turinFile.add((RelationDefinition) memberNode);
-            } else if (memberNode instanceof ContextDefinitionNode) {
-                turinFile.add((ContextDefinitionNode) memberNode);
-            } else {
-                throw new UnsupportedOperationException(memberNode.getClass().getCanonicalName());
-            }
+            addMember(turinFile, toAst(memberCtx));
         }
         for (TurinParser.ImportDeclarationContext importDeclarationContext : ctx.importDeclaration()) {
             turinFile.add(toAst(importDeclarationContext));
@@ -76,7 +61,25 @@ class ParseTreeToAst {
         return turinFile;
     }
 
-    private ImportDeclaration toAst(TurinParser.ImportDeclarationContext ctx) {
+    void addMember(TurinFile turinFile, Node memberNode) {
+        if (memberNode instanceof TurinTypeDefinition) {
+            turinFile.add((TurinTypeDefinition)memberNode);
+        } else if (memberNode instanceof PropertyDefinition) {
+            turinFile.add((PropertyDefinition) memberNode);
+        } else if (memberNode instanceof Program) {
+            turinFile.add((Program) memberNode);
+        } else if (memberNode instanceof FunctionDefinitionNode) {
+            turinFile.add((FunctionDefinitionNode)memberNode);
+        } else if (memberNode instanceof RelationDefinition) {
+            turinFile.add((RelationDefinition) memberNode);
+        } else if (memberNode instanceof ContextDefinitionNode) {
+            turinFile.add((ContextDefinitionNode) memberNode);
+        } else {
+            throw new UnsupportedOperationException(memberNode.getClass().getCanonicalName());
+        }
+    }
+
+    ImportDeclaration toAst(TurinParser.ImportDeclarationContext ctx) {
         if (ctx.allFieldsImportDeclaration() != null) {
             return toAst(ctx.allFieldsImportDeclaration());
         } else if (ctx.singleFieldImportDeclaration() != null) {
@@ -126,7 +129,7 @@ class ParseTreeToAst {
         return qualifiedName;
     }
 
-    private Node toAst(TurinParser.FileMemberContext ctx) {
+    Node toAst(TurinParser.FileMemberContext ctx) {
         if (ctx.typeDeclaration() != null) {
             return toAst(ctx.typeDeclaration());
         } else if (ctx.topLevelPropertyDeclaration() != null) {
@@ -201,6 +204,7 @@ class ParseTreeToAst {
     private TurinTypeDefinition toAst(TurinParser.TypeDeclarationContext ctx) {
         TurinTypeDefinition typeDefinition = new TurinTypeDefinition(idText(ctx.name));
         getPositionFrom(typeDefinition, ctx);
+        typeDefinition.setImmutable(ctx.immutable != null);
         for (TurinParser.TypeMemberContext memberCtx : ctx.typeMember()) {
             Node memberNode = toAst(memberCtx);
             if (memberNode instanceof PropertyReference) {
@@ -226,7 +230,7 @@ class ParseTreeToAst {
         return typeDefinition;
     }
 
-    private Node toAst(TurinParser.TypeMemberContext ctx) {
+    Node toAst(TurinParser.TypeMemberContext ctx) {
         if (ctx.inTypePropertyDeclaration() != null) {
             return toAst(ctx.inTypePropertyDeclaration());
         } else if (ctx.propertyReference() != null) {
@@ -781,7 +785,7 @@ class ParseTreeToAst {
         return new ExpressionStatement(toAst(expressionStmtContext.expression()));
     }
 
-    private NamespaceDefinition toAst(TurinParser.NamespaceDeclContext namespaceContext) {
+    NamespaceDefinition toAst(TurinParser.NamespaceDeclContext namespaceContext) {
         // in this way we take care of the escaped IDs
         return new NamespaceDefinition(toAst(namespaceContext.name).qualifiedName());
     }
@@ -2,14 +2,23 @@ package me.tomassetti.turin.parser;
 
 import com.google.common.collect.ImmutableList;
 import me.tomassetti.parser.antlr.TurinLexer;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
 import me.tomassetti.turin.parser.ast.TurinFile;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CharStream;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Produce ASTs from the source code.
@@ -17,9 +26,120 @@ import java.util.List;
 public class Parser {
 
     private InternalParser internalParser = new InternalParser();
+    private AstCache cache;
+
+    public Parser() {
+        this.cache = null;
+    }
+
+    /**
+     * Files are looked up in the given cache before being parsed, and the ASTs of the files parsed are stored in it.
+     */
+    public Parser(AstCache cache) {
+        this.cache = cache;
+    }
 
     public TurinFile parse(InputStream inputStream) throws IOException {
-        return new ParseTreeToAst().toAst(internalParser.produceParseTree(inputStream));
+        return parse(new ANTLRInputStream(inputStream));
+    }
+
+    /**
+     * Parse a UTF-8 file, mapping it in memory instead of copying its content.
+     */
+    public TurinFile parse(Path path) throws IOException {
+        return parse(path, (SyntaxErrorsCollector) null);
+    }
+
+    /**
+     * Report all syntax errors to the given collector instead of failing at the first one.
+     * Members containing errors are not part of the AST returned.
+     */
+    public TurinFile parse(InputStream inputStream, ErrorCollector errorCollector) throws IOException {
+        return parse(new ANTLRInputStream(inputStream), new SyntaxErrorsCollector(errorCollector));
+    }
+
+    /**
+     * Report all syntax errors to the given collector instead of failing at the first one.
+     * Members containing errors are not part of the AST returned.
+     */
+    public TurinFile parse(Path path, ErrorCollector errorCollector) throws IOException {
+        return parse(path, new SyntaxErrorsCollector(errorCollector));
+    }
+
+    /**
+     * When the file is in the cache only the summaries of its members are read, while the AST is decoded when first
+     * needed. Otherwise the file is parsed immediately.
+     */
+    public LazyTurinFile parseLazily(Path path) throws IOException {
+        return parseLazily(path, null);
+    }
+
+    TurinFile parse(CharStream charStream) {
+        // the AST is built member by member, without keeping the whole parse tree in memory
+        StreamingParseTreeToAst streamingParseTreeToAst = new StreamingParseTreeToAst();
+        internalParser.produceParseTree(charStream, streamingParseTreeToAst);
+        return streamingParseTreeToAst.getTurinFile();
+    }
+
+    TurinFile parse(CharStream charStream, ErrorCollector errorCollector) {
+        return parse(charStream, new SyntaxErrorsCollector(errorCollector));
+    }
+
+    private TurinFile parse(CharStream charStream, SyntaxErrorsCollector syntaxErrorsCollector) {
+        StreamingParseTreeToAst streamingParseTreeToAst = new StreamingParseTreeToAst(syntaxErrorsCollector);
+        internalParser.produceParseTree(charStream, streamingParseTreeToAst, syntaxErrorsCollector);
+        return streamingParseTreeToAst.getTurinFile();
+    }
+
+    /**
+     * When the collector is null the parsing stops at the first syntax error.
+     */
+    private TurinFile parse(Path path, SyntaxErrorsCollector syntaxErrorsCollector) throws IOException {
+        ByteBuffer code = map(path);
+        if (cache != null) {
+            Optional<TurinFile> cached = cache.load(code);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        MappedCharStream charStream = new MappedCharStream(code.duplicate(), path.toString());
+        TurinFile turinFile;
+        if (syntaxErrorsCollector == null) {
+            turinFile = parse(charStream);
+        } else {
+            turinFile = parse(charStream, syntaxErrorsCollector);
+            if (syntaxErrorsCollector.hasErrors()) {
+                // the file is parsed again next time, so that the errors are reported again
+                return turinFile;
+            }
+        }
+        if (cache != null) {
+            cache.store(code, turinFile);
+        }
+        return turinFile;
+    }
+
+    private LazyTurinFile parseLazily(Path path, SyntaxErrorsCollector syntaxErrorsCollector) throws IOException {
+        if (cache != null) {
+            Optional<List<TopLevelSymbol>> symbols = cache.loadSymbols(map(path));
+            if (symbols.isPresent()) {
+                return new LazyTurinFile(symbols.get(), () -> {
+                    try {
+                        return parse(path, syntaxErrorsCollector);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+        return new LazyTurinFile(parse(path, syntaxErrorsCollector));
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping remains valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
     }
 
     /**
@@ -28,7 +148,7 @@ public class Parser {
      */
     public List<TurinFileWithSource> parseAllIn(File file) throws IOException {
         if (file.isFile()) {
-            return ImmutableList.of(new TurinFileWithSource(file, parse(new FileInputStream(file))));
+            return ImmutableList.of(new TurinFileWithSource(file, parse(file.toPath())));
         } else if (file.isDirectory()) {
             List<TurinFileWithSource> result = new ArrayList<>();
             for (File child : file.listFiles()) {
@@ -40,4 +160,25 @@ public class Parser {
         }
     }
 
+    /**
+     * Like {@link #parseAllIn(File)} but the syntax errors of each file are reported to the collector given
+     * for it, so that a file with errors does not prevent parsing the others. The files found in the cache are
+     * loaded lazily: they have no syntax errors, because only files without errors are stored.
+     */
+    public List<TurinFileWithSource> parseAllIn(File file, Function<File, ErrorCollector> errorCollectors) throws IOException {
+        if (file.isFile()) {
+            SyntaxErrorsCollector syntaxErrorsCollector = new SyntaxErrorsCollector(errorCollectors.apply(file));
+            LazyTurinFile turinFile = parseLazily(file.toPath(), syntaxErrorsCollector);
+            return ImmutableList.of(new TurinFileWithSource(file, turinFile, syntaxErrorsCollector.hasErrors()));
+        } else if (file.isDirectory()) {
+            List<TurinFileWithSource> result = new ArrayList<>();
+            for (File child : file.listFiles()) {
+                result.addAll(parseAllIn(child, errorCollectors));
+            }
+            return result;
+        } else {
+            throw new IllegalArgumentException("Neither a file or a directory: " + file.getPath());
+        }
+    }
+
 }
@@ -0,0 +1,102 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinParser;
+import me.tomassetti.parser.antlr.TurinParserBaseListener;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Build the AST while the file is being parsed, instead of waiting for the whole parse tree.
+ *
+ * It is registered as a parse listener: as soon as the parser exits the namespace, an import or a file member
+ * the corresponding AST node is built and the subtree is detached from the parse tree, so that it can be
+ * garbage collected. At any time only the member being parsed is kept in memory as parse tree.
+ *
+ * When syntax errors are collected the parser recovers from them: members containing errors are left out, so that
+ * the rest of the file is still available.
+ */
+class StreamingParseTreeToAst extends TurinParserBaseListener {
+
+    private final ParseTreeToAst parseTreeToAst = new ParseTreeToAst();
+    private final Optional<SyntaxErrorsCollector> syntaxErrorsCollector;
+    private TurinFile turinFile;
+
+    StreamingParseTreeToAst() {
+        this.syntaxErrorsCollector = Optional.empty();
+    }
+
+    StreamingParseTreeToAst(SyntaxErrorsCollector syntaxErrorsCollector) {
+        this.syntaxErrorsCollector = Optional.of(syntaxErrorsCollector);
+    }
+
+    @Override
+    public void enterTurinFile(TurinParser.TurinFileContext ctx) {
+        // the parser could start again from the beginning, when the first attempt fails
+        turinFile = new TurinFile();
+    }
+
+    @Override
+    public void exitTurinFile(TurinParser.TurinFileContext ctx) {
+        parseTreeToAst.getPositionFrom(turinFile, ctx);
+    }
+
+    @Override
+    public void exitNamespaceDecl(TurinParser.NamespaceDeclContext ctx) {
+        if (isCorrect(ctx)) {
+            turinFile.setNameSpace(parseTreeToAst.toAst(ctx));
+        }
+    }
+
+    @Override
+    public void exitImportDeclaration(TurinParser.ImportDeclarationContext ctx) {
+        if (isCorrect(ctx)) {
+            turinFile.add(parseTreeToAst.toAst(ctx));
+        }
+        TurinParser.TurinFileContext parent = (TurinParser.TurinFileContext) ctx.getParent();
+        detach(parent, ctx, parent.imports);
+    }
+
+    @Override
+    public void exitFileMember(TurinParser.FileMemberContext ctx) {
+        if (isCorrect(ctx)) {
+            parseTreeToAst.addMember(turinFile, parseTreeToAst.toAst(ctx));
+        }
+        TurinParser.TurinFileContext parent = (TurinParser.TurinFileContext) ctx.getParent();
+        detach(parent, ctx, parent.members);
+    }
+
+    private boolean isCorrect(ParserRuleContext ctx) {
+        if (!syntaxErrorsCollector.isPresent()) {
+            // the parser stops at the first error
+            return true;
+        }
+        if (ctx.exception != null || ctx.stop == null || ctx.stop.getTokenIndex() < ctx.start.getTokenIndex()) {
+            return false;
+        }
+        return !syntaxErrorsCollector.get().hasErrorsBetween(ctx.start.getLine(), ctx.stop.getLine());
+    }
+
+    private void detach(ParserRuleContext parent, ParserRuleContext ctx, List<? extends ParseTree> labeledList) {
+        // The subtree being exited is the last child. The generated parser adds it to the labeled list only after
+        // this callback, so here the list contains just the subtrees already converted.
+        List<ParseTree> children = parent.children;
+        if (!children.isEmpty() && children.get(children.size() - 1) == ctx) {
+            children.remove(children.size() - 1);
+        }
+        labeledList.clear();
+    }
+
+    /**
+     * The AST of the last file parsed.
+     */
+    TurinFile getTurinFile() {
+        if (turinFile == null) {
+            throw new IllegalStateException("No file parsed");
+        }
+        return turinFile;
+    }
+}
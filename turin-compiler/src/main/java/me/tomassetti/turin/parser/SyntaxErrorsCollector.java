@@ -0,0 +1,43 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.ast.Point;
+import me.tomassetti.turin.parser.ast.Position;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward the errors found by the lexer and the parser to an ErrorCollector, remembering where they are.
+ */
+class SyntaxErrorsCollector extends BaseErrorListener {
+
+    private final ErrorCollector errorCollector;
+    private final List<Integer> linesWithErrors = new ArrayList<>();
+
+    SyntaxErrorsCollector(ErrorCollector errorCollector) {
+        this.errorCollector = errorCollector;
+    }
+
+    @Override
+    public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+        int length = 0;
+        if (offendingSymbol instanceof Token && ((Token) offendingSymbol).getType() != Token.EOF) {
+            length = ((Token) offendingSymbol).getText().length();
+        }
+        linesWithErrors.add(line);
+        errorCollector.recordSyntaxError(new Position(new Point(line, charPositionInLine), new Point(line, charPositionInLine + length)), msg);
+    }
+
+    boolean hasErrors() {
+        return !linesWithErrors.isEmpty();
+    }
+
+    boolean hasErrorsBetween(int startLine, int endLine) {
+        return linesWithErrors.stream().anyMatch((l) -> l >= startLine && l <= endLine);
+    }
+}
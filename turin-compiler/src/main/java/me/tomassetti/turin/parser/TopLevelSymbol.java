@@ -0,0 +1,71 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.parser.ast.Position;
+
+/**
+ * Summary of a member of a file: it permits to know what a file defines without loading its AST.
+ */
+public class TopLevelSymbol {
+
+    public enum Kind {
+        TYPE,
+        FUNCTION,
+        PROPERTY,
+        PROGRAM,
+        RELATION,
+        CONTEXT
+    }
+
+    private final Kind kind;
+    private final String qualifiedName;
+    private final Position position;
+
+    public TopLevelSymbol(Kind kind, String qualifiedName, Position position) {
+        this.kind = kind;
+        this.qualifiedName = qualifiedName;
+        this.position = position;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "TopLevelSymbol{" +
+                "kind=" + kind +
+                ", qualifiedName='" + qualifiedName + '\'' +
+                ", position=" + position +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TopLevelSymbol that = (TopLevelSymbol) o;
+
+        if (kind != that.kind) return false;
+        if (!qualifiedName.equals(that.qualifiedName)) return false;
+        if (!position.equals(that.position)) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = kind.hashCode();
+        result = 31 * result + qualifiedName.hashCode();
+        result = 31 * result + position.hashCode();
+        return result;
+    }
+}
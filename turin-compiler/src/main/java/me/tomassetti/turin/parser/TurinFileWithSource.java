@@ -9,21 +9,45 @@ import java.io.File;
  */
 public class TurinFileWithSource {
     private File source;
-    private TurinFile turinFile;
+    private LazyTurinFile turinFile;
+    private boolean syntaxErrors;
 
     public TurinFileWithSource(File source, TurinFile turinFile) {
+        this(source, turinFile, false);
+    }
+
+    public TurinFileWithSource(File source, TurinFile turinFile, boolean syntaxErrors) {
+        this(source, new LazyTurinFile(turinFile), syntaxErrors);
+    }
+
+    public TurinFileWithSource(File source, LazyTurinFile turinFile, boolean syntaxErrors) {
         this.source = source;
         this.turinFile = turinFile;
+        this.syntaxErrors = syntaxErrors;
     }
 
     public File getSource() {
         return source;
     }
 
+    /**
+     * Load the AST if it was not loaded yet.
+     */
     public TurinFile getTurinFile() {
+        return turinFile.getTurinFile();
+    }
+
+    public LazyTurinFile getLazyTurinFile() {
         return turinFile;
     }
 
+    /**
+     * When true the TurinFile contains only the members which were parsed correctly.
+     */
+    public boolean hasSyntaxErrors() {
+        return syntaxErrors;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -32,7 +56,8 @@ public class TurinFileWithSource {
         TurinFileWithSource that = (TurinFileWithSource) o;
 
         if (!source.equals(that.source)) return false;
-        if (!turinFile.equals(that.turinFile)) return false;
+        if (!getTurinFile().equals(that.getTurinFile())) return false;
+        if (syntaxErrors != that.syntaxErrors) return false;
 
         return true;
     }
@@ -40,7 +65,8 @@ public class TurinFileWithSource {
     @Override
     public int hashCode() {
         int result = source.hashCode();
-        result = 31 * result + turinFile.hashCode();
+        result = 31 * result + getTurinFile().hashCode();
+        result = 31 * result + (syntaxErrors ? 1 : 0);
         return result;
     }
 
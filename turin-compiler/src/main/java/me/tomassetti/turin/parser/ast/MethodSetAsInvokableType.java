@@ -17,6 +17,10 @@ public class MethodSetAsInvokableType implements Invokable {
         this.typeParams = typeParams;
     }
 
+    public Set<InternalMethodDefinition> getMethodDefinitions() {
+        return methodDefinitions;
+    }
+
     @Override
     public boolean isOverloaded() {
         return methodDefinitions.size() > 1;
@@ -10,9 +10,10 @@ import me.tomassetti.turin.symbols.FormalParameter;
 import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * A Node the Abstract Syntax Tree.
@@ -21,9 +22,20 @@ import java.util.Optional;
  */
 public abstract class Node implements Symbol {
 
+    private static final long NO_POSITION = Long.MIN_VALUE;
+    private static final byte NOT_VALIDATED = 0;
+    private static final byte VALID = 1;
+    private static final byte INVALID = 2;
+
     protected Node parent;
-    private Position position;
-    private Boolean valid;
+    // start and end points packed as line and column, instead of keeping three objects for each node
+    private long start = NO_POSITION;
+    private long end = NO_POSITION;
+    private byte validity = NOT_VALIDATED;
+    // kept only for the nodes validated through validateIfNeeded
+    private ValidationOutcome validation;
+    // calculated from getChildren when first needed, it is discarded when the children change
+    private Node[] childrenCache;
 
     @Override
     public boolean isNode() {
@@ -47,15 +59,47 @@ public abstract class Node implements Symbol {
     /// Position
     ///
 
+    public boolean hasPosition() {
+        return start != NO_POSITION;
+    }
+
     public Position getPosition() {
-        if (position == null) {
+        if (start == NO_POSITION) {
             throw new IllegalStateException(this.toString()+ " has no position assigned");
         }
-        return position;
+        return new Position(unpack(start), unpack(end));
     }
 
     public void setPosition(Position position) {
-        this.position = position;
+        if (position == null) {
+            this.start = NO_POSITION;
+            this.end = NO_POSITION;
+        } else {
+            this.start = pack(position.getStart());
+            this.end = pack(position.getEnd());
+        }
+    }
+
+    private static long pack(Point point) {
+        return ((long) point.getLine() << 32) | (point.getColumn() & 0xFFFFFFFFL);
+    }
+
+    private static Point unpack(long packed) {
+        return new Point((int) (packed >> 32), (int) packed);
+    }
+
+    /**
+     * Move this node and all its descendants by the given number of lines, e.g., after lines were added or removed
+     * in the file before them.
+     */
+    public void shiftLines(int lines) {
+        if (start != NO_POSITION) {
+            start += (long) lines << 32;
+            end += (long) lines << 32;
+        }
+        for (Node child : children()) {
+            child.shiftLines(lines);
+        }
     }
 
     ///
@@ -78,23 +122,89 @@ public abstract class Node implements Symbol {
         return parent;
     }
 
+    /**
+     * Define the structure of the tree. Traversals should use {@link #getChildCount()} and {@link #getChild(int)} or
+     * {@link #walk(Predicate)}, which do not build the children again each time.
+     */
     public abstract Iterable<Node> getChildren();
 
+    /**
+     * Nodes should be attached to their parent through this method: it tells the parents their children changed.
+     */
     public void setParent(Node parent){
         if (parent == this) {
             throw new IllegalArgumentException();
         }
+        if (this.parent != parent) {
+            if (this.parent != null) {
+                this.parent.childrenChanged();
+            }
+            if (parent != null) {
+                parent.childrenChanged();
+            }
+            // the type could depend on where the node is
+            forgetType();
+        }
         this.parent = parent;
     }
 
-    public <T extends Node> List<T> findAll(Class<T> desiredClass) {
-        List<T> results = new LinkedList<>();
-        if (desiredClass.isInstance(this)) {
-            results.add(desiredClass.cast(this));
+    /**
+     * To be called when the nodes returned by getChildren could be different, without new children having been
+     * attached through {@link #setParent(Node)} (e.g., when the same children are reordered).
+     */
+    protected final void childrenChanged() {
+        childrenCache = null;
+        for (Node node = this; node != null; node = node.parent) {
+            node.forgetType();
         }
-        for (Node child : getChildren()) {
-            results.addAll(child.findAll(desiredClass));
+    }
+
+    /**
+     * Discard the type calculated for this node, if it was remembered, because the node changed.
+     */
+    protected void forgetType() {
+        // nothing cached by default
+    }
+
+    private Node[] children() {
+        Node[] children = childrenCache;
+        if (children == null) {
+            List<Node> list = new ArrayList<>();
+            getChildren().forEach(list::add);
+            children = list.toArray(new Node[list.size()]);
+            childrenCache = children;
         }
+        return children;
+    }
+
+    public final int getChildCount() {
+        return children().length;
+    }
+
+    public final Node getChild(int index) {
+        return children()[index];
+    }
+
+    /**
+     * Visit this node and its descendants, parents before their children. The children of a node are visited
+     * only when the visitor returns true for it.
+     */
+    public final void walk(Predicate<Node> visitor) {
+        if (visitor.test(this)) {
+            for (Node child : children()) {
+                child.walk(visitor);
+            }
+        }
+    }
+
+    public <T extends Node> List<T> findAll(Class<T> desiredClass) {
+        List<T> results = new ArrayList<>();
+        walk((node) -> {
+            if (desiredClass.isInstance(node)) {
+                results.add(desiredClass.cast(node));
+            }
+            return true;
+        });
         return results;
     }
 
@@ -177,6 +287,28 @@ public abstract class Node implements Symbol {
         return calcType().getInstanceField(fieldName, this);
     }
 
+    /**
+     * Forget the symbols resolved and cached by this node when they are part of the given subtree, because it was
+     * removed from the AST.
+     */
+    public void invalidateResolutionsInto(Node removedSubtree) {
+        // nothing cached by default
+    }
+
+    protected static boolean isInSubtree(Object symbol, Node subtree) {
+        if (!(symbol instanceof Node)) {
+            return false;
+        }
+        Node node = (Node) symbol;
+        while (node != null) {
+            if (node == subtree) {
+                return true;
+            }
+            node = node.getParent();
+        }
+        return false;
+    }
+
     ///
     /// Validation
     ///
@@ -185,22 +317,42 @@ public abstract class Node implements Symbol {
         boolean res = specificValidate(resolver, errorCollector);
         // if the node is wrong we do not check its children
         if (res) {
-            for (Node child : getChildren()) {
+            for (Node child : children()) {
                 boolean partial = child.validate(resolver, errorCollector);
                 if (!partial) {
                     res = false;
                 }
             }
         }
-        valid = res;
+        validity = res ? VALID : INVALID;
         return res;
     }
 
+    /**
+     * Validate the node unless it was already validated with the same resolver: in that case the previous outcome is
+     * returned and its errors are reported again to the given collector.
+     */
+    public final boolean validateIfNeeded(SymbolResolver resolver, ErrorCollector errorCollector) {
+        if (validation != null && validation.holdsFor(resolver)) {
+            return validation.replay(errorCollector);
+        }
+        validation = ValidationOutcome.validate(resolver, errorCollector, (collector) -> validate(resolver, collector));
+        return validation.isValid();
+    }
+
+    /**
+     * Forget the outcome of the validation, because something the node depends on changed.
+     */
+    public void forgetValidation() {
+        validity = NOT_VALIDATED;
+        validation = null;
+    }
+
     public boolean isValid() {
-        if (valid == null) {
+        if (validity == NOT_VALIDATED) {
             throw new IllegalStateException("Not validated");
         }
-        return valid;
+        return validity == VALID;
     }
 
     /**
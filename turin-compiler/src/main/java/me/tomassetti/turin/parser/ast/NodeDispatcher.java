@@ -0,0 +1,66 @@
+package me.tomassetti.turin.parser.ast;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Select the operation to perform on a node depending on its class, with a table built once instead of a chain of
+ * instanceof. The operations receive a context (e.g., the object generating the code) together with the node.
+ *
+ * When there is no operation registered for the class of a node the ones of its superclasses are considered.
+ * The result of the lookup is remembered for each class, so dispatching costs a single map access.
+ */
+public final class NodeDispatcher<C, N extends Node, R> {
+
+    private final Map<Class<?>, BiFunction<C, N, R>> operations;
+    private final ClassValue<BiFunction<C, N, R>> resolvedOperations = new ClassValue<BiFunction<C, N, R>>() {
+        @Override
+        protected BiFunction<C, N, R> computeValue(Class<?> clazz) {
+            for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+                BiFunction<C, N, R> operation = operations.get(current);
+                if (operation != null) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    };
+
+    public static class Builder<C, N extends Node, R> {
+        private final Map<Class<?>, BiFunction<C, N, R>> operations = new HashMap<>();
+
+        private Builder() {
+
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T extends N> Builder<C, N, R> on(Class<T> nodeClass, BiFunction<C, T, R> operation) {
+            if (operations.containsKey(nodeClass)) {
+                throw new IllegalArgumentException("Operation already registered for " + nodeClass.getCanonicalName());
+            }
+            operations.put(nodeClass, (BiFunction<C, N, R>) operation);
+            return this;
+        }
+
+        public NodeDispatcher<C, N, R> build() {
+            return new NodeDispatcher<>(new HashMap<>(operations));
+        }
+    }
+
+    private NodeDispatcher(Map<Class<?>, BiFunction<C, N, R>> operations) {
+        this.operations = operations;
+    }
+
+    public static <C, N extends Node, R> Builder<C, N, R> builder() {
+        return new Builder<>();
+    }
+
+    public R dispatch(C context, N node) {
+        BiFunction<C, N, R> operation = resolvedOperations.get(node.getClass());
+        if (operation == null) {
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        }
+        return operation.apply(context, node);
+    }
+}
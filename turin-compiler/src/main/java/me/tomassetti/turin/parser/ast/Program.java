@@ -5,7 +5,6 @@ import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.statements.Statement;
 import me.tomassetti.turin.symbols.FormalParameterSymbol;
 import me.tomassetti.turin.symbols.Symbol;
-import me.tomassetti.turin.typesystem.ArrayTypeUsage;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 
 import java.util.Optional;
@@ -19,7 +18,7 @@ public class Program extends Node implements Named, Symbol {
 
     public FormalParameterSymbol getFormalParameter() {
         if (formalParameter == null) {
-            formalParameter = new FormalParameterSymbol(new ArrayTypeUsage(ReferenceTypeUsage.STRING(symbolResolver())), paramName);
+            formalParameter = new FormalParameterSymbol(symbolResolver().getTypeUsageFactory().arrayOf(ReferenceTypeUsage.STRING(symbolResolver())), paramName);
         }
         return formalParameter;
     }
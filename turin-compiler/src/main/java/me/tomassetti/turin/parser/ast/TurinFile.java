@@ -20,10 +20,12 @@ public class TurinFile extends Node {
     private List<Node> topNodes = new ArrayList<>();
     private List<ImportDeclaration> imports = new ArrayList<>();
     private ContextDefinitionNode[] topLevelContextDefinitions;
+    // the outcome of checking the names of the members, calculated when first needed
+    private ValidationOutcome namesValidation;
 
     public void add(PropertyDefinition propertyDefinition) {
         topNodes.add(propertyDefinition);
-        propertyDefinition.parent = this;
+        propertyDefinition.setParent(this);
     }
 
     @Override
@@ -48,9 +50,71 @@ public class TurinFile extends Node {
         return valid && super.specificValidate(resolver, errorCollector);
     }
 
+    private boolean validateNames(SymbolResolver resolver, ErrorCollector errorCollector) {
+        if (namesValidation != null && namesValidation.holdsFor(resolver)) {
+            return namesValidation.replay(errorCollector);
+        }
+        namesValidation = ValidationOutcome.validate(resolver, errorCollector,
+                (collector) -> specificValidate(resolver, collector));
+        return namesValidation.isValid();
+    }
+
+    /**
+     * Validate the members of the file, skipping those already validated, as it is done for compiling them.
+     */
+    public boolean validateMembers(SymbolResolver resolver, ErrorCollector errorCollector) {
+        // if the names are wrong we do not check the members
+        if (!validateNames(resolver, errorCollector)) {
+            return false;
+        }
+        boolean valid = true;
+        for (Node child : getChildren()) {
+            if (!child.validateIfNeeded(resolver, errorCollector)) {
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Validate a single member, together with the declarations of the file it depends on: the namespace and the
+     * imports. The other members are not validated.
+     */
+    public boolean validateMember(Node member, SymbolResolver resolver, ErrorCollector errorCollector) {
+        if (member.getParent() != this) {
+            throw new IllegalArgumentException("Not a member of this file: " + member);
+        }
+        if (!validateNames(resolver, errorCollector)) {
+            return false;
+        }
+        boolean valid = namespaceDefinition.validateIfNeeded(resolver, errorCollector);
+        for (ImportDeclaration importDeclaration : imports) {
+            if (!importDeclaration.validateIfNeeded(resolver, errorCollector)) {
+                valid = false;
+            }
+        }
+        return member.validateIfNeeded(resolver, errorCollector) && valid;
+    }
+
+    /**
+     * The outcome of validating the members is forgotten too: they could depend on each other.
+     */
+    @Override
+    public void forgetValidation() {
+        super.forgetValidation();
+        namesValidation = null;
+        for (Node child : getChildren()) {
+            child.forgetValidation();
+        }
+    }
+
+    public Optional<Node> getMember(String name) {
+        return topNodes.stream().filter((n) -> (n instanceof Named) && ((Named) n).getName().equals(name)).findFirst();
+    }
+
     public void add(ImportDeclaration importDeclaration) {
         imports.add(importDeclaration);
-        importDeclaration.parent = this;
+        importDeclaration.setParent(this);
     }
 
     public NamespaceDefinition getNamespaceDefinition() {
@@ -59,7 +123,7 @@ public class TurinFile extends Node {
 
     public void add(TurinTypeDefinition typeDefinition) {
         topNodes.add(typeDefinition);
-        typeDefinition.parent = this;
+        typeDefinition.setParent(this);
     }
 
     @Override
@@ -94,12 +158,16 @@ public class TurinFile extends Node {
         return ImmutableList.copyOf(topNodes);
     }
 
+    public ImmutableList<ImportDeclaration> getImports() {
+        return ImmutableList.copyOf(imports);
+    }
+
     public void setNameSpace(NamespaceDefinition namespaceDefinition) {
         if (this.namespaceDefinition != null) {
-            this.namespaceDefinition.parent = null;
+            this.namespaceDefinition.setParent(null);
         }
         this.namespaceDefinition = namespaceDefinition;
-        this.namespaceDefinition.parent = this;
+        this.namespaceDefinition.setParent(this);
     }
 
     @Override
@@ -118,7 +186,7 @@ public class TurinFile extends Node {
 
     public void add(Program program) {
         topNodes.add(program);
-        program.parent = this;
+        program.setParent(this);
     }
 
     public List<TurinTypeDefinition> getTopLevelTypeDefinitions() {
@@ -171,17 +239,34 @@ public class TurinFile extends Node {
 
     public void add(FunctionDefinitionNode functionDefinition) {
         topNodes.add(functionDefinition);
-        functionDefinition.parent = this;
+        functionDefinition.setParent(this);
     }
 
     public void add(RelationDefinition relationDefinition) {
         topNodes.add(relationDefinition);
-        relationDefinition.parent = this;
+        relationDefinition.setParent(this);
     }
 
     public void add(ContextDefinitionNode contextDefinition) {
         topNodes.add(contextDefinition);
-        contextDefinition.parent = this;
+        contextDefinition.setParent(this);
+    }
+
+    /**
+     * Replace a member with a new version of it, which takes its place among the members of the file.
+     */
+    public void replace(Node oldMember, Node newMember) {
+        for (int i = 0; i < topNodes.size(); i++) {
+            if (topNodes.get(i) == oldMember) {
+                topNodes.set(i, newMember);
+                oldMember.setParent(null);
+                newMember.setParent(this);
+                // the other members could refer to the replaced one
+                forgetValidation();
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Not a member of this file: " + oldMember);
     }
 
     public List<ContextDefinitionNode> getTopLevelContextDefinitions() {
@@ -26,6 +26,7 @@ import me.tomassetti.turin.symbols.FormalParameter;
 import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.Invokable;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
+import me.tomassetti.turin.typesystem.TypeIdSet;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
 import java.util.*;
@@ -38,6 +39,7 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
     private List<Node> members = new ArrayList<>();
     private List<TypeUsageNode> interfaces = new ArrayList<>();
     private Optional<TypeUsageNode> baseType = Optional.empty();
+    private boolean immutable = false;
 
     private List<AnnotationUsage> annotations = new ArrayList<>();
 
@@ -84,6 +86,17 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
         interfaces.add(interfaze);
     }
 
+    /**
+     * Immutable types have final fields, no setters and cache their hash code.
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    public void setImmutable(boolean immutable) {
+        this.immutable = immutable;
+    }
+
     public void addAnnotation(AnnotationUsage annotation) {
         annotation.setParent(this);
         annotations.add(annotation);
@@ -119,7 +132,7 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
                 InternalMethodDefinition getter = new InternalMethodDefinition(property.getterName(resolver), Collections.emptyList(), property.getTypeUsage(), jvmMethodDefinition);
                 registerMethod(getter);
             }
-            {
+            if (!immutable) {
                 String descriptor = "(" + property.getTypeUsage().jvmType().getDescriptor() + ")V";
                 JvmMethodDefinition jvmMethodDefinition = new JvmMethodDefinition(getInternalName(), property.setterName(), descriptor, false, false);
                 FormalParameterNode param = new FormalParameterNode(property.getTypeUsage().copy(), property.getName());
@@ -252,13 +265,38 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
             throw new IllegalArgumentException();
         }
         members.add(propertyDefinition);
-        propertyDefinition.parent = this;
+        propertyDefinition.setParent(this);
     }
 
     public TurinTypeDefinition(String name) {
         super(name);
     }
 
+    /**
+     * Replace a member with a new version of it, which takes its place among the members of the type.
+     */
+    public void replace(Node oldMember, Node newMember) {
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i) == oldMember) {
+                members.set(i, newMember);
+                oldMember.setParent(null);
+                newMember.setParent(this);
+                // calculated from the members
+                constructors = null;
+                methodsByName = null;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Not a member of this type: " + oldMember);
+    }
+
+    /**
+     * Properties, property references, methods and constructors, in the order in which they were added.
+     */
+    public List<Node> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
+
     /**
      * Properties which can be referred to in the constructor
      */
@@ -316,6 +354,31 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
         return ImmutableList.of(ReferenceTypeUsage.OBJECT(symbolResolver()));
     }
 
+    private TypeIdSet ancestorIds;
+
+    @Override
+    public TypeIdSet getAncestorIds() {
+        if (ancestorIds == null) {
+            if (getBaseType().isPresent()) {
+                ReferenceTypeUsage baseType = getBaseType().get().asReferenceTypeUsage();
+                ancestorIds = baseType.getTypeDefinition().getAncestorIds().with(baseType.getQualifiedName());
+            } else {
+                ancestorIds = TypeIdSet.of(ImmutableList.of(Object.class.getCanonicalName()));
+            }
+        }
+        return ancestorIds;
+    }
+
+    @Override
+    public void invalidateResolutionsInto(Node removedSubtree) {
+        super.invalidateResolutionsInto(removedSubtree);
+        // the base type, or one of its ancestors, could be the type removed
+        ancestorIds = null;
+        // the constructors depend on the properties of the base type, which could have been removed
+        constructors = null;
+        methodsByName = null;
+    }
+
     @Override
     public boolean isInterface() {
         // TODO when it will be possible to declare interface fix this
@@ -350,13 +413,14 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
 
     public void add(PropertyReference propertyReference) {
         members.add(propertyReference);
-        propertyReference.parent = this;
+        propertyReference.setParent(this);
     }
 
     @Override
     public String toString() {
         return "TypeDefinition{" +
                 "name='" + name + '\'' +
+                ", immutable=" + immutable +
                 ", members=" + members +
                 '}';
     }
@@ -368,6 +432,7 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
 
         TurinTypeDefinition that = (TurinTypeDefinition) o;
 
+        if (immutable != that.immutable) return false;
         if (!members.equals(that.members)) return false;
         if (!name.equals(that.name)) return false;
 
@@ -377,6 +442,7 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
     @Override
     public int hashCode() {
         int result = name.hashCode();
+        result = 31 * result + (immutable ? 1 : 0);
         result = 31 * result + members.hashCode();
         return result;
     }
@@ -477,17 +543,17 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
 
     public void add(TurinTypeMethodDefinitionNode methodDefinition) {
         members.add(methodDefinition);
-        methodDefinition.parent = this;
+        methodDefinition.setParent(this);
     }
 
     public void add(TurinTypeContructorDefinitionNode contructorDefinition) {
         members.add(contructorDefinition);
-        contructorDefinition.parent = this;
+        contructorDefinition.setParent(this);
     }
 
     @Override
     public boolean canFieldBeAssigned(String field) {
-        return true;
+        return !immutable;
     }
 
     public boolean defineExplicitConstructor(SymbolResolver resolver) {
@@ -55,7 +55,8 @@ public abstract class TypeDefinitionNode extends Node implements TypeDefinition
 
     private void collectVisibleRelations(Node context, List<RelationDefinition> relations, SymbolResolver resolver) {
         // TODO consider relations imported
-        for (Node child : context.getChildren()) {
+        for (int i = 0; i < context.getChildCount(); i++) {
+            Node child = context.getChild(i);
             if (child instanceof RelationDefinition) {
                 relations.add((RelationDefinition)child);
             }
@@ -0,0 +1,85 @@
+package me.tomassetti.turin.parser.ast;
+
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The outcome of a validation, together with the errors it reported. The outcome depends on the resolver used, so
+ * it can be reused only with the same resolver: in that case the errors are reported again, to the new collector.
+ */
+class ValidationOutcome {
+
+    private static class Error {
+        private final Position position;
+        private final String description;
+        private final boolean syntactic;
+
+        private Error(Position position, String description, boolean syntactic) {
+            this.position = position;
+            this.description = description;
+            this.syntactic = syntactic;
+        }
+    }
+
+    private final SymbolResolver resolver;
+    private final boolean valid;
+    private final List<Error> errors;
+
+    private ValidationOutcome(SymbolResolver resolver, boolean valid, List<Error> errors) {
+        this.resolver = resolver;
+        this.valid = valid;
+        this.errors = errors;
+    }
+
+    /**
+     * Perform the validation, reporting its errors to the given collector and remembering them.
+     */
+    static ValidationOutcome validate(SymbolResolver resolver, ErrorCollector errorCollector,
+                                      Predicate<ErrorCollector> validation) {
+        List<Error> errors = new ArrayList<>();
+        boolean valid = validation.test(new ErrorCollector() {
+            @Override
+            public void recordSemanticError(Position position, String description) {
+                errors.add(new Error(position, description, false));
+                errorCollector.recordSemanticError(position, description);
+            }
+
+            @Override
+            public void recordSyntaxError(Position position, String description) {
+                errors.add(new Error(position, description, true));
+                errorCollector.recordSyntaxError(position, description);
+            }
+        });
+        return new ValidationOutcome(resolver, valid, errors.isEmpty() ? Collections.emptyList() : errors);
+    }
+
+    boolean holdsFor(SymbolResolver resolver) {
+        return this.resolver == resolver;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Report again the errors to the given collector.
+     *
+     * @return if the validation succeeded
+     */
+    boolean replay(ErrorCollector errorCollector) {
+        for (Error error : errors) {
+            if (error.syntactic) {
+                errorCollector.recordSyntaxError(error.position, error.description);
+            } else {
+                errorCollector.recordSemanticError(error.position, error.description);
+            }
+        }
+        return valid;
+    }
+
+}
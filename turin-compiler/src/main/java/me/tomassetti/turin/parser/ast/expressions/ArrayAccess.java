@@ -32,11 +32,13 @@ public class ArrayAccess extends Expression {
 
     @Override
     public TypeUsage calcType() {
-        TypeUsage arrayType = array.calcType();
-        if (arrayType.isArray()) {
-            return arrayType.asArrayTypeUsage().getComponentType();
-        } else {
-            throw new UnsupportedOperationException();
-        }
+        return cachedType(() -> {
+            TypeUsage arrayType = array.calcType();
+            if (arrayType.isArray()) {
+                return arrayType.asArrayTypeUsage().getComponentType();
+            } else {
+                throw new UnsupportedOperationException();
+            }
+        });
     }
 }
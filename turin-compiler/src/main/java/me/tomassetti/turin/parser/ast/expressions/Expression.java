@@ -2,15 +2,48 @@ package me.tomassetti.turin.parser.ast.expressions;
 
 import me.tomassetti.jvm.JvmMethodDefinition;
 import me.tomassetti.jvm.JvmType;
+import me.tomassetti.turin.resolvers.ResolverRegistry;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.Node;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public abstract class Expression extends Node {
+
+    private TypeUsage cachedType;
+    // the resolver registered for the file when the type was calculated
+    private SymbolResolver cachedTypeResolver;
+
     public abstract TypeUsage calcType();
 
+    /**
+     * Return the type calculated the first time this method was called, unless the expression changed since then or
+     * the file is now resolved through another resolver.
+     * Expressions whose type is expensive to calculate should use it in calcType.
+     */
+    protected final TypeUsage cachedType(Supplier<TypeUsage> calculation) {
+        SymbolResolver resolver = ResolverRegistry.INSTANCE.findResolver(this).orElse(null);
+        if (cachedType == null || cachedTypeResolver != resolver) {
+            cachedType = calculation.get();
+            cachedTypeResolver = resolver;
+        }
+        return cachedType;
+    }
+
+    @Override
+    protected void forgetType() {
+        cachedType = null;
+        cachedTypeResolver = null;
+    }
+
+    @Override
+    public void invalidateResolutionsInto(Node removedSubtree) {
+        // the type could depend on the removed nodes in ways we do not track
+        forgetType();
+    }
+
     /**
      * When the expression corresponds to something invokable this method find which Jvm method corresponds to the call
      * with the given parameters.
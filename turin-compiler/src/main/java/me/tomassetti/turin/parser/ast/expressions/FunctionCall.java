@@ -61,7 +61,7 @@ public class FunctionCall extends InvokableExpr {
 
     @Override
     public TypeUsage calcType() {
-        return function.calcType().asInvokable().internalInvokableDefinitionFor(actualParams).get().asMethod().getReturnType();
+        return cachedType(() -> function.calcType().asInvokable().internalInvokableDefinitionFor(actualParams).get().asMethod().getReturnType());
     }
 
     @Override
@@ -49,11 +49,12 @@ public class InstanceMethodInvokation extends InvokableExpr {
 
     @Override
     public TypeUsage calcType() {
-        List<JvmType> paramTypes = getActualParamValuesInOrder().stream().map((ap)->ap.calcType().jvmType()).collect(Collectors.toList());
-        TypeUsage subjectType = subject.calcType();
-        Invokable invokableType = subjectType.getMethod(methodName, false).get();
-        InternalInvokableDefinition internalInvokableDefinition = invokableType.internalInvokableDefinitionFor(actualParams).get();
-        return internalInvokableDefinition.asMethod().getReturnType();
+        return cachedType(() -> {
+            TypeUsage subjectType = subject.calcType();
+            Invokable invokableType = subjectType.getMethod(methodName, false).get();
+            InternalInvokableDefinition internalInvokableDefinition = invokableType.internalInvokableDefinitionFor(actualParams).get();
+            return internalInvokableDefinition.asMethod().getReturnType();
+        });
     }
 
     public JvmMethodDefinition findJvmDefinition(SymbolResolver resolver) {
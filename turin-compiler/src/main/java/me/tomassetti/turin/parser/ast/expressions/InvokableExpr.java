@@ -32,6 +32,8 @@ public abstract class InvokableExpr extends Expression {
             return;
         }
         concreteDesugarize(resolver);
+        // the actual params are reordered and completed
+        childrenChanged();
         desugarized = true;
     }
 
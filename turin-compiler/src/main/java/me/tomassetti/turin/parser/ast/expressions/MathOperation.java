@@ -16,7 +16,7 @@ public class MathOperation extends Expression {
 
     @Override
     public TypeUsage calcType() {
-        return left.calcType();
+        return cachedType(() -> left.calcType());
     }
 
     public Expression getLeft() {
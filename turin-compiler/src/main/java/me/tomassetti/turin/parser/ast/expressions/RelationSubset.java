@@ -19,6 +19,18 @@ public class RelationSubset extends Expression {
         this.matchingConditions.forEach((mc) -> mc.setParent(RelationSubset.this));
     }
 
+    public String getRelationName() {
+        return relationName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public List<ActualParam> getMatchingConditions() {
+        return matchingConditions;
+    }
+
     @Override
     public Iterable<Node> getChildren() {
         return ImmutableList.copyOf(matchingConditions);
@@ -24,6 +24,17 @@ public class SemanticError extends Expression {
         this.position = position;
     }
 
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Where the error should be reported. The expression itself has no position.
+     */
+    public Position getErrorPosition() {
+        return position;
+    }
+
     @Override
     public Iterable<Node> getChildren() {
         return Collections.emptyList();
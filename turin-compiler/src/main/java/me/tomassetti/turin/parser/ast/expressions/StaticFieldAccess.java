@@ -25,6 +25,14 @@ public class StaticFieldAccess extends Expression {
         this.field = field;
     }
 
+    public TypeIdentifier getSubject() {
+        return subject;
+    }
+
+    public String getField() {
+        return field;
+    }
+
     @Override
     public String toString() {
         return "StaticFieldAccess{" +
@@ -55,10 +63,7 @@ public class StaticFieldAccess extends Expression {
 
     @Override
     public TypeUsage calcType() {
-        TypeDefinition typeDefinition = typeDefinition(symbolResolver());
-
-        TypeUsage fieldType = typeDefinition.getFieldType(field, true);
-        return fieldType;
+        return cachedType(() -> typeDefinition(symbolResolver()).getFieldType(field, true));
     }
 
     @Override
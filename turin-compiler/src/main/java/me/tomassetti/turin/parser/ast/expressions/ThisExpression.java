@@ -4,6 +4,7 @@ import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.Node;
 import me.tomassetti.turin.parser.ast.TurinTypeDefinition;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeContructorDefinitionNode;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 
 import java.util.Collections;
@@ -32,7 +33,20 @@ public class ThisExpression extends Expression {
 
     @Override
     public boolean canFieldBeAssigned(String field, SymbolResolver resolver) {
+        // constructors can always initialize the fields, also the ones of immutable types
+        if (isInConstructor()) {
+            return true;
+        }
         TypeDefinition typeDefinition = calcType().getTypeDefinition();
         return typeDefinition.canFieldBeAssigned(field);
     }
+
+    private boolean isInConstructor() {
+        for (Node node = getParent(); node != null && !(node instanceof TurinTypeDefinition); node = node.getParent()) {
+            if (node instanceof TurinTypeContructorDefinitionNode) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
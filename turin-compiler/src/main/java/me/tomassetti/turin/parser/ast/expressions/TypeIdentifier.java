@@ -20,6 +20,17 @@ public class TypeIdentifier extends Node {
         this.typeName = typeName;
     }
 
+    /**
+     * Null when the type is not qualified.
+     */
+    public QualifiedName getPackageName() {
+        return packageName;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
     @Override
     public String toString() {
         return "TypeIdentifier{" +
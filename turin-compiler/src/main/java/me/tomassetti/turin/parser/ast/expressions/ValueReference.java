@@ -97,12 +97,14 @@ public class ValueReference extends Expression {
         if (precalculatedType != null) {
             return precalculatedType;
         }
-        Optional<Symbol> declaration = symbolResolver().findSymbol(name, this);
-        if (declaration.isPresent()) {
-            return declaration.get().calcType();
-        } else {
-            throw new UnsolvedSymbolException(this);
-        }
+        return cachedType(() -> {
+            Optional<Symbol> declaration = symbolResolver().findSymbol(name, this);
+            if (declaration.isPresent()) {
+                return declaration.get().calcType();
+            } else {
+                throw new UnsolvedSymbolException(this);
+            }
+        });
     }
 
     @Override
@@ -123,6 +125,14 @@ public class ValueReference extends Expression {
 
     private Symbol cache;
 
+    @Override
+    public void invalidateResolutionsInto(Node removedSubtree) {
+        super.invalidateResolutionsInto(removedSubtree);
+        if (isInSubtree(cache, removedSubtree)) {
+            cache = null;
+        }
+    }
+
     public Symbol resolve(SymbolResolver resolver) {
         if (cache != null) {
             return cache;
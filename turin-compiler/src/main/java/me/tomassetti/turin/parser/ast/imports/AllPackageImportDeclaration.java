@@ -19,6 +19,10 @@ public class AllPackageImportDeclaration extends ImportDeclaration {
         this.qualifiedName = qualifiedName;
     }
 
+    public QualifiedName getPackageName() {
+        return qualifiedName;
+    }
+
     @Override
     protected boolean specificValidate(SymbolResolver resolver, ErrorCollector errorCollector) {
         if (!resolver.existPackage(qualifiedName.qualifiedName())) {
@@ -33,7 +37,12 @@ public class AllPackageImportDeclaration extends ImportDeclaration {
     public Optional<Symbol> findAmongImported(String name, SymbolResolver resolver) {
         // TODO correct the context passed
         if (JvmNameUtils.isSimpleName(name)) {
-            Optional<TypeDefinition> res = resolver.findTypeDefinitionIn(qualifiedName.qualifiedName() + "." + name, this, resolver);
+            // the types of the sources are found in the package through their index, without asking the resolvers of
+            // compiled classes for a name they do not know
+            Optional<TypeDefinition> res = resolver.getRoot().findTypeInSourcePackage(qualifiedName.qualifiedName(), name);
+            if (!res.isPresent()) {
+                res = resolver.findTypeDefinitionIn(qualifiedName.qualifiedName() + "." + name, this, resolver);
+            }
             if (res.isPresent()) {
                 return Optional.of(res.get());
             } else {
@@ -34,6 +34,25 @@ public class SingleFieldImportDeclaration extends ImportDeclaration {
         this.alias = alias;
     }
 
+    public QualifiedName getPackagePart() {
+        return packagePart;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public QualifiedName getFieldsPath() {
+        return fieldsPath;
+    }
+
+    /**
+     * Null when the field is imported with its own name.
+     */
+    public String getAlias() {
+        return alias;
+    }
+
     private String exposedName() {
         if (alias == null) {
             return fieldsPath.getName();
@@ -37,6 +37,21 @@ public class TypeImportDeclaration extends ImportDeclaration {
         this.alternativeName = alternativeName;
     }
 
+    public QualifiedName getPackageName() {
+        return qualifiedName;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Null when the type is imported with its own name.
+     */
+    public String getAlternativeName() {
+        return alternativeName;
+    }
+
     @Override
     protected boolean specificValidate(SymbolResolver resolver, ErrorCollector errorCollector) {
         findTypeDefinition(resolver);
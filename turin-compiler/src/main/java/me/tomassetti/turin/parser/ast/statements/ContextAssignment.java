@@ -23,6 +23,10 @@ public class ContextAssignment extends Node {
         this.contextValue.setParent(this);
     }
 
+    public String getContextName() {
+        return contextName;
+    }
+
     public Optional<ContextDefinition> contextSymbol() {
         if (contextSymbol == null) {
             contextSymbol = symbolResolver().findContextSymbol(contextName, this);
@@ -11,6 +11,11 @@ public class ArrayTypeUsageNode extends TypeUsageWrapperNode {
     public ArrayTypeUsageNode(TypeUsageNode componentType) {
         super(new ArrayTypeUsage(componentType));
         this.componentTypeNode = componentType;
+        this.componentTypeNode.setParent(this);
+    }
+
+    public TypeUsageNode getComponentTypeNode() {
+        return componentTypeNode;
     }
 
     @Override
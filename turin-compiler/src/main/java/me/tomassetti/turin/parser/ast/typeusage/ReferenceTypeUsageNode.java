@@ -33,6 +33,13 @@ public class ReferenceTypeUsageNode extends TypeUsageWrapperNode {
         this.typeParams = Collections.emptyList();
     }
 
+    /**
+     * The name as written in the code, possibly not qualified.
+     */
+    public String getName() {
+        return name;
+    }
+
     @Override
     public TypeUsage typeUsage() {
         if (typeUsage == null) {
@@ -85,6 +92,13 @@ public class ReferenceTypeUsageNode extends TypeUsageWrapperNode {
                 '}';
     }
 
+    @Override
+    public void invalidateResolutionsInto(Node removedSubtree) {
+        if (isInSubtree(cachedTypeDefinition, removedSubtree)) {
+            cachedTypeDefinition = null;
+        }
+    }
+
     public TypeDefinition getTypeDefinition(SymbolResolver resolver) {
         if (cachedTypeDefinition != null) {
             return cachedTypeDefinition;
@@ -1,5 +1,6 @@
 package me.tomassetti.turin.resolvers;
 
+import com.google.common.collect.ImmutableList;
 import me.tomassetti.jvm.JvmMethodDefinition;
 import me.tomassetti.turin.definitions.ContextDefinition;
 import me.tomassetti.turin.definitions.TypeDefinition;
@@ -9,19 +10,23 @@ import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
 import me.tomassetti.turin.parser.ast.properties.PropertyReference;
 import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.TypeUsage;
+import me.tomassetti.turin.typesystem.TypeUsageFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Combine several resolvers.
+ * Combine several resolvers. The elements do not change after the resolver is built, so it can be shared by
+ * parallel compilations when its elements can. The elements are attached to this resolver, so they should not be
+ * shared with other resolvers.
  */
 public class ComposedSymbolResolver implements SymbolResolver {
 
-    private List<SymbolResolver> elements = new ArrayList<>();
+    private final List<SymbolResolver> elements;
 
-    private SymbolResolver parent = null;
+    private volatile SymbolResolver parent = null;
 
     @Override
     public SymbolResolver getParent() {
@@ -33,8 +38,15 @@ public class ComposedSymbolResolver implements SymbolResolver {
         this.parent = parent;
     }
 
+    private final TypeUsageFactory typeUsageFactory = new TypeUsageFactory(this);
+
+    @Override
+    public TypeUsageFactory getTypeUsageFactory() {
+        return typeUsageFactory;
+    }
+
     public ComposedSymbolResolver(List<SymbolResolver> elements) {
-        this.elements = elements;
+        this.elements = ImmutableList.copyOf(elements);
         this.elements.forEach((e)->e.setParent(ComposedSymbolResolver.this));
     }
 
@@ -114,4 +126,32 @@ public class ComposedSymbolResolver implements SymbolResolver {
         return Optional.empty();
     }
 
+    /**
+     * The subclasses are known if at least an element knows them: the others are not expected to contain sources.
+     */
+    @Override
+    public Optional<List<TypeDefinition>> findDirectSubclassesInSources(String qualifiedName) {
+        Optional<List<TypeDefinition>> subclasses = Optional.empty();
+        for (SymbolResolver element : elements) {
+            Optional<List<TypeDefinition>> partial = element.findDirectSubclassesInSources(qualifiedName);
+            if (partial.isPresent()) {
+                List<TypeDefinition> merged = new ArrayList<>(subclasses.orElse(Collections.emptyList()));
+                merged.addAll(partial.get());
+                subclasses = Optional.of(merged);
+            }
+        }
+        return subclasses;
+    }
+
+    @Override
+    public Optional<TypeDefinition> findTypeInSourcePackage(String packageName, String simpleName) {
+        for (SymbolResolver element : elements) {
+            Optional<TypeDefinition> res = element.findTypeInSourcePackage(packageName, simpleName);
+            if (res.isPresent()) {
+                return res;
+            }
+        }
+        return Optional.empty();
+    }
+
 }
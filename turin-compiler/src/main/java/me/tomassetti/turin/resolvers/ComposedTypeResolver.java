@@ -1,21 +1,66 @@
 package me.tomassetti.turin.resolvers;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import me.tomassetti.jvm.JvmNameUtils;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
+/**
+ * Combine several type resolvers: the elements are asked in order and the first one finding a name wins.
+ *
+ * The packages of the elements which know them in advance are indexed when the resolver is built, so a name is
+ * looked up only in the elements containing its package and in those which cannot list their packages, skipping the
+ * elements which tell they cannot resolve it. The elements and the index do not change after the resolver is built,
+ * so lookups can be done by parallel compilations, as long as the elements support it. The elements are attached to
+ * this resolver, so they should not be shared with other resolvers.
+ */
 public class ComposedTypeResolver implements TypeResolver {
 
-    private List<TypeResolver> elements;
+    private final List<TypeResolver> elements;
+    // for each package found in the elements, the elements to ask for the names in it, in their original order
+    private final Map<String, List<TypeResolver>> elementsByPackage;
+    // the elements to ask for names in any other package
+    private final List<TypeResolver> unindexedElements;
 
     public ComposedTypeResolver(List<TypeResolver> elements) {
-        this.elements = elements;
+        this.elements = ImmutableList.copyOf(elements);
         this.elements.forEach((e)->e.setRoot(ComposedTypeResolver.this));
+
+        Set<String> packages = new HashSet<>();
+        for (TypeResolver element : this.elements) {
+            element.knownPackages().ifPresent((p) -> packages.addAll(p));
+        }
+        Map<String, ImmutableList.Builder<TypeResolver>> builders = new HashMap<>();
+        packages.forEach((p) -> builders.put(p, ImmutableList.builder()));
+        ImmutableList.Builder<TypeResolver> unindexedElements = ImmutableList.builder();
+        for (TypeResolver element : this.elements) {
+            Optional<Set<String>> knownPackages = element.knownPackages();
+            if (knownPackages.isPresent()) {
+                knownPackages.get().forEach((p) -> builders.get(p).add(element));
+            } else {
+                builders.values().forEach((b) -> b.add(element));
+                unindexedElements.add(element);
+            }
+        }
+        ImmutableMap.Builder<String, List<TypeResolver>> elementsByPackage = ImmutableMap.builder();
+        builders.forEach((p, b) -> elementsByPackage.put(p, b.build()));
+        this.elementsByPackage = elementsByPackage.build();
+        this.unindexedElements = unindexedElements.build();
     }
 
-    protected SymbolResolver symbolResolver;
+    private List<TypeResolver> candidatesFor(String name) {
+        // names in the default package are not indexed
+        if (JvmNameUtils.isSimpleName(name)) {
+            return elements;
+        }
+        List<TypeResolver> candidates = elementsByPackage.get(JvmNameUtils.getPackagePart(name));
+        return candidates == null ? unindexedElements : candidates;
+    }
+
+    protected volatile SymbolResolver symbolResolver;
 
     public SymbolResolver symbolResolver() {
         SymbolResolver symbolResolver;
@@ -41,7 +86,10 @@ public class ComposedTypeResolver implements TypeResolver {
 
     @Override
     public Optional<TypeDefinition> resolveAbsoluteTypeName(String typeName) {
-        for (TypeResolver element : elements) {
+        for (TypeResolver element : candidatesFor(typeName)) {
+            if (!element.mightResolve(typeName)) {
+                continue;
+            }
             Optional<TypeDefinition> partial = element.resolveAbsoluteTypeName(typeName);
             if (partial.isPresent()) {
                 return partial;
@@ -50,7 +98,7 @@ public class ComposedTypeResolver implements TypeResolver {
         return Optional.empty();
     }
 
-    private TypeResolver root;
+    private volatile TypeResolver root;
 
     public TypeResolver root() {
         return root;
@@ -62,7 +110,10 @@ public class ComposedTypeResolver implements TypeResolver {
 
     @Override
     public Optional<FunctionDefinitionNode> resolveAbsoluteFunctionName(String typeName) {
-        for (TypeResolver element : elements) {
+        for (TypeResolver element : candidatesFor(typeName)) {
+            if (!element.mightResolve(typeName)) {
+                continue;
+            }
             Optional<FunctionDefinitionNode> partial = element.resolveAbsoluteFunctionName(typeName);
             if (partial.isPresent()) {
                 return partial;
@@ -73,11 +124,32 @@ public class ComposedTypeResolver implements TypeResolver {
 
     @Override
     public boolean existPackage(String packageName) {
-        for (TypeResolver element : elements) {
+        if (elementsByPackage.containsKey(packageName)) {
+            return true;
+        }
+        for (TypeResolver element : unindexedElements) {
             if (element.existPackage(packageName)) {
                 return true;
             }
         }
         return false;
     }
+
+    @Override
+    public boolean mightResolve(String name) {
+        for (TypeResolver element : candidatesFor(name)) {
+            if (element.mightResolve(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Optional<Set<String>> knownPackages() {
+        if (unindexedElements.isEmpty()) {
+            return Optional.of(elementsByPackage.keySet());
+        }
+        return Optional.empty();
+    }
 }
@@ -20,6 +20,7 @@ import me.tomassetti.turin.typesystem.UnsignedPrimitiveTypeUsage;
 import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 import me.tomassetti.turin.typesystem.TypeUsage;
+import me.tomassetti.turin.typesystem.TypeUsageFactory;
 
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +53,13 @@ public class InFileSymbolResolver implements SymbolResolver {
         this.parent = parent;
     }
 
+    private final TypeUsageFactory typeUsageFactory = new TypeUsageFactory(this);
+
+    @Override
+    public TypeUsageFactory getTypeUsageFactory() {
+        return typeUsageFactory;
+    }
+
     public InFileSymbolResolver(TypeResolver typeResolver) {
         this.typeResolver = typeResolver;
         this.typeResolver.setSymbolResolver(this);
@@ -63,7 +71,8 @@ public class InFileSymbolResolver implements SymbolResolver {
     }
 
     private Optional<PropertyDefinition> findDefinitionIn(PropertyReference propertyReference, Node context) {
-        for (Node child : context.getChildren()) {
+        for (int i = 0; i < context.getChildCount(); i++) {
+            Node child = context.getChild(i);
             if (child instanceof PropertyDefinition) {
                 PropertyDefinition propertyDefinition = (PropertyDefinition)child;
                 if (propertyDefinition.getName().equals(propertyReference.getName())) {
@@ -159,7 +168,8 @@ public class InFileSymbolResolver implements SymbolResolver {
         if (context == null) {
             return Optional.empty();
         }
-        for (Node child : context.getChildren()) {
+        for (int i = 0; i < context.getChildCount(); i++) {
+            Node child = context.getChild(i);
             if (child instanceof ContextDefinitionNode) {
                 ContextDefinitionNode contextDefinition = (ContextDefinitionNode)child;
                 if (contextDefinition.getName().equals(contextName)
@@ -205,7 +215,8 @@ public class InFileSymbolResolver implements SymbolResolver {
 
             return typeResolver.resolveAbsoluteTypeName(typeName);
         }
-        for (Node child : context.getChildren()) {
+        for (int i = 0; i < context.getChildCount(); i++) {
+            Node child = context.getChild(i);
             if (child instanceof TypeDefinition) {
                 TypeDefinition typeDefinition = (TypeDefinition)child;
                 if (typeDefinition.getName().equals(typeName)
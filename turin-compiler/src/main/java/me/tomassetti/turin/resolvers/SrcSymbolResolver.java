@@ -3,30 +3,38 @@ package me.tomassetti.turin.resolvers;
 import me.tomassetti.jvm.JvmMethodDefinition;
 import me.tomassetti.turin.definitions.ContextDefinition;
 import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.LazyTurinFile;
+import me.tomassetti.turin.parser.TopLevelSymbol;
 import me.tomassetti.turin.parser.analysis.exceptions.UnsolvedMethodException;
+import me.tomassetti.turin.parser.LazyTurinFile;
+import me.tomassetti.turin.parser.TopLevelSymbol;
+import me.tomassetti.turin.parser.analysis.exceptions.UnsolvedSymbolException;
 import me.tomassetti.turin.parser.ast.*;
 import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
 import me.tomassetti.turin.parser.ast.expressions.FunctionCall;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
 import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.parser.ast.typeusage.ReferenceTypeUsageNode;
+import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
 import me.tomassetti.turin.symbols.Symbol;
+import me.tomassetti.turin.typesystem.MethodResolutionCache;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 import me.tomassetti.turin.typesystem.TypeUsage;
+import me.tomassetti.turin.typesystem.TypeUsageFactory;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Solve symbols considering TurinFiles.
  */
 public class SrcSymbolResolver implements SymbolResolver {
 
-    private Set<String> packages = new HashSet<>();
-    private Map<String, TypeDefinition> typeDefinitions;
-    private Map<String, PropertyDefinition> propertyDefinitions;
-    private Map<String, Program> programsDefinitions;
-    private Map<String, FunctionDefinitionNode> functionDefinitions;
-    private Map<String, ContextDefinitionNode> contextDefinitions;
+    private final SymbolIndex index = new SymbolIndex();
+    private Map<String, List<TypeDefinition>> directSubclasses;
 
     private SymbolResolver parent = null;
 
@@ -40,62 +48,193 @@ public class SrcSymbolResolver implements SymbolResolver {
         this.parent = parent;
     }
 
-    public SrcSymbolResolver(List<TurinFile> turinFiles) {
-        this.typeDefinitions = new HashMap<>();
-        this.propertyDefinitions = new HashMap<>();
-        this.programsDefinitions = new HashMap<>();
-        this.functionDefinitions = new HashMap<>();
-        this.contextDefinitions = new HashMap<>();
-        for (TurinFile turinFile : turinFiles) {
-            for (TypeDefinitionNode typeDefinition : turinFile.getTopLevelTypeDefinitions()) {
-                packages.add(typeDefinition.contextName());
-                typeDefinitions.put(typeDefinition.getQualifiedName(), typeDefinition);
-            }
-            for (PropertyDefinition propertyDefinition : turinFile.getTopLevelPropertyDefinitions()) {
-                packages.add(propertyDefinition.contextName());
-                propertyDefinitions.put(propertyDefinition.getQualifiedName(), propertyDefinition);
+    private final TypeUsageFactory typeUsageFactory = new TypeUsageFactory(this);
+
+    @Override
+    public TypeUsageFactory getTypeUsageFactory() {
+        return typeUsageFactory;
+    }
+
+    private static class IndexEntry {
+        private final SymbolIndex.Kind kind;
+        private final String qualifiedName;
+        // only one between the member and its loader is present
+        private final Node member;
+        private final Supplier<Node> loader;
+
+        private IndexEntry(SymbolIndex.Kind kind, String qualifiedName, Node member) {
+            this.kind = kind;
+            this.qualifiedName = qualifiedName;
+            this.member = member;
+            this.loader = null;
+        }
+
+        private IndexEntry(SymbolIndex.Kind kind, String qualifiedName, Supplier<Node> loader) {
+            this.kind = kind;
+            this.qualifiedName = qualifiedName;
+            this.member = null;
+            this.loader = loader;
+        }
+
+        private void addTo(SymbolIndex index) {
+            if (member != null) {
+                index.add(kind, qualifiedName, member);
+            } else {
+                index.add(kind, qualifiedName, loader);
             }
-            for (Program program : turinFile.getTopLevelPrograms()) {
-                packages.add(program.contextName());
-                programsDefinitions.put(program.getQualifiedName(), program);
+        }
+    }
+
+    public SrcSymbolResolver(List<TurinFile> turinFiles) {
+        this(turinFiles.parallelStream().map((f) -> indexEntries(f)));
+    }
+
+    /**
+     * The files which are not loaded yet are indexed through the summaries of their members: the ASTs are loaded
+     * when one of their members is first needed.
+     */
+    public static SrcSymbolResolver ofLazyFiles(List<LazyTurinFile> turinFiles) {
+        return new SrcSymbolResolver(turinFiles.parallelStream()
+                .map((f) -> f.isLoaded() ? indexEntries(f.getTurinFile()) : lazyIndexEntries(f)));
+    }
+
+    private SrcSymbolResolver(Stream<List<IndexEntry>> entriesByFile) {
+        // the names of the members are calculated in parallel, while they are added in the order of the files, so
+        // that when two members have the same name the last one is kept
+        List<List<IndexEntry>> entries = entriesByFile.collect(Collectors.toList());
+        for (List<IndexEntry> fileEntries : entries) {
+            for (IndexEntry entry : fileEntries) {
+                entry.addTo(index);
             }
-            for (FunctionDefinitionNode functionDefinition : turinFile.getTopLevelFunctionDefinitions()) {
-                packages.add(functionDefinition.contextName());
-                functionDefinitions.put(functionDefinition.getQualifiedName(), functionDefinition);
+        }
+    }
+
+    private static List<IndexEntry> indexEntries(TurinFile turinFile) {
+        return turinFile.getNodes().stream()
+                .map((m) -> toIndexEntry(m))
+                .filter((e) -> e.isPresent())
+                .map((e) -> e.get())
+                .collect(Collectors.toList());
+    }
+
+    private static List<IndexEntry> lazyIndexEntries(LazyTurinFile turinFile) {
+        List<IndexEntry> entries = new ArrayList<>();
+        List<TopLevelSymbol> symbols = turinFile.getSymbols();
+        for (int i = 0; i < symbols.size(); i++) {
+            Optional<SymbolIndex.Kind> kind = toIndexKind(symbols.get(i).getKind());
+            if (kind.isPresent()) {
+                // the symbols are in the order of the members
+                int memberIndex = i;
+                entries.add(new IndexEntry(kind.get(), symbols.get(i).getQualifiedName(),
+                        () -> turinFile.getTurinFile().getNodes().get(memberIndex)));
             }
-            for (ContextDefinitionNode contextDefinition : turinFile.getTopLevelContextDefinitions()) {
-                packages.add(contextDefinition.contextName());
-                contextDefinitions.put(contextDefinition.getQualifiedName(), contextDefinition);
+        }
+        return entries;
+    }
+
+    private static Optional<SymbolIndex.Kind> toIndexKind(TopLevelSymbol.Kind kind) {
+        switch (kind) {
+            case TYPE:
+                return Optional.of(SymbolIndex.Kind.TYPE);
+            case PROPERTY:
+                return Optional.of(SymbolIndex.Kind.PROPERTY);
+            case PROGRAM:
+                return Optional.of(SymbolIndex.Kind.PROGRAM);
+            case FUNCTION:
+                return Optional.of(SymbolIndex.Kind.FUNCTION);
+            case CONTEXT:
+                return Optional.of(SymbolIndex.Kind.CONTEXT);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<IndexEntry> toIndexEntry(Node member) {
+        if (member instanceof TurinTypeDefinition) {
+            TurinTypeDefinition typeDefinition = (TurinTypeDefinition) member;
+            return Optional.of(new IndexEntry(SymbolIndex.Kind.TYPE, typeDefinition.getQualifiedName(), typeDefinition));
+        } else if (member instanceof PropertyDefinition) {
+            PropertyDefinition propertyDefinition = (PropertyDefinition) member;
+            return Optional.of(new IndexEntry(SymbolIndex.Kind.PROPERTY, propertyDefinition.getQualifiedName(), propertyDefinition));
+        } else if (member instanceof Program) {
+            Program program = (Program) member;
+            return Optional.of(new IndexEntry(SymbolIndex.Kind.PROGRAM, program.getQualifiedName(), program));
+        } else if (member instanceof FunctionDefinitionNode) {
+            FunctionDefinitionNode functionDefinition = (FunctionDefinitionNode) member;
+            return Optional.of(new IndexEntry(SymbolIndex.Kind.FUNCTION, functionDefinition.getQualifiedName(), functionDefinition));
+        } else if (member instanceof ContextDefinitionNode) {
+            ContextDefinitionNode contextDefinition = (ContextDefinitionNode) member;
+            return Optional.of(new IndexEntry(SymbolIndex.Kind.CONTEXT, contextDefinition.getQualifiedName(), contextDefinition));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Update the definitions after a member of a file was parsed again. The member could have changed name or kind.
+     * The resolutions cached for the resolvers sharing the root of this one are forgotten, while those of other
+     * compilations are kept. Members of types are not indexed: replacing them does not change the definitions.
+     */
+    public void memberReplaced(Node oldMember, Node newMember) {
+        if (!(newMember.getParent() instanceof TurinFile)) {
+            return;
+        }
+        index.remove(oldMember);
+        Optional<IndexEntry> entry = toIndexEntry(newMember);
+        if (entry.isPresent()) {
+            entry.get().addTo(index);
+        }
+        // base types could have changed
+        directSubclasses = null;
+        MethodResolutionCache.invalidate(getRoot());
+        TypeUsageFactory.invalidate(getRoot());
+    }
+
+    /**
+     * The types, properties, functions and programs declared directly in the given package, as they are imported by
+     * <code>import package.*</code>.
+     */
+    public List<Symbol> findSymbolsInPackage(String packageName) {
+        List<Symbol> symbols = new ArrayList<>();
+        for (SymbolIndex.Kind kind : SYMBOL_KINDS) {
+            for (Node member : index.membersOf(packageName, kind)) {
+                symbols.add((Symbol) member);
             }
         }
+        return symbols;
+    }
+
+    /**
+     * The qualified names of the types, properties, functions and programs starting with the given prefix, which can
+     * end with a partial package or member name.
+     */
+    public List<String> findSymbolNamesStartingWith(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (SymbolIndex.Kind kind : SYMBOL_KINDS) {
+            names.addAll(index.qualifiedNamesStartingWith(prefix, kind));
+        }
+        return names;
     }
 
     @Override
     public Optional<PropertyDefinition> findDefinition(PropertyReference propertyReference) {
         String name = propertyReference.contextName() + "." + propertyReference.getName();
-        if (propertyDefinitions.containsKey(name)) {
-            return Optional.of(propertyDefinitions.get(name));
-        } else {
-            return Optional.empty();
-        }
+        return index.find(SymbolIndex.Kind.PROPERTY, name).map((m) -> (PropertyDefinition) m);
     }
 
     @Override
     public Optional<TypeDefinition> findTypeDefinitionIn(String typeName, Node context, SymbolResolver resolver) {
-        if (typeDefinitions.containsKey(typeName)) {
-            return Optional.of(typeDefinitions.get(typeName));
-        } else {
-            return Optional.empty();
-        }
+        return index.find(SymbolIndex.Kind.TYPE, typeName).map((m) -> (TypeDefinition) m);
+    }
+
+    @Override
+    public Optional<TypeDefinition> findTypeInSourcePackage(String packageName, String simpleName) {
+        return index.findIn(packageName, SymbolIndex.Kind.TYPE, simpleName).map((m) -> (TypeDefinition) m);
     }
 
     @Override
     public Optional<TypeUsage> findTypeUsageIn(String typeName, Node context, SymbolResolver resolver) {
-        if (typeDefinitions.containsKey(typeName)) {
-            return Optional.of(new ReferenceTypeUsage(typeDefinitions.get(typeName)));
-        } else {
-            return Optional.empty();
-        }
+        return findTypeDefinitionIn(typeName, context, resolver).map((t) -> new ReferenceTypeUsage(t));
     }
 
     @Override
@@ -103,33 +242,74 @@ public class SrcSymbolResolver implements SymbolResolver {
         throw new UnsolvedMethodException(functionCall);
     }
 
+    // the kinds of members which are symbols, in the order they are looked up
+    private static final List<SymbolIndex.Kind> SYMBOL_KINDS = Arrays.asList(SymbolIndex.Kind.TYPE,
+            SymbolIndex.Kind.PROPERTY, SymbolIndex.Kind.FUNCTION, SymbolIndex.Kind.PROGRAM);
+
     @Override
     public Optional<Symbol> findSymbol(String name, Node context) {
         // TODO consider also static fields and methods
-        if (typeDefinitions.containsKey(name)) {
-            return Optional.of(typeDefinitions.get(name));
-        } else if (propertyDefinitions.containsKey(name)) {
-            return Optional.of(propertyDefinitions.get(name));
-        } else if (functionDefinitions.containsKey(name)) {
-            return Optional.of(functionDefinitions.get(name));
-        } else if (programsDefinitions.containsKey(name)) {
-            return Optional.of(programsDefinitions.get(name));
-        } else {
-            return Optional.empty();
+        for (SymbolIndex.Kind kind : SYMBOL_KINDS) {
+            Optional<Node> member = index.find(kind, name);
+            if (member.isPresent()) {
+                return Optional.of((Symbol) member.get());
+            }
         }
+        return Optional.empty();
     }
 
     @Override
     public boolean existPackage(String packageName) {
-        return packages.contains(packageName);
+        return index.existPackage(packageName);
     }
 
     @Override
     public Optional<ContextDefinition> findContextSymbol(String contextName, Node context) {
-        if (contextDefinitions.containsKey(contextName)) {
-            return Optional.of(contextDefinitions.get(contextName));
-        } else {
-            return Optional.empty();
+        return index.find(SymbolIndex.Kind.CONTEXT, contextName).map((m) -> (ContextDefinition) m);
+    }
+
+    @Override
+    public Optional<List<TypeDefinition>> findDirectSubclassesInSources(String qualifiedName) {
+        if (directSubclasses == null) {
+            indexSubclasses();
+        }
+        return Optional.of(directSubclasses.getOrDefault(qualifiedName, Collections.emptyList()));
+    }
+
+    /**
+     * Calculated lazily because base types can be solved only when the whole resolvers hierarchy is built.
+     */
+    private void indexSubclasses() {
+        directSubclasses = new HashMap<>();
+        for (Node typeDefinition : index.members(SymbolIndex.Kind.TYPE)) {
+            if (!(typeDefinition instanceof TurinTypeDefinition)) {
+                continue;
+            }
+            TurinTypeDefinition turinTypeDefinition = (TurinTypeDefinition) typeDefinition;
+            if (!turinTypeDefinition.getBaseType().isPresent()) {
+                continue;
+            }
+            TypeUsageNode baseType = turinTypeDefinition.getBaseType().get();
+            if (!(baseType instanceof ReferenceTypeUsageNode)) {
+                // the error is reported when the type is validated
+                continue;
+            }
+            try {
+                // the other files could not have been compiled yet, so their resolver is not necessarily registered
+                Optional<TypeDefinition> baseTypeDefinition = getRoot().findTypeDefinitionIn(
+                        ((ReferenceTypeUsageNode) baseType).getName(), baseType, getRoot());
+                if (!baseTypeDefinition.isPresent()) {
+                    // the error is reported when the type is validated
+                    continue;
+                }
+                String baseTypeName = baseTypeDefinition.get().getQualifiedName();
+                if (!directSubclasses.containsKey(baseTypeName)) {
+                    directSubclasses.put(baseTypeName, new ArrayList<>());
+                }
+                directSubclasses.get(baseTypeName).add(turinTypeDefinition);
+            } catch (UnsolvedSymbolException e) {
+                // the error is reported when the type is validated
+            }
         }
     }
 
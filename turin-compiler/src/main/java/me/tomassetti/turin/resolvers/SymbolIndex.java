@@ -0,0 +1,231 @@
+package me.tomassetti.turin.resolvers;
+
+import me.tomassetti.turin.parser.ast.Node;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Index of the members declared in source files, organized as a tree of packages. Each package keeps a sorted table
+ * of its members for each kind, so a member is found navigating its package and the members of a package or the
+ * members with a given prefix are listed in a time proportional to their number.
+ *
+ * Members can be added lazily, giving only their names: they are loaded when they are first returned.
+ */
+final class SymbolIndex {
+
+    enum Kind {
+        TYPE,
+        PROPERTY,
+        PROGRAM,
+        FUNCTION,
+        CONTEXT
+    }
+
+    private static final class PackageNode {
+        private final String name;
+        // packages are declared by the members they contain: they stay declared when the members are removed
+        private boolean declared = false;
+        private final NavigableMap<String, PackageNode> children = new TreeMap<>();
+        private final Map<Kind, NavigableMap<String, Entry>> members = new EnumMap<>(Kind.class);
+
+        private PackageNode(String name) {
+            this.name = name;
+            for (Kind kind : Kind.values()) {
+                members.put(kind, new TreeMap<>());
+            }
+        }
+
+        private String qualifiedName(String simpleName) {
+            return name.isEmpty() ? simpleName : name + "." + simpleName;
+        }
+    }
+
+    private static final class Location {
+        private final PackageNode packageNode;
+        private final Kind kind;
+        private final String simpleName;
+
+        private Location(PackageNode packageNode, Kind kind, String simpleName) {
+            this.packageNode = packageNode;
+            this.kind = kind;
+            this.simpleName = simpleName;
+        }
+    }
+
+    private static final class Entry {
+        private final Location location;
+        private Node member;
+        private Supplier<Node> loader;
+
+        private Entry(Location location, Node member, Supplier<Node> loader) {
+            this.location = location;
+            this.member = member;
+            this.loader = loader;
+        }
+    }
+
+    private final PackageNode root = new PackageNode("");
+    // used to remove the members which are replaced, because their name could not be calculated anymore
+    private final Map<Node, Location> locations = new IdentityHashMap<>();
+
+    /**
+     * Add a member. A member of the same kind with the same name is replaced.
+     */
+    void add(Kind kind, String qualifiedName, Node member) {
+        Entry entry = add(kind, qualifiedName, member, null);
+        locations.put(member, entry.location);
+    }
+
+    /**
+     * Add a member which is loaded only when first returned. A member of the same kind with the same name is replaced.
+     */
+    void add(Kind kind, String qualifiedName, Supplier<Node> loader) {
+        add(kind, qualifiedName, null, loader);
+    }
+
+    private Entry add(Kind kind, String qualifiedName, Node member, Supplier<Node> loader) {
+        int index = qualifiedName.lastIndexOf('.');
+        PackageNode packageNode = index == -1 ? root : packageNode(qualifiedName.substring(0, index), true);
+        packageNode.declared = true;
+        String simpleName = qualifiedName.substring(index + 1);
+        Entry entry = new Entry(new Location(packageNode, kind, simpleName), member, loader);
+        Entry previous = packageNode.members.get(kind).put(simpleName, entry);
+        if (previous != null && previous.member != null) {
+            locations.remove(previous.member);
+        }
+        return entry;
+    }
+
+    private synchronized Node load(Entry entry) {
+        if (entry.member == null) {
+            entry.member = entry.loader.get();
+            entry.loader = null;
+            locations.put(entry.member, entry.location);
+        }
+        return entry.member;
+    }
+
+    void remove(Node member) {
+        Location location = locations.remove(member);
+        if (location != null) {
+            location.packageNode.members.get(location.kind).remove(location.simpleName);
+        }
+    }
+
+    private PackageNode packageNode(String packageName, boolean create) {
+        PackageNode packageNode = root;
+        int start = 0;
+        while (start <= packageName.length()) {
+            int end = packageName.indexOf('.', start);
+            if (end == -1) {
+                end = packageName.length();
+            }
+            String part = packageName.substring(start, end);
+            PackageNode child = packageNode.children.get(part);
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new PackageNode(packageName.substring(0, end));
+                packageNode.children.put(part, child);
+            }
+            packageNode = child;
+            start = end + 1;
+        }
+        return packageNode;
+    }
+
+    Optional<Node> find(Kind kind, String qualifiedName) {
+        int index = qualifiedName.lastIndexOf('.');
+        return findIn(index == -1 ? "" : qualifiedName.substring(0, index), kind, qualifiedName.substring(index + 1));
+    }
+
+    /**
+     * The member of the given kind declared directly in the package with the given simple name.
+     */
+    Optional<Node> findIn(String packageName, Kind kind, String simpleName) {
+        PackageNode packageNode = packageName.isEmpty() ? root : packageNode(packageName, false);
+        if (packageNode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(packageNode.members.get(kind).get(simpleName)).map(this::load);
+    }
+
+    boolean existPackage(String packageName) {
+        PackageNode packageNode = packageName.isEmpty() ? root : packageNode(packageName, false);
+        return packageNode != null && packageNode.declared;
+    }
+
+    /**
+     * The members of the given kind declared directly in the package, sorted by name.
+     */
+    List<Node> membersOf(String packageName, Kind kind) {
+        PackageNode packageNode = packageName.isEmpty() ? root : packageNode(packageName, false);
+        if (packageNode == null) {
+            return Collections.emptyList();
+        }
+        List<Node> members = new ArrayList<>();
+        for (Entry entry : packageNode.members.get(kind).values()) {
+            members.add(load(entry));
+        }
+        return members;
+    }
+
+    /**
+     * All the members of the given kind.
+     */
+    List<Node> members(Kind kind) {
+        List<Node> members = new ArrayList<>();
+        collectMembers(root, kind, members);
+        return members;
+    }
+
+    private void collectMembers(PackageNode packageNode, Kind kind, List<Node> members) {
+        for (Entry entry : packageNode.members.get(kind).values()) {
+            members.add(load(entry));
+        }
+        for (PackageNode child : packageNode.children.values()) {
+            collectMembers(child, kind, members);
+        }
+    }
+
+    /**
+     * The qualified names of the members of the given kind starting with the given prefix, including the members of
+     * the sub-packages matching it.
+     */
+    List<String> qualifiedNamesStartingWith(String prefix, Kind kind) {
+        int index = prefix.lastIndexOf('.');
+        PackageNode packageNode = index == -1 ? root : packageNode(prefix.substring(0, index), false);
+        List<String> names = new ArrayList<>();
+        if (packageNode == null) {
+            return names;
+        }
+        String namePrefix = prefix.substring(index + 1);
+        for (String simpleName : startingWith(packageNode.members.get(kind), namePrefix).keySet()) {
+            names.add(packageNode.qualifiedName(simpleName));
+        }
+        for (PackageNode child : startingWith(packageNode.children, namePrefix).values()) {
+            collect(child, kind, names);
+        }
+        return names;
+    }
+
+    private static <V> NavigableMap<String, V> startingWith(NavigableMap<String, V> map, String prefix) {
+        if (prefix.isEmpty()) {
+            return map;
+        }
+        // the keys starting with the prefix are those between it and the prefix with the last char incremented
+        String end = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+        return map.subMap(prefix, true, end, false);
+    }
+
+    private static void collect(PackageNode packageNode, Kind kind, List<String> names) {
+        for (String simpleName : packageNode.members.get(kind).keySet()) {
+            names.add(packageNode.qualifiedName(simpleName));
+        }
+        for (PackageNode child : packageNode.children.values()) {
+            collect(child, kind, names);
+        }
+    }
+}
@@ -10,7 +10,9 @@ import me.tomassetti.turin.parser.ast.properties.PropertyReference;
 import me.tomassetti.turin.parser.ast.expressions.FunctionCall;
 import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.TypeUsage;
+import me.tomassetti.turin.typesystem.TypeUsageFactory;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,6 +36,11 @@ public interface SymbolResolver {
         }
     }
 
+    /**
+     * Factory of the canonical type usages obtained through this resolver.
+     */
+    TypeUsageFactory getTypeUsageFactory();
+
     /**
      * Given a PropertyReference it finds the corresponding declaration.
      */
@@ -83,4 +90,22 @@ public interface SymbolResolver {
     boolean existPackage(String packageName);
 
     Optional<ContextDefinition> findContextSymbol(String contextName, Node context);
+
+    /**
+     * Find the types defined in the sources being compiled which directly extend the given type.
+     * Only resolvers which know the whole set of sources can answer, the others return an empty optional, meaning
+     * that the subclasses are unknown.
+     */
+    default Optional<List<TypeDefinition>> findDirectSubclassesInSources(String qualifiedName) {
+        return Optional.empty();
+    }
+
+    /**
+     * Find the type with the given simple name declared directly in the given package of the sources being compiled,
+     * as imported by <code>import package.*</code>. Only resolvers which know the sources can answer, the others
+     * return an empty optional.
+     */
+    default Optional<TypeDefinition> findTypeInSourcePackage(String packageName, String simpleName) {
+        return Optional.empty();
+    }
 }
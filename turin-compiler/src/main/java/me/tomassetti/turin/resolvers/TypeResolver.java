@@ -4,6 +4,7 @@ import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 
 import java.util.Optional;
+import java.util.Set;
 
 public interface TypeResolver {
 
@@ -15,6 +16,23 @@ public interface TypeResolver {
 
     boolean existPackage(String packageName);
 
+    /**
+     * The packages containing all the types and functions this resolver can find, when they are known in advance.
+     * A composed resolver asks this resolver only for names in those packages. Resolvers which cannot list their
+     * packages return empty and are asked for every name.
+     */
+    default Optional<Set<String>> knownPackages() {
+        return Optional.empty();
+    }
+
+    /**
+     * Tell if this resolver might find a type or a function with the given qualified name. It can answer true for
+     * names it does not find, but never false for names it finds, so composed resolvers can skip it without asking.
+     */
+    default boolean mightResolve(String name) {
+        return true;
+    }
+
     SymbolResolver symbolResolver();
     void setSymbolResolver(SymbolResolver symbolResolver);
 }
@@ -7,6 +7,7 @@ import javassist.NotFoundException;
 import javassist.bytecode.CodeAttribute;
 import javassist.bytecode.LocalVariableAttribute;
 import javassist.bytecode.MethodInfo;
+import me.tomassetti.jvm.JvmType;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.resolvers.InFileSymbolResolver;
 import me.tomassetti.turin.resolvers.SymbolResolver;
@@ -15,17 +16,23 @@ import me.tomassetti.turin.parser.ast.FormalParameterNode;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
 import me.tomassetti.turin.typesystem.TypeUsage;
+import org.objectweb.asm.Type;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public abstract class AbstractCompiledTypeResolver<CE extends ClasspathElement> implements TypeResolver  {
     protected Map<String, CE> classpathElements = new HashMap<>();
     protected Map<String, CE> functionElements = new HashMap<>();
     protected Set<String> packages = new HashSet<>();
+    private CompiledClassReader classReader = CompiledClassReader.JAVASSIST;
+    // class files do not change during a compilation, so each one is read once (or a few times by parallel lookups)
+    private Map<String, AsmClassSummary> summaries = new ConcurrentHashMap<>();
 
     protected SymbolResolver symbolResolver;
 
@@ -51,11 +58,44 @@ public abstract class AbstractCompiledTypeResolver<CE extends ClasspathElement>
         this.symbolResolver = symbolResolver;
     }
 
+    public CompiledClassReader getClassReader() {
+        return classReader;
+    }
+
+    public void setClassReader(CompiledClassReader classReader) {
+        if (classReader == null) {
+            throw new IllegalArgumentException("Null is not an acceptable value for classReader");
+        }
+        this.classReader = classReader;
+    }
+
+    private AsmClassSummary summary(String name, CE classpathElement) throws IOException {
+        AsmClassSummary summary = summaries.get(name);
+        if (summary == null) {
+            summary = AsmClassSummary.read(classpathElement);
+            AsmClassSummary previous = summaries.putIfAbsent(name, summary);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return summary;
+    }
+
     @Override
     public boolean existPackage(String packageName) {
         return packages.contains(packageName);
     }
 
+    @Override
+    public boolean mightResolve(String name) {
+        return classpathElements.containsKey(name) || functionElements.containsKey(name);
+    }
+
+    @Override
+    public Optional<Set<String>> knownPackages() {
+        return Optional.of(Collections.unmodifiableSet(packages));
+    }
+
     protected class CompiledClassPath implements ClassPath {
 
         @Override
@@ -128,7 +168,11 @@ public abstract class AbstractCompiledTypeResolver<CE extends ClasspathElement>
     public Optional<TypeDefinition> resolveAbsoluteTypeName(String typeName) {
         if (classpathElements.containsKey(typeName)) {
             try {
-                CtClass ctClass = classpathElements.get(typeName).toCtClass();
+                CE classpathElement = classpathElements.get(typeName);
+                if (classReader == CompiledClassReader.ASM) {
+                    return Optional.of(new AsmTypeDefinition(summary(typeName, classpathElement), symbolResolver()));
+                }
+                CtClass ctClass = classpathElement.toCtClass();
                 return Optional.of(new JavassistTypeDefinition(ctClass, symbolResolver()));
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -141,6 +185,9 @@ public abstract class AbstractCompiledTypeResolver<CE extends ClasspathElement>
     @Override
     public Optional<FunctionDefinitionNode> resolveAbsoluteFunctionName(String typeName) {
         if (functionElements.containsKey(typeName)) {
+            if (classReader == CompiledClassReader.ASM) {
+                return Optional.of(readFunctionWithAsm(typeName));
+            }
             try {
                 CtClass ctClass = functionElements.get(typeName).toCtClass();
                 if (ctClass.getDeclaredMethods().length != 1) {
@@ -176,4 +223,32 @@ public abstract class AbstractCompiledTypeResolver<CE extends ClasspathElement>
             return Optional.empty();
         }
     }
+
+    private FunctionDefinitionNode readFunctionWithAsm(String typeName) {
+        try {
+            AsmClassSummary summary = summary(typeName, functionElements.get(typeName));
+            List<AsmClassSummary.MemberSummary> methods = summary.getMethods().stream()
+                    .filter((m) -> !m.isConstructor())
+                    .collect(Collectors.toList());
+            if (methods.size() != 1) {
+                throw new UnsupportedOperationException();
+            }
+            AsmClassSummary.MemberSummary invokeMethod = methods.get(0);
+            if (!invokeMethod.getName().equals(FunctionDefinitionNode.INVOKE_METHOD_NAME)) {
+                throw new UnsupportedOperationException();
+            }
+            TypeUsage returnType = AsmTypeDefinition.toTypeUsage(new JvmType(Type.getReturnType(invokeMethod.getDescriptor()).getDescriptor()), symbolResolver());
+            List<FormalParameterNode> formalParameters = new ArrayList<>();
+
+            int i=0;
+            for (Type paramType : Type.getArgumentTypes(invokeMethod.getDescriptor())) {
+                TypeUsage type = AsmTypeDefinition.toTypeUsage(new JvmType(paramType.getDescriptor()), symbolResolver());
+                formalParameters.add(new FormalParameterNode(TypeUsageNode.wrap(type), summary.parameterName(invokeMethod, i)));
+                i++;
+            }
+            return new LoadedFunctionDefinition(typeName, TypeUsageNode.wrap(returnType), formalParameters);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
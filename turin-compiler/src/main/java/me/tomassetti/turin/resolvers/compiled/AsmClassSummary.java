@@ -0,0 +1,303 @@
+package me.tomassetti.turin.resolvers.compiled;
+
+import me.tomassetti.jvm.JvmNameUtils;
+import me.tomassetti.turin.typesystem.TypeIdSet;
+import org.objectweb.asm.*;
+import turin.compilation.DefaultParam;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * The declarations of a class file, read using ASM. Only the header of the class and the descriptors and annotations
+ * of its members are read: the code of the methods is skipped.
+ *
+ * The names of the parameters are stored in the local variable tables, which are part of the code, so they are read
+ * in a second pass, only for the classes which need them.
+ */
+final class AsmClassSummary {
+
+    private static final String DEFAULT_PARAM_DESCRIPTOR = JvmNameUtils.canonicalToDescriptor(DefaultParam.class.getCanonicalName());
+
+    static final class DefaultParamData {
+        private String name;
+        private String typeSignature;
+        private int index;
+
+        String getName() {
+            return name;
+        }
+
+        String getTypeSignature() {
+            return typeSignature;
+        }
+    }
+
+    static final class MemberSummary {
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final String signature;
+        private final List<DefaultParamData> defaultParams = new ArrayList<>();
+
+        private MemberSummary(int access, String name, String descriptor, String signature) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.signature = signature;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getDescriptor() {
+            return descriptor;
+        }
+
+        /**
+         * The generic signature, if the member uses type variables or generic types.
+         */
+        Optional<String> getSignature() {
+            return Optional.ofNullable(signature);
+        }
+
+        boolean isStatic() {
+            return (access & Opcodes.ACC_STATIC) != 0;
+        }
+
+        /**
+         * Is the member public and written in the source code? Synthetic members and bridge methods are generated by
+         * the compiler.
+         */
+        boolean isPublicApi() {
+            return (access & Opcodes.ACC_PUBLIC) != 0 && (access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) == 0;
+        }
+
+        boolean isConstructor() {
+            return name.equals("<init>");
+        }
+
+        /**
+         * The default parameters declared by the compiled version of a Turin invokable, sorted by index.
+         */
+        List<DefaultParamData> getDefaultParams() {
+            return defaultParams;
+        }
+    }
+
+    private final ClasspathElement classpathElement;
+    private int access;
+    private String internalName;
+    private String signature;
+    private String superName;
+    private List<String> interfaces;
+    private final List<MemberSummary> fields = new ArrayList<>();
+    private final List<MemberSummary> methods = new ArrayList<>();
+    private Map<String, List<String>> parameterNames;
+    // calculated by the type definitions, which can be many for the same class
+    private volatile TypeIdSet ancestorIds;
+
+    private AsmClassSummary(ClasspathElement classpathElement) {
+        this.classpathElement = classpathElement;
+    }
+
+    static AsmClassSummary read(ClasspathElement classpathElement) throws IOException {
+        AsmClassSummary summary = new AsmClassSummary(classpathElement);
+        try (InputStream is = classpathElement.toInputStream()) {
+            new ClassReader(is).accept(summary.new DeclarationsReader(), ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        }
+        for (MemberSummary method : summary.methods) {
+            method.defaultParams.sort((a, b) -> Integer.compare(a.index, b.index));
+        }
+        return summary;
+    }
+
+    String getInternalName() {
+        return internalName;
+    }
+
+    String getQualifiedName() {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * The generic signature of the class, if it has type parameters or extends generic types.
+     */
+    Optional<String> getSignature() {
+        return Optional.ofNullable(signature);
+    }
+
+    /**
+     * The internal name of the superclass, absent only for java.lang.Object.
+     */
+    Optional<String> getSuperName() {
+        return Optional.ofNullable(superName);
+    }
+
+    /**
+     * The internal names of the interfaces directly implemented.
+     */
+    List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    boolean isInterface() {
+        return (access & Opcodes.ACC_INTERFACE) != 0;
+    }
+
+    boolean isAnnotation() {
+        return (access & Opcodes.ACC_ANNOTATION) != 0;
+    }
+
+    boolean isEnum() {
+        return (access & Opcodes.ACC_ENUM) != 0;
+    }
+
+    List<MemberSummary> getFields() {
+        return fields;
+    }
+
+    /**
+     * The declared methods and constructors, without the static initializer.
+     */
+    List<MemberSummary> getMethods() {
+        return methods;
+    }
+
+    List<MemberSummary> getConstructors() {
+        List<MemberSummary> constructors = new ArrayList<>();
+        for (MemberSummary method : methods) {
+            if (method.isConstructor()) {
+                constructors.add(method);
+            }
+        }
+        return constructors;
+    }
+
+    TypeIdSet getAncestorIds() {
+        return ancestorIds;
+    }
+
+    void setAncestorIds(TypeIdSet ancestorIds) {
+        this.ancestorIds = ancestorIds;
+    }
+
+    /**
+     * The names of the parameters of the given method, taken from its local variable table. The name is null for
+     * parameters which are not in the table, like the map of default params of compiled Turin invokables.
+     */
+    private synchronized List<String> parameterNames(MemberSummary method) {
+        if (parameterNames == null) {
+            parameterNames = readParameterNames();
+        }
+        List<String> names = parameterNames.get(method.name + method.descriptor);
+        if (names == null) {
+            throw new IllegalArgumentException("Unknown method " + getQualifiedName() + "." + method.name + method.descriptor);
+        }
+        return names;
+    }
+
+    /**
+     * The name of the given parameter. Classes compiled without the local variable tables do not store it: in that
+     * case a name is made up from the position, as javac does.
+     */
+    String parameterName(MemberSummary method, int index) {
+        String name = parameterNames(method).get(index);
+        return name == null ? "arg" + index : name;
+    }
+
+    private Map<String, List<String>> readParameterNames() {
+        Map<String, List<String>> parameterNames = new HashMap<>();
+        try (InputStream is = classpathElement.toInputStream()) {
+            new ClassReader(is).accept(new ClassVisitor(Opcodes.ASM5) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                    Type[] argumentTypes = Type.getArgumentTypes(desc);
+                    Map<Integer, Integer> slotToParam = new HashMap<>();
+                    int slot = (access & Opcodes.ACC_STATIC) != 0 ? 0 : 1;
+                    for (int i = 0; i < argumentTypes.length; i++) {
+                        slotToParam.put(slot, i);
+                        slot += argumentTypes[i].getSize();
+                    }
+                    String[] names = new String[argumentTypes.length];
+                    return new MethodVisitor(Opcodes.ASM5) {
+                        @Override
+                        public void visitLocalVariable(String name, String desc, String signature, Label start, Label end, int index) {
+                            Integer param = slotToParam.get(index);
+                            if (param != null && names[param] == null) {
+                                names[param] = name;
+                            }
+                        }
+
+                        @Override
+                        public void visitEnd() {
+                            parameterNames.put(name + desc, Arrays.asList(names));
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_FRAMES);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return parameterNames;
+    }
+
+    private class DeclarationsReader extends ClassVisitor {
+
+        DeclarationsReader() {
+            super(Opcodes.ASM5);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            AsmClassSummary.this.access = access;
+            AsmClassSummary.this.internalName = name;
+            AsmClassSummary.this.signature = signature;
+            AsmClassSummary.this.superName = superName;
+            AsmClassSummary.this.interfaces = interfaces == null ? Collections.emptyList() : Arrays.asList(interfaces);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            fields.add(new MemberSummary(access, name, desc, signature));
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if (name.equals("<clinit>")) {
+                return null;
+            }
+            MemberSummary method = new MemberSummary(access, name, desc, signature);
+            methods.add(method);
+            return new MethodVisitor(Opcodes.ASM5) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                    if (!desc.equals(DEFAULT_PARAM_DESCRIPTOR)) {
+                        return null;
+                    }
+                    DefaultParamData defaultParam = new DefaultParamData();
+                    method.defaultParams.add(defaultParam);
+                    return new AnnotationVisitor(Opcodes.ASM5) {
+                        @Override
+                        public void visit(String name, Object value) {
+                            switch (name) {
+                                case "name":
+                                    defaultParam.name = (String) value;
+                                    break;
+                                case "typeSignature":
+                                    defaultParam.typeSignature = (String) value;
+                                    break;
+                                case "index":
+                                    defaultParam.index = (Integer) value;
+                                    break;
+                            }
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package me.tomassetti.turin.resolvers.compiled;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read the generic signatures of classes and methods, as stored in class files, using ASM.
+ *
+ * Only what the type definitions need is kept: the names of the type parameters of classes, the generic ancestors
+ * and the return types of methods. Like for Javassist, the type arguments of the type arguments are erased.
+ */
+final class AsmSignatures {
+
+    private AsmSignatures() {
+        // prevent instantiation
+    }
+
+    private static final String OBJECT_DESCRIPTOR = "Ljava/lang/Object;";
+
+    /**
+     * A type used in a generic signature: a type variable, a primitive type, an array or a class with its type
+     * arguments.
+     */
+    static final class GenericType extends SignatureVisitor {
+        private String typeVariable;
+        private String descriptor;
+        private GenericType componentType;
+        private final List<GenericType> typeArguments = new ArrayList<>();
+
+        private GenericType() {
+            super(Opcodes.ASM5);
+        }
+
+        boolean isTypeVariable() {
+            return typeVariable != null;
+        }
+
+        String getTypeVariable() {
+            return typeVariable;
+        }
+
+        /**
+         * The descriptor of the erasure. Type variables are erased to Object, because their bounds are not read.
+         */
+        String getErasedDescriptor() {
+            if (typeVariable != null) {
+                return OBJECT_DESCRIPTOR;
+            } else if (componentType != null) {
+                return "[" + componentType.getErasedDescriptor();
+            } else {
+                return descriptor;
+            }
+        }
+
+        List<GenericType> getTypeArguments() {
+            return typeArguments;
+        }
+
+        @Override
+        public void visitBaseType(char descriptor) {
+            this.descriptor = String.valueOf(descriptor);
+        }
+
+        @Override
+        public void visitTypeVariable(String name) {
+            this.typeVariable = name;
+        }
+
+        @Override
+        public SignatureVisitor visitArrayType() {
+            componentType = new GenericType();
+            return componentType;
+        }
+
+        @Override
+        public void visitClassType(String name) {
+            descriptor = "L" + name + ";";
+        }
+
+        @Override
+        public void visitInnerClassType(String name) {
+            // the type arguments given so far belong to the outer class
+            descriptor = descriptor.substring(0, descriptor.length() - 1) + "$" + name + ";";
+            typeArguments.clear();
+        }
+
+        @Override
+        public void visitTypeArgument() {
+            // an unbounded wildcard
+            GenericType object = new GenericType();
+            object.descriptor = OBJECT_DESCRIPTOR;
+            typeArguments.add(object);
+        }
+
+        @Override
+        public SignatureVisitor visitTypeArgument(char wildcard) {
+            // bounded wildcards are represented by their bound
+            GenericType typeArgument = new GenericType();
+            typeArguments.add(typeArgument);
+            return typeArgument;
+        }
+    }
+
+    /**
+     * Collect the parts of a class or method signature. The bounds, the parameters and the exceptions are ignored.
+     */
+    private static final class DeclarationReader extends SignatureVisitor {
+        private final List<String> typeParameters = new ArrayList<>();
+        private final List<GenericType> ancestors = new ArrayList<>();
+        private GenericType returnType;
+
+        private DeclarationReader() {
+            super(Opcodes.ASM5);
+        }
+
+        @Override
+        public void visitFormalTypeParameter(String name) {
+            typeParameters.add(name);
+        }
+
+        @Override
+        public SignatureVisitor visitClassBound() {
+            return new GenericType();
+        }
+
+        @Override
+        public SignatureVisitor visitInterfaceBound() {
+            return new GenericType();
+        }
+
+        @Override
+        public SignatureVisitor visitSuperclass() {
+            GenericType superclass = new GenericType();
+            ancestors.add(superclass);
+            return superclass;
+        }
+
+        @Override
+        public SignatureVisitor visitInterface() {
+            GenericType interfaze = new GenericType();
+            ancestors.add(interfaze);
+            return interfaze;
+        }
+
+        @Override
+        public SignatureVisitor visitParameterType() {
+            return new GenericType();
+        }
+
+        @Override
+        public SignatureVisitor visitReturnType() {
+            returnType = new GenericType();
+            return returnType;
+        }
+
+        @Override
+        public SignatureVisitor visitExceptionType() {
+            return new GenericType();
+        }
+    }
+
+    private static DeclarationReader read(String signature) {
+        DeclarationReader reader = new DeclarationReader();
+        new SignatureReader(signature).accept(reader);
+        return reader;
+    }
+
+    /**
+     * The names of the type parameters declared by a class, in order.
+     */
+    static List<String> typeParameters(String classSignature) {
+        return read(classSignature).typeParameters;
+    }
+
+    /**
+     * The superclass followed by the interfaces, with their type arguments.
+     */
+    static List<GenericType> ancestors(String classSignature) {
+        return read(classSignature).ancestors;
+    }
+
+    static GenericType returnType(String methodSignature) {
+        return read(methodSignature).returnType;
+    }
+}
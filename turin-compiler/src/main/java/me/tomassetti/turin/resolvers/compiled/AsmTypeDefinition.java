@@ -0,0 +1,407 @@
+package me.tomassetti.turin.resolvers.compiled;
+
+import me.tomassetti.jvm.JvmConstructorDefinition;
+import me.tomassetti.jvm.JvmMethodDefinition;
+import me.tomassetti.jvm.JvmType;
+import me.tomassetti.turin.definitions.InternalConstructorDefinition;
+import me.tomassetti.turin.definitions.InternalMethodDefinition;
+import me.tomassetti.turin.compiler.errorhandling.SemanticErrorException;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.ast.MethodSetAsInvokableType;
+import me.tomassetti.turin.parser.ast.expressions.ActualParam;
+import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.symbols.FormalParameterSymbol;
+import me.tomassetti.turin.symbols.Symbol;
+import me.tomassetti.turin.typesystem.*;
+import org.objectweb.asm.Type;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Definition of a compiled type based on the declarations read by ASM.
+ *
+ * Everything is obtained from the summary: the names, the kind of type, the ancestors with their type arguments, the
+ * fields, the methods and the constructors (including the default parameters of compiled Turin types). Inherited
+ * members are obtained from the definitions of the ancestors. Parameters are typed with their erasures, as Javassist
+ * does, while the return types can be type variables of the class.
+ */
+public class AsmTypeDefinition implements TypeDefinition {
+
+    private static final MethodResolutionCache<InternalMethodDefinition> METHODS = new MethodResolutionCache<>();
+    private static final MethodResolutionCache<InternalConstructorDefinition> CONSTRUCTORS = new MethodResolutionCache<>();
+
+    private final AsmClassSummary summary;
+    private final SymbolResolver resolver;
+    private List<InternalConstructorDefinition> constructorDefinitions;
+    // definitions can be shared by parallel compilations: calculating the same definitions twice is harmless
+    private final Map<String, Set<InternalMethodDefinition>> staticMethodDefinitions = new ConcurrentHashMap<>();
+    private final Map<String, Set<InternalMethodDefinition>> instanceMethodDefinitions = new ConcurrentHashMap<>();
+
+    AsmTypeDefinition(AsmClassSummary summary, SymbolResolver resolver) {
+        this.summary = summary;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public String getName() {
+        String qualifiedName = getQualifiedName();
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    @Override
+    public String getQualifiedName() {
+        return summary.getQualifiedName();
+    }
+
+    @Override
+    public TypeUsage calcType() {
+        return new ReferenceTypeUsage(this);
+    }
+
+    @Override
+    public boolean isInterface() {
+        return summary.isInterface();
+    }
+
+    @Override
+    public boolean isClass() {
+        return !summary.isInterface() && !summary.isAnnotation() && !summary.isEnum();
+    }
+
+    private List<ReferenceTypeUsage> directAncestors() {
+        List<ReferenceTypeUsage> ancestors = new ArrayList<>();
+        if (summary.getSuperName().isPresent()) {
+            ancestors.add(toReferenceTypeUsage(summary.getSuperName().get()));
+        }
+        for (String interfaze : summary.getInterfaces()) {
+            ancestors.add(toReferenceTypeUsage(interfaze));
+        }
+        return ancestors;
+    }
+
+    private ReferenceTypeUsage toReferenceTypeUsage(String internalName) {
+        return toTypeUsage(new JvmType("L" + internalName + ";"), resolver).asReferenceTypeUsage();
+    }
+
+    /**
+     * Like directAncestors, with the values of the type parameters given by the generic signature, if any.
+     */
+    private List<ReferenceTypeUsage> directGenericAncestors() {
+        if (!summary.getSignature().isPresent()) {
+            return directAncestors();
+        }
+        List<ReferenceTypeUsage> ancestors = new ArrayList<>();
+        for (AsmSignatures.GenericType ancestor : AsmSignatures.ancestors(summary.getSignature().get())) {
+            ancestors.add(toTypeUsage(ancestor).asReferenceTypeUsage());
+        }
+        return ancestors;
+    }
+
+    private TypeUsage toTypeUsage(AsmSignatures.GenericType type) {
+        if (type.isTypeVariable()) {
+            return new ConcreteTypeVariableUsage(null, type.getTypeVariable(), Collections.emptyList());
+        }
+        TypeUsage typeUsage = toTypeUsage(new JvmType(type.getErasedDescriptor()), resolver);
+        if (!type.getTypeArguments().isEmpty()) {
+            ReferenceTypeUsage referenceTypeUsage = typeUsage.asReferenceTypeUsage();
+            List<TypeUsage> typeArguments = type.getTypeArguments().stream()
+                    .map((t) -> toTypeUsage(t))
+                    .collect(Collectors.toList());
+            referenceTypeUsage.getTypeDefinition().associatedTypeParametersToName(typeArguments)
+                    .forEach((name, value) -> referenceTypeUsage.getTypeParameterValues().add(name, value));
+        }
+        return typeUsage;
+    }
+
+    @Override
+    public List<ReferenceTypeUsage> getAllAncestors() {
+        List<ReferenceTypeUsage> ancestors = new ArrayList<>();
+        for (ReferenceTypeUsage ancestor : directGenericAncestors()) {
+            ancestors.add(ancestor);
+            ancestors.addAll(ancestor.getAllAncestors());
+        }
+        return ancestors;
+    }
+
+    @Override
+    public TypeIdSet getAncestorIds() {
+        TypeIdSet ancestorIds = summary.getAncestorIds();
+        if (ancestorIds == null) {
+            ancestorIds = TypeIdSet.EMPTY;
+            for (ReferenceTypeUsage ancestor : directAncestors()) {
+                ancestorIds = ancestorIds.union(ancestor.getTypeDefinition().getAncestorIds()).with(ancestor.getQualifiedName());
+            }
+            summary.setAncestorIds(ancestorIds);
+        }
+        return ancestorIds;
+    }
+
+    @Override
+    public TypeDefinition getSuperclass() {
+        throw new UnsupportedOperationException();
+    }
+
+    private Optional<AsmClassSummary.MemberSummary> field(String name, boolean staticContext) {
+        for (AsmClassSummary.MemberSummary field : summary.getFields()) {
+            if (field.isPublicApi() && field.getName().equals(name) && field.isStatic() == staticContext) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean hasField(String name, boolean staticContext) {
+        if (field(name, staticContext).isPresent()) {
+            return true;
+        }
+        for (AsmClassSummary.MemberSummary method : summary.getMethods()) {
+            if (method.isPublicApi() && !method.isConstructor() && method.getName().equals(name) && method.isStatic() == staticContext) {
+                return true;
+            }
+        }
+        for (ReferenceTypeUsage ancestor : directAncestors()) {
+            if (ancestor.getTypeDefinition().hasField(name, staticContext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public TypeUsage getFieldType(String fieldName, boolean staticContext) {
+        Optional<AsmClassSummary.MemberSummary> field = field(fieldName, staticContext);
+        if (field.isPresent()) {
+            // like Javassist, the erased type is used
+            return toTypeUsage(new JvmType(field.get().getDescriptor()), resolver);
+        }
+
+        List<InternalMethodDefinition> methods = new ArrayList<>(methodDefinitions(fieldName, staticContext));
+        if (!methods.isEmpty()) {
+            if (!staticContext) {
+                throw new IllegalArgumentException("Non static method given: " + fieldName);
+            }
+            if (methods.size() == 1) {
+                return new InvokableReferenceTypeUsage(methods.get(0));
+            }
+            return new OverloadedMethodsReferenceTypeUsage(methods);
+        }
+
+        for (ReferenceTypeUsage ancestor : directAncestors()) {
+            if (ancestor.getTypeDefinition().hasField(fieldName, staticContext)) {
+                return ancestor.getTypeDefinition().getFieldType(fieldName, staticContext);
+            }
+        }
+        throw new UnsupportedOperationException(fieldName);
+    }
+
+    @Override
+    public Symbol getFieldOnInstance(String fieldName, Symbol instance) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean canFieldBeAssigned(String field) {
+        return true;
+    }
+
+    @Override
+    public List<InternalConstructorDefinition> getConstructors() {
+        if (constructorDefinitions == null) {
+            constructorDefinitions = Collections.unmodifiableList(publicConstructors().stream()
+                    .map((c) -> toInternalConstructorDefinition(c))
+                    .collect(Collectors.toList()));
+        }
+        return constructorDefinitions;
+    }
+
+    private List<AsmClassSummary.MemberSummary> publicConstructors() {
+        return summary.getConstructors().stream().filter((c) -> c.isPublicApi()).collect(Collectors.toList());
+    }
+
+    /**
+     * The compiled version of a Turin type with default parameters has a single constructor, which takes the values
+     * of the default parameters in a map.
+     */
+    private Optional<AsmClassSummary.MemberSummary> constructorWithDefaultParams() {
+        List<AsmClassSummary.MemberSummary> constructors = publicConstructors();
+        if (constructors.size() == 1 && !constructors.get(0).getDefaultParams().isEmpty()) {
+            return Optional.of(constructors.get(0));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public JvmConstructorDefinition resolveConstructorCall(List<ActualParam> actualParams) {
+        Optional<AsmClassSummary.MemberSummary> constructor = constructorWithDefaultParams();
+        if (constructor.isPresent()) {
+            return new JvmConstructorDefinition(summary.getInternalName(), constructor.get().getDescriptor());
+        }
+
+        List<JvmType> argsTypes = new ArrayList<>();
+        for (ActualParam actualParam : actualParams) {
+            if (actualParam.isNamed()) {
+                throw new SemanticErrorException(actualParam, "It is not possible to use named parameters on Java classes");
+            } else {
+                argsTypes.add(actualParam.getValue().calcType().jvmType());
+            }
+        }
+        Optional<InternalConstructorDefinition> resolved = CONSTRUCTORS.resolve(resolver, getQualifiedName(),
+                MethodResolutionCache.CONSTRUCTOR_NAME, false, argsTypes,
+                () -> MethodResolutionLogic.findMethodAmong("constructor", argsTypes, resolver, getConstructors()));
+        if (!resolved.isPresent()) {
+            throw new RuntimeException("unresolved constructor for " + argsTypes);
+        }
+        return resolved.get().getJvmConstructorDefinition();
+    }
+
+    @Override
+    public Optional<InternalConstructorDefinition> findConstructor(List<ActualParam> actualParams) {
+        Optional<AsmClassSummary.MemberSummary> constructor = constructorWithDefaultParams();
+        if (constructor.isPresent()) {
+            return Optional.of(toInternalConstructorDefinition(constructor.get()));
+        }
+
+        Optional<List<JvmType>> argsTypes = MethodResolutionCache.argsTypes(actualParams);
+        Optional<InternalConstructorDefinition> resolved;
+        if (argsTypes.isPresent()) {
+            resolved = CONSTRUCTORS.resolve(resolver, getQualifiedName(), MethodResolutionCache.CONSTRUCTOR_NAME,
+                    false, argsTypes.get(),
+                    () -> MethodResolutionLogic.findMethodAmongActualParams(actualParams, getConstructors()));
+        } else {
+            resolved = MethodResolutionLogic.findMethodAmongActualParams(actualParams, getConstructors());
+        }
+        if (!resolved.isPresent()) {
+            throw new RuntimeException("unresolved constructor for " + actualParams);
+        }
+        return resolved;
+    }
+
+    private InternalConstructorDefinition toInternalConstructorDefinition(AsmClassSummary.MemberSummary constructor) {
+        return new InternalConstructorDefinition(new ReferenceTypeUsage(this), formalParameters(constructor),
+                new JvmConstructorDefinition(summary.getInternalName(), constructor.getDescriptor()));
+    }
+
+    private List<FormalParameterSymbol> formalParameters(AsmClassSummary.MemberSummary invokable) {
+        Type[] argumentTypes = Type.getArgumentTypes(invokable.getDescriptor());
+        List<AsmClassSummary.DefaultParamData> defaultParams = invokable.getDefaultParams();
+        // when there are default params the last one is the map of their values, so we skip it
+        int explicitParams = defaultParams.isEmpty() ? argumentTypes.length : argumentTypes.length - 1;
+        List<FormalParameterSymbol> formalParameters = new ArrayList<>();
+        for (int i = 0; i < explicitParams; i++) {
+            formalParameters.add(new FormalParameterSymbol(toTypeUsage(new JvmType(argumentTypes[i].getDescriptor()), resolver),
+                    summary.parameterName(invokable, i)));
+        }
+        for (AsmClassSummary.DefaultParamData defaultParam : defaultParams) {
+            formalParameters.add(new FormalParameterSymbol(toTypeUsage(new JvmType(defaultParam.getTypeSignature()), resolver), defaultParam.getName(), true));
+        }
+        return formalParameters;
+    }
+
+    static TypeUsage toTypeUsage(JvmType jvmType, SymbolResolver resolver) {
+        return TypeUsageNode.fromJvmType(jvmType, resolver, Collections.emptyMap());
+    }
+
+    private InternalMethodDefinition toInternalMethodDefinition(AsmClassSummary.MemberSummary method) {
+        TypeUsage returnType = toTypeUsage(new JvmType(Type.getReturnType(method.getDescriptor()).getDescriptor()), resolver);
+        if (method.getSignature().isPresent()) {
+            AsmSignatures.GenericType genericReturnType = AsmSignatures.returnType(method.getSignature().get());
+            // the type variables of the method are erased, those of the class can receive a value
+            if (genericReturnType.isTypeVariable() && typeParameters().contains(genericReturnType.getTypeVariable())) {
+                returnType = toTypeUsage(genericReturnType);
+            }
+        }
+        return new InternalMethodDefinition(method.getName(), formalParameters(method), returnType,
+                new JvmMethodDefinition(summary.getInternalName(), method.getName(), method.getDescriptor(),
+                        method.isStatic(), summary.isInterface()));
+    }
+
+    private List<String> typeParameters() {
+        if (!summary.getSignature().isPresent()) {
+            return Collections.emptyList();
+        }
+        return AsmSignatures.typeParameters(summary.getSignature().get());
+    }
+
+    /**
+     * The public methods with the given name, declared or inherited. Methods overridden are not considered.
+     */
+    private Set<InternalMethodDefinition> methodDefinitions(String name, boolean staticContext) {
+        Map<String, Set<InternalMethodDefinition>> methodDefinitions = staticContext ? staticMethodDefinitions : instanceMethodDefinitions;
+        Set<InternalMethodDefinition> methods = methodDefinitions.get(name);
+        if (methods == null) {
+            Map<String, InternalMethodDefinition> methodsByDescriptor = new LinkedHashMap<>();
+            for (AsmClassSummary.MemberSummary method : summary.getMethods()) {
+                if (method.isPublicApi() && !method.isConstructor() && method.getName().equals(name)
+                        && method.isStatic() == staticContext) {
+                    methodsByDescriptor.put(method.getDescriptor(), toInternalMethodDefinition(method));
+                }
+            }
+            for (ReferenceTypeUsage ancestor : directAncestors()) {
+                Optional<Invokable> inherited = ancestor.getTypeDefinition().getMethod(name, staticContext, Collections.emptyMap());
+                if (inherited.isPresent() && inherited.get() instanceof MethodSetAsInvokableType) {
+                    for (InternalMethodDefinition method : ((MethodSetAsInvokableType) inherited.get()).getMethodDefinitions()) {
+                        methodsByDescriptor.putIfAbsent(method.getJvmMethodDefinition().getDescriptor(), method);
+                    }
+                }
+            }
+            methods = Collections.unmodifiableSet(new LinkedHashSet<>(methodsByDescriptor.values()));
+            methodDefinitions.put(name, methods);
+        }
+        return methods;
+    }
+
+    @Override
+    public JvmMethodDefinition findMethodFor(String name, List<JvmType> argsTypes, boolean staticContext) {
+        Optional<InternalMethodDefinition> method = METHODS.resolve(resolver, getQualifiedName(), name, staticContext, argsTypes,
+                () -> MethodResolutionLogic.findMethodAmong(name, argsTypes, resolver, new ArrayList<>(methodDefinitions(name, staticContext))));
+        if (!method.isPresent()) {
+            throw new RuntimeException("unresolved method " + name + " for " + argsTypes);
+        }
+        JvmMethodDefinition jvmMethodDefinition = method.get().getJvmMethodDefinition();
+        // like Javassist, the kind of invocation depends on the type the method is invoked on
+        return new JvmMethodDefinition(jvmMethodDefinition.getOwnerInternalName(), name,
+                jvmMethodDefinition.getDescriptor(), jvmMethodDefinition.isStatic(), isInterface());
+    }
+
+    @Override
+    public Optional<InternalMethodDefinition> findMethod(String methodName, List<ActualParam> actualParams, boolean staticContext) {
+        List<InternalMethodDefinition> candidates = new ArrayList<>(methodDefinitions(methodName, staticContext));
+        Optional<List<JvmType>> argsTypes = MethodResolutionCache.argsTypes(actualParams);
+        if (!argsTypes.isPresent()) {
+            return MethodResolutionLogic.findMethodAmongActualParams(actualParams, candidates);
+        }
+        return METHODS.resolve(resolver, getQualifiedName(), methodName, staticContext, argsTypes.get(),
+                () -> MethodResolutionLogic.findMethodAmongActualParams(actualParams, candidates));
+    }
+
+    @Override
+    public Optional<Invokable> getMethod(String method, boolean staticContext, Map<String, TypeUsage> typeParams) {
+        Set<InternalMethodDefinition> methods = methodDefinitions(method, staticContext);
+        if (methods.isEmpty()) {
+            return Optional.empty();
+        } else {
+            return Optional.of(new MethodSetAsInvokableType(methods, typeParams));
+        }
+    }
+
+    @Override
+    public <T extends TypeUsage> Map<String, TypeUsage> associatedTypeParametersToName(List<T> typeParams) {
+        if (typeParams.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> typeParameters = typeParameters();
+        if (typeParameters.size() != typeParams.size()) {
+            throw new IllegalStateException("It should have " + typeParameters.size() + " and it has " + typeParams.size());
+        }
+        // the order of the type parameters is kept, so that the values can be added in the same order
+        Map<String, TypeUsage> map = new LinkedHashMap<>();
+        for (int i = 0; i < typeParameters.size(); i++) {
+            map.put(typeParameters.get(i), typeParams.get(i));
+        }
+        return map;
+    }
+}
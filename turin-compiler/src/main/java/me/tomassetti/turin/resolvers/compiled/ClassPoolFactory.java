@@ -2,6 +2,10 @@ package me.tomassetti.turin.resolvers.compiled;
 
 import javassist.ClassPath;
 import javassist.ClassPool;
+import javassist.CtClass;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public enum ClassPoolFactory {
 
@@ -9,6 +13,8 @@ public enum ClassPoolFactory {
 
     // true means use the system path
     private ClassPool classPool = new ClassPool(true);
+    // the pool keeps its classes for its whole life, so their members can be kept as long
+    private final Map<CtClass, CtClassMembers> members = new HashMap<>();
 
     public void addJar(ClassPath classPath) {
         classPool.appendClassPath(classPath);
@@ -20,4 +26,10 @@ public enum ClassPoolFactory {
     public ClassPool getClassPool() {
         return classPool;
     }
+
+    CtClassMembers membersOf(CtClass ctClass) {
+        synchronized (members) {
+            return members.computeIfAbsent(ctClass, (c) -> new CtClassMembers(c));
+        }
+    }
 }
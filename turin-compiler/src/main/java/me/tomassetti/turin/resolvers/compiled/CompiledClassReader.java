@@ -0,0 +1,16 @@
+package me.tomassetti.turin.resolvers.compiled;
+
+/**
+ * How a compiled type resolver reads the class files it finds.
+ */
+public enum CompiledClassReader {
+    /**
+     * Each class is loaded in the global ClassPool of Javassist.
+     */
+    JAVASSIST,
+    /**
+     * Only the declarations of each class are read using ASM. The classes are not kept in any ClassPool: Javassist
+     * is used just for the queries which need to resolve methods among overloads or generic signatures.
+     */
+    ASM
+}
@@ -0,0 +1,61 @@
+package me.tomassetti.turin.resolvers.compiled;
+
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtField;
+import javassist.CtMethod;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The public members of a compiled class, indexed by name.
+ *
+ * CtClass.getFields, CtClass.getMethods and CtClass.getConstructors collect all the members at every invocation, so
+ * they are invoked once for each class of the global ClassPool. The order in which they return the members is
+ * preserved.
+ */
+final class CtClassMembers {
+
+    private final Map<String, List<CtField>> fieldsByName;
+    private final Map<String, List<CtMethod>> methodsByName;
+    private final List<CtConstructor> constructors;
+
+    CtClassMembers(CtClass ctClass) {
+        fieldsByName = Arrays.stream(ctClass.getFields()).collect(Collectors.groupingBy(CtField::getName));
+        methodsByName = Arrays.stream(ctClass.getMethods()).collect(Collectors.groupingBy(CtMethod::getName));
+        constructors = Collections.unmodifiableList(Arrays.asList(ctClass.getConstructors()));
+    }
+
+    static CtClassMembers of(CtClass ctClass) {
+        // the members reference their class: they are kept only by the pool which keeps the class anyway
+        if (ctClass.getClassPool() == ClassPoolFactory.INSTANCE.getClassPool()) {
+            return ClassPoolFactory.INSTANCE.membersOf(ctClass);
+        }
+        return new CtClassMembers(ctClass);
+    }
+
+    Optional<CtField> field(String name, boolean isStatic) {
+        return fieldsByName.getOrDefault(name, Collections.emptyList()).stream()
+                .filter((f) -> Modifier.isStatic(f.getModifiers()) == isStatic)
+                .findFirst();
+    }
+
+    /**
+     * All the methods with the given name, static or not.
+     */
+    List<CtMethod> methodsNamed(String name) {
+        return Collections.unmodifiableList(methodsByName.getOrDefault(name, Collections.emptyList()));
+    }
+
+    List<CtMethod> methods(String name, boolean isStatic) {
+        return methodsByName.getOrDefault(name, Collections.emptyList()).stream()
+                .filter((m) -> Modifier.isStatic(m.getModifiers()) == isStatic)
+                .collect(Collectors.toList());
+    }
+
+    List<CtConstructor> constructors() {
+        return constructors;
+    }
+}
@@ -9,6 +9,7 @@ import me.tomassetti.jvm.JvmType;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.expressions.ActualParam;
 import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
+import me.tomassetti.turin.typesystem.MethodResolutionCache;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
@@ -50,6 +51,82 @@ public class JavassistBasedMethodResolution {
         }
     }
 
+    private static final MethodResolutionCache<CtMethod> METHODS = new MethodResolutionCache<>();
+    private static final MethodResolutionCache<CtConstructor> CONSTRUCTORS = new MethodResolutionCache<>();
+
+    private interface Resolution<T> {
+        T resolve() throws NotFoundException;
+    }
+
+    private static <T> Optional<T> resolving(Resolution<T> resolution) {
+        try {
+            return Optional.ofNullable(resolution.resolve());
+        } catch (NotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static CtConstructor findConstructorIn(CtClass ctClass, List<JvmType> argsTypes, SymbolResolver resolver) {
+        Optional<CtConstructor> constructor = CONSTRUCTORS.resolve(resolver, ctClass.getName(), MethodResolutionCache.CONSTRUCTOR_NAME, false, argsTypes,
+                () -> resolving(() -> {
+                    MethodOrConstructor found = findMethodAmong(argsTypes, resolver, constructors(ctClass), "constructor");
+                    return found == null ? null : found.constructor;
+                }));
+        if (!constructor.isPresent()) {
+            throw new RuntimeException("unresolved constructor for " + argsTypes);
+        }
+        return constructor.get();
+    }
+
+    public static CtConstructor findConstructorInActualParams(CtClass ctClass, List<ActualParam> actualParams, SymbolResolver resolver) {
+        Optional<List<JvmType>> argsTypes = MethodResolutionCache.argsTypes(actualParams);
+        if (!argsTypes.isPresent()) {
+            return findConstructorAmongActualParams(actualParams, resolver, CtClassMembers.of(ctClass).constructors());
+        }
+        Optional<CtConstructor> constructor = CONSTRUCTORS.resolve(resolver, ctClass.getName(), MethodResolutionCache.CONSTRUCTOR_NAME, false, argsTypes.get(),
+                () -> resolving(() -> {
+                    MethodOrConstructor found = findMethodAmongActualParams(actualParams, resolver, constructors(ctClass), "constructor");
+                    return found == null ? null : found.constructor;
+                }));
+        if (!constructor.isPresent()) {
+            throw new RuntimeException("unresolved constructor for " + actualParams);
+        }
+        return constructor.get();
+    }
+
+    public static CtMethod findMethodIn(CtClass ctClass, String name, List<JvmType> argsTypes, SymbolResolver resolver, boolean staticContext) {
+        Optional<CtMethod> method = METHODS.resolve(resolver, ctClass.getName(), name, staticContext, argsTypes,
+                () -> resolving(() -> {
+                    MethodOrConstructor found = findMethodAmong(argsTypes, resolver, methods(ctClass, name, staticContext), name);
+                    return found == null ? null : found.method;
+                }));
+        if (!method.isPresent()) {
+            throw new RuntimeException("unresolved method " + name + " for " + argsTypes);
+        }
+        return method.get();
+    }
+
+    public static Optional<CtMethod> findMethodInActualParams(CtClass ctClass, String name, List<ActualParam> actualParams, SymbolResolver resolver, boolean staticContext) {
+        Optional<List<JvmType>> argsTypes = MethodResolutionCache.argsTypes(actualParams);
+        if (!argsTypes.isPresent()) {
+            return findMethodAmongActualParams(name, actualParams, resolver, staticContext, CtClassMembers.of(ctClass).methodsNamed(name));
+        }
+        return METHODS.resolve(resolver, ctClass.getName(), name, staticContext, argsTypes.get(),
+                () -> resolving(() -> {
+                    MethodOrConstructor found = findMethodAmongActualParams(actualParams, resolver, methods(ctClass, name, staticContext), name);
+                    return found == null ? null : found.method;
+                }));
+    }
+
+    private static List<MethodOrConstructor> constructors(CtClass ctClass) {
+        return CtClassMembers.of(ctClass).constructors().stream().map((c) -> new MethodOrConstructor(c)).collect(Collectors.toList());
+    }
+
+    private static List<MethodOrConstructor> methods(CtClass ctClass, String name, boolean staticContext) {
+        return CtClassMembers.of(ctClass).methods(name, staticContext).stream()
+                .map((m) -> new MethodOrConstructor(m)).collect(Collectors.toList());
+    }
+
     public static CtConstructor findConstructorAmong(List<JvmType> argsTypes, SymbolResolver resolver, List<CtConstructor> constructors) {
         try {
             List<MethodOrConstructor> methodOrConstructors = constructors.stream().map((m) -> new MethodOrConstructor(m)).collect(Collectors.toList());
@@ -24,6 +24,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class JavassistTypeDefinition implements TypeDefinition {
@@ -31,6 +32,12 @@ public class JavassistTypeDefinition implements TypeDefinition {
     private CtClass ctClass;
     private SymbolResolver resolver;
 
+    // the definitions are calculated when first requested, because converting the types of all the members is costly.
+    // Definitions can be shared by parallel compilations: calculating the same definitions twice is harmless
+    private volatile List<InternalConstructorDefinition> constructorDefinitions;
+    private Map<String, Set<InternalMethodDefinition>> staticMethodDefinitions = new ConcurrentHashMap<>();
+    private Map<String, Set<InternalMethodDefinition>> instanceMethodDefinitions = new ConcurrentHashMap<>();
+
     public JavassistTypeDefinition(CtClass ctClass, SymbolResolver resolver) {
         this.resolver = resolver;
         if (ctClass.isPrimitive()) {
@@ -49,9 +56,12 @@ public class JavassistTypeDefinition implements TypeDefinition {
 
     @Override
     public List<InternalConstructorDefinition> getConstructors() {
-        return Arrays.stream(ctClass.getConstructors())
-                .map((c) -> toInternalConstructorDefinition(c, resolver))
-                .collect(Collectors.toList());
+        if (constructorDefinitions == null) {
+            constructorDefinitions = Collections.unmodifiableList(CtClassMembers.of(ctClass).constructors().stream()
+                    .map((c) -> toInternalConstructorDefinition(c, resolver))
+                    .collect(Collectors.toList()));
+        }
+        return constructorDefinitions;
     }
 
     private InternalConstructorDefinition toInternalConstructorDefinition(CtConstructor constructor, SymbolResolver resolver) {
@@ -151,9 +161,8 @@ public class JavassistTypeDefinition implements TypeDefinition {
 
     @Override
     public Optional<InternalMethodDefinition> findMethod(String methodName, List<ActualParam> actualParams, boolean staticContext) {
-        List<CtMethod> candidates = Arrays.asList(ctClass.getMethods());
-        Optional<CtMethod> method = JavassistBasedMethodResolution.findMethodAmongActualParams(methodName,
-                actualParams, resolver, staticContext, candidates);
+        Optional<CtMethod> method = JavassistBasedMethodResolution.findMethodInActualParams(ctClass, methodName,
+                actualParams, resolver, staticContext);
         if (method.isPresent()) {
             return Optional.of(toInternalMethodDefinition(method.get(), resolver));
         } else {
@@ -248,7 +257,7 @@ public class JavassistTypeDefinition implements TypeDefinition {
     public JvmMethodDefinition findMethodFor(String name, List<JvmType> argsTypes, boolean staticContext) {
         try {
             return JavassistTypeDefinitionFactory.toMethodDefinition(
-                    JavassistBasedMethodResolution.findMethodAmong(name, argsTypes, resolver, staticContext, Arrays.asList(ctClass.getMethods())),
+                    JavassistBasedMethodResolution.findMethodIn(ctClass, name, argsTypes, resolver, staticContext),
                     ctClass.isInterface());
         } catch (NotFoundException e) {
             throw new RuntimeException(e);
@@ -258,9 +267,10 @@ public class JavassistTypeDefinition implements TypeDefinition {
     @Override
     public JvmConstructorDefinition resolveConstructorCall(List<ActualParam> actualParams) {
         // if this is the compiled version of a turin type we have to handle default parameters
-        if (ctClass.getConstructors().length == 1 && hasDefaultParamAnnotation(ctClass.getConstructors()[0])) {
+        List<CtConstructor> constructors = CtClassMembers.of(ctClass).constructors();
+        if (constructors.size() == 1 && hasDefaultParamAnnotation(constructors.get(0))) {
             try {
-                return JavassistTypeDefinitionFactory.toConstructorDefinition(ctClass.getConstructors()[0]);
+                return JavassistTypeDefinitionFactory.toConstructorDefinition(constructors.get(0));
             } catch (NotFoundException e) {
                 throw new RuntimeException(e);
             }
@@ -275,7 +285,7 @@ public class JavassistTypeDefinition implements TypeDefinition {
             }
         }
         try {
-            return JavassistTypeDefinitionFactory.toConstructorDefinition(JavassistBasedMethodResolution.findConstructorAmong(argsTypes, resolver, Arrays.asList(ctClass.getConstructors())));
+            return JavassistTypeDefinitionFactory.toConstructorDefinition(JavassistBasedMethodResolution.findConstructorIn(ctClass, argsTypes, resolver));
         } catch (NotFoundException e) {
             throw new RuntimeException(e);
         }
@@ -283,26 +293,16 @@ public class JavassistTypeDefinition implements TypeDefinition {
 
     @Override
     public TypeUsage getFieldType(String fieldName, boolean staticContext) {
-        for (CtField field : ctClass.getFields()) {
-            if (field.getName().equals(fieldName)) {
-                if (Modifier.isStatic(field.getModifiers()) == staticContext) {
-                    try {
-                        return JavassistTypeDefinitionFactory.toTypeUsage(field.getType(), resolver);
-                    } catch (NotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+        Optional<CtField> field = CtClassMembers.of(ctClass).field(fieldName, staticContext);
+        if (field.isPresent()) {
+            try {
+                return JavassistTypeDefinitionFactory.toTypeUsage(field.get().getType(), resolver);
+            } catch (NotFoundException e) {
+                throw new RuntimeException(e);
             }
         }
 
-        List<CtMethod> methods = new LinkedList<>();
-        for (CtMethod method : ctClass.getMethods()) {
-            if (method.getName().equals(fieldName)) {
-                if (Modifier.isStatic(method.getModifiers()) == staticContext) {
-                    methods.add(method);
-                }
-            }
-        }
+        List<CtMethod> methods = CtClassMembers.of(ctClass).methods(fieldName, staticContext);
         if (!methods.isEmpty()) {
             return typeFor(methods, resolver);
         }
@@ -403,6 +403,24 @@ public class JavassistTypeDefinition implements TypeDefinition {
         return TypeUsageNode.fromJvmType(toJvmType(type, visibleGenericTypes), resolver, visibleGenericTypes);
     }
 
+    // compiled classes do not change during a compilation, so their ancestors are calculated once
+    private static final Map<CtClass, TypeIdSet> ANCESTOR_IDS = new WeakHashMap<>();
+
+    @Override
+    public TypeIdSet getAncestorIds() {
+        synchronized (ANCESTOR_IDS) {
+            TypeIdSet ancestorIds = ANCESTOR_IDS.get(ctClass);
+            if (ancestorIds != null) {
+                return ancestorIds;
+            }
+        }
+        TypeIdSet ancestorIds = TypeDefinition.super.getAncestorIds();
+        synchronized (ANCESTOR_IDS) {
+            ANCESTOR_IDS.put(ctClass, ancestorIds);
+        }
+        return ancestorIds;
+    }
+
     @Override
     public List<ReferenceTypeUsage> getAllAncestors() {
         try {
@@ -496,7 +514,7 @@ public class JavassistTypeDefinition implements TypeDefinition {
             if (typeParameters.length != typeParams.size()) {
                 throw new IllegalStateException("It should have " + typeParameters.length + " and it has " + typeParams.size());
             }
-            Map<String, TypeUsage> map = new HashMap<>();
+            Map<String, TypeUsage> map = new LinkedHashMap<>();
             int i=0;
             for (SignatureAttribute.TypeParameter tv : typeParameters) {
                 map.put(tv.getName(), typeParams.get(i));
@@ -511,21 +529,26 @@ public class JavassistTypeDefinition implements TypeDefinition {
     @Override
     public Optional<InternalConstructorDefinition> findConstructor(List<ActualParam> actualParams) {
         // if this is the compiled version of a turin type we have to handle default parameters
-        if (ctClass.getConstructors().length == 1 && hasDefaultParamAnnotation(ctClass.getConstructors()[0])) {
-            return Optional.of(toInternalConstructorDefinition(ctClass.getConstructors()[0], resolver));
+        List<CtConstructor> constructors = CtClassMembers.of(ctClass).constructors();
+        if (constructors.size() == 1 && hasDefaultParamAnnotation(constructors.get(0))) {
+            return Optional.of(toInternalConstructorDefinition(constructors.get(0), resolver));
         }
 
-        CtConstructor constructor = JavassistBasedMethodResolution.findConstructorAmongActualParams(
-                actualParams, resolver, Arrays.asList(ctClass.getConstructors()));
+        CtConstructor constructor = JavassistBasedMethodResolution.findConstructorInActualParams(
+                ctClass, actualParams, resolver);
         return Optional.of(toInternalConstructorDefinition(constructor, resolver));
     }
 
     @Override
     public Optional<Invokable> getMethod(String method, boolean staticContext, Map<String, TypeUsage> typeParams) {
-        Set<InternalMethodDefinition> methods = Arrays.stream(ctClass.getMethods())
-                .filter((m)->m.getName().equals(method) && Modifier.isStatic(m.getModifiers()) == staticContext)
-                .map((m)->toInternalMethodDefinition(m, resolver))
-                .collect(Collectors.toSet());
+        Map<String, Set<InternalMethodDefinition>> methodDefinitions = staticContext ? staticMethodDefinitions : instanceMethodDefinitions;
+        Set<InternalMethodDefinition> methods = methodDefinitions.get(method);
+        if (methods == null) {
+            methods = Collections.unmodifiableSet(CtClassMembers.of(ctClass).methods(method, staticContext).stream()
+                    .map((m)->toInternalMethodDefinition(m, resolver))
+                    .collect(Collectors.toSet()));
+            methodDefinitions.put(method, methods);
+        }
         if (methods.isEmpty()) {
             return Optional.empty();
         } else {
@@ -75,7 +75,7 @@ public class JavassistTypeDefinitionFactory {
     public static TypeUsage toTypeUsage(CtClass type, SymbolResolver symbolResolver) {
         if (type.isArray()) {
             try {
-                return new ArrayTypeUsage(toTypeUsage(type.getComponentType(), symbolResolver));
+                return symbolResolver.getTypeUsageFactory().arrayOf(toTypeUsage(type.getComponentType(), symbolResolver));
             } catch (NotFoundException e) {
                 throw new RuntimeException(e);
             }
@@ -84,7 +84,7 @@ public class JavassistTypeDefinitionFactory {
         } else if (type.isPrimitive()) {
             return PrimitiveTypeUsage.getByName(type.getName());
         } else {
-            return new ReferenceTypeUsage(getInstance().getTypeDefinition(type, symbolResolver));
+            return symbolResolver.getTypeUsageFactory().reference(type);
         }
     }
 
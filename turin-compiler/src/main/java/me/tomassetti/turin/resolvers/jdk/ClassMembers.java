@@ -0,0 +1,61 @@
+package me.tomassetti.turin.resolvers.jdk;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The public members of a class, indexed by name.
+ *
+ * Class.getFields, Class.getMethods and Class.getConstructors copy all the members at every invocation, so they are
+ * invoked once for each class. The order in which they return the members is preserved.
+ */
+final class ClassMembers {
+
+    private static final ClassValue<ClassMembers> MEMBERS = new ClassValue<ClassMembers>() {
+        @Override
+        protected ClassMembers computeValue(Class<?> clazz) {
+            return new ClassMembers(clazz);
+        }
+    };
+
+    private final Map<String, List<Field>> fieldsByName;
+    private final Map<String, List<Method>> methodsByName;
+    private final List<Constructor<?>> constructors;
+
+    private ClassMembers(Class<?> clazz) {
+        fieldsByName = Arrays.stream(clazz.getFields()).collect(Collectors.groupingBy(Field::getName));
+        methodsByName = Arrays.stream(clazz.getMethods()).collect(Collectors.groupingBy(Method::getName));
+        constructors = Collections.unmodifiableList(Arrays.asList(clazz.getConstructors()));
+    }
+
+    static ClassMembers of(Class<?> clazz) {
+        return MEMBERS.get(clazz);
+    }
+
+    Optional<Field> field(String name, boolean isStatic) {
+        return fieldsByName.getOrDefault(name, Collections.emptyList()).stream()
+                .filter((f) -> Modifier.isStatic(f.getModifiers()) == isStatic)
+                .findFirst();
+    }
+
+    /**
+     * All the methods with the given name, static or not.
+     */
+    List<Method> methodsNamed(String name) {
+        return Collections.unmodifiableList(methodsByName.getOrDefault(name, Collections.emptyList()));
+    }
+
+    List<Method> methods(String name, boolean isStatic) {
+        return methodsByName.getOrDefault(name, Collections.emptyList()).stream()
+                .filter((m) -> Modifier.isStatic(m.getModifiers()) == isStatic)
+                .collect(Collectors.toList());
+    }
+
+    List<Constructor<?>> constructors() {
+        return constructors;
+    }
+}
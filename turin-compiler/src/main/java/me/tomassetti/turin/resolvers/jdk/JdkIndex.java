@@ -0,0 +1,214 @@
+package me.tomassetti.turin.resolvers.jdk;
+
+import me.tomassetti.jvm.JvmNameUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * The names of the packages and of the types of the public API of a JDK (java.* and javax.*), read from its class
+ * files without loading any class.
+ *
+ * JDKs with modules are read through the jrt:/ filesystem: the packages are listed at once and the types of a package
+ * only when first requested. Older JDKs are read from all the jars of their boot class path (rt.jar, jce.jar, jsse.jar,
+ * charsets.jar...) and of their extensions directory. The running JDK can contain types which are not in the places
+ * read (e.g., added by -Xbootclasspath), so the names not found in its index are looked up in the class loader.
+ */
+public final class JdkIndex {
+
+    private static JdkIndex runningJdk;
+
+    private final Set<String> packages;
+    // given a package, the binary names of its types
+    private final Function<String, Set<String>> typesReader;
+    private final Map<String, Set<String>> typesByPackage = new ConcurrentHashMap<>();
+    // only for the running JDK: the names not indexed, found or not in the class loader
+    private final boolean lookupMisses;
+    private final Map<String, Boolean> misses = new ConcurrentHashMap<>();
+
+    private JdkIndex(Set<String> packages, Function<String, Set<String>> typesReader) {
+        this(packages, typesReader, false);
+    }
+
+    private JdkIndex(Set<String> packages, Function<String, Set<String>> typesReader, boolean lookupMisses) {
+        this.packages = packages;
+        this.typesReader = typesReader;
+        this.lookupMisses = lookupMisses;
+    }
+
+    /**
+     * The index of the JDK the compiler is running on.
+     */
+    public static synchronized JdkIndex runningJdk() {
+        if (runningJdk == null) {
+            try {
+                File javaHome = new File(System.getProperty("java.home"));
+                JdkIndex index;
+                if (isModular(javaHome)) {
+                    index = of(javaHome);
+                } else {
+                    // the boot class path includes the jars given by the options of the JVM
+                    List<File> jars = new ArrayList<>();
+                    for (String entry : System.getProperty("sun.boot.class.path", "").split(File.pathSeparator)) {
+                        if (!entry.isEmpty()) {
+                            jars.add(new File(entry));
+                        }
+                    }
+                    for (String extDir : System.getProperty("java.ext.dirs", "").split(File.pathSeparator)) {
+                        if (!extDir.isEmpty()) {
+                            jars.addAll(jarsIn(new File(extDir)));
+                        }
+                    }
+                    index = jars.isEmpty() ? of(javaHome) : ofClassPath(jars);
+                }
+                runningJdk = new JdkIndex(index.packages, index.typesReader, true);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return runningJdk;
+    }
+
+    /**
+     * The index of the JDK (or JRE) installed in the given directory, which can be a different release from the one
+     * the compiler is running on.
+     */
+    public static JdkIndex of(File javaHome) throws IOException {
+        if (isModular(javaHome)) {
+            return ofModules(javaHome);
+        }
+        // the home of a JDK contains the JRE, which contains the libraries
+        for (File lib : Arrays.asList(new File(javaHome, "lib"), new File(javaHome, "jre/lib"))) {
+            if (new File(lib, "rt.jar").isFile()) {
+                List<File> jars = new ArrayList<>(jarsIn(lib));
+                jars.addAll(jarsIn(new File(lib, "ext")));
+                return ofClassPath(jars);
+            }
+        }
+        throw new IllegalArgumentException("Not a JDK: " + javaHome.getPath());
+    }
+
+    private static boolean isModular(File javaHome) {
+        return new File(javaHome, "lib/modules").isFile();
+    }
+
+    private static List<File> jarsIn(File dir) {
+        File[] jars = dir.listFiles((d, name) -> name.endsWith(".jar"));
+        if (jars == null) {
+            return Collections.emptyList();
+        }
+        // the order does not matter for the index, but it is kept stable
+        Arrays.sort(jars);
+        return Arrays.asList(jars);
+    }
+
+    private static boolean isPublicApi(String packageName) {
+        return packageName.startsWith("java.") || packageName.startsWith("javax.");
+    }
+
+    private static JdkIndex ofModules(File javaHome) throws IOException {
+        FileSystem jrt;
+        URI jrtUri = URI.create("jrt:/");
+        if (javaHome.getCanonicalFile().equals(new File(System.getProperty("java.home")).getCanonicalFile())) {
+            jrt = FileSystems.getFileSystem(jrtUri);
+        } else {
+            jrt = FileSystems.newFileSystem(jrtUri, Collections.singletonMap("java.home", javaHome.getAbsolutePath()));
+        }
+        Set<String> packages = new HashSet<>();
+        try (DirectoryStream<Path> packageDirs = Files.newDirectoryStream(jrt.getPath("/packages"))) {
+            for (Path packageDir : packageDirs) {
+                String packageName = packageDir.getFileName().toString();
+                if (isPublicApi(packageName)) {
+                    packages.add(packageName);
+                }
+            }
+        }
+        return new JdkIndex(Collections.unmodifiableSet(packages), (packageName) -> {
+            // each entry of the package dir is named after a module containing the package
+            Set<String> types = new HashSet<>();
+            String packagePath = JvmNameUtils.canonicalToInternal(packageName);
+            try (DirectoryStream<Path> modules = Files.newDirectoryStream(jrt.getPath("/packages", packageName))) {
+                for (Path module : modules) {
+                    Path dir = jrt.getPath("/modules", module.getFileName().toString(), packagePath);
+                    try (Stream<Path> classFiles = Files.list(dir)) {
+                        classFiles.map((f) -> f.getFileName().toString())
+                                .filter((f) -> f.endsWith(".class"))
+                                .forEach((f) -> types.add(packageName + "." + f.substring(0, f.length() - ".class".length())));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return types;
+        });
+    }
+
+    /**
+     * Index the given jars and directories of class files. Entries which do not exist are ignored, like the JVM does.
+     */
+    private static JdkIndex ofClassPath(List<File> entries) throws IOException {
+        Map<String, Set<String>> typesByPackage = new HashMap<>();
+        for (File entry : entries) {
+            if (entry.isFile()) {
+                try (JarFile jarFile = new JarFile(entry)) {
+                    Enumeration<JarEntry> jarEntries = jarFile.entries();
+                    while (jarEntries.hasMoreElements()) {
+                        addClassFile(jarEntries.nextElement().getName(), typesByPackage);
+                    }
+                }
+            } else if (entry.isDirectory()) {
+                Path root = entry.toPath();
+                try (Stream<Path> files = Files.walk(root)) {
+                    files.forEach((f) -> addClassFile(root.relativize(f).toString().replace(File.separatorChar, '/'), typesByPackage));
+                }
+            }
+        }
+        return new JdkIndex(Collections.unmodifiableSet(typesByPackage.keySet()),
+                (packageName) -> typesByPackage.getOrDefault(packageName, Collections.emptySet()));
+    }
+
+    private static void addClassFile(String path, Map<String, Set<String>> typesByPackage) {
+        int index = path.lastIndexOf('/');
+        if (!path.endsWith(".class") || index == -1) {
+            return;
+        }
+        String packageName = path.substring(0, index).replace('/', '.');
+        if (isPublicApi(packageName)) {
+            String typeName = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+            typesByPackage.computeIfAbsent(packageName, (p) -> new HashSet<>()).add(typeName);
+        }
+    }
+
+    public boolean containsPackage(String packageName) {
+        return packages.contains(packageName);
+    }
+
+    /**
+     * Tell if the JDK contains a type with the given binary name (nested types are separated by '$').
+     */
+    public boolean containsType(String typeName) {
+        int index = typeName.lastIndexOf('.');
+        if (index == -1) {
+            return false;
+        }
+        String packageName = typeName.substring(0, index);
+        if (packages.contains(packageName) && typesByPackage.computeIfAbsent(packageName, typesReader).contains(typeName)) {
+            return true;
+        }
+        if (!lookupMisses || !isPublicApi(packageName)) {
+            return false;
+        }
+        // the class file is looked up without loading the class
+        return misses.computeIfAbsent(typeName,
+                (t) -> ClassLoader.getSystemResource(JvmNameUtils.canonicalToInternal(t) + ".class") != null);
+    }
+}
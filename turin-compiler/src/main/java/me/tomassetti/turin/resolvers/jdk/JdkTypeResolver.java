@@ -8,18 +8,33 @@ import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 
 import java.util.Optional;
 
+/**
+ * Resolve the types of the JDK. The JDK itself is shared, but each resolver is attached to its own root and symbol
+ * resolver, so resolvers are not shared by different compilations.
+ */
 public class JdkTypeResolver implements TypeResolver {
 
-    private static JdkTypeResolver INSTANCE = new JdkTypeResolver();
-
     private JdkTypeResolver() {
 
     }
 
-    protected SymbolResolver symbolResolver;
+    /**
+     * Use the index of the given JDK to decide which types and packages exist, instead of the index of the running
+     * JDK.
+     *
+     * The index only tells which types exist: their members and ancestors are still obtained by loading the classes
+     * of the running JDK through reflection. Types indexed but missing from the running JDK are treated as missing, and
+     * types present in both are seen with the members of the running JDK, which can differ from those of the given
+     * one (e.g., methods added in a later release).
+     */
+    public JdkTypeResolver(JdkIndex index) {
+        this.index = index;
+    }
+
+    protected volatile SymbolResolver symbolResolver;
 
     public SymbolResolver symbolResolver() {
-        if (this.root() == this) {
+        if (this.root() == this || this.root() == null) {
             return symbolResolver.getRoot();
         }
         return this.root().symbolResolver().getRoot();
@@ -30,7 +45,7 @@ public class JdkTypeResolver implements TypeResolver {
         this.symbolResolver = symbolResolver;
     }
 
-    private TypeResolver root;
+    private volatile TypeResolver root;
 
     public TypeResolver root() {
         return root;
@@ -40,8 +55,23 @@ public class JdkTypeResolver implements TypeResolver {
         this.root = root;
     }
 
+    private volatile JdkIndex index;
+
+    private JdkIndex index() {
+        JdkIndex index = this.index;
+        if (index == null) {
+            index = JdkIndex.runningJdk();
+            this.index = index;
+        }
+        return index;
+    }
+
+    /**
+     * A new resolver for the running JDK. Composed resolvers set their root on their elements, so a resolver should
+     * not be part of more than one of them.
+     */
     public static JdkTypeResolver getInstance() {
-        return INSTANCE;
+        return new JdkTypeResolver();
     }
 
     @Override
@@ -49,7 +79,12 @@ public class JdkTypeResolver implements TypeResolver {
         if (!JvmNameUtils.isValidQualifiedName(typeName)) {
             throw new IllegalArgumentException(typeName);
         }
-        return ReflectionTypeDefinitionFactory.getInstance().findTypeDefinition(typeName, symbolResolver());
+        return ReflectionTypeDefinitionFactory.getInstance().findTypeDefinition(typeName, index(), symbolResolver());
+    }
+
+    @Override
+    public boolean mightResolve(String name) {
+        return index().containsType(name);
     }
 
     @Override
@@ -59,6 +94,6 @@ public class JdkTypeResolver implements TypeResolver {
 
     @Override
     public boolean existPackage(String packageName) {
-        return Package.getPackage(packageName) != null;
+        return index().containsPackage(packageName);
     }
 }
@@ -45,6 +45,9 @@ class ReflectionBasedMethodResolution {
         }
     }
 
+    private static final MethodResolutionCache<Method> METHODS = new MethodResolutionCache<>();
+    private static final MethodResolutionCache<Constructor> CONSTRUCTORS = new MethodResolutionCache<>();
+
     public static List<FormalParameterSymbol> formalParameters(Constructor constructor, SymbolResolver resolver) {
         List<FormalParameterSymbol> formalParameters = new ArrayList<>();
         int i=0;
@@ -75,11 +78,9 @@ class ReflectionBasedMethodResolution {
                 return PrimitiveTypeUsage.getByName(clazz.getName());
             }
             if (clazz.isArray()) {
-                return new ArrayTypeUsage(toTypeUsage(clazz.getComponentType(), typeVariables, resolver));
+                return resolver.getTypeUsageFactory().arrayOf(toTypeUsage(clazz.getComponentType(), typeVariables, resolver));
             }
-            TypeDefinition typeDefinition = new ReflectionBasedTypeDefinition((Class) type, resolver);
-            ReferenceTypeUsage referenceTypeUsage = new ReferenceTypeUsage(typeDefinition);
-            return referenceTypeUsage;
+            return resolver.getTypeUsageFactory().reference(clazz);
         } else if (type instanceof ParameterizedType) {
             ParameterizedType parameterizedType = (ParameterizedType) type;
             TypeDefinition typeDefinition = new ReflectionBasedTypeDefinition((Class) parameterizedType.getRawType(), resolver);
@@ -113,6 +114,55 @@ class ReflectionBasedMethodResolution {
         return new ConcreteTypeVariableUsage(genericDeclaration, typeVariable.getName(), bounds);
     }
 
+    public static JvmConstructorDefinition findConstructorIn(Class<?> clazz, List<JvmType> argsTypes, SymbolResolver resolver) {
+        Optional<Constructor> constructor = CONSTRUCTORS.resolve(resolver, clazz.getName(), MethodResolutionCache.CONSTRUCTOR_NAME, false, argsTypes,
+                () -> Optional.ofNullable(findMethodAmong(argsTypes, resolver, constructors(clazz), "constructor")).map((m) -> m.constructor));
+        if (!constructor.isPresent()) {
+            throw new RuntimeException("unresolved constructor for " + argsTypes);
+        }
+        return ReflectionTypeDefinitionFactory.toConstructorDefinition(constructor.get());
+    }
+
+    public static Constructor findConstructorInActualParams(Class<?> clazz, List<ActualParam> actualParams, SymbolResolver resolver) {
+        Optional<List<JvmType>> argsTypes = MethodResolutionCache.argsTypes(actualParams);
+        if (!argsTypes.isPresent()) {
+            return findConstructorAmongActualParams(actualParams, resolver, new ArrayList<>(ClassMembers.of(clazz).constructors()));
+        }
+        Optional<Constructor> constructor = CONSTRUCTORS.resolve(resolver, clazz.getName(), MethodResolutionCache.CONSTRUCTOR_NAME, false, argsTypes.get(),
+                () -> Optional.ofNullable(findMethodAmongActualParams(actualParams, resolver, constructors(clazz), "constructor")).map((m) -> m.constructor));
+        if (!constructor.isPresent()) {
+            throw new RuntimeException("unresolved constructor for " + actualParams);
+        }
+        return constructor.get();
+    }
+
+    public static Method findMethodIn(Class<?> clazz, String name, List<JvmType> argsTypes, SymbolResolver resolver, boolean staticContext) {
+        Optional<Method> method = METHODS.resolve(resolver, clazz.getName(), name, staticContext, argsTypes,
+                () -> Optional.ofNullable(findMethodAmong(argsTypes, resolver, methods(clazz, name, staticContext), name)).map((m) -> m.method));
+        if (!method.isPresent()) {
+            throw new RuntimeException("unresolved method " + name + " for " + argsTypes);
+        }
+        return method.get();
+    }
+
+    public static Optional<Method> findMethodInActualParams(Class<?> clazz, String name, List<ActualParam> actualParams, SymbolResolver resolver, boolean staticContext) {
+        Optional<List<JvmType>> argsTypes = MethodResolutionCache.argsTypes(actualParams);
+        if (!argsTypes.isPresent()) {
+            return findMethodAmongActualParams(name, actualParams, resolver, staticContext, ClassMembers.of(clazz).methodsNamed(name));
+        }
+        return METHODS.resolve(resolver, clazz.getName(), name, staticContext, argsTypes.get(),
+                () -> Optional.ofNullable(findMethodAmongActualParams(actualParams, resolver, methods(clazz, name, staticContext), name)).map((m) -> m.method));
+    }
+
+    private static List<MethodOrConstructor> constructors(Class<?> clazz) {
+        return ClassMembers.of(clazz).constructors().stream().map((c) -> new MethodOrConstructor(c)).collect(Collectors.toList());
+    }
+
+    private static List<MethodOrConstructor> methods(Class<?> clazz, String name, boolean staticContext) {
+        return ClassMembers.of(clazz).methods(name, staticContext).stream()
+                .map((m) -> new MethodOrConstructor(m)).collect(Collectors.toList());
+    }
+
     public static JvmConstructorDefinition findConstructorAmong(List<JvmType> argsTypes, SymbolResolver resolver, List<Constructor> constructors) {
         List<MethodOrConstructor> methodOrConstructors = constructors.stream().map((m)->new MethodOrConstructor(m)).collect(Collectors.toList());
         MethodOrConstructor methodOrConstructor = findMethodAmong(argsTypes, resolver, methodOrConstructors, "constructor");
@@ -16,10 +16,12 @@ import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.InvokableReferenceTypeUsage;
 import me.tomassetti.turin.typesystem.Invokable;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
+import me.tomassetti.turin.typesystem.TypeIdSet;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 class ReflectionBasedTypeDefinition implements TypeDefinition {
@@ -28,6 +30,12 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
     private List<TypeUsage> typeParameters = new LinkedList<>();
     private SymbolResolver resolver;
 
+    // the definitions are calculated when first requested, because converting the types of all the members is costly.
+    // Definitions can be shared by parallel compilations: calculating the same definitions twice is harmless
+    private volatile List<InternalConstructorDefinition> constructorDefinitions;
+    private Map<String, Set<InternalMethodDefinition>> staticMethodDefinitions = new ConcurrentHashMap<>();
+    private Map<String, Set<InternalMethodDefinition>> instanceMethodDefinitions = new ConcurrentHashMap<>();
+
     public ReflectionBasedTypeDefinition(Class<?> clazz, SymbolResolver resolver) {
         if (!clazz.getCanonicalName().startsWith("java.") && !clazz.getCanonicalName().startsWith("javax.")) {
             throw new IllegalArgumentException(clazz.getCanonicalName());
@@ -38,6 +46,10 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     public void addTypeParameter(TypeUsage typeUsage) {
         typeParameters.add(typeUsage);
+        // the types of the members depend on the type parameters
+        constructorDefinitions = null;
+        staticMethodDefinitions.clear();
+        instanceMethodDefinitions.clear();
     }
 
     private TypeUsage typeFor(List<Method> methods, SymbolResolver resolver) {
@@ -66,31 +78,19 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     @Override
     public boolean hasField(String fieldName, boolean staticContext) {
-        for (Field field : clazz.getFields()) {
-            if (field.getName().equals(fieldName)) {
-                if (Modifier.isStatic(field.getModifiers()) == staticContext) {
-                    return true;
-                }
-            }
-        }
-
-        for (Method method : clazz.getMethods()) {
-            if (method.getName().equals(fieldName)) {
-                if (Modifier.isStatic(method.getModifiers()) == staticContext) {
-                    return true;
-                }
-            }
-        }
-
+        ClassMembers members = ClassMembers.of(clazz);
         // TODO consider inherited fields and methods
-        return false;
+        return members.field(fieldName, staticContext).isPresent() || !members.methods(fieldName, staticContext).isEmpty();
     }
 
     @Override
     public List<InternalConstructorDefinition> getConstructors() {
-        return Arrays.stream(clazz.getConstructors())
-                .map((c) -> toInternalConstructorDefinition(c))
-                .collect(Collectors.toList());
+        if (constructorDefinitions == null) {
+            constructorDefinitions = Collections.unmodifiableList(ClassMembers.of(clazz).constructors().stream()
+                    .map((c) -> toInternalConstructorDefinition(c))
+                    .collect(Collectors.toList()));
+        }
+        return constructorDefinitions;
     }
 
     @Override
@@ -111,7 +111,7 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
         if (clazz.getTypeParameters().length != typeParams.size()) {
             throw new IllegalStateException("It should have " + clazz.getTypeParameters().length + " and it has " + typeParams.size());
         }
-        Map<String, TypeUsage> map = new HashMap<>();
+        Map<String, TypeUsage> map = new LinkedHashMap<>();
         int i=0;
         for (TypeVariable tv : clazz.getTypeParameters()) {
             map.put(tv.getName(), typeParams.get(i));
@@ -122,8 +122,8 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     @Override
     public Optional<InternalConstructorDefinition> findConstructor(List<ActualParam> actualParams) {
-        Constructor constructor = ReflectionBasedMethodResolution.findConstructorAmongActualParams(
-                actualParams, resolver, Arrays.asList(clazz.getConstructors()));
+        Constructor constructor = ReflectionBasedMethodResolution.findConstructorInActualParams(
+                clazz, actualParams, resolver);
         return Optional.of(toInternalConstructorDefinition(constructor));
     }
 
@@ -146,7 +146,7 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     @Override
     public JvmMethodDefinition findMethodFor(String name, List<JvmType> argsTypes, boolean staticContext) {
-        return ReflectionTypeDefinitionFactory.toMethodDefinition(ReflectionBasedMethodResolution.findMethodAmong(name, argsTypes, resolver, staticContext, Arrays.asList(clazz.getMethods())));
+        return ReflectionTypeDefinitionFactory.toMethodDefinition(ReflectionBasedMethodResolution.findMethodIn(clazz, name, argsTypes, resolver, staticContext));
     }
 
     @Override
@@ -160,7 +160,7 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
                     argsTypes.add(actualParam.getValue().calcType().jvmType());
                 }
             }
-            return ReflectionBasedMethodResolution.findConstructorAmong(argsTypes, resolver, Arrays.asList(clazz.getConstructors()));
+            return ReflectionBasedMethodResolution.findConstructorIn(clazz, argsTypes, resolver);
         } catch (RuntimeException e){
             throw new RuntimeException("Resolving constructor call on " + clazz.getCanonicalName(), e);
         }
@@ -168,7 +168,7 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     @Override
     public Optional<InternalMethodDefinition> findMethod(String methodName, List<ActualParam> actualParams, boolean staticContext) {
-        Optional<Method> res = ReflectionBasedMethodResolution.findMethodAmongActualParams(methodName, actualParams, resolver, staticContext, Arrays.asList(clazz.getMethods()));
+        Optional<Method> res = ReflectionBasedMethodResolution.findMethodInActualParams(clazz, methodName, actualParams, resolver, staticContext);
         if (res.isPresent()) {
             return Optional.of(toInternalMethodDefinition(res.get()));
         } else {
@@ -206,22 +206,12 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     @Override
     public TypeUsage getFieldType(String fieldName, boolean staticContext) {
-        for (Field field : clazz.getFields()) {
-            if (field.getName().equals(fieldName)) {
-                if (Modifier.isStatic(field.getModifiers()) == staticContext) {
-                    return ReflectionTypeDefinitionFactory.toTypeUsage(field.getType(), resolver);
-                }
-            }
+        Optional<Field> field = ClassMembers.of(clazz).field(fieldName, staticContext);
+        if (field.isPresent()) {
+            return ReflectionTypeDefinitionFactory.toTypeUsage(field.get().getType(), resolver);
         }
 
-        List<Method> methods = new LinkedList<>();
-        for (Method method : clazz.getMethods()) {
-            if (method.getName().equals(fieldName)) {
-                if (Modifier.isStatic(method.getModifiers()) == staticContext) {
-                    methods.add(method);
-                }
-            }
-        }
+        List<Method> methods = ClassMembers.of(clazz).methods(fieldName, staticContext);
         if (!methods.isEmpty()) {
             return this.typeFor(methods, resolver);
         }
@@ -249,6 +239,32 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
         return ancestors;
     }
 
+    // the hierarchy of JDK classes never changes, so it is calculated once for each class
+    private static final ClassValue<TypeIdSet> ANCESTOR_IDS = new ClassValue<TypeIdSet>() {
+        @Override
+        protected TypeIdSet computeValue(Class<?> clazz) {
+            Set<String> ancestors = new LinkedHashSet<>();
+            collectAncestors(clazz, ancestors);
+            return TypeIdSet.of(ancestors);
+        }
+    };
+
+    private static void collectAncestors(Class<?> clazz, Set<String> ancestors) {
+        if (clazz.getSuperclass() != null) {
+            ancestors.add(clazz.getSuperclass().getCanonicalName());
+            collectAncestors(clazz.getSuperclass(), ancestors);
+        }
+        for (Class<?> interfaze : clazz.getInterfaces()) {
+            ancestors.add(interfaze.getCanonicalName());
+            collectAncestors(interfaze, ancestors);
+        }
+    }
+
+    @Override
+    public TypeIdSet getAncestorIds() {
+        return ANCESTOR_IDS.get(clazz);
+    }
+
     @Override
     public boolean isInterface() {
         return clazz.isInterface();
@@ -293,18 +309,12 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
      */
     private Symbol internalGetField(String fieldName, Symbol instance) {
         boolean isStatic = instance == null;
-        for (Field field : clazz.getFields()) {
-            if (field.getName().equals(fieldName) && Modifier.isStatic(field.getModifiers()) == isStatic) {
-                ReflectionBasedField rbf = new ReflectionBasedField(field, resolver);
-                return rbf;
-            }
-        }
-        List<Method> matchingMethods = new ArrayList<>();
-        for (Method method : clazz.getMethods()) {
-            if (method.getName().equals(fieldName) && Modifier.isStatic(method.getModifiers()) == isStatic){
-                matchingMethods.add(method);
-            }
+        Optional<Field> field = ClassMembers.of(clazz).field(fieldName, isStatic);
+        if (field.isPresent()) {
+            ReflectionBasedField rbf = new ReflectionBasedField(field.get(), resolver);
+            return rbf;
         }
+        List<Method> matchingMethods = ClassMembers.of(clazz).methods(fieldName, isStatic);
         if (matchingMethods.isEmpty()) {
             // TODO improve the error returned
             throw new UnsolvedSymbolException(fieldName);
@@ -321,10 +331,14 @@ class ReflectionBasedTypeDefinition implements TypeDefinition {
 
     @Override
     public Optional<Invokable> getMethod(String method, boolean staticContext, Map<String, TypeUsage> typeParams) {
-        Set<InternalMethodDefinition> methods = Arrays.stream(clazz.getMethods())
-                .filter((m)->m.getName().equals(method) && Modifier.isStatic(m.getModifiers()) == staticContext)
-                .map((m)->toInternalMethodDefinition(m))
-                .collect(Collectors.toSet());
+        Map<String, Set<InternalMethodDefinition>> methodDefinitions = staticContext ? staticMethodDefinitions : instanceMethodDefinitions;
+        Set<InternalMethodDefinition> methods = methodDefinitions.get(method);
+        if (methods == null) {
+            methods = Collections.unmodifiableSet(ClassMembers.of(clazz).methods(method, staticContext).stream()
+                    .map((m)->toInternalMethodDefinition(m))
+                    .collect(Collectors.toSet()));
+            methodDefinitions.put(method, methods);
+        }
         if (methods.isEmpty()) {
             return Optional.empty();
         } else {
@@ -10,9 +10,6 @@ import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
 import me.tomassetti.turin.parser.ast.properties.PropertyReference;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.symbols.Symbol;
-import me.tomassetti.turin.typesystem.ArrayTypeUsage;
-import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
-import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
 import java.lang.reflect.Constructor;
@@ -73,13 +70,7 @@ public class ReflectionTypeDefinitionFactory {
     }
 
     public static TypeUsage toTypeUsage(Class<?> type, SymbolResolver resolver) {
-        if (type.isArray()) {
-            return new ArrayTypeUsage(toTypeUsage(type.getComponentType(), resolver));
-        } else if (type.isPrimitive()) {
-            return PrimitiveTypeUsage.getByName(type.getName());
-        } else {
-            return new ReferenceTypeUsage(getInstance().getTypeDefinition(type, resolver));
-        }
+        return resolver.getTypeUsageFactory().fromClass(type);
     }
 
     public TypeDefinition getTypeDefinition(Class<?> clazz, SymbolResolver resolver) {
@@ -100,15 +91,20 @@ public class ReflectionTypeDefinitionFactory {
         return type;
     }
 
-    public Optional<TypeDefinition> findTypeDefinition(String typeName, SymbolResolver resolver) {
-        if (!typeName.startsWith("java.") && !typeName.startsWith("javax.")) {
+    /**
+     * Find the JDK type with the given name. The name is first looked up in the index of the JDK, so no class is
+     * loaded for names which are not there. The classes found are loaded without being initialized.
+     */
+    public Optional<TypeDefinition> findTypeDefinition(String typeName, JdkIndex index, SymbolResolver resolver) {
+        if (!index.containsType(typeName)) {
             return Optional.empty();
         }
         try {
-            Class<?> clazz = ClassLoader.getSystemClassLoader().loadClass(typeName);
+            Class<?> clazz = Class.forName(typeName, false, ClassLoader.getSystemClassLoader());
             return Optional.of(getTypeDefinition(clazz, resolver));
         } catch (ClassNotFoundException e) {
-           return Optional.empty();
+            // the index can describe a different release from the running one
+            return Optional.empty();
         }
     }
 
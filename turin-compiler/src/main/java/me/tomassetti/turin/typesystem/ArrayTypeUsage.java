@@ -120,6 +120,9 @@ public class ArrayTypeUsage implements TypeUsage {
 
     @Override
     public boolean sameType(TypeUsage other) {
+        if (this == other) {
+            return true;
+        }
         if (!other.isArray()) {
             return false;
         }
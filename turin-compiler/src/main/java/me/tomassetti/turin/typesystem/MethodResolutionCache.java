@@ -0,0 +1,147 @@
+package me.tomassetti.turin.typesystem;
+
+import me.tomassetti.jvm.JvmType;
+import me.tomassetti.turin.parser.ast.expressions.ActualParam;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Remember the outcome of overload resolutions, so that the same call is not resolved again at every call site.
+ *
+ * A resolution is identified by the declaring type, the name of the method, the static flag and the JVM types of the
+ * arguments. Only arguments of types without type parameters are identified by their JVM types, so calls with other
+ * arguments are not cached. The outcome depends also on the types known to the resolver used, so each resolver has
+ * its own entries, which are dropped together with it or when the sources known to its root change. Resolutions which fail with an
+ * exception (e.g., ambiguous calls) are not kept.
+ */
+public class MethodResolutionCache<M> {
+
+    /**
+     * Name under which constructors are resolved.
+     */
+    public static final String CONSTRUCTOR_NAME = "<init>";
+
+    private static class Key {
+        private final String declaringType;
+        private final String name;
+        private final boolean staticContext;
+        private final List<JvmType> argsTypes;
+
+        private Key(String declaringType, String name, boolean staticContext, List<JvmType> argsTypes) {
+            this.declaringType = declaringType;
+            this.name = name;
+            this.staticContext = staticContext;
+            this.argsTypes = argsTypes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (staticContext != key.staticContext) return false;
+            if (!declaringType.equals(key.declaringType)) return false;
+            if (!name.equals(key.name)) return false;
+            if (!argsTypes.equals(key.argsTypes)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = declaringType.hashCode();
+            result = 31 * result + name.hashCode();
+            result = 31 * result + (staticContext ? 1 : 0);
+            result = 31 * result + argsTypes.hashCode();
+            return result;
+        }
+    }
+
+    // all the caches, so that they can be invalidated together
+    private static final Set<MethodResolutionCache<?>> CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final Map<SymbolResolver, Map<Key, Optional<M>>> entries = new WeakHashMap<>();
+
+    public MethodResolutionCache() {
+        synchronized (CACHES) {
+            CACHES.add(this);
+        }
+    }
+
+    /**
+     * Forget the outcomes obtained through the resolvers with the given root, leaving the other resolvers alone.
+     * To be invoked when the sources known to that root change: the types defined in them can be used as arguments,
+     * and their ancestors determine the overload selected.
+     */
+    public static void invalidate(SymbolResolver root) {
+        List<MethodResolutionCache<?>> caches;
+        synchronized (CACHES) {
+            caches = new ArrayList<>(CACHES);
+        }
+        for (MethodResolutionCache<?> cache : caches) {
+            synchronized (cache.entries) {
+                cache.entries.keySet().removeIf((resolver) -> resolver.getRoot() == root);
+            }
+        }
+    }
+
+    /**
+     * The outcome of the given resolution, which is performed only the first time it is requested.
+     */
+    public Optional<M> resolve(SymbolResolver resolver, String declaringType, String name, boolean staticContext,
+                               List<JvmType> argsTypes, Supplier<Optional<M>> resolution) {
+        Key key = new Key(declaringType, name, staticContext, new ArrayList<>(argsTypes));
+        synchronized (entries) {
+            Map<Key, Optional<M>> outcomes = entries.get(resolver);
+            if (outcomes != null && outcomes.containsKey(key)) {
+                return outcomes.get(key);
+            }
+        }
+        // the lock is not held while resolving: resolving the types involved can require other resolutions
+        Optional<M> outcome = resolution.get();
+        synchronized (entries) {
+            entries.computeIfAbsent(resolver, (r) -> new HashMap<>()).put(key, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * The JVM types of the given parameters, when they are enough to identify the resolution. Calls with named
+     * parameters, with values which cannot be typed yet or with values of generic types (their JVM types are erased)
+     * have to be resolved without the cache.
+     */
+    public static Optional<List<JvmType>> argsTypes(List<ActualParam> actualParams) {
+        List<JvmType> argsTypes = new ArrayList<>();
+        for (ActualParam actualParam : actualParams) {
+            if (actualParam.isNamed()) {
+                return Optional.empty();
+            }
+            try {
+                TypeUsage type = actualParam.getValue().calcType();
+                if (!isErased(type)) {
+                    return Optional.empty();
+                }
+                argsTypes.add(type.jvmType());
+            } catch (RuntimeException e) {
+                // e.g., references to functions have no JVM type: the resolution reports the error, if any
+                return Optional.empty();
+            }
+        }
+        return Optional.of(argsTypes);
+    }
+
+    private static boolean isErased(TypeUsage type) {
+        if (type.isArray()) {
+            return isErased(type.asArrayTypeUsage().getComponentType());
+        } else if (type.isReferenceTypeUsage()) {
+            return !type.asReferenceTypeUsage().hasTypeParameters();
+        } else {
+            return !type.isTypeVariable();
+        }
+    }
+
+}
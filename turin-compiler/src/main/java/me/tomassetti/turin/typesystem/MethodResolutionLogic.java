@@ -2,19 +2,22 @@ package me.tomassetti.turin.typesystem;
 
 import me.tomassetti.jvm.JvmType;
 import me.tomassetti.turin.compiler.AmbiguousCallException;
-import me.tomassetti.turin.definitions.InternalMethodDefinition;
+import me.tomassetti.turin.definitions.InternalInvokableDefinition;
 import me.tomassetti.turin.parser.ast.expressions.ActualParam;
+import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
+import me.tomassetti.turin.resolvers.SymbolResolver;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class MethodResolutionLogic {
 
-    public static Optional<InternalMethodDefinition> findMethodAmongActualParams(List<ActualParam> argsTypes, List<InternalMethodDefinition> candidates) {
-        List<InternalMethodDefinition> suitableMethods = new ArrayList<>();
-        for (InternalMethodDefinition method : candidates) {
+    public static <T extends InternalInvokableDefinition> Optional<T> findMethodAmongActualParams(List<ActualParam> argsTypes, List<T> candidates) {
+        List<T> suitableMethods = new ArrayList<>();
+        for (T method : candidates) {
             if (method.getFormalParameters().size() == argsTypes.size()) {
                 boolean match = true;
                 for (int i = 0; i < argsTypes.size(); i++) {
@@ -41,10 +44,40 @@ public class MethodResolutionLogic {
         }
     }
 
-    private static InternalMethodDefinition findMostSpecific(List<InternalMethodDefinition> methods, AmbiguousCallException exceptionToThrow,
+    /**
+     * Like {@link #findMethodAmongActualParams(List, List)} when only the JVM types of the arguments are known.
+     */
+    public static <T extends InternalInvokableDefinition> Optional<T> findMethodAmong(String name, List<JvmType> argsTypes, SymbolResolver resolver, List<T> candidates) {
+        List<T> suitableMethods = new ArrayList<>();
+        for (T method : candidates) {
+            if (method.getFormalParameters().size() == argsTypes.size()) {
+                boolean match = true;
+                for (int i = 0; i < argsTypes.size(); i++) {
+                    TypeUsage actualType = TypeUsageNode.fromJvmType(argsTypes.get(i), resolver, Collections.emptyMap());
+                    TypeUsage formalType = method.getFormalParameters().get(i).getType();
+                    if (!actualType.canBeAssignedTo(formalType)) {
+                        match = false;
+                    }
+                }
+                if (match) {
+                    suitableMethods.add(method);
+                }
+            }
+        }
+
+        if (suitableMethods.size() == 0) {
+            return Optional.empty();
+        } else if (suitableMethods.size() == 1) {
+            return Optional.of(suitableMethods.get(0));
+        } else {
+            return Optional.of(findMostSpecific(suitableMethods, new AmbiguousCallException(null, name, argsTypes), argsTypes));
+        }
+    }
+
+    private static <T extends InternalInvokableDefinition> T findMostSpecific(List<T> methods, AmbiguousCallException exceptionToThrow,
                                                         List<JvmType> argsTypes) {
-        InternalMethodDefinition winningMethod = methods.get(0);
-        for (InternalMethodDefinition other : methods.subList(1, methods.size())) {
+        T winningMethod = methods.get(0);
+        for (T other : methods.subList(1, methods.size())) {
             if (isTheFirstMoreSpecific(winningMethod, other, argsTypes)) {
             } else if (isTheFirstMoreSpecific(other, winningMethod, argsTypes)) {
                 winningMethod = other;
@@ -56,7 +89,7 @@ public class MethodResolutionLogic {
         return winningMethod;
     }
 
-    private static boolean isTheFirstMoreSpecific(InternalMethodDefinition first, InternalMethodDefinition second,
+    private static boolean isTheFirstMoreSpecific(InternalInvokableDefinition first, InternalInvokableDefinition second,
                                                   List<JvmType> argsTypes) {
         boolean atLeastOneParamIsMoreSpecific = false;
         if (first.getFormalParameters().size() != second.getFormalParameters().size()) {
@@ -0,0 +1,68 @@
+package me.tomassetti.turin.typesystem;
+
+import me.tomassetti.jvm.JvmType;
+import me.tomassetti.turin.compiler.errorhandling.SemanticErrorException;
+import me.tomassetti.turin.definitions.InternalInvokableDefinition;
+import me.tomassetti.turin.definitions.InternalMethodDefinition;
+import me.tomassetti.turin.parser.ast.expressions.ActualParam;
+import me.tomassetti.turin.symbols.Symbol;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Reference to overloaded static methods of a compiled class, described by their definitions. The alternative is
+ * selected considering the types of the parameters.
+ */
+public class OverloadedMethodsReferenceTypeUsage extends OverloadedFunctionReferenceTypeUsage {
+
+    private List<InternalMethodDefinition> methods;
+
+    public OverloadedMethodsReferenceTypeUsage(List<InternalMethodDefinition> methods) {
+        super(methods.stream().map((m) -> new InvokableReferenceTypeUsage(m)).collect(Collectors.toList()));
+        this.methods = methods;
+    }
+
+    @Override
+    public boolean sameType(TypeUsage other) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isOverloaded() {
+        return true;
+    }
+
+    @Override
+    public Optional<? extends InternalInvokableDefinition> internalInvokableDefinitionFor(List<ActualParam> actualParams) {
+        for (ActualParam actualParam : actualParams) {
+            if (actualParam.isNamed()) {
+                throw new SemanticErrorException(actualParam, "It is not possible to use named parameters on Java classes");
+            }
+        }
+        return MethodResolutionLogic.findMethodAmongActualParams(actualParams, methods);
+    }
+
+    @Override
+    public <T extends TypeUsage> TypeUsage replaceTypeVariables(Map<String, T> typeParams) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JvmType jvmType() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean canBeAssignedTo(TypeUsage type) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Symbol getInstanceField(String fieldName, Symbol instance) {
+        throw new UnsupportedOperationException();
+    }
+
+}
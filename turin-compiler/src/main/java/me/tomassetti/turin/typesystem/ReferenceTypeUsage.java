@@ -4,7 +4,6 @@ import me.tomassetti.jvm.JvmType;
 import me.tomassetti.turin.definitions.InternalConstructorDefinition;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.resolvers.SymbolResolver;
-import me.tomassetti.turin.resolvers.jdk.ReflectionTypeDefinitionFactory;
 import me.tomassetti.turin.parser.ast.expressions.ActualParam;
 import me.tomassetti.turin.symbols.Symbol;
 
@@ -17,16 +16,15 @@ import java.util.stream.Collectors;
 public class ReferenceTypeUsage implements TypeUsage {
 
     public static final ReferenceTypeUsage OBJECT(SymbolResolver resolver) {
-        return new ReferenceTypeUsage(
-                ReflectionTypeDefinitionFactory.getInstance().getTypeDefinition(Object.class, resolver));
+        return resolver.getTypeUsageFactory().object();
     }
     public static final ReferenceTypeUsage STRING(SymbolResolver resolver) {
-        return new ReferenceTypeUsage(
-                ReflectionTypeDefinitionFactory.getInstance().getTypeDefinition(String.class, resolver));
+        return resolver.getTypeUsageFactory().string();
     }
     private List<TypeUsage> typeParams;
     private TypeParameterValues typeParameterValues = new TypeParameterValues();
     private TypeDefinition cachedTypeDefinition;
+    private boolean canonical = false;
 
     public ReferenceTypeUsage(TypeDefinition typeDefinition, List<TypeUsage> typeParams) {
         this.typeParams = new ArrayList<>(typeParams);
@@ -58,6 +56,24 @@ public class ReferenceTypeUsage implements TypeUsage {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Canonical instances are shared, so they cannot be changed. See TypeUsageFactory.
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    void setCanonical() {
+        this.canonical = true;
+    }
+
+    /**
+     * Are type parameters given, either when the usage was created or as values of the type parameters?
+     */
+    public boolean hasTypeParameters() {
+        return !typeParams.isEmpty() || !typeParameterValues.getInOrder().isEmpty();
+    }
+
     public TypeParameterValues getTypeParameterValues() {
         return typeParameterValues;
     }
@@ -91,15 +107,7 @@ public class ReferenceTypeUsage implements TypeUsage {
             return false;
         }
         ReferenceTypeUsage other = type.asReferenceTypeUsage();
-        if (this.getQualifiedName().equals(other.getQualifiedName())) {
-            return true;
-        }
-        for (TypeUsage ancestor : this.getAllAncestors()) {
-            if (ancestor.canBeAssignedTo(type)) {
-                return true;
-            }
-        }
-        return false;
+        return getTypeDefinition().isSubtypeOf(other.getQualifiedName());
     }
 
     public List<ReferenceTypeUsage> getAllAncestors() {
@@ -152,6 +160,9 @@ public class ReferenceTypeUsage implements TypeUsage {
 
     @Override
     public boolean sameType(TypeUsage other) {
+        if (this == other) {
+            return true;
+        }
         if (!other.isReferenceTypeUsage()) {
             return false;
         }
@@ -167,6 +178,9 @@ public class ReferenceTypeUsage implements TypeUsage {
         private List<String> names = new ArrayList<>();
 
         public void add(String name, TypeUsage typeUsage) {
+            if (canonical) {
+                throw new UnsupportedOperationException("Canonical type usages cannot be changed");
+            }
             names.add(name);
             usages.add(typeUsage);
         }
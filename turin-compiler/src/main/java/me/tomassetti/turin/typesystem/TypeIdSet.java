@@ -0,0 +1,96 @@
+package me.tomassetti.turin.typesystem;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable set of types, identified by their qualified names.
+ *
+ * Each qualified name is given a small integer the first time it is seen, so the set is stored as a bitset and
+ * checking if a type belongs to it does not compare any string. It is used to keep the ancestors of a type, so that
+ * subtyping can be checked without walking the hierarchy.
+ */
+public final class TypeIdSet {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    public static final TypeIdSet EMPTY = new TypeIdSet(new BitSet());
+
+    private final BitSet ids;
+
+    private TypeIdSet(BitSet ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * The id of the type with the given qualified name. It is the same for the whole life of the compiler.
+     */
+    public static int idOf(String qualifiedName) {
+        Integer id = IDS.get(qualifiedName);
+        if (id == null) {
+            id = IDS.computeIfAbsent(qualifiedName, (n) -> NEXT_ID.getAndIncrement());
+        }
+        return id;
+    }
+
+    public static TypeIdSet of(Iterable<String> qualifiedNames) {
+        BitSet ids = new BitSet();
+        for (String qualifiedName : qualifiedNames) {
+            ids.set(idOf(qualifiedName));
+        }
+        return new TypeIdSet(ids);
+    }
+
+    /**
+     * A set containing the types of this one and the given type. This set is not modified.
+     */
+    public TypeIdSet with(String qualifiedName) {
+        BitSet ids = (BitSet) this.ids.clone();
+        ids.set(idOf(qualifiedName));
+        return new TypeIdSet(ids);
+    }
+
+    /**
+     * A set containing the types of this one and of the given one. The two sets are not modified.
+     */
+    public TypeIdSet union(TypeIdSet other) {
+        BitSet ids = (BitSet) this.ids.clone();
+        ids.or(other.ids);
+        return new TypeIdSet(ids);
+    }
+
+    public boolean contains(String qualifiedName) {
+        // names never seen cannot belong to any set: they are not given an id just to find it out
+        Integer id = IDS.get(qualifiedName);
+        return id != null && ids.get(id);
+    }
+
+    public int size() {
+        return ids.cardinality();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TypeIdSet typeIdSet = (TypeIdSet) o;
+
+        return ids.equals(typeIdSet.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return ids.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TypeIdSet{" +
+                "ids=" + ids +
+                '}';
+    }
+}
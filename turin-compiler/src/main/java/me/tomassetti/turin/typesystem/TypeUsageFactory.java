@@ -0,0 +1,127 @@
+package me.tomassetti.turin.typesystem;
+
+import javassist.CtClass;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.resolvers.compiled.JavassistTypeDefinitionFactory;
+import me.tomassetti.turin.resolvers.jdk.ReflectionTypeDefinitionFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Give canonical instances of the type usages which do not depend on where they are used: JDK and compiled classes
+ * without type parameters, primitive types and arrays of them.
+ *
+ * Each resolver has its own factory, because the type definitions refer to the resolver they were obtained from.
+ * Canonical instances cannot be changed, so they can be shared freely and compared by reference.
+ */
+public class TypeUsageFactory {
+
+    // all the factories, so that they can be invalidated together
+    private static final Set<TypeUsageFactory> FACTORIES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final SymbolResolver resolver;
+    private final Map<Class<?>, ReferenceTypeUsage> references = new HashMap<>();
+    private final Map<CtClass, ReferenceTypeUsage> compiledReferences = new HashMap<>();
+    private final Map<TypeUsage, ArrayTypeUsage> arrays = new HashMap<>();
+
+    public TypeUsageFactory(SymbolResolver resolver) {
+        this.resolver = resolver;
+        synchronized (FACTORIES) {
+            FACTORIES.add(this);
+        }
+    }
+
+    /**
+     * Forget, in the factories of the resolvers with the given root, the arrays of components which are not
+     * canonical. To be invoked when the sources known to that root change: those components could be types defined
+     * in them. The canonical instances remain the same.
+     */
+    public static void invalidate(SymbolResolver root) {
+        List<TypeUsageFactory> factories;
+        synchronized (FACTORIES) {
+            factories = new ArrayList<>(FACTORIES);
+        }
+        for (TypeUsageFactory factory : factories) {
+            if (factory.resolver.getRoot() != root) {
+                continue;
+            }
+            synchronized (factory) {
+                factory.arrays.keySet().removeIf((component) -> !isCanonical(component));
+            }
+        }
+    }
+
+    private static boolean isCanonical(TypeUsage typeUsage) {
+        if (typeUsage.isArray()) {
+            return isCanonical(typeUsage.asArrayTypeUsage().getComponentType());
+        } else if (typeUsage.isReferenceTypeUsage()) {
+            return typeUsage.asReferenceTypeUsage().isCanonical();
+        } else {
+            return typeUsage.isPrimitive();
+        }
+    }
+
+    public ReferenceTypeUsage object() {
+        return reference(Object.class);
+    }
+
+    public ReferenceTypeUsage string() {
+        return reference(String.class);
+    }
+
+    public synchronized ReferenceTypeUsage reference(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isArray()) {
+            throw new IllegalArgumentException(clazz.getName());
+        }
+        ReferenceTypeUsage reference = references.get(clazz);
+        if (reference == null) {
+            reference = new ReferenceTypeUsage(ReflectionTypeDefinitionFactory.getInstance().getTypeDefinition(clazz, resolver));
+            reference.setCanonical();
+            references.put(clazz, reference);
+        }
+        return reference;
+    }
+
+    public synchronized ReferenceTypeUsage reference(CtClass ctClass) {
+        if (ctClass.isPrimitive() || ctClass.isArray()) {
+            throw new IllegalArgumentException(ctClass.getName());
+        }
+        ReferenceTypeUsage reference = compiledReferences.get(ctClass);
+        if (reference == null) {
+            reference = new ReferenceTypeUsage(JavassistTypeDefinitionFactory.getInstance().getTypeDefinition(ctClass, resolver));
+            reference.setCanonical();
+            compiledReferences.put(ctClass, reference);
+        }
+        return reference;
+    }
+
+    /**
+     * An array of the given component: it is canonical when the component is. Components which are not canonical
+     * should not be passed, because they would be kept by the factory.
+     */
+    public synchronized ArrayTypeUsage arrayOf(TypeUsage componentType) {
+        ArrayTypeUsage array = arrays.get(componentType);
+        if (array == null) {
+            array = new ArrayTypeUsage(componentType);
+            arrays.put(componentType, array);
+        }
+        return array;
+    }
+
+    public TypeUsage fromClass(Class<?> clazz) {
+        if (clazz.isArray()) {
+            return arrayOf(fromClass(clazz.getComponentType()));
+        } else if (clazz.isPrimitive()) {
+            return PrimitiveTypeUsage.getByName(clazz.getName());
+        } else {
+            return reference(clazz);
+        }
+    }
+
+}
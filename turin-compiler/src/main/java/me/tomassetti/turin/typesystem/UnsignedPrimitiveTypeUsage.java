@@ -101,6 +101,10 @@ public class UnsignedPrimitiveTypeUsage implements TypeUsage {
         throw new IllegalArgumentException(typeName);
     }
 
+    public String getName() {
+        return name;
+    }
+
     ///
     /// Fields
     ///
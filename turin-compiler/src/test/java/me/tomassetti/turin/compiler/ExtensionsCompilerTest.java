@@ -1,13 +1,19 @@
 package me.tomassetti.turin.compiler;
 
+import com.google.common.collect.ImmutableList;
 import me.tomassetti.turin.classloading.TurinClassLoader;
 import me.tomassetti.turin.classloading.ClassFileDefinition;
 import me.tomassetti.turin.parser.Parser;
 import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.TurinTypeDefinition;
+import me.tomassetti.turin.resolvers.InFileSymbolResolver;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import me.tomassetti.turin.typesystem.TypeIdSet;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.Modifier;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -31,6 +37,20 @@ public class ExtensionsCompilerTest extends AbstractCompilerTest {
         assertEquals(Object.class, typeB.getSuperclass());
     }
 
+    @Test
+    public void theAncestorsOfTypesExtendingOtherTypesIncludeTheBaseType() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/type_extending.to"));
+        new Compiler(getResolverFor(turinFile), new Compiler.Options()).compile(turinFile, getErrorCollector());
+
+        TurinTypeDefinition typeA = turinFile.getTopTypeDefinition("A").get();
+        TurinTypeDefinition typeB = turinFile.getTopTypeDefinition("B").get();
+        assertEquals(TypeIdSet.of(ImmutableList.of("java.lang.Object")), typeB.getAncestorIds());
+        assertEquals(TypeIdSet.of(ImmutableList.of("foo.bar.B", "java.lang.Object")), typeA.getAncestorIds());
+        assertSame(typeA.getAncestorIds(), typeA.getAncestorIds());
+        assertTrue(typeA.isSubtypeOf("foo.bar.B"));
+        assertFalse(typeB.isSubtypeOf("foo.bar.A"));
+    }
+
     @Test
     public void theImplementedInterfacesAreSetCorrectly() throws IOException {
         TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/type_implementing.to"));
@@ -48,4 +68,62 @@ public class ExtensionsCompilerTest extends AbstractCompilerTest {
         assertTrue(Cloneable.class.isAssignableFrom(typeA));
     }
 
+    @Test
+    public void typesAndMethodsNotExtendedAreFinal() throws NoSuchMethodException, IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/type_extending_with_methods.to"));
+
+        // generate bytecode
+        Compiler.Options options = new Compiler.Options();
+        options.setInferFinal(true);
+        Compiler instance = new Compiler(getResolverFor(turinFile), options);
+        List<ClassFileDefinition> classFileDefinitions = instance.compile(turinFile, getErrorCollector());
+        assertEquals(2, classFileDefinitions.size());
+
+        TurinClassLoader turinClassLoader = new TurinClassLoader();
+        Class base = turinClassLoader.addClass(classFileDefinitions.get(0));
+        Class derived = turinClassLoader.addClass(classFileDefinitions.get(1));
+        assertFalse(Modifier.isFinal(base.getModifiers()));
+        assertFalse(Modifier.isFinal(base.getMethod("foo").getModifiers()));
+        assertTrue(Modifier.isFinal(base.getMethod("bar").getModifiers()));
+        assertTrue(Modifier.isFinal(derived.getModifiers()));
+        assertTrue(Modifier.isFinal(derived.getMethod("foo").getModifiers()));
+    }
+
+    @Test
+    public void typesAreNotFinalByDefault() throws NoSuchMethodException, IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/type_extending_with_methods.to"));
+
+        // generate bytecode
+        Compiler.Options options = new Compiler.Options();
+        Compiler instance = new Compiler(getResolverFor(turinFile), options);
+        List<ClassFileDefinition> classFileDefinitions = instance.compile(turinFile, getErrorCollector());
+        assertEquals(2, classFileDefinitions.size());
+
+        TurinClassLoader turinClassLoader = new TurinClassLoader();
+        Class base = turinClassLoader.addClass(classFileDefinitions.get(0));
+        Class derived = turinClassLoader.addClass(classFileDefinitions.get(1));
+        assertFalse(Modifier.isFinal(base.getMethod("bar").getModifiers()));
+        assertFalse(Modifier.isFinal(derived.getModifiers()));
+        assertFalse(Modifier.isFinal(derived.getMethod("foo").getModifiers()));
+    }
+
+    @Test
+    public void typesAreNotFinalWhenTheSubclassesAreUnknown() throws NoSuchMethodException, IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/type_extending_with_methods.to"));
+
+        // generate bytecode, with a resolver which does not know the whole set of sources
+        Compiler.Options options = new Compiler.Options();
+        options.setInferFinal(true);
+        Compiler instance = new Compiler(new InFileSymbolResolver(JdkTypeResolver.getInstance()), options);
+        List<ClassFileDefinition> classFileDefinitions = instance.compile(turinFile, getErrorCollector());
+        assertEquals(2, classFileDefinitions.size());
+
+        TurinClassLoader turinClassLoader = new TurinClassLoader();
+        Class base = turinClassLoader.addClass(classFileDefinitions.get(0));
+        Class derived = turinClassLoader.addClass(classFileDefinitions.get(1));
+        assertFalse(Modifier.isFinal(base.getMethod("bar").getModifiers()));
+        assertFalse(Modifier.isFinal(derived.getModifiers()));
+        assertFalse(Modifier.isFinal(derived.getMethod("foo").getModifiers()));
+    }
+
 }
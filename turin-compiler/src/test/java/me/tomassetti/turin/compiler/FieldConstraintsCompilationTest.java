@@ -7,10 +7,13 @@ import me.tomassetti.turin.parser.ast.TurinFile;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -99,5 +102,51 @@ public class FieldConstraintsCompilationTest extends AbstractCompilerTest {
         assertEquals(false, exc6.isPresent());
     }
 
-}
+    @Test
+    public void constraintConditionsAreEvaluatedOnce() throws Exception {
+        Class countedClass = compileType("field_constraints_evaluated_once", Collections.emptyList());
+        Constructor constructor = countedClass.getConstructors()[0];
 
+        AtomicInteger counter = new AtomicInteger(0);
+        Object counted = constructor.newInstance(counter, 1, Collections.emptyMap());
+        assertEquals(1, counter.get());
+
+        AtomicInteger otherCounter = new AtomicInteger(0);
+        countedClass.getMethod("setCounter", AtomicInteger.class).invoke(counted, otherCounter);
+        assertEquals(1, otherCounter.get());
+    }
+
+    @Test
+    public void constraintsAreEnforcedWhenTheValueIsNotKnown() throws Exception {
+        Class countedClass = compileType("field_constraints_evaluated_once", Collections.emptyList());
+        Constructor constructor = countedClass.getConstructors()[0];
+
+        // the unsigned value comes from a parameter
+        assertEquals(true, getException(constructor, new AtomicInteger(0), -1, Collections.emptyMap()).isPresent());
+        // the value in the map of default params replaces a literal default value
+        assertEquals(true, getException(constructor, new AtomicInteger(0), 1, Collections.singletonMap("label", null)).isPresent());
+        // the literal default value is not checked
+        Object counted = constructor.newInstance(new AtomicInteger(0), 1, Collections.emptyMap());
+        assertEquals("none", countedClass.getMethod("getLabel").invoke(counted));
+        assertEquals(true, getException(countedClass.getMethod("setSize", int.class), counted, -1).isPresent());
+    }
+
+    private Optional<Throwable> getException(Constructor constructor, Object... args) throws IllegalAccessException, InstantiationException {
+        try {
+            constructor.newInstance(args);
+            return Optional.empty();
+        } catch (InvocationTargetException e) {
+            return Optional.of(e.getCause());
+        }
+    }
+
+    private Optional<Throwable> getException(Method method, Object instance, Object... args) throws IllegalAccessException {
+        try {
+            method.invoke(instance, args);
+            return Optional.empty();
+        } catch (InvocationTargetException e) {
+            return Optional.of(e.getCause());
+        }
+    }
+
+}
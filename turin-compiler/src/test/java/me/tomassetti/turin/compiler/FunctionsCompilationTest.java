@@ -3,6 +3,7 @@ package me.tomassetti.turin.compiler;
 import com.google.common.collect.ImmutableList;
 import me.tomassetti.turin.classloading.TurinClassLoader;
 import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
 import me.tomassetti.turin.parser.Parser;
 import me.tomassetti.turin.resolvers.*;
 import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
@@ -10,11 +11,16 @@ import me.tomassetti.turin.parser.ast.TurinFile;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class FunctionsCompilationTest {
 
@@ -77,5 +83,138 @@ public class FunctionsCompilationTest {
         main.invoke(null, (Object)new String[]{});
     }
 
-}
+    @Test
+    public void compileCallsToInlinedFunctions() throws IllegalAccessException, InvocationTargetException, InstantiationException, NoSuchMethodException, IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/inlined_functions.to"));
+
+        // generate bytecode
+        SymbolResolver resolver = getResolverFor(turinFile);
+        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        Compilation compilation = new Compilation(resolver, new AbstractCompilerTest.MyErrorCollector());
+        List<ClassFileDefinition> classFileDefinitions = compilation.compile(turinFile);
+        assertEquals(5, classFileDefinitions.size());
+        assertEquals(ImmutableList.of("inlined foo.twice (3 calls)", "inlined foo.second (1 call)"), compilation.getInliningReport());
+
+        // the callers are loaded without the functions they call: it works only if the calls were inlined
+        Class quadrupleClass = new TurinClassLoader().addClass(classFileDefinitions.get(1).getName(),
+                classFileDefinitions.get(1).getBytecode());
+        assertEquals(12, quadrupleClass.getMethod("invoke", int.class).invoke(null, 3));
+        Class pickSecondClass = new TurinClassLoader().addClass(classFileDefinitions.get(3).getName(),
+                classFileDefinitions.get(3).getBytecode());
+        assertEquals(2.5, pickSecondClass.getMethod("invoke", double.class, double.class).invoke(null, 1.5, 2.5));
+        Class twiceOfLocalClass = new TurinClassLoader().addClass(classFileDefinitions.get(4).getName(),
+                classFileDefinitions.get(4).getBytecode());
+        assertEquals(12, twiceOfLocalClass.getMethod("invoke").invoke(null));
+    }
+
+    @Test
+    public void inliningCanBeDisabled() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/inlined_functions.to"));
+
+        // generate bytecode
+        SymbolResolver resolver = getResolverFor(turinFile);
+        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        Compiler.Options options = new Compiler.Options();
+        options.setInlineFunctions(false);
+        Compilation compilation = new Compilation(resolver, new AbstractCompilerTest.MyErrorCollector(), options);
+        List<ClassFileDefinition> classFileDefinitions = compilation.compile(turinFile);
+        assertEquals(5, classFileDefinitions.size());
+        assertEquals(ImmutableList.of(), compilation.getInliningReport());
+    }
+
+    @Test
+    public void compileFunctionsInlinedInConstructorWithWideAndDefaultParams() throws ReflectiveOperationException, IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/inlined_in_constructor.to"));
+
+        // generate bytecode
+        SymbolResolver resolver = getResolverFor(turinFile);
+        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        Compilation compilation = new Compilation(resolver, new AbstractCompilerTest.MyErrorCollector());
+        List<ClassFileDefinition> classFileDefinitions = compilation.compile(turinFile);
+        assertEquals(3, classFileDefinitions.size());
+        assertEquals(ImmutableList.of("inlined foo.notNegative (2 calls)", "inlined foo.twice (2 calls)"), compilation.getInliningReport());
+
+        // the inlined arguments must not overwrite the second slot of the long or the map of default params
+        Class accountClass = new TurinClassLoader().addClass(classFileDefinitions.get(2).getName(),
+                classFileDefinitions.get(2).getBytecode());
+        Constructor constructor = accountClass.getConstructor(long.class, int.class, Map.class);
+        Object account = constructor.newInstance(1L << 40, 3, Collections.singletonMap("level", 7));
+        assertEquals(1L << 40, accountClass.getMethod("getBalance").invoke(account));
+        assertEquals(3, accountClass.getMethod("getPoints").invoke(account));
+        assertEquals(42, accountClass.getMethod("getBonus").invoke(account));
+        assertEquals(7, accountClass.getMethod("getLevel").invoke(account));
+        account = constructor.newInstance(5L, 3, Collections.emptyMap());
+        assertEquals(4, accountClass.getMethod("getLevel").invoke(account));
+        try {
+            constructor.newInstance(5L, -1, Collections.emptyMap());
+            fail();
+        } catch (InvocationTargetException e) {
+            assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+        }
+        accountClass.getMethod("setPoints", int.class).invoke(account, 8);
+        assertEquals(8, accountClass.getMethod("getPoints").invoke(account));
+    }
+
+    @Test
+    public void invalidFunctionsAreNotInlined() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/inlined_invalid_function.to"));
+
+        // only the caller is validated: the function it calls is not, so it must be validated before being inlined
+        SymbolResolver resolver = getResolverFor(turinFile);
+        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        List<String> errors = new ArrayList<>();
+        Compilation compilation = new Compilation(resolver, (position, description) -> errors.add(description));
+        assertEquals(1, compilation.compile(turinFile, "callBroken").size());
+        assertEquals(ImmutableList.of("not inlined foo.broken: it is not valid"), compilation.getInliningReport());
+        // the errors of the function are reported only when it is validated for compiling it
+        assertEquals(ImmutableList.of(), errors);
+    }
+
+    @Test
+    public void compileSingleFunctionWithoutValidatingTheOtherMembers() throws IllegalAccessException, InvocationTargetException, NoSuchMethodException, IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/function_next_to_invalid_member.to"));
 
+        // generate bytecode
+        Compiler instance = new Compiler(getResolverFor(turinFile), new Compiler.Options());
+        List<ClassFileDefinition> classFileDefinitions = instance.compile(turinFile, "toString", new AbstractCompilerTest.MyErrorCollector());
+        assertEquals(1, classFileDefinitions.size());
+
+        TurinClassLoader turinClassLoader = new TurinClassLoader();
+        Class functionClass = turinClassLoader.addClass(classFileDefinitions.get(0).getName(),
+                classFileDefinitions.get(0).getBytecode());
+        Method invoke = functionClass.getMethod("invoke");
+        assertEquals("foo", invoke.invoke(null));
+    }
+
+    @Test
+    public void validationOfASingleMemberIsCached() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/function_next_to_invalid_member.to"));
+        Compiler instance = new Compiler(getResolverFor(turinFile), new Compiler.Options());
+        List<String> errors = new ArrayList<>();
+        ErrorCollector errorCollector = (position, description) -> errors.add(description);
+
+        assertEquals(0, instance.compile(turinFile, "broken", errorCollector).size());
+        assertEquals(1, errors.size());
+        // the invalid member is not validated again but its error is reported again, the valid one is validated
+        // when the whole file is compiled
+        assertEquals(0, instance.compile(turinFile, errorCollector).size());
+        assertEquals(2, errors.size());
+        assertEquals(errors.get(0), errors.get(1));
+        assertEquals(true, turinFile.getMember("toString").get().isValid());
+        assertEquals(false, turinFile.getMember("broken").get().isValid());
+    }
+
+    @Test
+    public void errorsOfACachedValidationAreReportedToEachCollector() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/function_next_to_invalid_member.to"));
+        Compiler instance = new Compiler(getResolverFor(turinFile), new Compiler.Options());
+        List<String> firstErrors = new ArrayList<>();
+        List<String> secondErrors = new ArrayList<>();
+
+        assertEquals(0, instance.compile(turinFile, "broken", (position, description) -> firstErrors.add(description)).size());
+        assertEquals(0, instance.compile(turinFile, "broken", (position, description) -> secondErrors.add(description)).size());
+        assertEquals(1, firstErrors.size());
+        assertEquals(firstErrors, secondErrors);
+    }
+
+}
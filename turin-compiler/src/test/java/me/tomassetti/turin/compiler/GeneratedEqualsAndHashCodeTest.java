@@ -0,0 +1,74 @@
+package me.tomassetti.turin.compiler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratedEqualsAndHashCodeTest extends AbstractCompilerTest {
+
+    private Object instantiate(Constructor constructor, String name, int[] values, String[] tags, double d) throws IllegalAccessException, InvocationTargetException, InstantiationException {
+        return constructor.newInstance(name, values, tags, d);
+    }
+
+    @Test
+    public void arraysAreComparedByContent() throws NoSuchMethodException, IOException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        Class sampleClass = compileType("generated_equals", Collections.emptyList());
+        Constructor constructor = sampleClass.getConstructors()[0];
+        Object a = instantiate(constructor, "a", new int[]{1, 2}, new String[]{"x"}, 2.0);
+        Object b = instantiate(constructor, "a", new int[]{1, 2}, new String[]{"x"}, 2.0);
+        assertTrue(a.equals(b));
+        assertEquals(a.hashCode(), b.hashCode());
+
+        Object c = instantiate(constructor, "a", new int[]{1, 3}, new String[]{"x"}, 2.0);
+        assertFalse(a.equals(c));
+        Object d = instantiate(constructor, "a", new int[]{1, 2}, new String[]{"y"}, 2.0);
+        assertFalse(a.equals(d));
+    }
+
+    @Test
+    public void floatingPointValuesAreComparedAsBits() throws NoSuchMethodException, IOException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        Class sampleClass = compileType("generated_equals", Collections.emptyList());
+        Constructor constructor = sampleClass.getConstructors()[0];
+        Object a = instantiate(constructor, "a", new int[]{}, new String[]{}, Double.NaN);
+        Object b = instantiate(constructor, "a", new int[]{}, new String[]{}, Double.NaN);
+        assertTrue(a.equals(b));
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    public void hashCodeIsConsistentWithTheOneOfJavaBoxes() throws NoSuchMethodException, IOException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        Class sampleClass = compileType("generated_equals", Collections.emptyList());
+        Constructor constructor = sampleClass.getConstructors()[0];
+        Object a = instantiate(constructor, "a", new int[]{}, new String[]{}, 1.5);
+        Object b = instantiate(constructor, "a", new int[]{}, new String[]{}, 2.5);
+        assertFalse(a.equals(b));
+        int expected = 1;
+        expected = 31 * expected + "a".hashCode();
+        expected = 31 * expected + Arrays.hashCode(new int[]{});
+        expected = 31 * expected + Arrays.deepHashCode(new String[]{});
+        expected = 31 * expected + Double.hashCode(1.5);
+        assertEquals(expected, a.hashCode());
+    }
+
+    @Test
+    public void hashCodeOfBooleansAndLongsIsTheOneOfJavaBoxes() throws NoSuchMethodException, IOException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        Class flagsClass = compileType("generated_hash_of_primitives", Collections.emptyList());
+        Constructor constructor = flagsClass.getConstructors()[0];
+        for (boolean enabled : new boolean[]{true, false}) {
+            Object flags = constructor.newInstance(enabled, 1L << 40);
+            int expected = 1;
+            expected = 31 * expected + Boolean.hashCode(enabled);
+            expected = 31 * expected + Long.hashCode(1L << 40);
+            assertEquals(expected, flags.hashCode());
+        }
+    }
+
+}
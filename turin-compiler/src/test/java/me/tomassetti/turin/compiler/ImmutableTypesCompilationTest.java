@@ -0,0 +1,103 @@
+package me.tomassetti.turin.compiler;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.classloading.TurinClassLoader;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ImmutableTypesCompilationTest extends AbstractCompilerTest {
+
+    @Test
+    public void fieldsOfImmutableTypesAreFinal() throws NoSuchMethodException, IOException, NoSuchFieldException {
+        Class pointClass = compileType("immutable_type", Collections.emptyList());
+        assertTrue(Modifier.isFinal(pointClass.getDeclaredField("x").getModifiers()));
+        assertTrue(Modifier.isFinal(pointClass.getDeclaredField("y").getModifiers()));
+        assertTrue(Modifier.isFinal(pointClass.getDeclaredField("label").getModifiers()));
+    }
+
+    @Test
+    public void immutableTypesHaveNoSetters() throws NoSuchMethodException, IOException {
+        Class pointClass = compileType("immutable_type", Collections.emptyList());
+        for (Method method : pointClass.getMethods()) {
+            assertFalse(method.getName(), method.getName().startsWith("set"));
+        }
+        assertNotNull(pointClass.getMethod("getX"));
+    }
+
+    @Test
+    public void constraintsAreCheckedInTheConstructor() throws NoSuchMethodException, IOException, IllegalAccessException, InstantiationException {
+        Class pointClass = compileType("immutable_type", Collections.emptyList());
+        try {
+            pointClass.getConstructors()[0].newInstance(1, 2, null);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertEquals("label cannot be null", e.getTargetException().getMessage());
+        }
+    }
+
+    @Test
+    public void hashCodeIsCached() throws NoSuchMethodException, IOException, IllegalAccessException, InvocationTargetException, InstantiationException, NoSuchFieldException {
+        Class pointClass = compileType("immutable_type", Collections.emptyList());
+        Object point = pointClass.getConstructors()[0].newInstance(1, 2, "a");
+        Object samePoint = pointClass.getConstructors()[0].newInstance(1, 2, "a");
+        Field cache = pointClass.getDeclaredField(CompilationOfGeneratedMethods.HASH_CODE_CACHE_FIELD);
+        cache.setAccessible(true);
+        assertEquals(0, cache.get(point));
+
+        int hashCode = point.hashCode();
+        assertEquals(hashCode, cache.get(point));
+        assertEquals(hashCode, point.hashCode());
+        assertEquals(samePoint.hashCode(), hashCode);
+        assertTrue(point.equals(samePoint));
+    }
+
+    @Test
+    public void fieldsOfImmutableTypesCannotBeAssignedInMethods() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/immutable_type_assignment.to"));
+
+        // generate bytecode
+        Compiler.Options options = new Compiler.Options();
+        Compiler instance = new Compiler(getResolverFor(turinFile), options);
+
+        ErrorCollector errorCollector = EasyMock.createMock(ErrorCollector.class);
+        errorCollector.recordSemanticError(Position.create(8, 8, 8, 14), "Cannot be assigned");
+        EasyMock.replay(errorCollector);
+
+        instance.compile(turinFile, errorCollector);
+
+        EasyMock.verify(errorCollector);
+    }
+
+    @Test
+    public void fieldsOfImmutableTypesCanBeAssignedInExplicitConstructors() throws IOException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/immutable_type_explicit_constructor.to"));
+
+        // generate bytecode
+        Compiler.Options options = new Compiler.Options();
+        Compiler compiler = new Compiler(getResolverFor(turinFile), options);
+
+        List<ClassFileDefinition> classFileDefinitions = compiler.compile(turinFile, new MyErrorCollector());
+        assertEquals(1, classFileDefinitions.size());
+
+        TurinClassLoader turinClassLoader = new TurinClassLoader();
+        Class typeClass = turinClassLoader.addClass(classFileDefinitions.get(0));
+
+        Object instance = typeClass.getConstructor(int.class).newInstance(123);
+        assertEquals("123", typeClass.getMethod("getA").invoke(instance));
+    }
+
+}
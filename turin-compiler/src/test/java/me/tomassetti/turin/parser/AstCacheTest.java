@@ -0,0 +1,152 @@
+package me.tomassetti.turin.parser;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.resolvers.SrcSymbolResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class AstCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String CODE = "namespace foo\n" +
+            "\n" +
+            "type Point {\n" +
+            "    int x\n" +
+            "    int y\n" +
+            "}\n" +
+            "\n" +
+            "int sum(int a, int b) = a + b\n";
+
+    private List<String> describe(TurinFile turinFile) {
+        return turinFile.findAll(Node.class).stream()
+                .map((n) -> n.getClass().getName() + " " + (n.hasPosition() ? n.getPosition().toString() : "-"))
+                .collect(Collectors.toList());
+    }
+
+    private Path resources() throws URISyntaxException {
+        return Paths.get(this.getClass().getClassLoader().getResource("manga.to").toURI()).getParent();
+    }
+
+    private static class ErrorsCounter implements ErrorCollector {
+        private int errors = 0;
+
+        @Override
+        public void recordSemanticError(Position position, String description) {
+            errors++;
+        }
+
+        @Override
+        public void recordSyntaxError(Position position, String description) {
+            errors++;
+        }
+    }
+
+    @Test
+    public void theAstOfAllTheExamplesIsRebuiltIdentical() throws IOException, URISyntaxException {
+        List<Path> sources = Files.walk(resources())
+                .filter((p) -> p.toString().endsWith(".to"))
+                .collect(Collectors.toList());
+        assertFalse(sources.isEmpty());
+        for (Path source : sources) {
+            ErrorsCounter errorsCounter = new ErrorsCounter();
+            TurinFile parsed = new Parser().parse(source, errorsCounter);
+            if (errorsCounter.errors > 0) {
+                continue;
+            }
+            TurinFile rebuilt = BinaryAstReader.read(ByteBuffer.wrap(BinaryAstWriter.write(parsed)));
+            assertEquals(source.toString(), describe(parsed), describe(rebuilt));
+            // some nodes print the identity of their children
+            assertEquals(source.toString(), parsed.toString().replaceAll("@[0-9a-f]+", ""),
+                    rebuilt.toString().replaceAll("@[0-9a-f]+", ""));
+            assertEquals(source.toString(), BinaryAstWriter.topLevelSymbols(parsed),
+                    BinaryAstReader.readSymbols(ByteBuffer.wrap(BinaryAstWriter.write(rebuilt))));
+        }
+    }
+
+    @Test
+    public void unchangedFilesAreLoadedFromTheCache() throws IOException {
+        AstCache cache = new AstCache(temporaryFolder.newFolder("cache").toPath());
+        Path source = temporaryFolder.newFile("foo.to").toPath();
+        Files.write(source, CODE.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer code = ByteBuffer.wrap(Files.readAllBytes(source));
+        assertFalse(cache.load(code).isPresent());
+
+        TurinFile parsed = new Parser(cache).parse(source);
+        Optional<TurinFile> cached = cache.load(code);
+        assertTrue(cached.isPresent());
+        assertNotSame(parsed, cached.get());
+        assertEquals(describe(parsed), describe(cached.get()));
+        assertEquals(describe(parsed), describe(new Parser(cache).parse(source)));
+
+        List<TopLevelSymbol> symbols = cache.loadSymbols(code).get();
+        assertEquals(2, symbols.size());
+        assertEquals(new TopLevelSymbol(TopLevelSymbol.Kind.TYPE, "foo.Point", Position.create(3, 0, 7, 1)), symbols.get(0));
+        assertEquals(TopLevelSymbol.Kind.FUNCTION, symbols.get(1).getKind());
+        assertEquals("foo.sum", symbols.get(1).getQualifiedName());
+
+        // a different content has a different entry
+        assertFalse(cache.load(ByteBuffer.wrap((CODE + "\n").getBytes(StandardCharsets.UTF_8))).isPresent());
+    }
+
+    @Test
+    public void cachedFilesAreIndexedWithoutLoadingTheirAsts() throws IOException {
+        AstCache cache = new AstCache(temporaryFolder.newFolder("cache").toPath());
+        Path source = temporaryFolder.newFile("foo.to").toPath();
+        Files.write(source, CODE.getBytes(StandardCharsets.UTF_8));
+        assertTrue(new Parser(cache).parseLazily(source).isLoaded());
+
+        LazyTurinFile lazyTurinFile = new Parser(cache).parseLazily(source);
+        assertFalse(lazyTurinFile.isLoaded());
+        SrcSymbolResolver resolver = SrcSymbolResolver.ofLazyFiles(ImmutableList.of(lazyTurinFile));
+        assertTrue(resolver.existPackage("foo"));
+        assertEquals(ImmutableList.of("foo.Point", "foo.sum"), resolver.findSymbolNamesStartingWith("foo."));
+        assertFalse(lazyTurinFile.isLoaded());
+
+        Optional<TypeDefinition> point = resolver.findTypeDefinitionIn("foo.Point", null, resolver);
+        assertTrue(lazyTurinFile.isLoaded());
+        assertSame(lazyTurinFile.getTurinFile().getNodes().get(0), point.get());
+    }
+
+    @Test
+    public void invalidEntriesAreIgnored() throws IOException {
+        AstCache cache = new AstCache(temporaryFolder.newFolder("cache").toPath());
+        ByteBuffer code = ByteBuffer.wrap(CODE.getBytes(StandardCharsets.UTF_8));
+        Files.write(cache.entryPath(code), new byte[]{1, 2, 3});
+        assertFalse(cache.load(code).isPresent());
+        assertFalse(cache.loadSymbols(code).isPresent());
+    }
+
+    @Test
+    public void filesWithSyntaxErrorsAreNotStored() throws IOException {
+        Path cacheDir = temporaryFolder.newFolder("cache").toPath();
+        Path source = temporaryFolder.newFile("foo.to").toPath();
+        Files.write(source, (CODE + "int broken(int a) = \n").getBytes(StandardCharsets.UTF_8));
+
+        ErrorsCounter errorsCounter = new ErrorsCounter();
+        new Parser(new AstCache(cacheDir)).parse(source, errorsCounter);
+        assertTrue(errorsCounter.errors > 0);
+        assertEquals(0, Files.list(cacheDir).count());
+    }
+
+}
@@ -0,0 +1,178 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.TurinTypeDefinition;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class IncrementalParserTest {
+
+    private static final String CODE = "namespace foo\n" +
+            "\n" +
+            "int sum(int a, int b) = a + b\n" +
+            "\n" +
+            "int twice(int a) {\n" +
+            "    return a * 2\n" +
+            "}\n" +
+            "\n" +
+            "int triple(int a) = a * 3\n";
+
+    private void assertSameAsFullParse(IncrementalParser incrementalParser) {
+        TurinFile expected = new Parser().parse(new ANTLRInputStream(incrementalParser.getCode()));
+        TurinFile actual = incrementalParser.getTurinFile();
+        assertEquals(expected.getNamespaceDefinition(), actual.getNamespaceDefinition());
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private List<String> describe(TurinFile turinFile) {
+        return turinFile.findAll(Node.class).stream()
+                .map((n) -> n.getClass().getSimpleName() + " " + positionOf(n))
+                .collect(Collectors.toList());
+    }
+
+    private String positionOf(Node node) {
+        try {
+            return node.getPosition().toString();
+        } catch (IllegalStateException e) {
+            // not all nodes have a position
+            return "-";
+        }
+    }
+
+    @Test
+    public void editInsideAMemberReparsesOnlyThatMember() {
+        IncrementalParser incrementalParser = new IncrementalParser(CODE);
+        List<Node> before = incrementalParser.getTurinFile().getNodes();
+
+        int offset = CODE.indexOf("return a * 2");
+        IncrementalParser.Reparse reparse = incrementalParser.edit(offset, "return a * 2".length(), "val b = a\n    return a + b");
+
+        assertFalse(reparse.isFullReparse());
+        assertSame(before.get(1), reparse.getReplacedMember().get());
+        List<Node> after = incrementalParser.getTurinFile().getNodes();
+        assertSame(before.get(0), after.get(0));
+        assertNotSame(before.get(1), after.get(1));
+        assertSame(before.get(2), after.get(2));
+        assertSame(incrementalParser.getTurinFile(), after.get(1).getParent());
+        assertEquals(10, after.get(2).getPosition().getStart().getLine());
+        assertSameAsFullParse(incrementalParser);
+    }
+
+    @Test
+    public void renamingAFunctionIsVisibleInTheFile() {
+        IncrementalParser incrementalParser = new IncrementalParser(CODE);
+
+        int offset = CODE.indexOf("sum");
+        incrementalParser.edit(offset, "sum".length(), "add");
+
+        assertEquals("add", incrementalParser.getTurinFile().getTopLevelFunctionDefinitions().get(0).getName());
+        assertSameAsFullParse(incrementalParser);
+    }
+
+    @Test
+    public void editOutsideMembersReparsesTheWholeFile() {
+        IncrementalParser incrementalParser = new IncrementalParser(CODE);
+
+        IncrementalParser.Reparse reparse = incrementalParser.edit("namespace ".length(), "foo".length(), "bar");
+
+        assertTrue(reparse.isFullReparse());
+        assertEquals("bar", incrementalParser.getTurinFile().getNamespaceDefinition().getName());
+        assertSameAsFullParse(incrementalParser);
+    }
+
+    @Test
+    public void editSplittingAMemberReparsesTheWholeFile() {
+        IncrementalParser incrementalParser = new IncrementalParser(CODE);
+
+        int offset = CODE.indexOf("int triple");
+        IncrementalParser.Reparse reparse = incrementalParser.edit(offset, 0, "int single() = 1\n");
+
+        assertTrue(reparse.isFullReparse());
+        List<FunctionDefinitionNode> functions = incrementalParser.getTurinFile().getTopLevelFunctionDefinitions();
+        assertEquals(4, functions.size());
+        assertEquals("single", functions.get(2).getName());
+        assertSameAsFullParse(incrementalParser);
+    }
+
+    @Test
+    public void editIntroducingSyntaxErrorsChangesNothing() {
+        IncrementalParser incrementalParser = new IncrementalParser(CODE);
+        TurinFile before = incrementalParser.getTurinFile();
+
+        int offset = CODE.indexOf("int triple");
+        try {
+            incrementalParser.edit(offset, 0, "int broken( = 1\n");
+            fail("The edit should be rejected");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertEquals(CODE, incrementalParser.getCode());
+        assertSame(before, incrementalParser.getTurinFile());
+        // the positions are still computed on the old code
+        IncrementalParser.Reparse reparse = incrementalParser.edit(CODE.indexOf("a * 3"), "a * 3".length(), "a * 4");
+        assertFalse(reparse.isFullReparse());
+        assertSameAsFullParse(incrementalParser);
+    }
+
+    @Test
+    public void syntaxErrorsCanBeCollectedWhileEditing() {
+        List<Position> errors = new ArrayList<>();
+        ErrorCollector errorCollector = (position, description) -> errors.add(position);
+        IncrementalParser incrementalParser = new IncrementalParser(CODE, errorCollector);
+        assertEquals(0, errors.size());
+
+        int offset = CODE.indexOf("int triple");
+        IncrementalParser.Reparse reparse = incrementalParser.edit(offset, 0, "int broken( = 1\n", errorCollector);
+
+        assertTrue(reparse.isFullReparse());
+        assertEquals(1, errors.size());
+        assertEquals(9, errors.get(0).getStart().getLine());
+        assertEquals(CODE.substring(0, offset) + "int broken( = 1\n" + CODE.substring(offset), incrementalParser.getCode());
+        List<FunctionDefinitionNode> functions = incrementalParser.getTurinFile().getTopLevelFunctionDefinitions();
+        assertEquals("sum", functions.get(0).getName());
+        assertEquals("triple", functions.get(functions.size() - 1).getName());
+    }
+
+    @Test
+    public void editInsideAMethodReparsesOnlyThatMethod() {
+        String code = "namespace foo\n" +
+                "\n" +
+                "type Point {\n" +
+                "    String name\n" +
+                "    int foo() = 1\n" +
+                "    int bar() = 2\n" +
+                "}\n" +
+                "\n" +
+                "int triple(int a) = a * 3\n";
+        IncrementalParser incrementalParser = new IncrementalParser(code);
+        TurinTypeDefinition type = incrementalParser.getTurinFile().getTopTypeDefinition("Point").get();
+        List<Node> typeMembersBefore = type.getMembers().stream().collect(Collectors.toList());
+        Node function = incrementalParser.getTurinFile().getNodes().get(1);
+
+        int offset = code.indexOf("= 1");
+        IncrementalParser.Reparse reparse = incrementalParser.edit(offset, "= 1".length(), "{\n        return 1\n    }");
+
+        assertFalse(reparse.isFullReparse());
+        assertSame(typeMembersBefore.get(1), reparse.getReplacedMember().get());
+        assertSame(type, incrementalParser.getTurinFile().getTopTypeDefinition("Point").get());
+        assertSame(function, incrementalParser.getTurinFile().getNodes().get(1));
+        assertSame(typeMembersBefore.get(0), type.getMembers().get(0));
+        assertSame(type, type.getMembers().get(1).getParent());
+        assertSame(typeMembersBefore.get(2), type.getMembers().get(2));
+        assertEquals(8, type.getMembers().get(2).getPosition().getStart().getLine());
+        assertEquals(11, function.getPosition().getStart().getLine());
+        assertSameAsFullParse(incrementalParser);
+    }
+
+}
@@ -13,10 +13,14 @@ import me.tomassetti.turin.parser.ast.statements.BlockStatement;
 import me.tomassetti.turin.parser.ast.statements.ExpressionStatement;
 import me.tomassetti.turin.parser.ast.statements.VariableDeclaration;
 import me.tomassetti.turin.parser.ast.typeusage.ReferenceTypeUsageNode;
+import org.antlr.v4.runtime.ANTLRInputStream;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -110,6 +114,22 @@ public class ParseTreeToAstTest {
         assertEquals(mangaAst(), new ParseTreeToAst().toAst(root));
     }
 
+    @Test
+    public void parsingAPathProducesTheSameAst() throws IOException, URISyntaxException {
+        Path path = Paths.get(this.getClass().getClassLoader().getResource("manga.to").toURI());
+        assertEquals(mangaAst(), new Parser().parse(path));
+    }
+
+    @Test
+    public void streamingConversionDetachesTheMembersFromTheParseTree() throws IOException {
+        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("manga.to");
+        StreamingParseTreeToAst streamingParseTreeToAst = new StreamingParseTreeToAst();
+        TurinParser.TurinFileContext root = new InternalParser().produceParseTree(new ANTLRInputStream(inputStream), streamingParseTreeToAst);
+        assertEquals(mangaAst(), streamingParseTreeToAst.getTurinFile());
+        assertEquals(0, root.fileMember().size());
+        assertEquals(0, root.importDeclaration().size());
+    }
+
     @Test
     public void typeExtendingAndImplementin() throws IOException {
         InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("parser_examples/type_extending_and_implementing.to");
@@ -0,0 +1,38 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParserErrorRecoveryTest {
+
+    @Test
+    public void allSyntaxErrorsAreReportedAndCorrectMembersAreKept() throws IOException {
+        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("parser_examples/syntax_errors.to");
+        List<Position> errors = new ArrayList<>();
+        ErrorCollector errorCollector = (position, description) -> errors.add(position);
+        TurinFile turinFile = new Parser().parse(inputStream, errorCollector);
+
+        assertEquals(2, errors.stream().map((p) -> p.getStart().getLine()).distinct().count());
+        assertEquals(5, errors.get(0).getStart().getLine());
+        assertEquals(11, errors.get(errors.size() - 1).getStart().getLine());
+        assertEquals("foo", turinFile.getNamespaceDefinition().getName());
+        List<String> functions = turinFile.getTopLevelFunctionDefinitions().stream()
+                .map(FunctionDefinitionNode::getName).collect(Collectors.toList());
+        assertEquals(3, functions.size());
+        assertEquals("ok1", functions.get(0));
+        assertEquals("ok2", functions.get(1));
+        assertEquals("ok3", functions.get(2));
+    }
+
+}
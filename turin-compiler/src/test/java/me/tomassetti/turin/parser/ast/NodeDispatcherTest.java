@@ -0,0 +1,47 @@
+package me.tomassetti.turin.parser.ast;
+
+import me.tomassetti.turin.parser.ast.expressions.Expression;
+import me.tomassetti.turin.parser.ast.expressions.InvokableExpr;
+import me.tomassetti.turin.parser.ast.expressions.FunctionCall;
+import me.tomassetti.turin.parser.ast.expressions.ValueReference;
+import me.tomassetti.turin.parser.ast.expressions.literals.IntLiteral;
+import me.tomassetti.turin.parser.ast.expressions.literals.StringLiteral;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class NodeDispatcherTest {
+
+    private final NodeDispatcher<String, Expression, String> dispatcher = NodeDispatcher.<String, Expression, String>builder()
+            .on(IntLiteral.class, (prefix, e) -> prefix + e.getValue())
+            .on(StringLiteral.class, (prefix, e) -> prefix + "'" + e.getValue() + "'")
+            .on(InvokableExpr.class, (prefix, e) -> prefix + "invokable")
+            .build();
+
+    @Test
+    public void theOperationIsChosenByClass() {
+        assertEquals("> 3", dispatcher.dispatch("> ", new IntLiteral(3)));
+        assertEquals("> 'a'", dispatcher.dispatch("> ", new StringLiteral("a")));
+    }
+
+    @Test
+    public void theOperationOfTheSuperclassIsUsedWhenMissing() {
+        FunctionCall functionCall = new FunctionCall(new ValueReference("foo"), Collections.emptyList());
+        assertEquals("invokable", dispatcher.dispatch("", functionCall));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void dispatchingAnUnsupportedNode() {
+        dispatcher.dispatch("", new ValueReference("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registeringTwiceTheSameClass() {
+        NodeDispatcher.<String, Expression, String>builder()
+                .on(IntLiteral.class, (prefix, e) -> prefix)
+                .on(IntLiteral.class, (prefix, e) -> prefix);
+    }
+
+}
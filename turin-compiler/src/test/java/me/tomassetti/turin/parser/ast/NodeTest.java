@@ -0,0 +1,121 @@
+package me.tomassetti.turin.parser.ast;
+
+import me.tomassetti.turin.parser.ast.expressions.Expression;
+import me.tomassetti.turin.parser.ast.expressions.MathOperation;
+import me.tomassetti.turin.parser.ast.expressions.ValueReference;
+import me.tomassetti.turin.parser.ast.expressions.literals.IntLiteral;
+import me.tomassetti.turin.parser.ast.expressions.literals.StringLiteral;
+import me.tomassetti.turin.parser.ast.expressions.StringInterpolation;
+import me.tomassetti.turin.resolvers.InFileSymbolResolver;
+import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
+import me.tomassetti.turin.typesystem.TypeUsage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NodeTest {
+
+    @Test
+    public void positionIsKeptPacked() {
+        IntLiteral literal = new IntLiteral(1);
+        literal.setPosition(Position.create(100000, 3, 100002, 70000));
+        assertEquals(Position.create(100000, 3, 100002, 70000), literal.getPosition());
+        literal.shiftLines(-99999);
+        assertEquals(Position.create(1, 3, 3, 70000), literal.getPosition());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nodeWithoutPosition() {
+        new IntLiteral(1).getPosition();
+    }
+
+    @Test
+    public void childrenAreUpdatedWhenAdded() {
+        StringInterpolation interpolation = new StringInterpolation();
+        StringLiteral first = new StringLiteral("a");
+        interpolation.add(first);
+        assertEquals(1, interpolation.getChildCount());
+        ValueReference second = new ValueReference("b");
+        interpolation.add(second);
+        assertEquals(2, interpolation.getChildCount());
+        assertSame(first, interpolation.getChild(0));
+        assertSame(second, interpolation.getChild(1));
+    }
+
+    private static class CountingExpression extends Expression {
+        private int calculations = 0;
+
+        @Override
+        public TypeUsage calcType() {
+            calculations++;
+            return PrimitiveTypeUsage.INT;
+        }
+
+        @Override
+        public Iterable<Node> getChildren() {
+            return Collections.emptyList();
+        }
+    }
+
+    @Test
+    public void typeIsCalculatedOnlyOnceUntilTheChildrenChange() {
+        CountingExpression counting = new CountingExpression();
+        MathOperation operation = new MathOperation(MathOperation.Operator.SUM, counting, new IntLiteral(1));
+        MathOperation outer = new MathOperation(MathOperation.Operator.SUM, operation, new IntLiteral(2));
+        assertEquals(PrimitiveTypeUsage.INT, outer.calcType());
+        assertEquals(PrimitiveTypeUsage.INT, outer.calcType());
+        assertEquals(1, counting.calculations);
+
+        // moving the child away changes the operation and the expressions containing it
+        new MathOperation(MathOperation.Operator.SUM, counting, new IntLiteral(3));
+        outer.calcType();
+        assertEquals(2, counting.calculations);
+    }
+
+    @Test
+    public void typeIsCalculatedAgainWhenTheResolverChanges() {
+        CountingExpression counting = new CountingExpression();
+        MathOperation operation = new MathOperation(MathOperation.Operator.SUM, counting, new IntLiteral(1));
+        ResolverRegistry.INSTANCE.record(operation, new InFileSymbolResolver(JdkTypeResolver.getInstance()));
+        operation.calcType();
+        operation.calcType();
+        assertEquals(1, counting.calculations);
+
+        ResolverRegistry.INSTANCE.record(operation, new InFileSymbolResolver(JdkTypeResolver.getInstance()));
+        operation.calcType();
+        assertEquals(2, counting.calculations);
+    }
+
+    @Test
+    public void walkVisitsParentsBeforeChildren() {
+        IntLiteral a = new IntLiteral(1);
+        IntLiteral b = new IntLiteral(2);
+        IntLiteral c = new IntLiteral(3);
+        MathOperation inner = new MathOperation(MathOperation.Operator.MULTIPLICATION, b, c);
+        MathOperation outer = new MathOperation(MathOperation.Operator.SUM, a, inner);
+
+        List<Node> visited = new ArrayList<>();
+        outer.walk((n) -> visited.add(n));
+        assertEquals(5, visited.size());
+        assertSame(outer, visited.get(0));
+        assertSame(a, visited.get(1));
+        assertSame(inner, visited.get(2));
+        assertSame(b, visited.get(3));
+        assertSame(c, visited.get(4));
+
+        List<Node> notBelowInner = new ArrayList<>();
+        outer.walk((n) -> {
+            notBelowInner.add(n);
+            return n != inner;
+        });
+        assertEquals(3, notBelowInner.size());
+        assertEquals(3, outer.findAll(IntLiteral.class).size());
+    }
+
+}
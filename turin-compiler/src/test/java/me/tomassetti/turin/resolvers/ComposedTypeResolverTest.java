@@ -0,0 +1,158 @@
+package me.tomassetti.turin.resolvers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.easymock.EasyMock.createMock;
+import static org.junit.Assert.*;
+
+public class ComposedTypeResolverTest {
+
+    private static class NamesTypeResolver implements TypeResolver {
+
+        private final Set<String> names;
+        private final Optional<Set<String>> packages;
+        private final TypeDefinition typeDefinition = createMock(TypeDefinition.class);
+        private int lookups = 0;
+
+        NamesTypeResolver(Set<String> names, Optional<Set<String>> packages) {
+            this.names = names;
+            this.packages = packages;
+        }
+
+        @Override
+        public TypeResolver root() {
+            return null;
+        }
+
+        @Override
+        public void setRoot(TypeResolver root) {
+        }
+
+        @Override
+        public Optional<TypeDefinition> resolveAbsoluteTypeName(String typeName) {
+            lookups++;
+            return names.contains(typeName) ? Optional.of(typeDefinition) : Optional.empty();
+        }
+
+        @Override
+        public Optional<FunctionDefinitionNode> resolveAbsoluteFunctionName(String typeName) {
+            lookups++;
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean existPackage(String packageName) {
+            return packages.isPresent() ? packages.get().contains(packageName) : packageName.equals("java.lang");
+        }
+
+        @Override
+        public Optional<Set<String>> knownPackages() {
+            return packages;
+        }
+
+        @Override
+        public SymbolResolver symbolResolver() {
+            return null;
+        }
+
+        @Override
+        public void setSymbolResolver(SymbolResolver symbolResolver) {
+        }
+    }
+
+    private NamesTypeResolver indexed(String... names) {
+        ImmutableSet.Builder<String> packages = ImmutableSet.builder();
+        for (String name : names) {
+            packages.add(name.substring(0, name.lastIndexOf('.')));
+        }
+        return new NamesTypeResolver(ImmutableSet.copyOf(names), Optional.of(packages.build()));
+    }
+
+    @Test
+    public void onlyTheElementsContainingThePackageAreAsked() {
+        NamesTypeResolver a = indexed("a.A", "a.b.B");
+        NamesTypeResolver c = indexed("c.C");
+        ComposedTypeResolver composed = new ComposedTypeResolver(ImmutableList.of(a, c));
+
+        assertSame(c.typeDefinition, composed.resolveAbsoluteTypeName("c.C").get());
+        assertFalse(composed.resolveAbsoluteTypeName("c.Unexisting").isPresent());
+        assertFalse(composed.resolveAbsoluteTypeName("unexisting.A").isPresent());
+        assertFalse(composed.resolveAbsoluteFunctionName("a.b.f").isPresent());
+        assertEquals(1, a.lookups);
+        assertEquals(2, c.lookups);
+    }
+
+    @Test
+    public void elementsNotListingTheirPackagesAreAlwaysAskedInOrder() {
+        NamesTypeResolver unindexed = new NamesTypeResolver(ImmutableSet.of("a.A", "java.lang.Object"), Optional.empty());
+        NamesTypeResolver a = indexed("a.A");
+        ComposedTypeResolver composed = new ComposedTypeResolver(ImmutableList.of(unindexed, a));
+
+        assertSame(unindexed.typeDefinition, composed.resolveAbsoluteTypeName("a.A").get());
+        assertSame(unindexed.typeDefinition, composed.resolveAbsoluteTypeName("java.lang.Object").get());
+        assertEquals(0, a.lookups);
+        assertEquals(Optional.empty(), composed.knownPackages());
+    }
+
+    @Test
+    public void namesInTheDefaultPackageAreAskedToAllTheElements() {
+        NamesTypeResolver a = indexed("a.A");
+        NamesTypeResolver c = indexed("c.C");
+        ComposedTypeResolver composed = new ComposedTypeResolver(ImmutableList.of(a, c));
+
+        assertFalse(composed.resolveAbsoluteTypeName("A").isPresent());
+        assertEquals(1, a.lookups);
+        assertEquals(1, c.lookups);
+    }
+
+    @Test
+    public void elementsWhichCannotResolveANameAreSkipped() {
+        NamesTypeResolver a = new NamesTypeResolver(ImmutableSet.of("a.A"), Optional.empty()) {
+            @Override
+            public boolean mightResolve(String name) {
+                return name.startsWith("a.");
+            }
+        };
+        NamesTypeResolver c = indexed("c.C");
+        ComposedTypeResolver composed = new ComposedTypeResolver(ImmutableList.of(a, c));
+
+        assertSame(c.typeDefinition, composed.resolveAbsoluteTypeName("c.C").get());
+        assertFalse(composed.resolveAbsoluteTypeName("b.B").isPresent());
+        assertFalse(composed.resolveAbsoluteFunctionName("C").isPresent());
+        assertEquals(0, a.lookups);
+        assertFalse(composed.mightResolve("b.B"));
+        assertTrue(composed.mightResolve("a.B"));
+    }
+
+    @Test
+    public void jdkTypesAreLookedUpInTheIndex() {
+        ComposedTypeResolver composed = new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance()));
+        new InFileSymbolResolver(composed);
+
+        assertFalse(composed.mightResolve("foo.Bar"));
+        assertTrue(composed.mightResolve("java.lang.String"));
+        assertFalse(composed.mightResolve("java.lang.NotInTheJdk"));
+        assertFalse(composed.resolveAbsoluteTypeName("java.lang.NotInTheJdk").isPresent());
+        assertTrue(composed.resolveAbsoluteTypeName("java.lang.String").isPresent());
+    }
+
+    @Test
+    public void existPackage() {
+        ComposedTypeResolver composed = new ComposedTypeResolver(ImmutableList.of(indexed("a.A", "a.b.B"),
+                new NamesTypeResolver(ImmutableSet.of(), Optional.empty())));
+
+        assertTrue(composed.existPackage("a"));
+        assertTrue(composed.existPackage("a.b"));
+        assertTrue(composed.existPackage("java.lang"));
+        assertFalse(composed.existPackage("c"));
+    }
+
+}
@@ -7,15 +7,18 @@ import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.parser.ast.*;
 import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
 import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.symbols.Symbol;
 import me.tomassetti.turin.typesystem.TypeUsage;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockSupport;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class SrcSymbolResolverTest extends EasyMockSupport {
 
@@ -101,4 +104,66 @@ public class SrcSymbolResolverTest extends EasyMockSupport {
         assertEquals(false, typeDefinition.isPresent());
     }
 
+    @Test
+    public void findSymbolsInPackage() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/basicManga.to"));
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(ImmutableList.of(turinFile));
+
+        List<Symbol> symbols = srcSymbolResolver.findSymbolsInPackage("manga");
+        assertEquals(2, symbols.size());
+        assertEquals("manga.MangaCharacter", ((TypeDefinition) symbols.get(0)).getQualifiedName());
+        assertEquals("name", ((PropertyDefinition) symbols.get(1)).getName());
+        assertEquals(0, srcSymbolResolver.findSymbolsInPackage("not_manga").size());
+    }
+
+    @Test
+    public void findTypeInSourcePackage() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/basicManga.to"));
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(ImmutableList.of(turinFile));
+
+        assertEquals("manga.MangaCharacter", srcSymbolResolver.findTypeInSourcePackage("manga", "MangaCharacter").get().getQualifiedName());
+        assertEquals(false, srcSymbolResolver.findTypeInSourcePackage("manga", "name").isPresent());
+        assertEquals(false, srcSymbolResolver.findTypeInSourcePackage("not_manga", "MangaCharacter").isPresent());
+    }
+
+    @Test
+    public void findSymbolNamesStartingWith() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/basicManga.to"));
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(ImmutableList.of(turinFile));
+
+        assertEquals(ImmutableList.of("manga.MangaCharacter", "manga.name"), srcSymbolResolver.findSymbolNamesStartingWith("man"));
+        assertEquals(ImmutableList.of("manga.MangaCharacter"), srcSymbolResolver.findSymbolNamesStartingWith("manga.M"));
+        assertEquals(ImmutableList.of(), srcSymbolResolver.findSymbolNamesStartingWith("manga.x"));
+        assertEquals(ImmutableList.of(), srcSymbolResolver.findSymbolNamesStartingWith("manga.name.x"));
+    }
+
+    @Test
+    public void memberReplaced() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/basicManga.to"));
+        TurinFile otherFile = new Parser().parse(this.getClass().getResourceAsStream("/basicManga.to"));
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(ImmutableList.of(turinFile));
+        Node oldType = turinFile.getNodes().stream().filter((n) -> n instanceof TurinTypeDefinition).findFirst().get();
+        Node newProperty = otherFile.getNodes().stream().filter((n) -> n instanceof PropertyDefinition).findFirst().get();
+
+        srcSymbolResolver.memberReplaced(oldType, newProperty);
+
+        assertEquals(false, srcSymbolResolver.findSymbol("manga.MangaCharacter", NoContext.getInstance()).isPresent());
+        assertSame(newProperty, srcSymbolResolver.findSymbol("manga.name", NoContext.getInstance()).get());
+        assertEquals(true, srcSymbolResolver.existPackage("manga"));
+        assertEquals(false, srcSymbolResolver.existPackage("man"));
+    }
+
+    @Test
+    public void findDirectSubclassesInSourcesDoesNotRegisterResolvers() throws IOException {
+        TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/type_extending.to"));
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(ImmutableList.of(turinFile));
+        new ComposedSymbolResolver(ImmutableList.of(new InFileSymbolResolver(JdkTypeResolver.getInstance()), srcSymbolResolver));
+
+        List<TypeDefinition> subclasses = srcSymbolResolver.findDirectSubclassesInSources("foo.bar.B").get();
+
+        assertEquals(1, subclasses.size());
+        assertEquals("foo.bar.A", subclasses.get(0).getQualifiedName());
+        assertEquals(false, ResolverRegistry.INSTANCE.findResolver(turinFile).isPresent());
+    }
+
 }
@@ -2,21 +2,29 @@ package me.tomassetti.turin.resolvers.compiled;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.google.common.collect.ImmutableList;
+import me.tomassetti.jvm.JvmMethodDefinition;
 import me.tomassetti.turin.classloading.ClassFileDefinition;
 import me.tomassetti.turin.compiler.*;
 import me.tomassetti.turin.compiler.Compiler;
 import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.resolvers.ComposedSymbolResolver;
+import me.tomassetti.turin.resolvers.ComposedTypeResolver;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.TurinFile;
 import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.symbols.FormalParameter;
+import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
+import me.tomassetti.turin.typesystem.TypeIdSet;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -98,6 +106,84 @@ public class DirClassTypeResolverTest extends AbstractCompilerTest {
         assertEquals("path", paramsTypeParse.get(0).getName());
     }
 
+    @Test
+    public void loadedFunctionCanBeReadUsingAsm() throws IOException {
+        DirClassesTypeResolver dirClassesTypeResolver = new DirClassesTypeResolver(tmpDir);
+        dirClassesTypeResolver.setClassReader(CompiledClassReader.ASM);
+        new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance(),
+                new JarTypeResolver(new File("src/test/resources/jars/javaparser-core-2.2.1.jar")), dirClassesTypeResolver));
+        FunctionDefinitionNode fatalError = dirClassesTypeResolver.resolveAbsoluteFunctionName("me.tomassetti.javaformatter.fatalError").get();
+        FunctionDefinitionNode parse = dirClassesTypeResolver.resolveAbsoluteFunctionName("me.tomassetti.javaformatter.parse").get();
+
+        assertEquals(true, fatalError.getReturnType().isVoid());
+        assertEquals(1, fatalError.getParameters().size());
+        assertEquals("msg", fatalError.getParameters().get(0).getName());
+        assertEquals(String.class.getCanonicalName(), fatalError.getParameters().get(0).getType().asReferenceTypeUsage().getQualifiedName());
+
+        assertEquals(CompilationUnit.class.getCanonicalName(), parse.getReturnType().asReferenceTypeUsage().getQualifiedName());
+        assertEquals(1, parse.getParameters().size());
+        assertEquals("path", parse.getParameters().get(0).getName());
+        assertEquals(false, dirClassesTypeResolver.resolveAbsoluteFunctionName("me.tomassetti.javaformatter.unexisting").isPresent());
+    }
+
+    @Test
+    public void defaultParamsOfLoadedTypeCanBeReadUsingAsm() throws IOException {
+        DirClassesTypeResolver dirClassesTypeResolver = new DirClassesTypeResolver(tmpDir);
+        dirClassesTypeResolver.setClassReader(CompiledClassReader.ASM);
+        new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance(), dirClassesTypeResolver));
+        TypeDefinition options = dirClassesTypeResolver.resolveAbsoluteTypeName("me.tomassetti.javaformatter.Options").get();
+
+        assertEquals("me.tomassetti.javaformatter.Options", options.getQualifiedName());
+        assertEquals(true, options.isClass());
+        assertEquals(1, options.getConstructors().size());
+        List<? extends FormalParameter> params = options.getConstructors().get(0).getFormalParameters();
+        assertEquals(3, params.size());
+        assertEquals("newLinesAfterLBracket", params.get(0).getName());
+        assertEquals("useTabs", params.get(1).getName());
+        assertEquals("indentationSize", params.get(2).getName());
+        assertEquals(true, params.stream().allMatch((p) -> p.hasDefaultValue()));
+        assertEquals(PrimitiveTypeUsage.INT, params.get(2).getType());
+    }
+
+    @Test
+    public void membersAndAncestorsOfLoadedTypeCanBeReadUsingAsm() throws IOException {
+        DirClassesTypeResolver dirClassesTypeResolver = new DirClassesTypeResolver(tmpDir);
+        dirClassesTypeResolver.setClassReader(CompiledClassReader.ASM);
+        new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance(), dirClassesTypeResolver));
+        TypeDefinition options = dirClassesTypeResolver.resolveAbsoluteTypeName("me.tomassetti.javaformatter.Options").get();
+
+        // the fields of Turin types are private: only their accessors are visible
+        assertEquals(false, options.hasField("indentationSize", false));
+        assertEquals(true, options.hasField("getIndentationSize", false));
+        // inherited from Object
+        assertEquals(true, options.hasField("hashCode", false));
+        assertEquals(false, options.hasField("unexisting", false));
+
+        assertEquals(TypeIdSet.of(ImmutableList.of("java.lang.Object")), options.getAncestorIds());
+        assertEquals(1, options.getAllAncestors().size());
+        assertEquals("java.lang.Object", options.getAllAncestors().get(0).getQualifiedName());
+        assertEquals(true, options.isSubtypeOf("java.lang.Object"));
+    }
+
+    @Test
+    public void methodsOfLoadedTypeCanBeReadUsingAsm() throws IOException {
+        DirClassesTypeResolver dirClassesTypeResolver = new DirClassesTypeResolver(tmpDir);
+        dirClassesTypeResolver.setClassReader(CompiledClassReader.ASM);
+        new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance(), dirClassesTypeResolver));
+        TypeDefinition options = dirClassesTypeResolver.resolveAbsoluteTypeName("me.tomassetti.javaformatter.Options").get();
+
+        assertEquals(true, options.getMethod("getIndentationSize", false, Collections.emptyMap()).isPresent());
+        assertEquals(false, options.getMethod("getIndentationSize", true, Collections.emptyMap()).isPresent());
+        assertEquals(PrimitiveTypeUsage.INT, options.findMethod("getIndentationSize", Collections.emptyList(), false).get().getReturnType());
+        JvmMethodDefinition getter = options.findMethodFor("getIndentationSize", Collections.emptyList(), false);
+        assertEquals("me/tomassetti/javaformatter/Options", getter.getOwnerInternalName());
+        assertEquals("()I", getter.getDescriptor());
+
+        // inherited from Object
+        assertEquals(true, options.getMethod("notify", false, Collections.emptyMap()).isPresent());
+        assertEquals("java/lang/Object", options.findMethodFor("notify", Collections.emptyList(), false).getOwnerInternalName());
+    }
+
     @Test
     public void referenceToFunctionInClasses() throws IOException {
         TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/ref_to_function_in_classes.to"));
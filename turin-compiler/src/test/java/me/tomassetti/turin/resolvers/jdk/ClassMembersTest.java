@@ -0,0 +1,49 @@
+package me.tomassetti.turin.resolvers.jdk;
+
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.resolvers.InFileSymbolResolver;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ClassMembersTest {
+
+    @Test
+    public void fieldsAreIndexedByNameAndStaticness() {
+        ClassMembers members = ClassMembers.of(Integer.class);
+        assertTrue(members.field("MAX_VALUE", true).isPresent());
+        assertFalse(members.field("MAX_VALUE", false).isPresent());
+        assertFalse(members.field("value", false).isPresent());
+        assertSame(members, ClassMembers.of(Integer.class));
+    }
+
+    @Test
+    public void methodsAreIndexedByNameAndStaticness() {
+        ClassMembers members = ClassMembers.of(String.class);
+        List<Method> valueOf = members.methods("valueOf", true);
+        assertTrue(valueOf.size() > 1);
+        assertEquals(valueOf, members.methodsNamed("valueOf"));
+        assertTrue(members.methods("valueOf", false).isEmpty());
+        assertEquals(1, members.methods("length", false).size());
+        assertTrue(members.methods("unexisting", false).isEmpty());
+        assertEquals(String.class.getConstructors().length, members.constructors().size());
+    }
+
+    @Test
+    public void typeDefinitionsUseTheIndexes() {
+        SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
+        TypeDefinition integer = ReflectionTypeDefinitionFactory.getInstance().getTypeDefinition(Integer.class, resolver);
+        assertTrue(integer.hasField("MAX_VALUE", true));
+        assertTrue(integer.hasField("parseInt", true));
+        assertFalse(integer.hasField("parseInt", false));
+        assertSame(PrimitiveTypeUsage.INT, integer.getFieldType("MAX_VALUE", true));
+        assertSame(integer.getConstructors(), integer.getConstructors());
+        assertEquals(Integer.class.getConstructors().length, integer.getConstructors().size());
+    }
+
+}
@@ -0,0 +1,84 @@
+package me.tomassetti.turin.resolvers.jdk;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class JdkIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static void writeJar(File jar, String... entries) throws IOException {
+        jar.getParentFile().mkdirs();
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jar))) {
+            for (String entry : entries) {
+                outputStream.putNextEntry(new JarEntry(entry));
+                outputStream.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    public void containsPackage() {
+        JdkIndex index = JdkIndex.runningJdk();
+        assertTrue(index.containsPackage("java.lang"));
+        assertTrue(index.containsPackage("java.util.concurrent"));
+        assertFalse(index.containsPackage("java"));
+        assertFalse(index.containsPackage("me.tomassetti.turin"));
+    }
+
+    @Test
+    public void containsType() {
+        JdkIndex index = JdkIndex.runningJdk();
+        assertTrue(index.containsType("java.lang.String"));
+        assertTrue(index.containsType("java.util.Map$Entry"));
+        assertTrue(index.containsType("java.util.concurrent.ConcurrentHashMap"));
+        assertFalse(index.containsType("java.lang.NotInTheJdk"));
+        assertFalse(index.containsType("java.util.concurrent"));
+        assertFalse(index.containsType("String"));
+        assertFalse(index.containsType(JdkIndexTest.class.getName()));
+    }
+
+    @Test
+    public void allTheJarsOfJdksWithoutModulesAreIndexed() throws IOException {
+        File javaHome = temporaryFolder.newFolder("jdk");
+        File lib = new File(javaHome, "jre/lib");
+        writeJar(new File(lib, "rt.jar"), "java/lang/Object.class", "java/lang/String.class", "sun/misc/Unsafe.class");
+        writeJar(new File(lib, "jce.jar"), "javax/crypto/Cipher.class");
+        writeJar(new File(lib, "ext/extension.jar"), "javax/extension/Extension.class");
+
+        JdkIndex index = JdkIndex.of(javaHome);
+        assertTrue(index.containsType("java.lang.String"));
+        assertTrue(index.containsType("javax.crypto.Cipher"));
+        assertTrue(index.containsType("javax.extension.Extension"));
+        assertTrue(index.containsPackage("javax.crypto"));
+        assertFalse(index.containsPackage("sun.misc"));
+        // only the running JDK is looked up in the class loader
+        assertFalse(index.containsType("java.util.List"));
+
+        JdkTypeResolver resolver = new JdkTypeResolver(index);
+        assertTrue(resolver.existPackage("javax.crypto"));
+        assertFalse(JdkTypeResolver.getInstance().existPackage("javax.extension"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void directoriesWithoutAJdkAreRejected() throws IOException {
+        JdkIndex.of(temporaryFolder.newFolder("empty"));
+    }
+
+    @Test
+    public void packagesNotLoadedYetExist() {
+        assertTrue(JdkTypeResolver.getInstance().existPackage("javax.sound.midi.spi"));
+        assertFalse(JdkTypeResolver.getInstance().existPackage("javax.sound.midi.unexisting"));
+    }
+
+}
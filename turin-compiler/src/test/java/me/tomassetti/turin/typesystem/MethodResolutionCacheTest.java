@@ -0,0 +1,157 @@
+package me.tomassetti.turin.typesystem;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.jvm.JvmMethodDefinition;
+import me.tomassetti.jvm.JvmType;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.expressions.ActualParam;
+import me.tomassetti.turin.parser.ast.expressions.Expression;
+import me.tomassetti.turin.resolvers.InFileSymbolResolver;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import me.tomassetti.turin.resolvers.jdk.ReflectionTypeDefinitionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MethodResolutionCacheTest {
+
+    private static final JvmType STRING = new JvmType("Ljava/lang/String;");
+
+    private SymbolResolver resolver;
+    private MethodResolutionCache<String> cache;
+    private AtomicInteger resolutions;
+
+    @Before
+    public void setup() {
+        resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
+        cache = new MethodResolutionCache<>();
+        resolutions = new AtomicInteger();
+    }
+
+    private Optional<String> resolve(SymbolResolver resolver, String name, boolean staticContext, List<JvmType> argsTypes) {
+        return cache.resolve(resolver, "java.io.PrintStream", name, staticContext, argsTypes, () -> {
+            resolutions.incrementAndGet();
+            return Optional.of(name + argsTypes);
+        });
+    }
+
+    @Test
+    public void theSameCallIsResolvedOnce() {
+        assertEquals(Optional.of("println" + ImmutableList.of(STRING)), resolve(resolver, "println", false, ImmutableList.of(STRING)));
+        assertEquals(Optional.of("println" + ImmutableList.of(STRING)), resolve(resolver, "println", false, ImmutableList.of(new JvmType("Ljava/lang/String;"))));
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void differentCallsAreResolvedSeparately() {
+        resolve(resolver, "println", false, ImmutableList.of(STRING));
+        resolve(resolver, "println", false, ImmutableList.of(JvmType.INT));
+        resolve(resolver, "println", true, ImmutableList.of(STRING));
+        resolve(resolver, "print", false, ImmutableList.of(STRING));
+        resolve(new InFileSymbolResolver(JdkTypeResolver.getInstance()), "println", false, ImmutableList.of(STRING));
+        assertEquals(5, resolutions.get());
+    }
+
+    @Test
+    public void failedResolutionsAreRemembered() {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Optional.empty(), cache.resolve(resolver, "java.io.PrintStream", "foo", false, ImmutableList.of(), () -> {
+                resolutions.incrementAndGet();
+                return Optional.empty();
+            }));
+        }
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void exceptionsAreNotRemembered() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.resolve(resolver, "java.io.PrintStream", "foo", false, ImmutableList.of(), () -> {
+                    resolutions.incrementAndGet();
+                    throw new IllegalStateException();
+                });
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void invalidatedOutcomesAreResolvedAgain() {
+        resolve(resolver, "println", false, ImmutableList.of(STRING));
+        MethodResolutionCache.invalidate(resolver.getRoot());
+        resolve(resolver, "println", false, ImmutableList.of(STRING));
+        resolve(resolver, "println", false, ImmutableList.of(STRING));
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void outcomesOfOtherRootsAreNotInvalidated() {
+        SymbolResolver otherResolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
+        resolve(resolver, "println", false, ImmutableList.of(STRING));
+        resolve(otherResolver, "println", false, ImmutableList.of(STRING));
+        MethodResolutionCache.invalidate(otherResolver.getRoot());
+        resolve(resolver, "println", false, ImmutableList.of(STRING));
+        assertEquals(2, resolutions.get());
+        resolve(otherResolver, "println", false, ImmutableList.of(STRING));
+        assertEquals(3, resolutions.get());
+    }
+
+    private static class TypedExpression extends Expression {
+        private final TypeUsage type;
+
+        private TypedExpression(TypeUsage type) {
+            this.type = type;
+        }
+
+        @Override
+        public TypeUsage calcType() {
+            return type;
+        }
+
+        @Override
+        public Iterable<Node> getChildren() {
+            return Collections.emptyList();
+        }
+    }
+
+    @Test
+    public void onlyArgumentsOfErasedTypesIdentifyTheResolution() {
+        TypeDefinition list = ReflectionTypeDefinitionFactory.getInstance().getTypeDefinition(List.class, resolver);
+        ReferenceTypeUsage rawList = new ReferenceTypeUsage(list);
+        ReferenceTypeUsage listOfStrings = new ReferenceTypeUsage(list, ImmutableList.of(ReferenceTypeUsage.STRING(resolver)));
+
+        assertEquals(Optional.of(ImmutableList.of(JvmType.INT, new JvmType("Ljava/util/List;"))), MethodResolutionCache.argsTypes(ImmutableList.of(
+                new ActualParam(new TypedExpression(PrimitiveTypeUsage.INT)), new ActualParam(new TypedExpression(rawList)))));
+        // List<String> and List<Integer> have the same JVM type but can select different overloads
+        assertEquals(Optional.empty(), MethodResolutionCache.argsTypes(ImmutableList.of(
+                new ActualParam(new TypedExpression(listOfStrings)))));
+        assertEquals(Optional.empty(), MethodResolutionCache.argsTypes(ImmutableList.of(
+                new ActualParam(new TypedExpression(new ArrayTypeUsage(listOfStrings))))));
+        assertEquals(Optional.empty(), MethodResolutionCache.argsTypes(ImmutableList.of(
+                new ActualParam("foo", new TypedExpression(PrimitiveTypeUsage.INT)))));
+    }
+
+    @Test
+    public void overloadsOfJdkClassesAreResolvedConsistently() {
+        TypeDefinition string = ReferenceTypeUsage.STRING(resolver).getTypeDefinition();
+        for (int i = 0; i < 2; i++) {
+            JvmMethodDefinition substringFrom = string.findMethodFor("substring", ImmutableList.of(JvmType.INT), false);
+            assertEquals("(I)Ljava/lang/String;", substringFrom.getDescriptor());
+            JvmMethodDefinition substringBetween = string.findMethodFor("substring", ImmutableList.of(JvmType.INT, JvmType.INT), false);
+            assertEquals("(II)Ljava/lang/String;", substringBetween.getDescriptor());
+        }
+    }
+
+}
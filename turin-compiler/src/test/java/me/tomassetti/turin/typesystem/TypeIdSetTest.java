@@ -0,0 +1,73 @@
+package me.tomassetti.turin.typesystem;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.resolvers.InFileSymbolResolver;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.resolvers.jdk.ReflectionTypeDefinitionFactory;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class TypeIdSetTest {
+
+    @Test
+    public void theIdsOfNamesAreStable() {
+        assertEquals(TypeIdSet.idOf("foo.A"), TypeIdSet.idOf("foo.A"));
+        assertNotEquals(TypeIdSet.idOf("foo.A"), TypeIdSet.idOf("foo.B"));
+    }
+
+    @Test
+    public void contains() {
+        TypeIdSet set = TypeIdSet.of(ImmutableList.of("foo.A", "foo.B"));
+        assertEquals(2, set.size());
+        assertTrue(set.contains("foo.A"));
+        assertTrue(set.contains("foo.B"));
+        assertFalse(set.contains("foo.C"));
+        assertFalse(set.contains("foo.NeverSeenBefore"));
+        assertFalse(TypeIdSet.EMPTY.contains("foo.A"));
+        assertEquals(set, TypeIdSet.of(ImmutableList.of("foo.B", "foo.A", "foo.B")));
+    }
+
+    @Test
+    public void with() {
+        TypeIdSet set = TypeIdSet.of(ImmutableList.of("foo.A"));
+        TypeIdSet extended = set.with("foo.B");
+        assertEquals(TypeIdSet.of(ImmutableList.of("foo.A", "foo.B")), extended);
+        assertFalse(set.contains("foo.B"));
+        assertEquals(extended, extended.with("foo.A"));
+    }
+
+    @Test
+    public void union() {
+        TypeIdSet first = TypeIdSet.of(ImmutableList.of("foo.A", "foo.B"));
+        TypeIdSet second = TypeIdSet.of(ImmutableList.of("foo.B", "foo.C"));
+        assertEquals(TypeIdSet.of(ImmutableList.of("foo.A", "foo.B", "foo.C")), first.union(second));
+        assertEquals(2, first.size());
+        assertEquals(first, first.union(TypeIdSet.EMPTY));
+    }
+
+    @Test
+    public void ancestorsOfJdkClasses() {
+        SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
+        TypeDefinition arrayList = ReflectionTypeDefinitionFactory.getInstance().getTypeDefinition(ArrayList.class, resolver);
+        TypeIdSet calculated = TypeIdSet.of(ImmutableList.of("java.util.AbstractList", "java.util.AbstractCollection",
+                "java.lang.Object", "java.util.List", "java.util.Collection", "java.lang.Iterable",
+                "java.util.RandomAccess", "java.lang.Cloneable", "java.io.Serializable"));
+        assertEquals(calculated, arrayList.getAncestorIds());
+        assertSame(arrayList.getAncestorIds(), arrayList.getAncestorIds());
+
+        assertTrue(arrayList.isSubtypeOf("java.util.ArrayList"));
+        assertTrue(arrayList.isSubtypeOf("java.lang.Iterable"));
+        assertFalse(arrayList.isSubtypeOf("java.lang.String"));
+
+        ReferenceTypeUsage arrayListUsage = new ReferenceTypeUsage(arrayList);
+        assertTrue(arrayListUsage.canBeAssignedTo(ReferenceTypeUsage.OBJECT(resolver)));
+        assertFalse(arrayListUsage.canBeAssignedTo(ReferenceTypeUsage.STRING(resolver)));
+        assertFalse(ReferenceTypeUsage.OBJECT(resolver).canBeAssignedTo(arrayListUsage));
+    }
+
+}
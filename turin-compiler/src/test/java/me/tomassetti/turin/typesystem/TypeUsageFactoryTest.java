@@ -0,0 +1,54 @@
+package me.tomassetti.turin.typesystem;
+
+import me.tomassetti.turin.resolvers.InFileSymbolResolver;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import me.tomassetti.turin.resolvers.jdk.ReflectionTypeDefinitionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TypeUsageFactoryTest {
+
+    private SymbolResolver resolver;
+
+    @Before
+    public void setup() {
+        resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
+    }
+
+    @Test
+    public void referencesAreCanonical() {
+        assertSame(ReferenceTypeUsage.STRING(resolver), ReferenceTypeUsage.STRING(resolver));
+        assertSame(ReferenceTypeUsage.OBJECT(resolver), ReflectionTypeDefinitionFactory.toTypeUsage(Object.class, resolver));
+        assertTrue(ReferenceTypeUsage.STRING(resolver).isCanonical());
+        assertTrue(ReferenceTypeUsage.STRING(resolver).sameType(ReferenceTypeUsage.STRING(resolver)));
+        assertFalse(ReferenceTypeUsage.STRING(resolver).sameType(ReferenceTypeUsage.OBJECT(resolver)));
+    }
+
+    @Test
+    public void arraysAndPrimitivesAreCanonical() {
+        TypeUsage strings = ReflectionTypeDefinitionFactory.toTypeUsage(String[][].class, resolver);
+        assertSame(strings, ReflectionTypeDefinitionFactory.toTypeUsage(String[][].class, resolver));
+        assertSame(ReferenceTypeUsage.STRING(resolver), strings.asArrayTypeUsage().getComponentType().asArrayTypeUsage().getComponentType());
+        assertSame(PrimitiveTypeUsage.INT, ReflectionTypeDefinitionFactory.toTypeUsage(int.class, resolver));
+        assertSame(resolver.getTypeUsageFactory().arrayOf(PrimitiveTypeUsage.INT), ReflectionTypeDefinitionFactory.toTypeUsage(int[].class, resolver));
+    }
+
+    @Test
+    public void eachResolverHasItsOwnInstances() {
+        SymbolResolver otherResolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
+        assertNotSame(ReferenceTypeUsage.STRING(resolver), ReferenceTypeUsage.STRING(otherResolver));
+        assertTrue(ReferenceTypeUsage.STRING(resolver).sameType(ReferenceTypeUsage.STRING(otherResolver)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void canonicalInstancesCannotBeChanged() {
+        ReferenceTypeUsage list = resolver.getTypeUsageFactory().reference(List.class);
+        list.getTypeParameterValues().add("E", ReferenceTypeUsage.STRING(resolver));
+    }
+
+}
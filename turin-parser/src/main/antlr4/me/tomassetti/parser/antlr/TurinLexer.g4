@@ -52,6 +52,7 @@ VAL_KW              : 'val';
 HAS_KW              : 'has';
 ABSTRACT_KW         : 'abstract';
 SHARED_KW           : 'shared';
+IMMUTABLE_KW        : 'immutable';
 IMPORT_KW           : 'import';
 AS_KW               : 'as';
 VOID_KW             : 'void';
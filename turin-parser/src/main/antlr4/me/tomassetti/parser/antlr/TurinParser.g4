@@ -144,7 +144,7 @@ typeMember:
 
 typeDeclaration:
     (annotations+=annotationUsage nls)*
-    TYPE_KW name=TYPE_ID
+    (immutable=IMMUTABLE_KW)? TYPE_KW name=TYPE_ID
         (EXTENDS_KW baseType=typeUsage)?
         (IMPLEMENTS_KW interfaze+=typeUsage (commaNl interfaze+=typeUsage)*)?
         LBRACKET nls
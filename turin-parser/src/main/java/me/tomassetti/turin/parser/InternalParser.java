@@ -1,29 +1,158 @@
 package me.tomassetti.turin.parser;
 
-import me.tomassetti.parser.antlr.TurinLexer;
 import me.tomassetti.parser.antlr.TurinParser;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Produce the parse tree using the two-stage strategy suggested for ANTLR 4: we first try the faster SLL
+ * prediction mode, bailing out at the first error, and only when it fails we parse again using full LL.
+ * The result is the same: SLL can only fail on input which LL would accept or on syntax errors.
+ *
+ * Lexers and parsers are taken from a {@link ParserPool}, so an instance can be used by many threads.
+ */
 public class InternalParser {
 
+    private static final AtomicLong sllParses = new AtomicLong();
+    private static final AtomicLong llFallbacks = new AtomicLong();
+
+    private final ParserPool parserPool;
+
+    public InternalParser() {
+        this(ParserPool.getInstance());
+    }
+
+    public InternalParser(ParserPool parserPool) {
+        this.parserPool = parserPool;
+    }
+
     public TurinParser.TurinFileContext produceParseTree(InputStream inputStream) throws IOException {
-        CharStream charStream = new ANTLRInputStream(inputStream);
-        TurinLexer l = new TurinLexer(charStream);
-        TurinParser p = new TurinParser(new CommonTokenStream(l));
-        p.addErrorListener(new BaseErrorListener() {
-            @Override
-            public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
-                throw new IllegalStateException("failed to parse at  L " + line + ", C " + charPositionInLine + " due to " + msg, e);
+        return produceParseTree(new ANTLRInputStream(inputStream));
+    }
+
+    public TurinParser.TurinFileContext produceParseTree(CharStream charStream) {
+        return produceParseTree(charStream, null);
+    }
+
+    /**
+     * The listener, if present, is notified while the tree is built. Note that it could see the beginning of the
+     * file more than once, when the first parsing attempt fails.
+     */
+    public TurinParser.TurinFileContext produceParseTree(CharStream charStream, ParseTreeListener listener) {
+        return produceParseTree(charStream, listener, null);
+    }
+
+    /**
+     * When an error listener is given, syntax and lexical errors are reported to it and the parser recovers from
+     * them, producing a parse tree for the whole file. Otherwise an exception is thrown at the first error.
+     */
+    public TurinParser.TurinFileContext produceParseTree(CharStream charStream, ParseTreeListener listener, ANTLRErrorListener errorListener) {
+        return parse(charStream, listener, errorListener, (pooledParser) -> {}, TurinParser::turinFile);
+    }
+
+    /**
+     * Parse the text of a single member of a file (e.g., a function or a type), as it appears starting at the given
+     * line and column of the file. The positions of the tokens refer to the whole file.
+     * An exception is thrown if the text is not exactly one member.
+     */
+    public TurinParser.FileMemberContext produceFileMemberParseTree(CharStream charStream, int line, int column) {
+        return parseFragment(charStream, line, column, TurinParser::fileMember);
+    }
+
+    /**
+     * Parse the text of a single member of a type (e.g., a method or a property), as it appears starting at the
+     * given line and column of the file. The positions of the tokens refer to the whole file.
+     * An exception is thrown if the text is not exactly one member.
+     */
+    public TurinParser.TypeMemberContext produceTypeMemberParseTree(CharStream charStream, int line, int column) {
+        return parseFragment(charStream, line, column, TurinParser::typeMember);
+    }
+
+    private <T extends ParserRuleContext> T parseFragment(CharStream charStream, int line, int column, Function<TurinParser, T> rule) {
+        return parse(charStream, null, null, (pooledParser) -> {
+            pooledParser.lexer.setLine(line);
+            pooledParser.lexer.setCharPositionInLine(column);
+        }, (p) -> {
+            T context = rule.apply(p);
+            if (p.getCurrentToken().getType() != Token.EOF) {
+                throw new IllegalStateException("unexpected text after the member at L " + p.getCurrentToken().getLine()
+                        + ", C " + p.getCurrentToken().getCharPositionInLine());
+            }
+            return context;
+        });
+    }
+
+    private <T extends ParserRuleContext> T parse(CharStream charStream, ParseTreeListener listener, ANTLRErrorListener errorListener,
+                                                  Consumer<ParserPool.PooledParser> setup, Function<TurinParser, T> rule) {
+        return parserPool.withParser(charStream, (pooledParser) -> {
+            TurinParser p = pooledParser.parser;
+            T result;
+            setup.accept(pooledParser);
+            if (listener != null) {
+                p.addParseListener(listener);
             }
+            if (errorListener != null) {
+                pooledParser.lexer.removeErrorListeners();
+                pooledParser.lexer.addErrorListener(errorListener);
+            }
+            p.removeErrorListeners();
+            p.setErrorHandler(new BailErrorStrategy());
+            p.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            try {
+                result = rule.apply(p);
+                sllParses.incrementAndGet();
+            } catch (ParseCancellationException e) {
+                llFallbacks.incrementAndGet();
+                pooledParser.tokens.seek(0);
+                p.reset();
+                if (errorListener == null) {
+                    p.addErrorListener(ConsoleErrorListener.INSTANCE);
+                    p.addErrorListener(new BaseErrorListener() {
+                        @Override
+                        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+                            throw new IllegalStateException("failed to parse at  L " + line + ", C " + charPositionInLine + " due to " + msg, e);
+                        }
+                    });
+                } else {
+                    p.addErrorListener(errorListener);
+                }
+                p.setErrorHandler(new DefaultErrorStrategy());
+                p.getInterpreter().setPredictionMode(PredictionMode.LL);
+                result = rule.apply(p);
+            }
+            if (pooledParser.lexer._mode != 0) {
+                if (errorListener == null) {
+                    throw new RuntimeException("Lexical error");
+                }
+                // the file ended in the middle of something (e.g., a string)
+                Token eof = pooledParser.tokens.get(pooledParser.tokens.size() - 1);
+                errorListener.syntaxError(pooledParser.lexer, null, eof.getLine(), eof.getCharPositionInLine(),
+                        "unexpected end of file in " + pooledParser.lexer.getModeNames()[pooledParser.lexer._mode], null);
+            }
+            return result;
         });
-        TurinParser.TurinFileContext turinFileContext = p.turinFile();
-        if (l._mode != 0) {
-            throw new RuntimeException("Lexical error");
-        }
-        return turinFileContext;
+    }
+
+    /**
+     * Number of files parsed successfully using only the SLL prediction mode.
+     */
+    public static long getSllParses() {
+        return sllParses.get();
+    }
+
+    /**
+     * Number of files which had to be parsed again using the full LL prediction mode.
+     */
+    public static long getLlFallbacks() {
+        return llFallbacks.get();
     }
 
 }
@@ -0,0 +1,242 @@
+package me.tomassetti.turin.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A CharStream reading a UTF-8 file mapped in memory, instead of copying it into a char array as
+ * ANTLRInputStream does. Characters are decoded when requested.
+ *
+ * Like ANTLRInputStream, indexes refer to UTF-16 chars, so supplementary characters take two positions.
+ * Files made only of ASCII characters are accessed directly. Otherwise we remember where in the buffer
+ * every block of chars starts: this permits to seek back cheaply, while reading forward just continues
+ * decoding from the last position.
+ */
+public class MappedCharStream implements CharStream {
+
+    private static final int BLOCK_BITS = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int REPLACEMENT_CHAR = 0xFFFD;
+
+    private final ByteBuffer buffer;
+    private final String sourceName;
+    private final int size;
+    private final boolean ascii;
+
+    // For each block: index of the char and position of the byte where the code point covering the first
+    // char of the block starts
+    private final int[] blockStartChars;
+    private final int[] blockStartBytes;
+
+    private int index = 0;
+
+    // position of the last code point decoded
+    private int cursorChar;
+    private int cursorByte;
+
+    // result of the last call to decode
+    private int decodedCodePoint;
+    private int decodedLength;
+
+    public static MappedCharStream open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping remains valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCharStream(buffer, path.toString());
+        }
+    }
+
+    public MappedCharStream(ByteBuffer buffer, String sourceName) {
+        this.buffer = buffer;
+        this.sourceName = sourceName;
+        int bytes = buffer.limit();
+        int blocks = 1;
+        int chars = 0;
+        int[] startChars = new int[bytes / BLOCK_SIZE + 2];
+        int[] startBytes = new int[bytes / BLOCK_SIZE + 2];
+        int b = 0;
+        boolean ascii = true;
+        while (b < bytes) {
+            decode(b);
+            // malformed bytes decode to one char each, so counting chars is not enough to detect plain ASCII
+            if (decodedCodePoint >= 0x80) {
+                ascii = false;
+            }
+            int codePointChars = Character.charCount(decodedCodePoint);
+            // does this code point cover the first char of the next block?
+            if (((chars + codePointChars - 1) >>> BLOCK_BITS) >= blocks) {
+                startChars[blocks] = chars;
+                startBytes[blocks] = b;
+                blocks++;
+            }
+            chars += codePointChars;
+            b += decodedLength;
+        }
+        this.size = chars;
+        this.ascii = ascii;
+        this.blockStartChars = startChars;
+        this.blockStartBytes = startBytes;
+    }
+
+    /**
+     * Decode the code point starting at the given position. Malformed sequences produce a replacement character
+     * for each byte.
+     */
+    private void decode(int position) {
+        int b0 = buffer.get(position) & 0xFF;
+        if (b0 < 0x80) {
+            decodedCodePoint = b0;
+            decodedLength = 1;
+            return;
+        }
+        int length;
+        int codePoint;
+        int min;
+        if ((b0 & 0xE0) == 0xC0) {
+            length = 2;
+            codePoint = b0 & 0x1F;
+            min = 0x80;
+        } else if ((b0 & 0xF0) == 0xE0) {
+            length = 3;
+            codePoint = b0 & 0x0F;
+            min = 0x800;
+        } else if ((b0 & 0xF8) == 0xF0) {
+            length = 4;
+            codePoint = b0 & 0x07;
+            min = 0x10000;
+        } else {
+            malformed();
+            return;
+        }
+        if (position + length > buffer.limit()) {
+            malformed();
+            return;
+        }
+        for (int i = 1; i < length; i++) {
+            int b = buffer.get(position + i) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                malformed();
+                return;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            malformed();
+            return;
+        }
+        decodedCodePoint = codePoint;
+        decodedLength = length;
+    }
+
+    private void malformed() {
+        decodedCodePoint = REPLACEMENT_CHAR;
+        decodedLength = 1;
+    }
+
+    private char charAt(int i) {
+        if (ascii) {
+            return (char) buffer.get(i);
+        }
+        if (i < cursorChar || i - cursorChar >= BLOCK_SIZE) {
+            int block = i >>> BLOCK_BITS;
+            cursorChar = blockStartChars[block];
+            cursorByte = blockStartBytes[block];
+        }
+        while (true) {
+            decode(cursorByte);
+            if (decodedCodePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (i == cursorChar) {
+                    return (char) decodedCodePoint;
+                }
+                cursorChar++;
+            } else {
+                if (i == cursorChar) {
+                    return Character.highSurrogate(decodedCodePoint);
+                } else if (i == cursorChar + 1) {
+                    return Character.lowSurrogate(decodedCodePoint);
+                }
+                cursorChar += 2;
+            }
+            cursorByte += decodedLength;
+        }
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = interval.a;
+        int stop = Math.min(interval.b, size - 1);
+        if (start >= size || stop < start) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(stop - start + 1);
+        for (int i = start; i <= stop; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void consume() {
+        if (index >= size) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        index++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0; // undefined
+        }
+        int position = i < 0 ? index + i : index + i - 1;
+        if (position < 0 || position >= size) {
+            return IntStream.EOF;
+        }
+        return charAt(position);
+    }
+
+    @Override
+    public int mark() {
+        // the whole file is always available
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // nothing to do
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        this.index = Math.min(index, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+}
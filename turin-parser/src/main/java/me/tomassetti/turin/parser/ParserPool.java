@@ -0,0 +1,132 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinLexer;
+import me.tomassetti.parser.antlr.TurinParser;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Keeps lexers and parsers ready to be reused, so that parsing many files does not allocate a new
+ * ATN simulator each time.
+ *
+ * All the generated parsers share the same static DFA and PredictionContextCache: instances taken from the pool
+ * are used by a single thread at the time, while the shared DFA is filled while parsing. Warming up the DFA at
+ * startup reduces the contention on it when many files are parsed in parallel.
+ */
+public final class ParserPool {
+
+    private static final ParserPool INSTANCE = new ParserPool(Runtime.getRuntime().availableProcessors() * 2);
+
+    // Exercise the most common rules: expressions, types, functions, programs and string interpolation
+    private static final String WARM_UP_CODE = "namespace warmup\n\n" +
+            "import java.lang.String\n\n" +
+            "type Point {\n" +
+            "    int x : x > 0 | \"#{_name} should be positive, instead it is #{_}\"\n" +
+            "    int y\n" +
+            "    int sum(int a, int b) = a + b * x - y / 2\n" +
+            "    String describe() {\n" +
+            "        val s = \"#{x}, #{y}\"\n" +
+            "        return s.toUpperCase()\n" +
+            "    }\n" +
+            "}\n\n" +
+            "boolean inRange(int a) = a >= 0 and a < 10 or not (a == 20)\n\n" +
+            "program Main(String[] args) {\n" +
+            "    val p = Point(1, y=2)\n" +
+            "    print(\"#{args[0]}: #{p.sum(args.length, 3)}\")\n" +
+            "}\n";
+
+    private final Queue<PooledParser> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+
+    /**
+     * A lexer and a parser connected through a token stream.
+     */
+    static class PooledParser {
+        final TurinLexer lexer;
+        final TurinParser parser;
+        CommonTokenStream tokens;
+
+        private PooledParser() {
+            this.lexer = new TurinLexer(new ANTLRInputStream(""));
+            this.tokens = new CommonTokenStream(lexer);
+            this.parser = new TurinParser(tokens);
+        }
+
+        private void setInput(CharStream charStream) {
+            lexer.setInputStream(charStream);
+            // the token stream is cheap to create and it cannot be fully reset
+            tokens = new CommonTokenStream(lexer);
+            parser.setTokenStream(tokens);
+        }
+
+        private void release() {
+            // we do not want to keep the last file and its tokens in memory
+            setInput(new ANTLRInputStream(""));
+            parser.removeParseListeners();
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(ConsoleErrorListener.INSTANCE);
+        }
+    }
+
+    ParserPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public static ParserPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Run the given operation with a lexer and a parser ready to read the given input.
+     * They are given back to the pool afterwards, so they should not escape the operation.
+     */
+    <R> R withParser(CharStream charStream, Function<PooledParser, R> operation) {
+        PooledParser pooledParser = idle.poll();
+        if (pooledParser == null) {
+            pooledParser = new PooledParser();
+        } else {
+            idleCount.decrementAndGet();
+        }
+        pooledParser.setInput(charStream);
+        try {
+            return operation.apply(pooledParser);
+        } finally {
+            pooledParser.release();
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                idle.offer(pooledParser);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Parse some representative code so that the shared DFA is populated before the real files are parsed.
+     */
+    public void warmUp() {
+        new InternalParser(this).produceParseTree(new ANTLRInputStream(WARM_UP_CODE));
+    }
+
+    /**
+     * Discard the DFA shared by all the parsers. It can be used to release the memory after parsing many files.
+     */
+    public void clearDFA() {
+        withParser(new ANTLRInputStream(""), (p) -> {
+            p.parser.getInterpreter().clearDFA();
+            return null;
+        });
+    }
+
+    int getIdleCount() {
+        return idleCount.get();
+    }
+
+}
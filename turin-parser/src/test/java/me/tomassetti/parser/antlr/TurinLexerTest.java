@@ -183,8 +183,8 @@ public class TurinLexerTest {
 
     @Test
     public void parseModifierKeywords() throws IOException {
-        String code = "abstract shared";
-        verify(code, TurinLexer.ABSTRACT_KW, TurinLexer.SHARED_KW);
+        String code = "abstract shared immutable";
+        verify(code, TurinLexer.ABSTRACT_KW, TurinLexer.SHARED_KW, TurinLexer.IMMUTABLE_KW);
     }
 
     @Test
@@ -3,12 +3,15 @@ package me.tomassetti.parser.antlr;
 import me.tomassetti.turin.parser.InternalParser;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TurinParserTest {
 
@@ -160,4 +163,26 @@ public class TurinParserTest {
         TurinParser.TurinFileContext root = parse("context_usage");
     }
 
+    @Test
+    public void parseValidFileUsingOnlySll() throws IOException {
+        long sllParses = InternalParser.getSllParses();
+        long llFallbacks = InternalParser.getLlFallbacks();
+        parse("function_definitions_expression");
+        assertEquals(sllParses + 1, InternalParser.getSllParses());
+        assertEquals(llFallbacks, InternalParser.getLlFallbacks());
+    }
+
+    @Test
+    public void syntaxErrorsAreReportedAfterFallingBackToLl() throws IOException {
+        long llFallbacks = InternalParser.getLlFallbacks();
+        InputStream inputStream = new ByteArrayInputStream("namespace foo\n\ntype {".getBytes(StandardCharsets.UTF_8));
+        try {
+            new InternalParser().produceParseTree(inputStream);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(llFallbacks + 1, InternalParser.getLlFallbacks());
+    }
+
 }
@@ -0,0 +1,84 @@
+package me.tomassetti.turin.parser;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedCharStreamTest {
+
+    private void assertSameContent(String text) {
+        CharStream expected = new ANTLRInputStream(text);
+        CharStream actual = new MappedCharStream(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), "test");
+        assertEquals(expected.size(), actual.size());
+        while (expected.LA(1) != IntStream.EOF) {
+            assertEquals(expected.LA(1), actual.LA(1));
+            expected.consume();
+            actual.consume();
+        }
+        assertEquals(IntStream.EOF, actual.LA(1));
+        assertEquals(expected.LA(-1), actual.LA(-1));
+        // going back and reading ranges
+        for (int i = expected.size() - 1; i >= 0; i -= 7) {
+            expected.seek(i);
+            actual.seek(i);
+            assertEquals(expected.LA(1), actual.LA(1));
+            Interval interval = Interval.of(i / 2, i);
+            assertEquals(expected.getText(interval), actual.getText(interval));
+        }
+    }
+
+    @Test
+    public void asciiContent() {
+        assertSameContent("namespace foo\n\nint sum(int a, int b) = a + b\n");
+    }
+
+    @Test
+    public void multiByteContent() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            sb.append("val s").append(i).append(" = \"àèì € 😀\"\n");
+        }
+        assertSameContent(sb.toString());
+    }
+
+    @Test
+    public void emptyContent() {
+        assertSameContent("");
+    }
+
+    @Test
+    public void mapFile() throws IOException {
+        Path path = Files.createTempFile("turin", ".to");
+        try {
+            Files.write(path, "namespace caffè".getBytes(StandardCharsets.UTF_8));
+            MappedCharStream charStream = MappedCharStream.open(path);
+            assertEquals(15, charStream.size());
+            assertEquals("caffè", charStream.getText(Interval.of(10, 14)));
+            assertEquals(path.toString(), charStream.getSourceName());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void malformedBytesAreReplaced() {
+        // each malformed byte becomes a replacement char, so there are as many chars as bytes
+        byte[] bytes = new byte[]{'a', (byte) 0xFF, 'b', (byte) 0x80, 'c'};
+        CharStream charStream = new MappedCharStream(ByteBuffer.wrap(bytes), "test");
+        assertEquals(5, charStream.size());
+        assertEquals("a\uFFFDb\uFFFDc", charStream.getText(Interval.of(0, 4)));
+        charStream.consume();
+        assertEquals(0xFFFD, charStream.LA(1));
+    }
+
+}
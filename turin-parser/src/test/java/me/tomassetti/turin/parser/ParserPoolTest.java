@@ -0,0 +1,71 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinParser;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParserPoolTest {
+
+    private String read(String exampleName) throws IOException {
+        InputStream inputStream = this.getClass().getResourceAsStream("/me/tomassetti/turin/" + exampleName + ".to");
+        ANTLRInputStream charStream = new ANTLRInputStream(inputStream);
+        return charStream.getText(Interval.of(0, charStream.size() - 1));
+    }
+
+    @Test
+    public void warmUpParsesTheSampleCode() {
+        new ParserPool(1).warmUp();
+    }
+
+    @Test
+    public void parsersAreReused() throws IOException {
+        ParserPool parserPool = new ParserPool(1);
+        InternalParser internalParser = new InternalParser(parserPool);
+        TurinParser.TurinFileContext first = internalParser.produceParseTree(new ANTLRInputStream(read("imports_example")));
+        TurinParser.TurinFileContext second = internalParser.produceParseTree(new ANTLRInputStream(read("method_definitions_block")));
+        assertEquals(1, parserPool.getIdleCount());
+        // trees produced before reusing the parser are not affected
+        assertEquals(5, first.importDeclaration().size());
+        assertEquals("foo", second.namespace.name.getText());
+    }
+
+    @Test
+    public void parsingInParallelProducesTheSameTrees() throws Exception {
+        String[] examples = new String[]{"imports_example", "method_definitions_block", "field_constraint", "string_interp1", "explicit_constructor"};
+        List<String> codes = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (String example : examples) {
+            String code = read(example);
+            codes.add(code);
+            expected.add(new InternalParser(new ParserPool(0)).produceParseTree(new ANTLRInputStream(code)).toStringTree());
+        }
+
+        ParserPool parserPool = new ParserPool(2);
+        parserPool.warmUp();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String code = codes.get(i % codes.size());
+                results.add(executor.submit(() -> new InternalParser(parserPool).produceParseTree(new ANTLRInputStream(code)).toStringTree()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(expected.get(i % codes.size()), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(parserPool.getIdleCount() <= 2);
+    }
+
+}